@@ -0,0 +1,150 @@
+package com.unihub.backend;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Carga HTTP com N clientes simultâneos em laço fechado contra um backend já em execução,
+ * para comparar o modo de threads de plataforma com o de threads virtuais:
+ *
+ * <pre>
+ * SPRING_THREADS_VIRTUAL_ENABLED=false gradle bootRun
+ * gradle carga -Pcarga.token=... -Pcarga.resultado=plataforma
+ * SPRING_THREADS_VIRTUAL_ENABLED=true gradle bootRun
+ * gradle carga -Pcarga.token=... -Pcarga.resultado=virtual
+ * </pre>
+ *
+ * Cada cliente espera a resposta antes de mandar a próxima requisição; o aquecimento não
+ * entra nas contas. O alvo padrão ({@code /api/notificacoes/nao-lidas}) passa pelo filtro de
+ * token e por uma consulta JDBC, como a maioria dos endpoints.
+ */
+public final class CargaHttp {
+
+    private CargaHttp() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        String url = propriedade("carga.url", "http://localhost:8080/api/notificacoes/nao-lidas");
+        String token = propriedade("carga.token", "");
+        int clientes = Integer.parseInt(propriedade("carga.clientes", "1000"));
+        Duration aquecimento = Duration.ofSeconds(Long.parseLong(propriedade("carga.aquecimento-s", "15")));
+        Duration duracao = Duration.ofSeconds(Long.parseLong(propriedade("carga.duracao-s", "60")));
+        Path saida = Path.of(propriedade("carga.saida", "build/reports/carga/resultado.json"));
+
+        HttpClient cliente = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        HttpRequest.Builder modelo = HttpRequest.newBuilder(URI.create(url))
+                .timeout(Duration.ofSeconds(30))
+                .GET();
+        if (!token.isBlank()) {
+            modelo.header("Authorization", "Bearer " + token);
+        }
+        HttpRequest requisicao = modelo.build();
+
+        long inicioMedicao = System.nanoTime() + aquecimento.toNanos();
+        long fim = inicioMedicao + duracao.toNanos();
+        AtomicLong sucessos = new AtomicLong();
+        AtomicLong erros = new AtomicLong();
+        ConcurrentLinkedQueue<long[]> latenciasPorCliente = new ConcurrentLinkedQueue<>();
+        CountDownLatch terminados = new CountDownLatch(clientes);
+
+        System.out.printf("%d clientes contra %s (aquecimento %ds, medição %ds)%n",
+                clientes, url, aquecimento.toSeconds(), duracao.toSeconds());
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < clientes; i++) {
+                executor.submit(() -> {
+                    long[] latencias = new long[1024];
+                    int total = 0;
+                    try {
+                        while (true) {
+                            long antes = System.nanoTime();
+                            if (antes >= fim) {
+                                break;
+                            }
+                            boolean ok;
+                            try {
+                                HttpResponse<Void> resposta = cliente.send(requisicao,
+                                        HttpResponse.BodyHandlers.discarding());
+                                ok = resposta.statusCode() < 400;
+                            } catch (IOException ex) {
+                                ok = false;
+                            }
+                            long depois = System.nanoTime();
+                            if (antes < inicioMedicao || depois > fim) {
+                                continue;
+                            }
+                            if (!ok) {
+                                erros.incrementAndGet();
+                                continue;
+                            }
+                            sucessos.incrementAndGet();
+                            if (total == latencias.length) {
+                                latencias = Arrays.copyOf(latencias, total * 2);
+                            }
+                            latencias[total++] = depois - antes;
+                        }
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        latenciasPorCliente.add(Arrays.copyOf(latencias, total));
+                        terminados.countDown();
+                    }
+                });
+            }
+            terminados.await();
+        }
+
+        long[] todas = latenciasPorCliente.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+        double segundos = duracao.toNanos() / 1e9;
+        double vazao = sucessos.get() / segundos;
+        List<String> linhas = new ArrayList<>();
+        linhas.add(String.format(Locale.ROOT, "\"url\": \"%s\"", url));
+        linhas.add(String.format(Locale.ROOT, "\"clientes\": %d", clientes));
+        linhas.add(String.format(Locale.ROOT, "\"duracaoSegundos\": %.0f", segundos));
+        linhas.add(String.format(Locale.ROOT, "\"sucessos\": %d", sucessos.get()));
+        linhas.add(String.format(Locale.ROOT, "\"erros\": %d", erros.get()));
+        linhas.add(String.format(Locale.ROOT, "\"requisicoesPorSegundo\": %.1f", vazao));
+        linhas.add(String.format(Locale.ROOT, "\"p50Ms\": %.2f", percentil(todas, 0.50)));
+        linhas.add(String.format(Locale.ROOT, "\"p95Ms\": %.2f", percentil(todas, 0.95)));
+        linhas.add(String.format(Locale.ROOT, "\"p99Ms\": %.2f", percentil(todas, 0.99)));
+        linhas.add(String.format(Locale.ROOT, "\"maxMs\": %.2f", percentil(todas, 1.0)));
+        String json = "{\n  " + String.join(",\n  ", linhas) + "\n}\n";
+
+        System.out.print(json);
+        if (saida.getParent() != null) {
+            Files.createDirectories(saida.getParent());
+        }
+        Files.writeString(saida, json);
+    }
+
+    private static double percentil(long[] ordenadas, double fracao) {
+        if (ordenadas.length == 0) {
+            return 0;
+        }
+        int indice = (int) Math.ceil(fracao * ordenadas.length) - 1;
+        return ordenadas[Math.max(0, Math.min(indice, ordenadas.length - 1))] / 1e6;
+    }
+
+    private static String propriedade(String nome, String padrao) {
+        String valor = System.getProperty(nome);
+        return valor == null || valor.isBlank() ? padrao : valor;
+    }
+}
@@ -0,0 +1,100 @@
+package com.unihub.backend;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.unihub.backend.dto.planejamento.ColunaPlanejamentoDetalheResponse;
+import com.unihub.backend.dto.planejamento.QuadroPlanejamentoDetalhesResponse;
+import com.unihub.backend.dto.planejamento.TarefaPlanejamentoDetalheResponse;
+import com.unihub.backend.model.Disciplina;
+import com.unihub.backend.model.HorarioAula;
+import com.unihub.backend.model.enums.QuadroStatus;
+import com.unihub.backend.model.enums.TarefaStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialização com a mesma configuração base do ObjectMapper do Spring Boot.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JacksonSerializacaoBenchmark {
+
+    @Param({"3", "30"})
+    private int tarefasPorColuna;
+
+    private ObjectMapper objectMapper;
+    private Disciplina disciplina;
+    private QuadroPlanejamentoDetalhesResponse detalhes;
+
+    @Setup
+    public void preparar() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        disciplina = new Disciplina();
+        disciplina.setId(1L);
+        disciplina.setCodigo("INF-101");
+        disciplina.setNome("Algoritmos");
+        disciplina.setProfessor("Prof. Silva");
+        disciplina.setPeriodo("2025/1");
+        disciplina.setCargaHoraria(60);
+        disciplina.setQtdSemanas(18);
+        disciplina.setDataInicioSemestre(LocalDate.of(2025, 2, 17));
+        disciplina.setDataFimSemestre(LocalDate.of(2025, 6, 27));
+        disciplina.setEmailProfessor("silva@universidade.br");
+        disciplina.setAtiva(true);
+        List<HorarioAula> aulas = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            HorarioAula aula = new HorarioAula();
+            aula.setId((long) i);
+            aula.setDiaDaSemana("Dia " + i);
+            aula.setSala("Sala " + (100 + i));
+            aula.setHorarioInicio(480 + i * 60);
+            aula.setHorarioFim(570 + i * 60);
+            aula.setDisciplina(disciplina);
+            aulas.add(aula);
+        }
+        disciplina.setAulas(aulas);
+
+        List<ColunaPlanejamentoDetalheResponse> andamento = new ArrayList<>();
+        for (int c = 0; c < 3; c++) {
+            List<TarefaPlanejamentoDetalheResponse> tarefas = new ArrayList<>();
+            for (int t = 0; t < tarefasPorColuna; t++) {
+                tarefas.add(new TarefaPlanejamentoDetalheResponse((long) (c * 1000 + t), "Tarefa " + t,
+                        "Descrição da tarefa " + t, TarefaStatus.PENDENTE,
+                        LocalDateTime.of(2025, 5, 1 + t % 28, 18, 0), List.of(10L, 11L), "10,11"));
+            }
+            andamento.add(new ColunaPlanejamentoDetalheResponse((long) c, "Coluna " + c, "INICIADA", c + 1, tarefas));
+        }
+        detalhes = new QuadroPlanejamentoDetalhesResponse();
+        detalhes.setId(1L);
+        detalhes.setNome("TCC");
+        detalhes.setEstado(QuadroStatus.ATIVO);
+        detalhes.setDonoId(1L);
+        detalhes.setColunasEmAndamento(andamento);
+        detalhes.setColunasConcluidas(List.of());
+    }
+
+    @Benchmark
+    public byte[] serializarDisciplina() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(disciplina);
+    }
+
+    @Benchmark
+    public byte[] serializarDetalhesDoQuadro() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(detalhes);
+    }
+}
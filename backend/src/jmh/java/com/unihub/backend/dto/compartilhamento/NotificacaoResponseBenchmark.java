@@ -0,0 +1,40 @@
+package com.unihub.backend.dto.compartilhamento;
+
+import com.unihub.backend.model.Notificacao;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class NotificacaoResponseBenchmark {
+
+    private Notificacao notificacao;
+
+    @Setup
+    public void preparar() {
+        notificacao = new Notificacao();
+        notificacao.setId(1L);
+        notificacao.setTitulo("Tarefa atribuída");
+        notificacao.setMensagem("Você foi adicionado como responsável pela tarefa \"Resumo\".");
+        notificacao.setTipo("APP_NOTIFICACAO");
+        notificacao.setCategoria("TAREFA_ATRIBUIDA");
+        notificacao.setReferenciaId(42L);
+        notificacao.setMetadataJson("{\"quadroId\":7,\"tarefaId\":42}");
+        notificacao.setCriadaEm(LocalDateTime.of(2025, 5, 1, 10, 0));
+        notificacao.setAtualizadaEm(LocalDateTime.of(2025, 5, 1, 10, 0));
+    }
+
+    @Benchmark
+    public NotificacaoResponse fromEntity() {
+        return NotificacaoResponse.fromEntity(notificacao);
+    }
+}
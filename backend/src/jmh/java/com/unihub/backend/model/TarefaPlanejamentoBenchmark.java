@@ -0,0 +1,57 @@
+package com.unihub.backend.model;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TarefaPlanejamentoBenchmark {
+
+    @Param({"1", "10", "50"})
+    private int responsaveis;
+
+    private Set<Contato> contatos;
+    private TarefaPlanejamento tarefa;
+
+    @Setup
+    public void preparar() {
+        contatos = new LinkedHashSet<>();
+        for (int i = 0; i < responsaveis; i++) {
+            Contato contato = new Contato("Contato " + i, "contato" + i + "@teste.com");
+            contato.setId((long) i);
+            // Mistura os três caminhos de resolução: idContato, ownerId e id.
+            if (i % 3 == 0) {
+                contato.setIdContato(1000L + i);
+            } else if (i % 3 == 1) {
+                contato.setOwnerId(2000L + i);
+            }
+            contatos.add(contato);
+        }
+        tarefa = new TarefaPlanejamento();
+        tarefa.setResponsaveis(contatos);
+    }
+
+    @Benchmark
+    public List<Long> getResponsaveisIds() {
+        return tarefa.getResponsaveisIds();
+    }
+
+    // Passa por atualizarResponsaveisIds, que monta a coluna responsaveis_ids.
+    @Benchmark
+    public String setResponsaveis() {
+        tarefa.setResponsaveis(contatos);
+        return tarefa.getResponsaveisIdsRegistrados();
+    }
+}
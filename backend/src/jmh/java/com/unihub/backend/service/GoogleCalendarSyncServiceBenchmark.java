@@ -0,0 +1,57 @@
+package com.unihub.backend.service;
+
+import com.google.api.services.calendar.model.Event;
+import com.unihub.backend.model.Avaliacao;
+import com.unihub.backend.model.Contato;
+import com.unihub.backend.model.Disciplina;
+import com.unihub.backend.model.enums.EstadoAvaliacao;
+import com.unihub.backend.model.enums.Modalidade;
+import com.unihub.backend.model.enums.Prioridade;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class GoogleCalendarSyncServiceBenchmark {
+
+    private GoogleCalendarSyncService service;
+    private Avaliacao avaliacao;
+
+    @Setup
+    public void preparar() {
+        // buildEvent não usa os colaboradores.
+        service = new GoogleCalendarSyncService(null, null, null, null, new DriverManagerDataSource(), 1, 1, 50);
+
+        Disciplina disciplina = new Disciplina();
+        disciplina.setNome("Estruturas de Dados");
+
+        avaliacao = new Avaliacao();
+        avaliacao.setDescricao("Prova 2");
+        avaliacao.setDisciplina(disciplina);
+        avaliacao.setTipoAvaliacao("Prova");
+        avaliacao.setDataEntrega(LocalDateTime.of(2025, 6, 10, 19, 0));
+        avaliacao.setNota(8.5);
+        avaliacao.setPeso(0.4);
+        avaliacao.setPrioridade(Prioridade.ALTA);
+        avaliacao.setEstado(EstadoAvaliacao.A_REALIZAR);
+        avaliacao.setModalidade(Modalidade.EM_GRUPO);
+        for (int i = 0; i < 4; i++) {
+            avaliacao.addIntegrante(new Contato("Integrante " + i, "integrante" + i + "@teste.com"));
+        }
+    }
+
+    @Benchmark
+    public Event buildEvent() {
+        return service.buildEvent(avaliacao);
+    }
+}
@@ -0,0 +1,87 @@
+package com.unihub.backend.service;
+
+import com.unihub.backend.model.Contato;
+import com.unihub.backend.model.Grupo;
+import com.unihub.backend.model.Usuario;
+import com.unihub.backend.repository.ContatoRepository;
+import com.unihub.backend.repository.UsuarioRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class GrupoServiceBenchmark {
+
+    private static final long OWNER_ID = 1L;
+
+    @Param({"5", "50"})
+    private int membros;
+
+    private GrupoService service;
+    private Grupo grupo;
+    private Contato contatoDoOwner;
+    private Contato ultimoMembro;
+    private String emailUltimoMembro;
+
+    @Setup
+    public void preparar() {
+        Map<Long, Usuario> usuarios = new HashMap<>();
+        grupo = new Grupo("Grupo de estudos");
+        grupo.setOwnerId(OWNER_ID);
+
+        for (int i = 0; i < membros; i++) {
+            long usuarioId = OWNER_ID + i;
+            Usuario usuario = new Usuario();
+            usuario.setId(usuarioId);
+            usuario.setNomeUsuario("Membro " + i);
+            usuario.setEmail("membro" + i + "@teste.com");
+            usuarios.put(usuarioId, usuario);
+
+            Contato contato = new Contato(usuario.getNomeUsuario(), usuario.getEmail());
+            contato.setId(100L + i);
+            contato.setOwnerId(OWNER_ID);
+            contato.setIdContato(usuarioId);
+            contato.setPendente(false);
+            grupo.getMembros().add(contato);
+        }
+        contatoDoOwner = grupo.getMembros().get(0);
+        ultimoMembro = grupo.getMembros().get(membros - 1);
+        emailUltimoMembro = ultimoMembro.getEmail();
+
+        service = new GrupoService();
+        UsuarioRepository usuarioRepository = RepositorioEmMemoria.criar(UsuarioRepository.class, usuarios);
+        ContatoRepository contatoRepository = RepositorioEmMemoria.criar(ContatoRepository.class, Map.of());
+        RepositorioEmMemoria.injetar(service, "usuarioRepository", usuarioRepository);
+        RepositorioEmMemoria.injetar(service, "contatoRepository", contatoRepository);
+        RepositorioEmMemoria.injetar(service, "consultas",
+                new ConsultasDaRequisicao(usuarioRepository, contatoRepository, new SimpleMeterRegistry()));
+    }
+
+    @Benchmark
+    public Contato definirAdminContato() {
+        return service.definirAdminContato(grupo, contatoDoOwner, contatoDoOwner, false);
+    }
+
+    @Benchmark
+    public Contato definirAdminContatoComTransferencia() {
+        return service.definirAdminContato(grupo, ultimoMembro, ultimoMembro, true);
+    }
+
+    // Pior caso: o usuário só é encontrado no último membro, pelo e-mail.
+    @Benchmark
+    public boolean participaDoGrupo() {
+        return service.participaDoGrupo(grupo, -1L, emailUltimoMembro);
+    }
+}
@@ -0,0 +1,62 @@
+package com.unihub.backend.service;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Stubs mínimos de repositórios Spring Data para os benchmarks, sem banco nem Mockito
+ * (que distorceria as medições de alocação).
+ */
+final class RepositorioEmMemoria {
+
+    private RepositorioEmMemoria() {
+    }
+
+    /** {@code findById} responde a partir do mapa; os demais métodos devolvem vazio. */
+    @SuppressWarnings("unchecked")
+    static <R> R criar(Class<R> tipo, Map<Long, ?> porId) {
+        return (R) Proxy.newProxyInstance(tipo.getClassLoader(), new Class<?>[]{tipo}, (proxy, metodo, args) -> {
+            if (metodo.getDeclaringClass() == Object.class) {
+                return switch (metodo.getName()) {
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> tipo.getSimpleName() + "EmMemoria";
+                };
+            }
+            if ("findById".equals(metodo.getName())) {
+                return Optional.ofNullable(porId.get(args[0]));
+            }
+            Class<?> retorno = metodo.getReturnType();
+            if (retorno == Optional.class) {
+                return Optional.empty();
+            }
+            if (retorno == List.class) {
+                return List.of();
+            }
+            if (retorno == Set.class) {
+                return Set.of();
+            }
+            if (retorno == boolean.class) {
+                return false;
+            }
+            if (retorno == long.class) {
+                return 0L;
+            }
+            return null;
+        });
+    }
+
+    static void injetar(Object alvo, String campo, Object valor) {
+        try {
+            Field field = alvo.getClass().getDeclaredField(campo);
+            field.setAccessible(true);
+            field.set(alvo, valor);
+        } catch (ReflectiveOperationException ex) {
+            throw new IllegalStateException("Não foi possível injetar " + campo, ex);
+        }
+    }
+}
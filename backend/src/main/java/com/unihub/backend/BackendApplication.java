@@ -2,12 +2,18 @@ package com.unihub.backend;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class BackendApplication {
 
 	public static void main(String[] args) {
-		SpringApplication.run(BackendApplication.class, args);
+		SpringApplication aplicacao = new SpringApplication(BackendApplication.class);
+		// Guarda os passos da inicialização para o relatório do InicializacaoConfig e /actuator/startup.
+		aplicacao.setApplicationStartup(new BufferingApplicationStartup(10_000));
+		aplicacao.run(args);
 	}
 
 }
@@ -4,6 +4,7 @@ import com.unihub.backend.model.*;
 import com.unihub.backend.repository.*;
 import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import jakarta.persistence.EntityNotFoundException;
@@ -20,7 +21,13 @@ import com.unihub.backend.model.enums.QuadroStatus;
 import com.unihub.backend.model.enums.TarefaStatus;
 import com.unihub.backend.model.enums.EstadoAvaliacao;
 
+/**
+ * Dados de demonstração (usuários, disciplinas, quadros...). Cada item confere se já existe antes
+ * de inserir, o que custa algumas centenas de consultas por inicialização; desligue com
+ * {@code app.seed.enabled=false} (o perfil prod já faz isso).
+ */
 @Component
+@ConditionalOnProperty(name = "app.seed.enabled", havingValue = "true", matchIfMissing = true)
 public class DataInitializer {
 
     @Autowired
@@ -0,0 +1,65 @@
+package com.unihub.backend.config;
+
+import com.google.api.client.googleapis.auth.oauth2.GoogleIdTokenVerifier;
+import com.google.api.client.googleapis.auth.oauth2.GoogleOAuthConstants;
+import com.google.api.client.googleapis.auth.oauth2.GooglePublicKeysManager;
+import com.google.api.client.googleapis.javanet.GoogleNetHttpTransport;
+import com.google.api.client.http.HttpTransport;
+import com.google.api.client.json.JsonFactory;
+import com.google.api.client.json.gson.GsonFactory;
+import com.google.api.client.util.Clock;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.util.Collections;
+
+/**
+ * Clientes Google compartilhados pela aplicação.
+ *
+ * O transporte HTTP e o verificador de ID tokens são criados uma única vez; o
+ * {@link GooglePublicKeysManager} mantém os certificados públicos em memória e só os busca
+ * novamente quando vence o {@code Cache-Control: max-age} da última resposta. A URL dos
+ * certificados é configurável para apontar para um servidor local em testes.
+ */
+@Configuration
+public class GoogleClientConfig {
+
+    @Bean
+    public HttpTransport googleHttpTransport() throws GeneralSecurityException, IOException {
+        return GoogleNetHttpTransport.newTrustedTransport();
+    }
+
+    @Bean
+    public JsonFactory googleJsonFactory() {
+        return GsonFactory.getDefaultInstance();
+    }
+
+    @Bean
+    public GooglePublicKeysManager googlePublicKeysManager(
+            HttpTransport googleHttpTransport,
+            JsonFactory googleJsonFactory,
+            @Value("${google.oauth.public-certs-url:" + GoogleOAuthConstants.DEFAULT_PUBLIC_CERTS_ENCODED_URL + "}")
+            String publicCertsUrl) {
+        return googlePublicKeysManager(googleHttpTransport, googleJsonFactory, publicCertsUrl, Clock.SYSTEM);
+    }
+
+    // O relógio decide quando o max-age venceu; os testes o adiantam.
+    GooglePublicKeysManager googlePublicKeysManager(HttpTransport googleHttpTransport, JsonFactory googleJsonFactory,
+                                                    String publicCertsUrl, Clock clock) {
+        return new GooglePublicKeysManager.Builder(googleHttpTransport, googleJsonFactory)
+                .setPublicCertsEncodedUrl(publicCertsUrl)
+                .setClock(clock)
+                .build();
+    }
+
+    @Bean
+    public GoogleIdTokenVerifier googleIdTokenVerifier(GooglePublicKeysManager googlePublicKeysManager,
+                                                       @Value("${google.oauth.client-id}") String clientId) {
+        return new GoogleIdTokenVerifier.Builder(googlePublicKeysManager)
+                .setAudience(Collections.singletonList(clientId))
+                .build();
+    }
+}
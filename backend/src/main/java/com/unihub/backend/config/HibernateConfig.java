@@ -0,0 +1,57 @@
+package com.unihub.backend.config;
+
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+@Configuration
+public class HibernateConfig {
+
+    /**
+     * Registra os listeners do Hibernate na criação da SessionFactory, antes de qualquer
+     * repositório ser usado (inclusive pelo {@link DataInitializer}).
+     */
+    @Bean
+    public HibernatePropertiesCustomizer quadroAcessoListenerCustomizer() {
+        QuadroAcessoListener listener = new QuadroAcessoListener();
+        Integrator integrator = new Integrator() {
+            @Override
+            public void integrate(Metadata metadata, BootstrapContext bootstrapContext,
+                                  SessionFactoryImplementor sessionFactory) {
+                EventListenerRegistry registry = sessionFactory.getServiceRegistry()
+                        .getService(EventListenerRegistry.class);
+                registry.appendListeners(EventType.POST_INSERT, listener);
+                registry.appendListeners(EventType.POST_UPDATE, listener);
+                registry.appendListeners(EventType.POST_DELETE, listener);
+                registry.appendListeners(EventType.POST_COLLECTION_RECREATE, listener);
+                registry.appendListeners(EventType.POST_COLLECTION_UPDATE, listener);
+                registry.appendListeners(EventType.POST_COLLECTION_REMOVE, listener);
+            }
+
+            @Override
+            public void disintegrate(SessionFactoryImplementor sessionFactory,
+                                     SessionFactoryServiceRegistry serviceRegistry) {
+            }
+        };
+        return properties -> properties.put("hibernate.integrator_provider",
+                (IntegratorProvider) () -> List.of(integrator));
+    }
+
+    /** Tempo de JDBC por requisição para o log do {@link TokenFilter}. */
+    @Bean
+    public HibernatePropertiesCustomizer tempoBancoRequisicaoCustomizer() {
+        return properties -> properties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER,
+                TempoBancoRequisicao.class.getName());
+    }
+}
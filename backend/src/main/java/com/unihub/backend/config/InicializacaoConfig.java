@@ -0,0 +1,96 @@
+package com.unihub.backend.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.orm.jpa.AbstractEntityManagerFactoryBean;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Inicialização: o que continua ansioso com {@code spring.main.lazy-initialization=true} (perfil
+ * prod) e o relatório de onde foi o tempo de boot.
+ *
+ * O Flyway e a validação do Hibernate rodam antes da aplicação ficar pronta, para que uma instância
+ * com esquema incompatível falhe no deploy e não na primeira requisição. O diagnóstico de pinagem
+ * das threads virtuais também: ninguém depende dele, então preguiçoso ele nunca seria criado. Beans
+ * com {@code @Scheduled} já são excluídos pelo próprio Spring Boot.
+ */
+@Configuration
+public class InicializacaoConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(InicializacaoConfig.class);
+
+    @Bean
+    public static LazyInitializationExcludeFilter bancoDeDadosNaInicializacao() {
+        return LazyInitializationExcludeFilter.forBeanTypes(
+                AbstractEntityManagerFactoryBean.class, EntityManagerFactory.class,
+                ThreadsVirtuaisConfig.DiagnosticoPinagem.class);
+    }
+
+    /**
+     * Ao ficar pronta, registra no log o tempo total e os passos mais demorados (tempo próprio,
+     * sem contar os passos filhos). Só há passos quando a aplicação sobe com
+     * {@link BufferingApplicationStartup}, como faz o {@code BackendApplication}; o mesmo
+     * histórico fica em {@code /actuator/startup} quando o endpoint é exposto.
+     */
+    @Bean
+    public ApplicationListener<ApplicationReadyEvent> relatorioInicializacao(
+            @Value("${app.inicializacao.relatorio.passos:15}") int passos) {
+        return evento -> {
+            Duration total = evento.getTimeTaken();
+            if (passos <= 0
+                    || !(evento.getApplicationContext().getApplicationStartup() instanceof BufferingApplicationStartup buffer)) {
+                log.info("Inicialização concluída em {} ms", total.toMillis());
+                return;
+            }
+            List<StartupTimeline.TimelineEvent> eventos = buffer.getBufferedTimeline().getEvents();
+            log.info("Inicialização concluída em {} ms ({} passos registrados); mais demorados:\n{}",
+                    total.toMillis(), eventos.size(), passosMaisDemorados(eventos, passos));
+        };
+    }
+
+    static String passosMaisDemorados(List<StartupTimeline.TimelineEvent> eventos, int limite) {
+        Map<Long, Long> filhosNanos = new HashMap<>();
+        for (StartupTimeline.TimelineEvent evento : eventos) {
+            Long pai = evento.getStartupStep().getParentId();
+            if (pai != null) {
+                filhosNanos.merge(pai, evento.getDuration().toNanos(), Long::sum);
+            }
+        }
+        StringBuilder relatorio = new StringBuilder();
+        eventos.stream()
+                .map(evento -> new PassoMedido(descrever(evento.getStartupStep()), evento.getDuration().toNanos()
+                        - filhosNanos.getOrDefault(evento.getStartupStep().getId(), 0L)))
+                .sorted((a, b) -> Long.compare(b.proprioNanos(), a.proprioNanos()))
+                .limit(limite)
+                .forEach(passo -> relatorio.append(String.format("  %6d ms  %s%n",
+                        Duration.ofNanos(passo.proprioNanos()).toMillis(), passo.descricao())));
+        return relatorio.toString();
+    }
+
+    private static String descrever(StartupStep passo) {
+        StringBuilder descricao = new StringBuilder(passo.getName());
+        for (StartupStep.Tag tag : passo.getTags()) {
+            if ("beanName".equals(tag.getKey()) || "repository".equals(tag.getKey())) {
+                descricao.append(' ').append(tag.getValue());
+            }
+        }
+        return descricao.toString();
+    }
+
+    private record PassoMedido(String descricao, long proprioNanos) {
+    }
+}
@@ -0,0 +1,32 @@
+package com.unihub.backend.config;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Popula {@code quadro_acesso} quando o banco já tem quadros mas o índice está vazio
+ * (por exemplo, logo após a criação da tabela num banco existente).
+ */
+@Component
+public class QuadroAcessoInicializador {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void popularSeVazio() {
+        Number acessos = (Number) entityManager
+                .createNativeQuery("SELECT COUNT(*) FROM quadro_acesso")
+                .getSingleResult();
+        if (acessos.longValue() > 0) {
+            return;
+        }
+        entityManager.unwrap(Session.class).doWork(QuadroAcessoListener::reconstruirTudo);
+    }
+}
@@ -0,0 +1,433 @@
+package com.unihub.backend.config;
+
+import com.unihub.backend.model.ColunaPlanejamento;
+import com.unihub.backend.model.Contato;
+import com.unihub.backend.model.Grupo;
+import com.unihub.backend.model.QuadroPlanejamento;
+import com.unihub.backend.model.TarefaPlanejamento;
+import com.unihub.backend.model.Usuario;
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
+import org.hibernate.action.spi.BeforeTransactionCompletionProcess;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.event.spi.AbstractCollectionEvent;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.PostCollectionRecreateEvent;
+import org.hibernate.event.spi.PostCollectionRecreateEventListener;
+import org.hibernate.event.spi.PostCollectionRemoveEvent;
+import org.hibernate.event.spi.PostCollectionRemoveEventListener;
+import org.hibernate.event.spi.PostCollectionUpdateEvent;
+import org.hibernate.event.spi.PostCollectionUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Mantém a tabela {@code quadro_acesso} em dia com quadros, contatos, membros de grupo e
+ * responsáveis de tarefas.
+ *
+ * Durante o flush apenas anota o que mudou; antes do commit (depois do último flush) resolve
+ * os quadros afetados e recalcula as linhas deles na mesma conexão, com SQL set-based.
+ * As regras reproduzem a antiga consulta com joins em contato, grupo.membros e responsáveis.
+ *
+ * Só entra o que muda o acesso: dono, contato ou grupo do quadro, coluna trocando de quadro e
+ * tarefa trocando de quadro (mover entre colunas do mesmo quadro não conta). O recálculo trava
+ * as linhas dos quadros em {@code quadros_planejamento}, para que duas transações recalculando o
+ * mesmo quadro não colidam na chave de {@code quadro_acesso}.
+ */
+public class QuadroAcessoListener implements PostInsertEventListener, PostUpdateEventListener,
+        PostDeleteEventListener, PostCollectionRecreateEventListener, PostCollectionUpdateEventListener,
+        PostCollectionRemoveEventListener {
+
+    private static final int LOTE = 200;
+
+    private static final String SQL_ACESSOS = """
+            SELECT DISTINCT acesso.usuario_id, acesso.quadro_id, acesso.motivo FROM (
+                SELECT q.usuario_id AS usuario_id, q.id AS quadro_id, 'DONO' AS motivo
+                  FROM quadros_planejamento q
+                 WHERE q.id IN (%1$s)
+                UNION ALL
+                SELECT c.id_contato, q.id, 'CONTATO'
+                  FROM quadros_planejamento q
+                  JOIN contato c ON c.id_contato = q.contato_id
+                 WHERE q.id IN (%1$s)
+                UNION ALL
+                SELECT c.owner_id, q.id, 'CONTATO'
+                  FROM quadros_planejamento q
+                  JOIN contato c ON c.id_contato = q.contato_id
+                 WHERE q.id IN (%1$s)
+                UNION ALL
+                SELECT c.id_contato, q.id, 'GRUPO'
+                  FROM quadros_planejamento q
+                  JOIN grupo_membros_contato gm ON gm.grupo_id = q.grupo_id
+                  JOIN contato c ON c.id_contato = gm.id_contato
+                 WHERE q.id IN (%1$s)
+                UNION ALL
+                SELECT c.owner_id, q.id, 'GRUPO'
+                  FROM quadros_planejamento q
+                  JOIN grupo_membros_contato gm ON gm.grupo_id = q.grupo_id
+                  JOIN contato c ON c.id_contato = gm.id_contato
+                 WHERE q.id IN (%1$s)
+                UNION ALL
+                SELECT c.id_contato, col.quadro_id, 'RESPONSAVEL'
+                  FROM colunas_planejamento col
+                  JOIN tarefas_planejamento t ON t.coluna_id = col.id
+                  JOIN tarefas_planejamento_responsaveis r ON r.tarefa_id = t.id
+                  JOIN contato c ON c.id = r.contato_id
+                 WHERE col.quadro_id IN (%1$s)
+                UNION ALL
+                SELECT c.owner_id, col.quadro_id, 'RESPONSAVEL'
+                  FROM colunas_planejamento col
+                  JOIN tarefas_planejamento t ON t.coluna_id = col.id
+                  JOIN tarefas_planejamento_responsaveis r ON r.tarefa_id = t.id
+                  JOIN contato c ON c.id = r.contato_id
+                 WHERE col.quadro_id IN (%1$s)
+            ) acesso
+            WHERE acesso.usuario_id IS NOT NULL
+            """;
+
+    private static final int OCORRENCIAS_POR_LOTE = 7;
+
+    private final Map<SharedSessionContractImplementor, Pendencias> pendenciasPorSessao = new ConcurrentHashMap<>();
+
+    /** O que mudou na transação atual e ainda precisa ser refletido em {@code quadro_acesso}. */
+    private static final class Pendencias {
+        final Set<Long> quadroIds = new LinkedHashSet<>();
+        final Set<Long> colunaIds = new LinkedHashSet<>();
+        final Set<Long> grupoIds = new LinkedHashSet<>();
+        final Set<Long> contatoIds = new LinkedHashSet<>();
+        final Set<Long> usuariosContato = new LinkedHashSet<>();
+        final List<Movimento> movimentos = new ArrayList<>();
+    }
+
+    /** Tarefa que trocou de coluna; só pesa se as colunas forem de quadros diferentes. */
+    private record Movimento(Long colunaAnterior, Long colunaNova) {
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        Object entidade = event.getEntity();
+        if (entidade instanceof QuadroPlanejamento quadro) {
+            adicionar(pendencias(event.getSession()).quadroIds, quadro.getId());
+        } else if (entidade instanceof Contato contato && contato.getIdContato() != null) {
+            adicionar(pendencias(event.getSession()).usuariosContato, contato.getIdContato());
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        Object entidade = event.getEntity();
+        if (entidade instanceof QuadroPlanejamento quadro) {
+            if (alterou(event, "usuario") || alterou(event, "contato") || alterou(event, "grupo")) {
+                adicionar(pendencias(event.getSession()).quadroIds, quadro.getId());
+            }
+        } else if (entidade instanceof ColunaPlanejamento coluna) {
+            if (alterou(event, "quadro")) {
+                Pendencias pendencias = pendencias(event.getSession());
+                adicionar(pendencias.colunaIds, coluna.getId());
+                adicionar(pendencias.quadroIds, idAnterior(event, "quadro"));
+            }
+        } else if (entidade instanceof TarefaPlanejamento tarefa) {
+            if (alterou(event, "coluna")) {
+                Long colunaNova = tarefa.getColuna() != null ? tarefa.getColuna().getId() : null;
+                Long colunaAnterior = idAnterior(event, "coluna");
+                Pendencias pendencias = pendencias(event.getSession());
+                if (colunaNova != null && colunaAnterior != null) {
+                    pendencias.movimentos.add(new Movimento(colunaAnterior, colunaNova));
+                } else {
+                    adicionar(pendencias.colunaIds, colunaNova);
+                    adicionar(pendencias.colunaIds, colunaAnterior);
+                }
+            }
+        } else if (entidade instanceof Contato contato) {
+            if (alterou(event, "idContato") || alterou(event, "ownerId")) {
+                Pendencias pendencias = pendencias(event.getSession());
+                adicionar(pendencias.contatoIds, contato.getId());
+                adicionar(pendencias.usuariosContato, contato.getIdContato());
+                adicionar(pendencias.usuariosContato, (Long) valorAnterior(event, "idContato"));
+            }
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        Object entidade = event.getEntity();
+        if (entidade instanceof QuadroPlanejamento quadro) {
+            adicionar(pendencias(event.getSession()).quadroIds, quadro.getId());
+        } else if (entidade instanceof ColunaPlanejamento coluna) {
+            adicionar(pendencias(event.getSession()).quadroIds,
+                    coluna.getQuadro() != null ? coluna.getQuadro().getId() : null);
+        } else if (entidade instanceof TarefaPlanejamento tarefa) {
+            adicionar(pendencias(event.getSession()).colunaIds,
+                    tarefa.getColuna() != null ? tarefa.getColuna().getId() : null);
+        } else if (entidade instanceof Grupo grupo) {
+            adicionar(pendencias(event.getSession()).grupoIds, grupo.getId());
+        } else if (entidade instanceof Contato contato) {
+            Pendencias pendencias = pendencias(event.getSession());
+            adicionar(pendencias.contatoIds, contato.getId());
+            adicionar(pendencias.usuariosContato, contato.getIdContato());
+        }
+    }
+
+    @Override
+    public void onPostRecreateCollection(PostCollectionRecreateEvent event) {
+        registrarColecao(event);
+    }
+
+    @Override
+    public void onPostUpdateCollection(PostCollectionUpdateEvent event) {
+        registrarColecao(event);
+    }
+
+    @Override
+    public void onPostRemoveCollection(PostCollectionRemoveEvent event) {
+        registrarColecao(event);
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    private void registrarColecao(AbstractCollectionEvent event) {
+        Object dono = event.getAffectedOwnerOrNull();
+        if (dono instanceof Grupo grupo) {
+            adicionar(pendencias(event.getSession()).grupoIds, grupo.getId());
+        } else if (dono instanceof TarefaPlanejamento tarefa) {
+            adicionar(pendencias(event.getSession()).colunaIds,
+                    tarefa.getColuna() != null ? tarefa.getColuna().getId() : null);
+        }
+    }
+
+    private Pendencias pendencias(EventSource sessao) {
+        return pendenciasPorSessao.computeIfAbsent(sessao, chave -> {
+            Pendencias novas = new Pendencias();
+            sessao.getActionQueue().registerProcess((BeforeTransactionCompletionProcess) session -> aplicar(session));
+            sessao.getActionQueue().registerProcess(
+                    (AfterTransactionCompletionProcess) (sucesso, session) -> pendenciasPorSessao.remove(session));
+            return novas;
+        });
+    }
+
+    private void aplicar(SessionImplementor sessao) {
+        Pendencias pendencias = pendenciasPorSessao.remove(sessao);
+        if (pendencias == null) {
+            return;
+        }
+        sessao.doWork(conexao -> reconstruir(conexao, resolverQuadros(conexao, pendencias)));
+    }
+
+    private Set<Long> resolverQuadros(Connection conexao, Pendencias pendencias) throws SQLException {
+        Set<Long> quadros = new LinkedHashSet<>(pendencias.quadroIds);
+        quadros.addAll(consultarIds(conexao,
+                "SELECT col.quadro_id FROM colunas_planejamento col WHERE col.id IN (%s)",
+                pendencias.colunaIds));
+        quadros.addAll(consultarIds(conexao,
+                "SELECT q.id FROM quadros_planejamento q WHERE q.grupo_id IN (%s)",
+                pendencias.grupoIds));
+        quadros.addAll(consultarIds(conexao,
+                "SELECT q.id FROM quadros_planejamento q WHERE q.contato_id IN (%s)",
+                pendencias.usuariosContato));
+        quadros.addAll(consultarIds(conexao,
+                "SELECT q.id FROM quadros_planejamento q "
+                        + "JOIN grupo_membros_contato gm ON gm.grupo_id = q.grupo_id WHERE gm.id_contato IN (%s)",
+                pendencias.usuariosContato));
+        quadros.addAll(consultarIds(conexao,
+                "SELECT col.quadro_id FROM colunas_planejamento col "
+                        + "JOIN tarefas_planejamento t ON t.coluna_id = col.id "
+                        + "JOIN tarefas_planejamento_responsaveis r ON r.tarefa_id = t.id WHERE r.contato_id IN (%s)",
+                pendencias.contatoIds));
+        quadros.addAll(quadrosDeMovimentos(conexao, pendencias.movimentos));
+        return quadros;
+    }
+
+    private Set<Long> quadrosDeMovimentos(Connection conexao, List<Movimento> movimentos) throws SQLException {
+        if (movimentos.isEmpty()) {
+            return Collections.emptySet();
+        }
+        Set<Long> colunas = new LinkedHashSet<>();
+        movimentos.forEach(movimento -> {
+            colunas.add(movimento.colunaAnterior());
+            colunas.add(movimento.colunaNova());
+        });
+        Map<Long, Long> quadroDaColuna = new HashMap<>();
+        for (List<Long> lote : lotes(colunas)) {
+            try (PreparedStatement statement = conexao.prepareStatement(
+                    "SELECT col.id, col.quadro_id FROM colunas_planejamento col WHERE col.id IN ("
+                            + marcadores(lote.size()) + ")")) {
+                preencher(statement, lote, 1);
+                try (ResultSet resultado = statement.executeQuery()) {
+                    while (resultado.next()) {
+                        quadroDaColuna.put(resultado.getLong(1), resultado.getLong(2));
+                    }
+                }
+            }
+        }
+        // Coluna que não existe mais já trouxe o quadro dela pelo próprio delete.
+        Set<Long> quadros = new LinkedHashSet<>();
+        for (Movimento movimento : movimentos) {
+            Long anterior = quadroDaColuna.get(movimento.colunaAnterior());
+            Long novo = quadroDaColuna.get(movimento.colunaNova());
+            if (!Objects.equals(anterior, novo)) {
+                adicionar(quadros, anterior);
+                adicionar(quadros, novo);
+            }
+        }
+        return quadros;
+    }
+
+    /** Recalcula as linhas de acesso dos quadros informados (quadros removidos ficam sem linhas). */
+    public static void reconstruir(Connection conexao, Collection<Long> quadroIds) throws SQLException {
+        for (List<Long> lote : lotes(quadroIds)) {
+            String marcadores = marcadores(lote.size());
+            // Em ordem de id (ver lotes), para duas transações não travarem em ordens opostas.
+            try (PreparedStatement trava = conexao.prepareStatement(
+                    "SELECT id FROM quadros_planejamento WHERE id IN (" + marcadores + ") ORDER BY id FOR UPDATE")) {
+                preencher(trava, lote, 1);
+                trava.executeQuery().close();
+            }
+            try (PreparedStatement delete = conexao.prepareStatement(
+                    "DELETE FROM quadro_acesso WHERE quadro_id IN (" + marcadores + ")")) {
+                preencher(delete, lote, 1);
+                delete.executeUpdate();
+            }
+            String insert = "INSERT INTO quadro_acesso (usuario_id, quadro_id, motivo) "
+                    + String.format(SQL_ACESSOS, marcadores);
+            try (PreparedStatement statement = conexao.prepareStatement(insert)) {
+                preencher(statement, lote, OCORRENCIAS_POR_LOTE);
+                statement.executeUpdate();
+            }
+        }
+    }
+
+    /** Recalcula o índice inteiro; usado para popular bancos que já tinham quadros. */
+    public static void reconstruirTudo(Connection conexao) throws SQLException {
+        List<Long> todos = new ArrayList<>();
+        try (PreparedStatement statement = conexao.prepareStatement("SELECT id FROM quadros_planejamento");
+             ResultSet resultado = statement.executeQuery()) {
+            while (resultado.next()) {
+                todos.add(resultado.getLong(1));
+            }
+        }
+        reconstruir(conexao, todos);
+    }
+
+    private static Set<Long> consultarIds(Connection conexao, String sql, Collection<Long> parametros)
+            throws SQLException {
+        if (parametros.isEmpty()) {
+            return Collections.emptySet();
+        }
+        Set<Long> ids = new LinkedHashSet<>();
+        for (List<Long> lote : lotes(parametros)) {
+            try (PreparedStatement statement = conexao.prepareStatement(String.format(sql, marcadores(lote.size())))) {
+                preencher(statement, lote, 1);
+                try (ResultSet resultado = statement.executeQuery()) {
+                    while (resultado.next()) {
+                        long id = resultado.getLong(1);
+                        if (!resultado.wasNull()) {
+                            ids.add(id);
+                        }
+                    }
+                }
+            }
+        }
+        return ids;
+    }
+
+    private static List<List<Long>> lotes(Collection<Long> ids) {
+        List<Long> lista = ids.stream().filter(Objects::nonNull).distinct().sorted().toList();
+        List<List<Long>> lotes = new ArrayList<>();
+        for (int inicio = 0; inicio < lista.size(); inicio += LOTE) {
+            lotes.add(lista.subList(inicio, Math.min(lista.size(), inicio + LOTE)));
+        }
+        return lotes;
+    }
+
+    private static String marcadores(int quantidade) {
+        return String.join(",", Collections.nCopies(quantidade, "?"));
+    }
+
+    private static void preencher(PreparedStatement statement, List<Long> ids, int repeticoes) throws SQLException {
+        int indice = 1;
+        for (int i = 0; i < repeticoes; i++) {
+            for (Long id : ids) {
+                statement.setLong(indice++, id);
+            }
+        }
+    }
+
+    private static void adicionar(Set<Long> destino, Long id) {
+        if (id != null) {
+            destino.add(id);
+        }
+    }
+
+    private static boolean alterou(PostUpdateEvent event, String propriedade) {
+        int indice = indicePropriedade(event, propriedade);
+        if (indice < 0 || event.getOldState() == null) {
+            return true;
+        }
+        return !Objects.equals(identificador(event.getOldState()[indice]), identificador(event.getState()[indice]));
+    }
+
+    private static Object valorAnterior(PostUpdateEvent event, String propriedade) {
+        int indice = indicePropriedade(event, propriedade);
+        if (indice < 0 || event.getOldState() == null) {
+            return null;
+        }
+        return event.getOldState()[indice];
+    }
+
+    private static Long idAnterior(PostUpdateEvent event, String propriedade) {
+        Object anterior = identificador(valorAnterior(event, propriedade));
+        return anterior instanceof Long id ? id : null;
+    }
+
+    private static Object identificador(Object valor) {
+        if (valor instanceof QuadroPlanejamento quadro) {
+            return quadro.getId();
+        }
+        if (valor instanceof Usuario usuario) {
+            return usuario.getId();
+        }
+        if (valor instanceof Contato contato) {
+            return contato.getIdContato();
+        }
+        if (valor instanceof Grupo grupo) {
+            return grupo.getId();
+        }
+        if (valor instanceof ColunaPlanejamento coluna) {
+            return coluna.getId();
+        }
+        return valor;
+    }
+
+    private static int indicePropriedade(PostUpdateEvent event, String propriedade) {
+        String[] nomes = event.getPersister().getPropertyNames();
+        for (int i = 0; i < nomes.length; i++) {
+            if (nomes[i].equals(propriedade)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
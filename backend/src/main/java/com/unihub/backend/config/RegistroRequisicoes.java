@@ -0,0 +1,114 @@
+package com.unihub.backend.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Log estruturado das requisições ({@code unihub.requisicoes}), gravado por um appender
+ * assíncrono (ver logback-spring.xml) para não disputar o stdout no caminho de cada requisição.
+ *
+ * Cada rota tem sua taxa de amostragem ({@code app.log.requisicoes.amostragem-rotas}, a primeira
+ * que casar vale; as demais usam {@code amostragem}). Erros 5xx e requisições acima de
+ * {@code lentas-ms} são sempre registrados. O token nunca vai para o log: só o tipo e um prefixo
+ * do SHA-256, suficiente para correlacionar requisições da mesma sessão. A query string também
+ * fica de fora, porque links de reset e convite levam tokens nela.
+ */
+@Component
+public class RegistroRequisicoes {
+
+    private static final Logger log = LoggerFactory.getLogger("unihub.requisicoes");
+
+    private final AntPathMatcher rotas = new AntPathMatcher();
+    private final List<Amostragem> amostragemPorRota;
+    private final double amostragemPadrao;
+    private final long lentasNanos;
+
+    public RegistroRequisicoes(@Value("${app.log.requisicoes.amostragem:0.01}") double amostragemPadrao,
+                               @Value("${app.log.requisicoes.amostragem-rotas:}") String amostragemRotas,
+                               @Value("${app.log.requisicoes.lentas-ms:1000}") long lentasMs) {
+        this.amostragemPadrao = amostragemPadrao;
+        this.amostragemPorRota = lerAmostragens(amostragemRotas);
+        this.lentasNanos = lentasMs * 1_000_000L;
+    }
+
+    void registrar(String metodo, String rota, int status, String token, Long usuarioId,
+                   long filtroNanos, long tokenNanos, TempoBancoRequisicao.Medicao banco) {
+        if (!log.isInfoEnabled() || !deveRegistrar(rota, status, filtroNanos)) {
+            return;
+        }
+        log.atInfo()
+                .addKeyValue("metodo", metodo)
+                .addKeyValue("rota", rota)
+                .addKeyValue("status", status)
+                .addKeyValue("usuarioId", usuarioId)
+                .addKeyValue("token", resumirToken(token))
+                .addKeyValue("filtroMs", milissegundos(filtroNanos))
+                .addKeyValue("tokenMs", milissegundos(tokenNanos))
+                .addKeyValue("bancoMs", milissegundos(banco.nanos()))
+                .addKeyValue("comandosSql", banco.comandos())
+                .log("{} {} {}", metodo, rota, status);
+    }
+
+    boolean deveRegistrar(String rota, int status, long filtroNanos) {
+        if (status >= 500 || filtroNanos >= lentasNanos) {
+            return true;
+        }
+        double taxa = taxaPara(rota);
+        return taxa >= 1.0 || (taxa > 0.0 && ThreadLocalRandom.current().nextDouble() < taxa);
+    }
+
+    double taxaPara(String rota) {
+        for (Amostragem amostragem : amostragemPorRota) {
+            if (rotas.match(amostragem.padrao(), rota)) {
+                return amostragem.taxa();
+            }
+        }
+        return amostragemPadrao;
+    }
+
+    static String resumirToken(String token) {
+        if (!StringUtils.hasText(token)) {
+            return null;
+        }
+        String tipo = token.startsWith("v1.") ? "assinado" : "opaco";
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return tipo + ":" + HexFormat.of().formatHex(hash, 0, 4);
+        } catch (NoSuchAlgorithmException ex) {
+            return tipo;
+        }
+    }
+
+    private static double milissegundos(long nanos) {
+        return Math.round(nanos / 1_000.0) / 1_000.0;
+    }
+
+    // Formato: "/api/auth/**=1,/api/notificacoes/stream=0".
+    private static List<Amostragem> lerAmostragens(String configuracao) {
+        List<Amostragem> amostragens = new ArrayList<>();
+        for (String item : StringUtils.commaDelimitedListToStringArray(configuracao)) {
+            int separador = item.lastIndexOf('=');
+            if (separador <= 0) {
+                throw new IllegalArgumentException("app.log.requisicoes.amostragem-rotas inválido: " + item);
+            }
+            amostragens.add(new Amostragem(item.substring(0, separador).trim(),
+                    Double.parseDouble(item.substring(separador + 1).trim())));
+        }
+        return List.copyOf(amostragens);
+    }
+
+    private record Amostragem(String padrao, double taxa) {
+    }
+}
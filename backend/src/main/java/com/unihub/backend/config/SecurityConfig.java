@@ -1,5 +1,8 @@
 package com.unihub.backend.config;
 
+import jakarta.servlet.DispatcherType;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.actuate.health.HealthEndpoint;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -24,6 +27,12 @@ public class SecurityConfig {
             .sessionManagement(sm -> sm.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(auth -> auth
                 .requestMatchers("/api/auth/**").permitAll()
+                // redespacho assíncrono do SSE: a requisição original já passou pela autenticação
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+
+                // actuator: health para qualquer autenticado; métricas e startup só para administradores
+                .requestMatchers(EndpointRequest.to(HealthEndpoint.class)).authenticated()
+                .requestMatchers(EndpointRequest.toAnyEndpoint()).hasRole("ADMIN")
 
                 //quadro 
                 .requestMatchers("/api/notificacoes/**").authenticated()
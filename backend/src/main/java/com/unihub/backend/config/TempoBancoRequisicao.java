@@ -0,0 +1,83 @@
+package com.unihub.backend.config;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * Soma, na thread da requisição, o tempo gasto pelo Hibernate em JDBC (obter conexão, executar
+ * comandos e batches) para o log de requisições do {@link TokenFilter}. O Hibernate cria uma
+ * instância por sessão ({@code hibernate.session.events.auto}, ver {@link HibernateConfig}); fora
+ * de uma requisição medida não há acumulador e os eventos são ignorados.
+ */
+public class TempoBancoRequisicao implements SessionEventListener {
+
+    private static final ThreadLocal<Medicao> MEDICAO_ATUAL = new ThreadLocal<>();
+
+    private long inicioConexao;
+    private long inicioComando;
+    private long inicioBatch;
+
+    static Medicao iniciar() {
+        Medicao medicao = new Medicao();
+        MEDICAO_ATUAL.set(medicao);
+        return medicao;
+    }
+
+    static void encerrar() {
+        MEDICAO_ATUAL.remove();
+    }
+
+    @Override
+    public void jdbcConnectionAcquisitionStart() {
+        inicioConexao = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcConnectionAcquisitionEnd() {
+        somar(inicioConexao, false);
+    }
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        inicioComando = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        somar(inicioComando, true);
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        inicioBatch = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        somar(inicioBatch, true);
+    }
+
+    private static void somar(long inicio, boolean comando) {
+        Medicao medicao = MEDICAO_ATUAL.get();
+        if (medicao == null || inicio == 0L) {
+            return;
+        }
+        medicao.nanos += System.nanoTime() - inicio;
+        if (comando) {
+            medicao.comandos++;
+        }
+    }
+
+    /** Acumulado de uma requisição; só é lido depois que ela termina, na mesma thread. */
+    static final class Medicao {
+        private long nanos;
+        private int comandos;
+
+        long nanos() {
+            return nanos;
+        }
+
+        int comandos() {
+            return comandos;
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.unihub.backend.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.mail.internet.MimeMessage;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Ajustes do modo de threads virtuais ({@code spring.threads.virtual.enabled=true}), em que
+ * o Tomcat, o executor de {@code @Async} e o agendador de {@code @Scheduled} passam a rodar
+ * em threads virtuais. Nada daqui é criado com a propriedade desligada.
+ *
+ * No JDK 21 uma thread virtual que bloqueia dentro de {@code synchronized} prende a thread
+ * portadora. O Jakarta Mail faz todo o diálogo SMTP dentro de métodos synchronized do
+ * {@code SMTPTransport}; por isso os envios concorrentes ficam limitados a menos portadoras
+ * do que existem, e os pinos que sobrarem são registrados via JFR
+ * ({@code jdk.VirtualThreadPinned}) no log e na métrica {@code unihub.threads-virtuais.pinadas}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class ThreadsVirtuaisConfig {
+
+    @Bean
+    public static BeanPostProcessor limitadorEnvioEmail(
+            @Value("${app.threads-virtuais.envios-email-simultaneos:0}") int enviosSimultaneos) {
+        int limite = enviosSimultaneos > 0
+                ? enviosSimultaneos
+                : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof JavaMailSender mailSender && !(bean instanceof EnvioEmailLimitado)) {
+                    return new EnvioEmailLimitado(mailSender, limite);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public DiagnosticoPinagem diagnosticoPinagem(
+            MeterRegistry meterRegistry,
+            @Value("${app.threads-virtuais.pinagem-limite-ms:20}") long limiteMs) {
+        return new DiagnosticoPinagem(meterRegistry, Duration.ofMillis(limiteMs));
+    }
+
+    /** Limita quantos envios SMTP (e, com eles, portadoras pinadas) acontecem ao mesmo tempo. */
+    static final class EnvioEmailLimitado implements JavaMailSender {
+
+        private final JavaMailSender delegado;
+        private final Semaphore permissoes;
+
+        EnvioEmailLimitado(JavaMailSender delegado, int limite) {
+            this.delegado = delegado;
+            this.permissoes = new Semaphore(limite, true);
+        }
+
+        @Override
+        public MimeMessage createMimeMessage() {
+            return delegado.createMimeMessage();
+        }
+
+        @Override
+        public MimeMessage createMimeMessage(InputStream contentStream) throws MailException {
+            return delegado.createMimeMessage(contentStream);
+        }
+
+        @Override
+        public void send(MimeMessage... mimeMessages) throws MailException {
+            adquirir();
+            try {
+                delegado.send(mimeMessages);
+            } finally {
+                permissoes.release();
+            }
+        }
+
+        @Override
+        public void send(SimpleMailMessage... simpleMessages) throws MailException {
+            adquirir();
+            try {
+                delegado.send(simpleMessages);
+            } finally {
+                permissoes.release();
+            }
+        }
+
+        private void adquirir() {
+            try {
+                permissoes.acquire();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new MailSendException("Envio de e-mail interrompido", ex);
+            }
+        }
+    }
+
+    /** Escuta os eventos de pinagem do JFR numa thread própria, sem gravar arquivo. */
+    static final class DiagnosticoPinagem implements InitializingBean, DisposableBean {
+
+        private static final Logger logger = LoggerFactory.getLogger(DiagnosticoPinagem.class);
+        private static final String EVENTO = "jdk.VirtualThreadPinned";
+        private static final int QUADROS_NO_LOG = 12;
+
+        private final MeterRegistry meterRegistry;
+        private final Duration limite;
+        // Cada origem aparece no log uma vez; a contagem fica na métrica.
+        private final Set<String> origensRegistradas = ConcurrentHashMap.newKeySet();
+        private RecordingStream stream;
+
+        DiagnosticoPinagem(MeterRegistry meterRegistry, Duration limite) {
+            this.meterRegistry = meterRegistry;
+            this.limite = limite;
+        }
+
+        @Override
+        public void afterPropertiesSet() {
+            stream = new RecordingStream();
+            stream.enable(EVENTO).withThreshold(limite).withStackTrace();
+            stream.onEvent(EVENTO, this::registrar);
+            stream.startAsync();
+        }
+
+        private void registrar(RecordedEvent evento) {
+            List<RecordedFrame> quadros = evento.getStackTrace() != null
+                    ? evento.getStackTrace().getFrames()
+                    : List.of();
+            String origem = origem(quadros);
+            meterRegistry.counter("unihub.threads-virtuais.pinadas", "origem", origem).increment();
+            if (origensRegistradas.add(origem)) {
+                logger.warn("Thread virtual pinada por {} ms em {}:\n{}",
+                        evento.getDuration().toMillis(), origem, pilha(evento.getStackTrace()));
+            }
+        }
+
+        /** Primeiro quadro fora do JDK: é ali que está o synchronized (ou a chamada nativa). */
+        private static String origem(List<RecordedFrame> quadros) {
+            for (RecordedFrame quadro : quadros) {
+                if (!quadro.isJavaFrame()) {
+                    continue;
+                }
+                String classe = quadro.getMethod().getType().getName();
+                if (!classe.startsWith("java.") && !classe.startsWith("jdk.") && !classe.startsWith("sun.")) {
+                    return classe;
+                }
+            }
+            return "desconhecida";
+        }
+
+        private static String pilha(RecordedStackTrace pilha) {
+            if (pilha == null) {
+                return "    (sem pilha)";
+            }
+            StringBuilder texto = new StringBuilder();
+            pilha.getFrames().stream().limit(QUADROS_NO_LOG).forEach(quadro -> texto
+                    .append("    at ")
+                    .append(quadro.getMethod().getType().getName())
+                    .append('.')
+                    .append(quadro.getMethod().getName())
+                    .append(':')
+                    .append(quadro.getLineNumber())
+                    .append('\n'));
+            return texto.toString();
+        }
+
+        @Override
+        public void destroy() {
+            if (stream != null) {
+                stream.close();
+            }
+        }
+    }
+}
@@ -6,6 +6,7 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -16,6 +17,7 @@ import org.springframework.lang.NonNull;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.Set;
 
 @Component
 public class TokenFilter extends OncePerRequestFilter {
@@ -23,40 +25,59 @@ public class TokenFilter extends OncePerRequestFilter {
     @Autowired
     private AutenticacaoService autenticacaoService;
 
+    @Autowired
+    private RegistroRequisicoes registroRequisicoes;
+
+    // Usuários com acesso aos endpoints do actuator além do health (ROLE_ADMIN).
+    @Value("${app.admin.usuario-ids:}")
+    private Set<Long> administradores = Set.of();
+
     @Override
     protected void doFilterInternal(@NonNull HttpServletRequest request,
                                     @NonNull HttpServletResponse response,
                                     @NonNull FilterChain filterChain)
         throws ServletException, IOException {
 
-    String header = request.getHeader("Authorization");
-
-    // LOG 1 – sempre imprime o header
-    System.out.println("DEBUG TOKENFILTER: " + request.getMethod() + " " + request.getRequestURI()
-            + " | header=" + header);
-
-    if (header != null && header.startsWith("Bearer ")) {
-        String token = header.substring(7);
+    long inicio = System.nanoTime();
+    TempoBancoRequisicao.Medicao banco = TempoBancoRequisicao.iniciar();
+    String token = null;
+    Long usuarioId = null;
+    long tokenNanos = 0L;
+    boolean concluida = false;
+    try {
+        String header = request.getHeader("Authorization");
+        if (header != null && header.startsWith("Bearer ")) {
+            token = header.substring(7);
 
-        // chama o serviço que valida/busca o usuário
-        Long usuarioId = autenticacaoService.getUsuarioIdPorToken(token);
+            // chama o serviço que valida/busca o usuário
+            long inicioToken = System.nanoTime();
+            usuarioId = autenticacaoService.getUsuarioIdPorToken(token);
+            tokenNanos = System.nanoTime() - inicioToken;
 
-        // LOG 2 – mostra o token e o usuário resolvido (ou null)
-        System.out.println("DEBUG TOKENFILTER: token=" + token + ", usuarioId=" + usuarioId);
-
-        if (usuarioId != null) {
-            UsernamePasswordAuthenticationToken auth =
-                    new UsernamePasswordAuthenticationToken(
-                            usuarioId,
-                            null,
-                            List.of(new SimpleGrantedAuthority("ROLE_USER"))
-                    );
-            auth.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-            SecurityContextHolder.getContext().setAuthentication(auth);
+            if (usuarioId != null) {
+                UsernamePasswordAuthenticationToken auth =
+                        new UsernamePasswordAuthenticationToken(
+                                usuarioId,
+                                null,
+                                administradores.contains(usuarioId)
+                                        ? List.of(new SimpleGrantedAuthority("ROLE_USER"),
+                                                new SimpleGrantedAuthority("ROLE_ADMIN"))
+                                        : List.of(new SimpleGrantedAuthority("ROLE_USER"))
+                        );
+                auth.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                SecurityContextHolder.getContext().setAuthentication(auth);
+            }
         }
-    }
 
-    filterChain.doFilter(request, response);
+        filterChain.doFilter(request, response);
+        concluida = true;
+    } finally {
+        TempoBancoRequisicao.encerrar();
+        // Exceção que escapou da cadeia vira 500 no error dispatch, que não passa por aqui de novo.
+        registroRequisicoes.registrar(request.getMethod(), request.getRequestURI(),
+                concluida ? response.getStatus() : 500, token, usuarioId,
+                System.nanoTime() - inicio, tokenNanos, banco);
+    }
 }
 
-}
\ No newline at end of file
+}
@@ -50,7 +50,7 @@ public class GoogleCalendarController {
         }
         try {
             var credential = credentialService.link(usuarioId, request.authCode());
-            SyncResult syncResult = syncService.syncAll(usuarioId);
+            SyncResult syncResult = syncService.syncAll(usuarioId, true);
             boolean requiresReauth = credential.getRefreshToken() == null || credential.getRefreshToken().isBlank();
             return ResponseEntity.ok(new GoogleCalendarStatusResponse(true, syncResult.lastSyncedAt(), requiresReauth));
         } catch (RuntimeException ex) {
@@ -70,11 +70,12 @@ public class GoogleCalendarController {
     }
 
     @PostMapping("/sync")
-    public ResponseEntity<GoogleCalendarSyncResponse> sync(@AuthenticationPrincipal Long usuarioId) {
+    public ResponseEntity<GoogleCalendarSyncResponse> sync(@AuthenticationPrincipal Long usuarioId,
+                                                           @RequestParam(value = "completa", defaultValue = "false") boolean completa) {
         if (usuarioId == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
-        SyncResult result = syncService.syncAll(usuarioId);
+        SyncResult result = syncService.syncAll(usuarioId, completa);
         return ResponseEntity.ok(new GoogleCalendarSyncResponse(result.synced(), result.failures(), result.lastSyncedAt()));
     }
 }
\ No newline at end of file
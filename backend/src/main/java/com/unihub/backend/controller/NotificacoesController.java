@@ -1,14 +1,20 @@
 package com.unihub.backend.controller;
 
 import com.unihub.backend.dto.compartilhamento.NotificacaoResponse;
+import com.unihub.backend.dto.notificacoes.MarcarNotificacoesLidasRequest;
 import com.unihub.backend.dto.notificacoes.NotificacaoLogRequest;
+import com.unihub.backend.dto.notificacoes.NotificacaoPaginaResponse;
 import com.unihub.backend.dto.notificacoes.NotificacoesConfigRequest;
 import com.unihub.backend.dto.notificacoes.NotificacoesConfigResponse;
+import com.unihub.backend.dto.notificacoes.NotificacoesNaoLidasResponse;
 import com.unihub.backend.service.NotificacaoConfiguracaoService;
+import com.unihub.backend.service.NotificacaoEventos;
 import com.unihub.backend.service.NotificacaoService;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.util.List;
@@ -20,11 +26,14 @@ public class NotificacoesController {
 
     private final NotificacaoConfiguracaoService notificacaoConfiguracaoService;
     private final NotificacaoService notificacaoService;
+    private final NotificacaoEventos notificacaoEventos;
 
     public NotificacoesController(NotificacaoConfiguracaoService notificacaoConfiguracaoService,
-                                  NotificacaoService notificacaoService) {
+                                  NotificacaoService notificacaoService,
+                                  NotificacaoEventos notificacaoEventos) {
         this.notificacaoConfiguracaoService = notificacaoConfiguracaoService;
         this.notificacaoService = notificacaoService;
+        this.notificacaoEventos = notificacaoEventos;
     }
 
     @GetMapping({"/config", "/usuarios/{usuarioId}/notificacoes-config"})
@@ -49,6 +58,32 @@ public class NotificacoesController {
         return notificacaoService.listarHistorico(resolvedId);
     }
 
+    @GetMapping("/historico/pagina")
+    public NotificacaoPaginaResponse listarPagina(@AuthenticationPrincipal Long usuarioId,
+                                                  @RequestParam(value = "cursor", required = false) String cursor,
+                                                  @RequestParam(value = "limite", required = false) Integer limite) {
+        return notificacaoService.listarPagina(resolveUsuarioId(null, usuarioId), cursor, limite);
+    }
+
+    @GetMapping("/nao-lidas")
+    public NotificacoesNaoLidasResponse contarNaoLidas(@AuthenticationPrincipal Long usuarioId) {
+        return new NotificacoesNaoLidasResponse(notificacaoService.contarNaoLidas(resolveUsuarioId(null, usuarioId)));
+    }
+
+    @PostMapping("/lidas")
+    public NotificacoesNaoLidasResponse marcarComoLidas(@AuthenticationPrincipal Long usuarioId,
+                                                        @RequestBody(required = false) MarcarNotificacoesLidasRequest request) {
+        Long resolvedId = resolveUsuarioId(null, usuarioId);
+        notificacaoService.marcarComoLidas(resolvedId, request != null ? request.ids() : null);
+        return new NotificacoesNaoLidasResponse(notificacaoService.contarNaoLidas(resolvedId));
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@AuthenticationPrincipal Long usuarioId,
+                             @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return notificacaoEventos.assinar(resolveUsuarioId(null, usuarioId), lastEventId);
+    }
+
     @PostMapping("/historico")
     public NotificacaoResponse registrar(@AuthenticationPrincipal Long usuarioId,
                                          @RequestBody NotificacaoLogRequest request) {
@@ -10,6 +10,7 @@ import com.unihub.backend.dto.planejamento.AtualizarTarefaPlanejamentoRequest;
 import com.unihub.backend.dto.planejamento.ColunaPlanejamentoRequest;
 import com.unihub.backend.dto.planejamento.QuadroPlanejamentoDetalhesResponse;
 import com.unihub.backend.dto.planejamento.QuadroPlanejamentoListaResponse;
+import com.unihub.backend.dto.planejamento.QuadroPlanejamentoPaginaResponse;
 import com.unihub.backend.dto.planejamento.TarefaComentarioRequest;
 import com.unihub.backend.dto.planejamento.TarefaComentarioResponse;
 import com.unihub.backend.dto.planejamento.TarefaComentariosResponse;
@@ -20,6 +21,7 @@ import com.unihub.backend.model.ColunaPlanejamento;
 import com.unihub.backend.model.QuadroPlanejamento;
 import com.unihub.backend.model.TarefaPlanejamento;
 import com.unihub.backend.model.enums.EstadoPlanejamento;
+import com.unihub.backend.model.enums.OrdenacaoQuadro;
 import com.unihub.backend.model.enums.QuadroStatus;
 import com.unihub.backend.service.QuadroPlanejamentoService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -44,6 +46,16 @@ public class QuadroPlanejamentoController {
         return service.listar(usuarioId, status, titulo);
     }
 
+    @GetMapping("/pagina")
+    public QuadroPlanejamentoPaginaResponse listarPaginado(@AuthenticationPrincipal Long usuarioId,
+                                                           @RequestParam(value = "status", required = false) QuadroStatus status,
+                                                           @RequestParam(value = "titulo", required = false) String titulo,
+                                                           @RequestParam(value = "ordenacao", required = false) OrdenacaoQuadro ordenacao,
+                                                           @RequestParam(value = "cursor", required = false) String cursor,
+                                                           @RequestParam(value = "limite", required = false) Integer limite) {
+        return service.listarPaginado(usuarioId, status, titulo, ordenacao, cursor, limite);
+    }
+
     @GetMapping("/{id}")
     public QuadroPlanejamento buscarPorId(@PathVariable Long id, @AuthenticationPrincipal Long usuarioId) {
         return service.buscarPorId(id, usuarioId);
@@ -0,0 +1,7 @@
+package com.unihub.backend.dto.notificacoes;
+
+import java.util.List;
+
+/** Ids a marcar como lidos; lista vazia ou ausente marca todas as notificações do usuário. */
+public record MarcarNotificacoesLidasRequest(List<Long> ids) {
+}
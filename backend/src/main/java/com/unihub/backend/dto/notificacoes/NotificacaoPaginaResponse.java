@@ -0,0 +1,16 @@
+package com.unihub.backend.dto.notificacoes;
+
+import com.unihub.backend.dto.compartilhamento.NotificacaoResponse;
+
+import java.util.List;
+
+/**
+ * Página do histórico de notificações, da mais recente para a mais antiga. {@code proximoCursor}
+ * é opaco e deve ser repassado no parâmetro {@code cursor}; vem nulo na última página.
+ */
+public record NotificacaoPaginaResponse(
+        List<NotificacaoResponse> itens,
+        String proximoCursor,
+        boolean temMais
+) {
+}
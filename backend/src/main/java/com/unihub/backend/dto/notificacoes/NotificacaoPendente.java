@@ -0,0 +1,37 @@
+package com.unihub.backend.dto.notificacoes;
+
+/**
+ * Notificação a ser gravada pelo {@code NotificationDispatcher}. A chave
+ * (usuário, tipo, categoria, referência) identifica a linha que será atualizada
+ * em vez de duplicada.
+ */
+public record NotificacaoPendente(
+        Long usuarioId,
+        String tipo,
+        String categoria,
+        Long referenciaId,
+        String titulo,
+        String mensagem,
+        String metadataJson,
+        Long conviteId,
+        Pendencia pendencia) {
+
+    /** Como {@code interacaoPendente} (e {@code lida}) ficam quando a notificação já existe. */
+    public enum Pendencia {
+        /** Nova nasce pendente; existente mantém o estado atual. */
+        SE_NOVA,
+        /** Sempre pendente e não lida. */
+        SEMPRE,
+        /** Nunca pendente; nova nasce não lida. */
+        NUNCA,
+        /** Nova nasce pendente; existente continua pendente só se ainda não foi lida. */
+        SE_NAO_LIDA
+    }
+
+    public Chave chave() {
+        return new Chave(usuarioId, tipo, categoria, referenciaId);
+    }
+
+    public record Chave(Long usuarioId, String tipo, String categoria, Long referenciaId) {
+    }
+}
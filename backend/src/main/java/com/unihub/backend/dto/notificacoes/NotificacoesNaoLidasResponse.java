@@ -0,0 +1,4 @@
+package com.unihub.backend.dto.notificacoes;
+
+public record NotificacoesNaoLidasResponse(long naoLidas) {
+}
@@ -0,0 +1,60 @@
+package com.unihub.backend.dto.notificacoes;
+
+import com.unihub.backend.model.NotificacaoConfiguracao;
+import com.unihub.backend.model.enums.Antecedencia;
+import com.unihub.backend.model.enums.Prioridade;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Cópia imutável da {@link NotificacaoConfiguracao} de um usuário, usada nas verificações
+ * de "deseja receber" sem manter a entidade (nem suas antecedências) presa a uma sessão.
+ */
+public record PreferenciasNotificacao(
+        boolean notificacaoDePresenca,
+        boolean avaliacoesAtivas,
+        boolean compartilhamentoDisciplina,
+        boolean incluirEmQuadro,
+        boolean prazoTarefa,
+        boolean comentarioTarefa,
+        boolean conviteContato,
+        boolean inclusoEmGrupo,
+        Map<Prioridade, Antecedencia> antecedencias) {
+
+    /** Valores assumidos para quem ainda não salvou configuração: tudo ligado. */
+    public static final PreferenciasNotificacao PADRAO = new PreferenciasNotificacao(
+            true, true, true, true, true, true, true, true, antecedenciasCompletas(Map.of()));
+
+    public PreferenciasNotificacao {
+        antecedencias = antecedenciasCompletas(antecedencias);
+    }
+
+    public static PreferenciasNotificacao de(NotificacaoConfiguracao configuracao) {
+        Map<Prioridade, Antecedencia> antecedencias = new EnumMap<>(Prioridade.class);
+        configuracao.getAntecedencias().forEach(registro ->
+                antecedencias.put(registro.getPrioridade(), registro.getAntecedencia()));
+        return new PreferenciasNotificacao(
+                configuracao.isNotificacaoDePresenca(),
+                configuracao.isAvaliacoesAtivas(),
+                configuracao.isCompartilhamentoDisciplina(),
+                configuracao.isIncluirEmQuadro(),
+                configuracao.isPrazoTarefa(),
+                configuracao.isComentarioTarefa(),
+                configuracao.isConviteContato(),
+                configuracao.isInclusoEmGrupo(),
+                antecedencias);
+    }
+
+    private static Map<Prioridade, Antecedencia> antecedenciasCompletas(Map<Prioridade, Antecedencia> origem) {
+        Map<Prioridade, Antecedencia> completas = new EnumMap<>(Prioridade.class);
+        if (origem != null) {
+            completas.putAll(origem);
+        }
+        for (Prioridade prioridade : Prioridade.values()) {
+            completas.putIfAbsent(prioridade, Antecedencia.padrao());
+        }
+        return Collections.unmodifiableMap(completas);
+    }
+}
@@ -0,0 +1,13 @@
+package com.unihub.backend.dto.planejamento;
+
+import java.util.List;
+
+// Mesmo JSON que ColunaPlanejamento produzia na tela de detalhes, sem passar pela entidade.
+public record ColunaPlanejamentoDetalheResponse(
+        Long id,
+        String titulo,
+        String status,
+        Integer ordem,
+        List<TarefaPlanejamentoDetalheResponse> tarefas
+) {
+}
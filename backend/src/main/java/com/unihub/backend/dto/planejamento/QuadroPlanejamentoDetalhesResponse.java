@@ -1,6 +1,5 @@
 package com.unihub.backend.dto.planejamento;
 
-import com.unihub.backend.model.ColunaPlanejamento;
 import com.unihub.backend.model.enums.QuadroStatus;
 
 import java.time.Instant;
@@ -21,8 +20,8 @@ public class QuadroPlanejamentoDetalhesResponse {
     private Long grupoId;
 
     // Campos para detalhes
-    private List<ColunaPlanejamento> colunasEmAndamento;
-    private List<ColunaPlanejamento> colunasConcluidas;
+    private List<ColunaPlanejamentoDetalheResponse> colunasEmAndamento;
+    private List<ColunaPlanejamentoDetalheResponse> colunasConcluidas;
 
     public QuadroPlanejamentoDetalhesResponse() {
     }
@@ -94,19 +93,19 @@ public class QuadroPlanejamentoDetalhesResponse {
         this.grupoId = grupoId;
     }
 
-    public List<ColunaPlanejamento> getColunasEmAndamento() {
+    public List<ColunaPlanejamentoDetalheResponse> getColunasEmAndamento() {
         return colunasEmAndamento;
     }
 
-    public void setColunasEmAndamento(List<ColunaPlanejamento> colunasEmAndamento) {
+    public void setColunasEmAndamento(List<ColunaPlanejamentoDetalheResponse> colunasEmAndamento) {
         this.colunasEmAndamento = colunasEmAndamento;
     }
 
-    public List<ColunaPlanejamento> getColunasConcluidas() {
+    public List<ColunaPlanejamentoDetalheResponse> getColunasConcluidas() {
         return colunasConcluidas;
     }
 
-    public void setColunasConcluidas(List<ColunaPlanejamento> colunasConcluidas) {
+    public void setColunasConcluidas(List<ColunaPlanejamentoDetalheResponse> colunasConcluidas) {
         this.colunasConcluidas = colunasConcluidas;
     }
 }
\ No newline at end of file
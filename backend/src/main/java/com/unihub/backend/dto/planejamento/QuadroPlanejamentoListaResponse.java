@@ -19,6 +19,22 @@ public class QuadroPlanejamentoListaResponse {
     private Long contatoId;
     private Long grupoId;
 
+    public QuadroPlanejamentoListaResponse() {
+    }
+
+    // Usado pelas projeções JPQL da listagem paginada.
+    public QuadroPlanejamentoListaResponse(Long id, String nome, QuadroStatus estado, LocalDateTime dataFim,
+                                           Long donoId, Long disciplinaId, Long contatoId, Long grupoId) {
+        this.id = id;
+        this.nome = nome;
+        this.estado = estado;
+        this.dataFim = dataFim;
+        this.donoId = donoId;
+        this.disciplinaId = disciplinaId;
+        this.contatoId = contatoId;
+        this.grupoId = grupoId;
+    }
+
     public static QuadroPlanejamentoListaResponse fromEntity(QuadroPlanejamento quadro) {
         QuadroPlanejamentoListaResponse response = new QuadroPlanejamentoListaResponse();
         response.setId(quadro.getId());
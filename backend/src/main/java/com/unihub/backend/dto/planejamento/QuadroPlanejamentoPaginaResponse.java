@@ -0,0 +1,14 @@
+package com.unihub.backend.dto.planejamento;
+
+import java.util.List;
+
+/**
+ * Página da listagem de quadros. {@code proximoCursor} é opaco e deve ser repassado
+ * no parâmetro {@code cursor} para buscar a página seguinte; vem nulo na última página.
+ */
+public record QuadroPlanejamentoPaginaResponse(
+        List<QuadroPlanejamentoListaResponse> itens,
+        String proximoCursor,
+        boolean temMais
+) {
+}
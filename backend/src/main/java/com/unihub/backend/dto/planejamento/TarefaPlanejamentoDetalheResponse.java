@@ -0,0 +1,20 @@
+package com.unihub.backend.dto.planejamento;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.unihub.backend.model.enums.TarefaStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Mesmo JSON que TarefaPlanejamento produzia na tela de detalhes, sem passar pela entidade.
+public record TarefaPlanejamentoDetalheResponse(
+        Long id,
+        String titulo,
+        String descricao,
+        TarefaStatus status,
+        @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss")
+        LocalDateTime dataPrazo,
+        List<Long> responsaveisIds,
+        String responsaveis
+) {
+}
@@ -0,0 +1,5 @@
+package com.unihub.backend.dto.planejamento;
+
+// Linha (tarefa, responsável) usada para montar os detalhes do quadro em uma única consulta.
+public record TarefaResponsavelResumo(Long tarefaId, Long responsavelId) {
+}
@@ -9,7 +9,8 @@ import java.time.LocalDateTime;
 public class Anotacoes {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "anotacoes_seq")
+    @SequenceGenerator(name = "anotacoes_seq", sequenceName = "anotacoes_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, length = 120)
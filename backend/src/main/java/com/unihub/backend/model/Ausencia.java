@@ -8,7 +8,8 @@ import java.time.LocalDate;
 public class Ausencia {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ausencia_seq")
+    @SequenceGenerator(name = "ausencia_seq", sequenceName = "ausencia_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "disciplina_id", insertable = false, updatable = false)
@@ -5,6 +5,7 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import jakarta.persistence.Index;
 
@@ -13,12 +14,14 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "auth_tokens", indexes = {
         @Index(name = "idx_auth_tokens_token", columnList = "token", unique = true),
-        @Index(name = "idx_auth_tokens_usuario", columnList = "usuario_id")
+        @Index(name = "idx_auth_tokens_usuario", columnList = "usuario_id, expira_em"),
+        @Index(name = "idx_auth_tokens_expira_em", columnList = "expira_em")
 })
 public class AuthToken {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "auth_tokens_seq")
+    @SequenceGenerator(name = "auth_tokens_seq", sequenceName = "auth_tokens_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "usuario_id", nullable = false)
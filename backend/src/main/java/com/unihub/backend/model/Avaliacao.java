@@ -12,13 +12,16 @@ import java.util.List;
 import java.util.Objects;
 import com.fasterxml.jackson.annotation.JsonFormat;
 import java.time.LocalDateTime;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 
 @Entity
 @Table(name = "avaliacoes") // É uma boa prática nomear tabelas no plural e com snake_case
 public class Avaliacao {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "avaliacoes_seq")
+    @SequenceGenerator(name = "avaliacoes_seq", sequenceName = "avaliacoes_seq", allocationSize = 50)
     private Long id;
 
     @Column(length = 255) // Definir um tamanho para Strings é uma boa prática
@@ -80,6 +83,16 @@ public class Avaliacao {
 
     @Column(name = "google_calendar_event_id", length = 512)
     private String googleCalendarEventId;
+
+    // Sincronização incremental com o Google Calendar: a avaliação está pendente enquanto
+    // atualizadaEm for posterior à versão enviada (googleSincronizadaEm).
+    @com.fasterxml.jackson.annotation.JsonIgnore
+    @Column(name = "atualizada_em")
+    private Instant atualizadaEm;
+
+    @com.fasterxml.jackson.annotation.JsonIgnore
+    @Column(name = "google_sincronizada_em")
+    private Instant googleSincronizadaEm;
     // --- Construtores ---
 
     /**
@@ -211,6 +224,33 @@ public class Avaliacao {
         this.googleCalendarEventId = googleCalendarEventId;
     }
 
+    public Instant getAtualizadaEm() {
+        return atualizadaEm;
+    }
+
+    public void setAtualizadaEm(Instant atualizadaEm) {
+        this.atualizadaEm = atualizadaEm;
+    }
+
+    public Instant getGoogleSincronizadaEm() {
+        return googleSincronizadaEm;
+    }
+
+    public void setGoogleSincronizadaEm(Instant googleSincronizadaEm) {
+        this.googleSincronizadaEm = googleSincronizadaEm;
+    }
+
+    /**
+     * Marca a avaliação como alterada. Chamado também por quem só mexe nos integrantes,
+     * que sozinhos não disparam o {@code @PreUpdate}.
+     */
+    @PrePersist
+    @PreUpdate
+    public void marcarAlterada() {
+        // Micros: é a precisão da coluna, e a comparação na gravação do sync é por igualdade.
+        this.atualizadaEm = Instant.now().truncatedTo(ChronoUnit.MICROS);
+    }
+
     public EstadoAvaliacao getEstado() {
         return estado;
     }
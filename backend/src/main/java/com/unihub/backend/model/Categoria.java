@@ -8,7 +8,8 @@ import com.fasterxml.jackson.annotation.JsonBackReference;
 public class Categoria {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "categoria_seq")
+    @SequenceGenerator(name = "categoria_seq", sequenceName = "categoria_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
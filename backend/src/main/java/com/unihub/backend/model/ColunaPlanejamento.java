@@ -16,7 +16,8 @@ import java.util.List;
 public class ColunaPlanejamento {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "colunas_planejamento_seq")
+    @SequenceGenerator(name = "colunas_planejamento_seq", sequenceName = "colunas_planejamento_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
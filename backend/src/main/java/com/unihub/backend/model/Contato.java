@@ -5,6 +5,7 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Column;
 import jakarta.persistence.PrePersist;
 
@@ -14,7 +15,8 @@ import java.time.LocalDateTime;
 @Entity
 public class Contato {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "contato_seq")
+    @SequenceGenerator(name = "contato_seq", sequenceName = "contato_seq", allocationSize = 50)
     private Long id;
     private String nome;
     private String email;
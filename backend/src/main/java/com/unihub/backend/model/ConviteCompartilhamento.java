@@ -12,7 +12,8 @@ import java.time.LocalDateTime;
 public class ConviteCompartilhamento {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "convites_compartilhamento_seq")
+    @SequenceGenerator(name = "convites_compartilhamento_seq", sequenceName = "convites_compartilhamento_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
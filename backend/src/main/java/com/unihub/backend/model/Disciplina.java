@@ -22,7 +22,8 @@ import com.fasterxml.jackson.annotation.JsonManagedReference;
 public class Disciplina {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "disciplina_seq")
+    @SequenceGenerator(name = "disciplina_seq", sequenceName = "disciplina_seq", allocationSize = 50)
     private Long id;
 
     private String codigo;
@@ -0,0 +1,142 @@
+package com.unihub.backend.model;
+
+import com.unihub.backend.model.enums.StatusEmail;
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+/**
+ * E-mail aguardando envio pela {@link com.unihub.backend.service.FilaEmails}.
+ *
+ * A linha é apagada quando o envio dá certo; só ficam as pendentes, as reservadas por um
+ * worker ({@code ENVIANDO}, até {@code reservadoAte}) e as que esgotaram as tentativas.
+ */
+@Entity
+@Table(name = "emails_pendentes",
+        indexes = @Index(name = "idx_emails_pendentes_status_proxima", columnList = "status, proxima_tentativa_em"))
+public class EmailPendente {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "emails_pendentes_seq")
+    @SequenceGenerator(name = "emails_pendentes_seq", sequenceName = "emails_pendentes_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false, length = 320)
+    private String destinatario;
+
+    @Column(length = 320)
+    private String remetente;
+
+    @Column(nullable = false, length = 255)
+    private String assunto;
+
+    @Column(name = "corpo_html", nullable = false, columnDefinition = "TEXT")
+    private String corpoHtml;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private StatusEmail status = StatusEmail.PENDENTE;
+
+    @Column(nullable = false)
+    private int tentativas;
+
+    @Column(name = "proxima_tentativa_em", nullable = false)
+    private Instant proximaTentativaEm;
+
+    @Column(name = "reservado_ate")
+    private Instant reservadoAte;
+
+    @Column(name = "criado_em", nullable = false)
+    private Instant criadoEm;
+
+    @Column(name = "ultimo_erro", length = 1000)
+    private String ultimoErro;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getDestinatario() {
+        return destinatario;
+    }
+
+    public void setDestinatario(String destinatario) {
+        this.destinatario = destinatario;
+    }
+
+    public String getRemetente() {
+        return remetente;
+    }
+
+    public void setRemetente(String remetente) {
+        this.remetente = remetente;
+    }
+
+    public String getAssunto() {
+        return assunto;
+    }
+
+    public void setAssunto(String assunto) {
+        this.assunto = assunto;
+    }
+
+    public String getCorpoHtml() {
+        return corpoHtml;
+    }
+
+    public void setCorpoHtml(String corpoHtml) {
+        this.corpoHtml = corpoHtml;
+    }
+
+    public StatusEmail getStatus() {
+        return status;
+    }
+
+    public void setStatus(StatusEmail status) {
+        this.status = status;
+    }
+
+    public int getTentativas() {
+        return tentativas;
+    }
+
+    public void setTentativas(int tentativas) {
+        this.tentativas = tentativas;
+    }
+
+    public Instant getProximaTentativaEm() {
+        return proximaTentativaEm;
+    }
+
+    public void setProximaTentativaEm(Instant proximaTentativaEm) {
+        this.proximaTentativaEm = proximaTentativaEm;
+    }
+
+    public Instant getReservadoAte() {
+        return reservadoAte;
+    }
+
+    public void setReservadoAte(Instant reservadoAte) {
+        this.reservadoAte = reservadoAte;
+    }
+
+    public Instant getCriadoEm() {
+        return criadoEm;
+    }
+
+    public void setCriadoEm(Instant criadoEm) {
+        this.criadoEm = criadoEm;
+    }
+
+    public String getUltimoErro() {
+        return ultimoErro;
+    }
+
+    public void setUltimoErro(String ultimoErro) {
+        this.ultimoErro = ultimoErro;
+    }
+}
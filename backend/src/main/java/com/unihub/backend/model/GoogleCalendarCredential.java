@@ -9,7 +9,8 @@ import java.time.Instant;
 public class GoogleCalendarCredential {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "google_calendar_credentials_seq")
+    @SequenceGenerator(name = "google_calendar_credentials_seq", sequenceName = "google_calendar_credentials_seq", allocationSize = 50)
     private Long id;
 
     @OneToOne(fetch = FetchType.LAZY)
@@ -1,6 +1,7 @@
 package com.unihub.backend.model;
 
 import jakarta.persistence.*; // Certifique-se de usar o pacote correto (jakarta ou javax)
+import org.hibernate.annotations.BatchSize;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects; // Para equals e hashCode
@@ -10,7 +11,8 @@ import java.util.Objects; // Para equals e hashCode
 public class Grupo {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "grupo_seq")
+    @SequenceGenerator(name = "grupo_seq", sequenceName = "grupo_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false) // Exemplo: nome não pode ser nulo
@@ -30,6 +32,7 @@ public class Grupo {
             joinColumns = @JoinColumn(name = "grupo_id"),
             inverseJoinColumns = @JoinColumn(name = "id_contato", referencedColumnName = "id_contato")
     )
+    @BatchSize(size = 50) // listagens inicializam os membros de vários grupos numa só consulta
     private List<Contato> membros = new ArrayList<>(); // Nome da coleção: 'membros'
 
     // Construtor vazio (requerido pelo JPA)
@@ -8,7 +8,8 @@ import jakarta.persistence.*;
 public class HorarioAula {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "horario_aula_seq")
+    @SequenceGenerator(name = "horario_aula_seq", sequenceName = "horario_aula_seq", allocationSize = 50)
     private Long id;
 
     private String diaDaSemana;
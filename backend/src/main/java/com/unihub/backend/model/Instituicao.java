@@ -6,7 +6,8 @@ import com.fasterxml.jackson.annotation.JsonBackReference;
 @Entity
 public class Instituicao {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "instituicao_seq")
+    @SequenceGenerator(name = "instituicao_seq", sequenceName = "instituicao_seq", allocationSize = 50)
     private Long id;
 
     private String nome;
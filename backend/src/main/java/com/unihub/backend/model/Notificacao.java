@@ -3,15 +3,28 @@ package com.unihub.backend.model;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HexFormat;
+import java.util.Objects;
 
 @Entity
-@Table(name = "notificacoes")
+@Table(name = "notificacoes",
+        uniqueConstraints = @UniqueConstraint(name = "uk_notificacoes_usuario_chave",
+                columnNames = {"usuario_id", "chave_deduplicacao"}),
+        indexes = {
+                @Index(name = "idx_notificacoes_usuario_atualizada", columnList = "usuario_id, atualizada_em, id"),
+                @Index(name = "idx_notificacoes_usuario_lida", columnList = "usuario_id, lida")
+        })
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class Notificacao {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "notificacoes_seq")
+    @SequenceGenerator(name = "notificacoes_seq", sequenceName = "notificacoes_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -53,9 +66,36 @@ public class Notificacao {
     @Column(name = "atualizada_em", nullable = false)
     private LocalDateTime atualizadaEm;
 
+    // Resumo de (tipo, categoria, referência) — ou de (tipo, mensagem, criação) quando não há
+    // referência. Com categoria/referência nulas um índice único direto nessas colunas não
+    // barraria duplicatas, já que NULL nunca conflita.
+    @Column(name = "chave_deduplicacao", nullable = false, length = 64)
+    private String chaveDeduplicacao;
+
     public Notificacao() {
     }
 
+    public static String chaveDeduplicacao(String tipo, String categoria, Long referenciaId,
+                                           String mensagem, LocalDateTime criadaEm) {
+        String origem = referenciaId != null
+                ? String.join("|", "ref", Objects.toString(tipo, ""), Objects.toString(categoria, ""),
+                        referenciaId.toString())
+                : String.join("|", "msg", Objects.toString(tipo, ""), Objects.toString(mensagem, ""),
+                        criadaEm != null ? criadaEm.truncatedTo(ChronoUnit.MILLIS).toString() : "");
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(origem.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
+
+    @PrePersist
+    @PreUpdate
+    void atualizarChaveDeduplicacao() {
+        this.chaveDeduplicacao = chaveDeduplicacao(tipo, categoria, referenciaId, mensagem, criadaEm);
+    }
+
     public Long getId() {
         return id;
     }
@@ -161,4 +201,8 @@ public class Notificacao {
     public void setAtualizadaEm(LocalDateTime atualizadaEm) {
         this.atualizadaEm = atualizadaEm;
     }
+
+    public String getChaveDeduplicacao() {
+        return chaveDeduplicacao;
+    }
 }
\ No newline at end of file
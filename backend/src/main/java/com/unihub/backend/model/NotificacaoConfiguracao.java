@@ -11,7 +11,8 @@ import java.util.Set;
 public class NotificacaoConfiguracao {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "notificacao_configuracoes_seq")
+    @SequenceGenerator(name = "notificacao_configuracoes_seq", sequenceName = "notificacao_configuracoes_seq", allocationSize = 50)
     private Long id;
 
     @OneToOne(fetch = FetchType.LAZY)
@@ -11,7 +11,8 @@ import jakarta.persistence.*;
 public class NotificacaoConfiguracaoAntecedencia {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "notificacao_config_antecedencias_seq")
+    @SequenceGenerator(name = "notificacao_config_antecedencias_seq", sequenceName = "notificacao_config_antecedencias_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
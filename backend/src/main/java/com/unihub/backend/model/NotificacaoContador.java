@@ -0,0 +1,46 @@
+package com.unihub.backend.model;
+
+import jakarta.persistence.*;
+
+/**
+ * Total de notificações não lidas de um usuário, para o badge do app.
+ *
+ * Não é gravado pela aplicação diretamente: a linha nasce na primeira leitura ou escrita e é
+ * recalculada (upsert) por {@link com.unihub.backend.service.ContadorNotificacoes} a cada escrita
+ * que muda notificações do usuário.
+ */
+@Entity
+@Table(name = "notificacao_contadores")
+public class NotificacaoContador {
+
+    @Id
+    @Column(name = "usuario_id", nullable = false)
+    private Long usuarioId;
+
+    @Column(name = "nao_lidas", nullable = false)
+    private long naoLidas;
+
+    public NotificacaoContador() {
+    }
+
+    public NotificacaoContador(Long usuarioId, long naoLidas) {
+        this.usuarioId = usuarioId;
+        this.naoLidas = naoLidas;
+    }
+
+    public Long getUsuarioId() {
+        return usuarioId;
+    }
+
+    public void setUsuarioId(Long usuarioId) {
+        this.usuarioId = usuarioId;
+    }
+
+    public long getNaoLidas() {
+        return naoLidas;
+    }
+
+    public void setNaoLidas(long naoLidas) {
+        this.naoLidas = naoLidas;
+    }
+}
@@ -5,7 +5,8 @@ import java.time.Instant;
 
 @Entity
 public class PasswordResetToken {
-    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Id @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "password_reset_token_seq")
+    @SequenceGenerator(name = "password_reset_token_seq", sequenceName = "password_reset_token_seq", allocationSize = 50)
     private Long id;
 
     private Long userId;                     
@@ -0,0 +1,92 @@
+package com.unihub.backend.model;
+
+import com.unihub.backend.model.enums.MotivoAcessoQuadro;
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * Índice de acesso aos quadros: uma linha por (usuário, quadro, motivo).
+ *
+ * Não é gravado pela aplicação diretamente; é recalculado por
+ * {@link com.unihub.backend.config.QuadroAcessoListener} sempre que quadro, contato,
+ * membros do grupo ou responsáveis das tarefas mudam.
+ *
+ * As consultas partem do usuário (quadros que ele acessa), daí o índice em (usuário, quadro); o
+ * recálculo por quadro usa a chave primária, que começa por {@code quadro_id}.
+ */
+@Entity
+@Table(name = "quadro_acesso", indexes = {
+        @Index(name = "idx_quadro_acesso_usuario", columnList = "usuario_id, quadro_id")
+})
+@IdClass(QuadroAcesso.Chave.class)
+public class QuadroAcesso {
+
+    @Id
+    @Column(name = "usuario_id", nullable = false)
+    private Long usuarioId;
+
+    @Id
+    @Column(name = "quadro_id", nullable = false)
+    private Long quadroId;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private MotivoAcessoQuadro motivo;
+
+    public Long getUsuarioId() {
+        return usuarioId;
+    }
+
+    public void setUsuarioId(Long usuarioId) {
+        this.usuarioId = usuarioId;
+    }
+
+    public Long getQuadroId() {
+        return quadroId;
+    }
+
+    public void setQuadroId(Long quadroId) {
+        this.quadroId = quadroId;
+    }
+
+    public MotivoAcessoQuadro getMotivo() {
+        return motivo;
+    }
+
+    public void setMotivo(MotivoAcessoQuadro motivo) {
+        this.motivo = motivo;
+    }
+
+    public static class Chave implements Serializable {
+
+        private Long usuarioId;
+        private Long quadroId;
+        private MotivoAcessoQuadro motivo;
+
+        public Chave() {
+        }
+
+        public Chave(Long usuarioId, Long quadroId, MotivoAcessoQuadro motivo) {
+            this.usuarioId = usuarioId;
+            this.quadroId = quadroId;
+            this.motivo = motivo;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Chave chave)) return false;
+            return Objects.equals(usuarioId, chave.usuarioId)
+                    && Objects.equals(quadroId, chave.quadroId)
+                    && motivo == chave.motivo;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(usuarioId, quadroId, motivo);
+        }
+    }
+}
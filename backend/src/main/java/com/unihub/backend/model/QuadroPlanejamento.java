@@ -18,7 +18,8 @@ import java.util.List;
 public class QuadroPlanejamento {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "quadros_planejamento_seq")
+    @SequenceGenerator(name = "quadros_planejamento_seq", sequenceName = "quadros_planejamento_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -51,6 +52,11 @@ public class QuadroPlanejamento {
     @JoinColumn(name = "contato_id", referencedColumnName = "id_contato")
     private Contato contato;
 
+    // Valor cru de contato_id (id_contato), usado nas projeções de listagem sem carregar o Contato.
+    @Column(name = "contato_id", insertable = false, updatable = false)
+    @JsonIgnore
+    private Long contatoIdContato;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "grupo_id")
     private Grupo grupo;
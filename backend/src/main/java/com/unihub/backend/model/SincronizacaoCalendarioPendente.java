@@ -0,0 +1,125 @@
+package com.unihub.backend.model;
+
+import com.unihub.backend.model.enums.OperacaoCalendario;
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+/**
+ * Alteração de avaliação aguardando ir para o Google Calendar pela
+ * {@link com.unihub.backend.service.FilaSincronizacaoCalendario}.
+ *
+ * Várias linhas da mesma avaliação valem como uma só: o worker olha a mais recente. Os ids
+ * ficam sem chave estrangeira porque a remoção sobrevive à avaliação (o {@code eventId} é
+ * guardado na exclusão justamente por isso).
+ */
+@Entity
+@Table(name = "calendario_sincronizacoes_pendentes",
+        indexes = {
+                @Index(name = "idx_calendario_sinc_proxima", columnList = "proxima_tentativa_em"),
+                @Index(name = "idx_calendario_sinc_avaliacao", columnList = "usuario_id, avaliacao_id")
+        })
+public class SincronizacaoCalendarioPendente {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "calendario_sincronizacoes_pendentes_seq")
+    @SequenceGenerator(name = "calendario_sincronizacoes_pendentes_seq", sequenceName = "calendario_sincronizacoes_pendentes_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "usuario_id", nullable = false)
+    private Long usuarioId;
+
+    @Column(name = "avaliacao_id", nullable = false)
+    private Long avaliacaoId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private OperacaoCalendario operacao;
+
+    @Column(name = "event_id")
+    private String eventId;
+
+    @Column(nullable = false)
+    private int tentativas;
+
+    @Column(name = "proxima_tentativa_em", nullable = false)
+    private Instant proximaTentativaEm;
+
+    @Column(name = "reservado_ate")
+    private Instant reservadoAte;
+
+    @Column(name = "criada_em", nullable = false)
+    private Instant criadaEm;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getUsuarioId() {
+        return usuarioId;
+    }
+
+    public void setUsuarioId(Long usuarioId) {
+        this.usuarioId = usuarioId;
+    }
+
+    public Long getAvaliacaoId() {
+        return avaliacaoId;
+    }
+
+    public void setAvaliacaoId(Long avaliacaoId) {
+        this.avaliacaoId = avaliacaoId;
+    }
+
+    public OperacaoCalendario getOperacao() {
+        return operacao;
+    }
+
+    public void setOperacao(OperacaoCalendario operacao) {
+        this.operacao = operacao;
+    }
+
+    public String getEventId() {
+        return eventId;
+    }
+
+    public void setEventId(String eventId) {
+        this.eventId = eventId;
+    }
+
+    public int getTentativas() {
+        return tentativas;
+    }
+
+    public void setTentativas(int tentativas) {
+        this.tentativas = tentativas;
+    }
+
+    public Instant getProximaTentativaEm() {
+        return proximaTentativaEm;
+    }
+
+    public void setProximaTentativaEm(Instant proximaTentativaEm) {
+        this.proximaTentativaEm = proximaTentativaEm;
+    }
+
+    public Instant getReservadoAte() {
+        return reservadoAte;
+    }
+
+    public void setReservadoAte(Instant reservadoAte) {
+        this.reservadoAte = reservadoAte;
+    }
+
+    public Instant getCriadaEm() {
+        return criadaEm;
+    }
+
+    public void setCriadaEm(Instant criadaEm) {
+        this.criadaEm = criadaEm;
+    }
+}
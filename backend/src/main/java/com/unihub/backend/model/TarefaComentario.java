@@ -9,7 +9,8 @@ import java.time.LocalDateTime;
 public class TarefaComentario {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tarefas_comentarios_seq")
+    @SequenceGenerator(name = "tarefas_comentarios_seq", sequenceName = "tarefas_comentarios_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -8,7 +8,8 @@ import jakarta.persistence.*;
 public class TarefaNotificacao {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tarefas_comentarios_notificacoes_seq")
+    @SequenceGenerator(name = "tarefas_comentarios_notificacoes_seq", sequenceName = "tarefas_comentarios_notificacoes_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -21,7 +21,8 @@ import java.util.stream.Collectors;
 public class TarefaPlanejamento {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tarefas_planejamento_seq")
+    @SequenceGenerator(name = "tarefas_planejamento_seq", sequenceName = "tarefas_planejamento_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
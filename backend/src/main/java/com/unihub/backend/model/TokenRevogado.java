@@ -0,0 +1,86 @@
+package com.unihub.backend.model;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+/**
+ * Revogação de tokens assinados, compartilhada entre instâncias pelo
+ * {@link com.unihub.backend.service.TokenAssinadoService}: ou um token só ({@code jti}, no
+ * logout), ou todos os tokens de um usuário emitidos até {@code revogadoEm}.
+ *
+ * A linha só importa até {@code expiraEm}; depois disso nenhum token que ela barraria ainda vale.
+ */
+@Entity
+@Table(name = "tokens_revogados", indexes = {
+        @Index(name = "idx_tokens_revogados_expira_em", columnList = "expira_em")
+})
+public class TokenRevogado {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tokens_revogados_seq")
+    @SequenceGenerator(name = "tokens_revogados_seq", sequenceName = "tokens_revogados_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(length = 32)
+    private String jti;
+
+    @Column(name = "usuario_id")
+    private Long usuarioId;
+
+    @Column(name = "revogado_em", nullable = false)
+    private Instant revogadoEm;
+
+    @Column(name = "expira_em", nullable = false)
+    private Instant expiraEm;
+
+    public TokenRevogado() {
+    }
+
+    public TokenRevogado(String jti, Long usuarioId, Instant revogadoEm, Instant expiraEm) {
+        this.jti = jti;
+        this.usuarioId = usuarioId;
+        this.revogadoEm = revogadoEm;
+        this.expiraEm = expiraEm;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getJti() {
+        return jti;
+    }
+
+    public void setJti(String jti) {
+        this.jti = jti;
+    }
+
+    public Long getUsuarioId() {
+        return usuarioId;
+    }
+
+    public void setUsuarioId(Long usuarioId) {
+        this.usuarioId = usuarioId;
+    }
+
+    public Instant getRevogadoEm() {
+        return revogadoEm;
+    }
+
+    public void setRevogadoEm(Instant revogadoEm) {
+        this.revogadoEm = revogadoEm;
+    }
+
+    public Instant getExpiraEm() {
+        return expiraEm;
+    }
+
+    public void setExpiraEm(Instant expiraEm) {
+        this.expiraEm = expiraEm;
+    }
+}
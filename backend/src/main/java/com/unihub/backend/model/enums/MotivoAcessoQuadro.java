@@ -0,0 +1,8 @@
+package com.unihub.backend.model.enums;
+
+public enum MotivoAcessoQuadro {
+    DONO,
+    CONTATO,
+    GRUPO,
+    RESPONSAVEL
+}
@@ -0,0 +1,6 @@
+package com.unihub.backend.model.enums;
+
+public enum OperacaoCalendario {
+    SINCRONIZAR,
+    REMOVER
+}
@@ -0,0 +1,7 @@
+package com.unihub.backend.model.enums;
+
+public enum StatusEmail {
+    PENDENTE,
+    ENVIANDO,
+    FALHOU
+}
@@ -1,8 +1,11 @@
 package com.unihub.backend.repository;
 
 import com.unihub.backend.model.AuthToken;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -23,9 +26,13 @@ public interface AuthTokenRepository extends JpaRepository<AuthToken, Long> {
     @Modifying(clearAutomatically = true, flushAutomatically = true)
     void deleteByUsuarioId(Long usuarioId);
 
+    @Query("SELECT t.token FROM AuthToken t WHERE t.expiraEm < :limite ORDER BY t.expiraEm")
+    List<String> findTokensExpirados(@Param("limite") LocalDateTime limite, Pageable pageable);
+
     @Transactional
     @Modifying(clearAutomatically = true, flushAutomatically = true)
-    void deleteByExpiraEmBefore(LocalDateTime limite);
+    @Query("DELETE FROM AuthToken t WHERE t.token IN :tokens AND t.expiraEm < :limite")
+    int deleteExpiradosByTokenIn(@Param("tokens") List<String> tokens, @Param("limite") LocalDateTime limite);
 
     Optional<AuthToken> findFirstByUsuarioIdAndExpiraEmAfterOrderByExpiraEmDesc(Long usuarioId,
                                                                                LocalDateTime agora);
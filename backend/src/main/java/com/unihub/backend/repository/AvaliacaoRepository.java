@@ -4,8 +4,11 @@ import com.unihub.backend.model.Avaliacao;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
-
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -24,10 +27,28 @@ public interface AvaliacaoRepository extends JpaRepository<Avaliacao, Long> {
     @EntityGraph(attributePaths = {"disciplina"})
     List<Avaliacao> findByUsuarioIdAndDescricaoContainingIgnoreCaseAndDisciplinaIsNotNull(Long usuarioId, String descricao);
 
+    // Com completa = false, só o que mudou desde a última versão enviada ao Google Calendar.
+    @EntityGraph(attributePaths = {"disciplina", "integrantes"})
+    @Query("""
+        SELECT DISTINCT a FROM Avaliacao a
+         WHERE a.usuario.id = :usuarioId
+           AND (:completa = true
+                OR a.googleSincronizadaEm IS NULL
+                OR a.atualizadaEm IS NULL
+                OR a.atualizadaEm > a.googleSincronizadaEm)
+        """)
+    List<Avaliacao> findParaSincronizarGoogle(@Param("usuarioId") Long usuarioId,
+                                              @Param("completa") boolean completa);
+
+    @EntityGraph(attributePaths = {"disciplina", "integrantes"})
+    @Query("SELECT DISTINCT a FROM Avaliacao a WHERE a.usuario.id = :usuarioId AND a.id IN :ids")
+    List<Avaliacao> findParaSincronizarGoogle(@Param("usuarioId") Long usuarioId,
+                                              @Param("ids") Collection<Long> ids);
+
+    @Query("SELECT a.googleCalendarEventId FROM Avaliacao a WHERE a.usuario.id = :usuarioId AND a.googleCalendarEventId IS NOT NULL")
+    List<String> findGoogleCalendarEventIds(@Param("usuarioId") Long usuarioId);
+
+    @Modifying
+    @Query("UPDATE Avaliacao a SET a.googleCalendarEventId = null, a.googleSincronizadaEm = null WHERE a.usuario.id = :usuarioId")
+    int limparSincronizacaoGoogle(@Param("usuarioId") Long usuarioId);
 }
-
-
-
-
-
-
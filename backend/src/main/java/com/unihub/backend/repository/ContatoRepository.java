@@ -3,8 +3,11 @@ package com.unihub.backend.repository;
 import com.unihub.backend.model.Contato;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 
+import java.util.Collection;
 import java.util.Optional;
 
 import java.util.List;
@@ -14,14 +17,28 @@ public interface ContatoRepository extends JpaRepository<Contato, Long> {
     Optional<Contato> findByIdAndOwnerId(Long id, Long ownerId);
     boolean existsByIdAndOwnerId(Long id, Long ownerId);
     List<Contato> findByOwnerIdAndIdIn(Long ownerId, List<Long> ids);
-    List<Contato> findByEmailIgnoreCaseAndPendenteTrue(String email);
-    List<Contato> findByEmailIgnoreCase(String email);
+    // Comparações de e-mail com LOWER (e não o UPPER do IgnoreCase) para usar o índice
+    // idx_contato_email_lower.
+    @Query("SELECT c FROM Contato c WHERE LOWER(c.email) = LOWER(:email) AND c.pendente = true")
+    List<Contato> findByEmailIgnoreCaseAndPendenteTrue(@Param("email") String email);
+
+    @Query("SELECT c FROM Contato c WHERE LOWER(c.email) = LOWER(:email)")
+    List<Contato> findByEmailIgnoreCase(@Param("email") String email);
     List<Contato> findByIdContato(Long idContato);
     Optional<Contato> findByOwnerIdAndIdContato(Long ownerId, Long idContato);
 
-    Optional<Contato> findByOwnerIdAndEmailIgnoreCase(Long ownerId, String email);
+    @Query("SELECT c FROM Contato c WHERE c.ownerId = :ownerId AND LOWER(c.email) = LOWER(:email)")
+    Optional<Contato> findByOwnerIdAndEmailIgnoreCase(@Param("ownerId") Long ownerId, @Param("email") String email);
     Optional<Contato> findByOwnerIdAndEmail(Long ownerId, String email);
 
+    // Versões em lote para resolver vários membros de grupo de uma vez.
+    List<Contato> findByOwnerIdAndIdContatoInOrderByIdAsc(Long ownerId, Collection<Long> idsContato);
+
+    // `emails` deve vir normalizado (trim + minúsculas).
+    @Query("SELECT c FROM Contato c WHERE c.ownerId = :ownerId AND LOWER(c.email) IN :emails ORDER BY c.id")
+    List<Contato> findByOwnerIdAndEmailNormalizadoIn(@Param("ownerId") Long ownerId,
+                                                     @Param("emails") Collection<String> emails);
+
 }
 
 
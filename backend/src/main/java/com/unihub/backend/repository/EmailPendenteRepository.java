@@ -0,0 +1,32 @@
+package com.unihub.backend.repository;
+
+import com.unihub.backend.model.EmailPendente;
+import com.unihub.backend.model.enums.StatusEmail;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface EmailPendenteRepository extends JpaRepository<EmailPendente, Long> {
+
+    // Timeout -2 = SKIP LOCKED: instâncias diferentes drenam a fila sem disputar as mesmas linhas.
+    // Reservas vencidas (worker que caiu no meio do envio) voltam a ficar disponíveis.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("""
+        SELECT e FROM EmailPendente e
+         WHERE (e.status = com.unihub.backend.model.enums.StatusEmail.PENDENTE AND e.proximaTentativaEm <= :agora)
+            OR (e.status = com.unihub.backend.model.enums.StatusEmail.ENVIANDO AND e.reservadoAte < :agora)
+         ORDER BY e.proximaTentativaEm, e.id
+        """)
+    List<EmailPendente> findDisponiveis(@Param("agora") Instant agora, Pageable pageable);
+
+    long countByStatus(StatusEmail status);
+}
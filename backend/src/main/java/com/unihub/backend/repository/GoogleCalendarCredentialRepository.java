@@ -2,11 +2,33 @@ package com.unihub.backend.repository;
 
 import com.unihub.backend.model.GoogleCalendarCredential;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
 import java.util.Optional;
 
 public interface GoogleCalendarCredentialRepository extends JpaRepository<GoogleCalendarCredential, Long> {
     Optional<GoogleCalendarCredential> findByUsuarioId(Long usuarioId);
     boolean existsByUsuarioId(Long usuarioId);
     void deleteByUsuarioId(Long usuarioId);
+
+    @Modifying
+    @Query("UPDATE GoogleCalendarCredential c SET c.lastSyncedAt = :quando WHERE c.usuario.id = :usuarioId")
+    int registrarSincronizacao(@Param("usuarioId") Long usuarioId, @Param("quando") Instant quando);
+
+    // Refresh token nulo mantém o atual: o Google quase nunca manda outro na renovação.
+    @Modifying
+    @Query("""
+        UPDATE GoogleCalendarCredential c
+           SET c.accessToken = :accessToken,
+               c.refreshToken = COALESCE(:refreshToken, c.refreshToken),
+               c.accessTokenExpiresAt = :expiraEm
+         WHERE c.usuario.id = :usuarioId
+        """)
+    int atualizarTokens(@Param("usuarioId") Long usuarioId,
+                        @Param("accessToken") String accessToken,
+                        @Param("refreshToken") String refreshToken,
+                        @Param("expiraEm") Instant expiraEm);
 }
\ No newline at end of file
@@ -0,0 +1,31 @@
+package com.unihub.backend.repository;
+
+import com.unihub.backend.model.NotificacaoContador;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface NotificacaoContadorRepository extends JpaRepository<NotificacaoContador, Long> {
+
+    @Query("SELECT c.usuarioId FROM NotificacaoContador c WHERE c.usuarioId IN :usuarioIds")
+    List<Long> findUsuarioIdsComContador(@Param("usuarioIds") Collection<Long> usuarioIds);
+
+    // Segura a chave até o commit: quem criar o mesmo contador ao mesmo tempo espera e não falha.
+    @Modifying
+    @Query("INSERT INTO NotificacaoContador (usuarioId, naoLidas) VALUES (:usuarioId, 0) ON CONFLICT DO NOTHING")
+    int criarSeAusente(@Param("usuarioId") Long usuarioId);
+
+    // Só atinge quem já tem contador; ContadorNotificacoes cria os que faltam antes.
+    @Modifying(flushAutomatically = true)
+    @Query("""
+        UPDATE NotificacaoContador c
+           SET c.naoLidas = (SELECT COUNT(n) FROM Notificacao n
+                              WHERE n.usuario.id = c.usuarioId AND n.lida = false)
+         WHERE c.usuarioId IN :usuarioIds
+        """)
+    int recalcular(@Param("usuarioIds") Collection<Long> usuarioIds);
+}
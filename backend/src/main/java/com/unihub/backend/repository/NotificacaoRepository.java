@@ -1,34 +1,99 @@
 package com.unihub.backend.repository;
 
 import com.unihub.backend.model.Notificacao;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 
-public interface NotificacaoRepository extends JpaRepository<Notificacao, Long> {
+public interface NotificacaoRepository extends JpaRepository<Notificacao, Long>, NotificacaoRepositoryCustom {
 
     List<Notificacao> findByUsuarioIdOrderByCriadaEmDesc(Long usuarioId);
 
     List<Notificacao> findByUsuarioIdOrderByAtualizadaEmDesc(Long usuarioId);
 
-    List<Notificacao> findByConviteIdAndUsuarioId(Long conviteId, Long usuarioId);
+    // Histórico paginado por keyset em (atualizada_em, id), coberto por idx_notificacoes_usuario_atualizada.
+    @Query("""
+        SELECT n FROM Notificacao n
+        WHERE n.usuario.id = :usuarioId
+          AND (:cursorId IS NULL
+               OR n.atualizadaEm < :cursorAtualizadaEm
+               OR (n.atualizadaEm = :cursorAtualizadaEm AND n.id < :cursorId))
+        ORDER BY n.atualizadaEm DESC, n.id DESC
+        """)
+    List<Notificacao> findPagina(@Param("usuarioId") Long usuarioId,
+                                 @Param("cursorAtualizadaEm") LocalDateTime cursorAtualizadaEm,
+                                 @Param("cursorId") Long cursorId,
+                                 Pageable pageable);
 
-    void deleteByUsuarioId(Long usuarioId);
+    // Retomada do stream a partir do Last-Event-ID: o que mudou depois da posição, em ordem crescente.
+    @Query("""
+        SELECT n FROM Notificacao n
+        WHERE n.usuario.id = :usuarioId
+          AND (n.atualizadaEm > :atualizadaEm OR (n.atualizadaEm = :atualizadaEm AND n.id > :id))
+        ORDER BY n.atualizadaEm, n.id
+        """)
+    List<Notificacao> findAlteradasDepois(@Param("usuarioId") Long usuarioId,
+                                          @Param("atualizadaEm") LocalDateTime atualizadaEm,
+                                          @Param("id") Long id,
+                                          Pageable pageable);
+
+    long countByUsuarioIdAndLidaFalse(Long usuarioId);
+
+    // Marcação em lote: um UPDATE, sem carregar as entidades. atualizada_em avança para que o
+    // stream e a retomada por Last-Event-ID levem a leitura aos outros dispositivos.
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+        UPDATE Notificacao n SET n.lida = true, n.interacaoPendente = false, n.atualizadaEm = :agora
+        WHERE n.usuario.id = :usuarioId AND n.id IN :ids AND (n.lida = false OR n.interacaoPendente = true)
+        """)
+    int marcarComoLidas(@Param("usuarioId") Long usuarioId, @Param("ids") Collection<Long> ids,
+                        @Param("agora") LocalDateTime agora);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+        UPDATE Notificacao n SET n.lida = true, n.interacaoPendente = false, n.atualizadaEm = :agora
+        WHERE n.usuario.id = :usuarioId AND (n.lida = false OR n.interacaoPendente = true)
+        """)
+    int marcarTodasComoLidas(@Param("usuarioId") Long usuarioId, @Param("agora") LocalDateTime agora);
+
+    // As que uma marcação em lote acabou de alterar (idx_notificacoes_usuario_atualizada).
+    List<Notificacao> findByUsuarioIdAndAtualizadaEm(Long usuarioId, LocalDateTime atualizadaEm);
 
-    Optional<Notificacao> findByUsuarioIdAndTipoAndMensagemAndCriadaEm(Long usuarioId,
-                                                                       String tipo,
-                                                                       String mensagem,
-                                                                       LocalDateTime criadaEm);
-                                                            
-    Optional<Notificacao> findByUsuarioIdAndTipoAndReferenciaId(Long usuarioId,
-                                                                String tipo,
-                                                                Long referenciaId);
+    @Modifying(flushAutomatically = true)
+    @Query("""
+        UPDATE Notificacao n SET n.lida = true, n.interacaoPendente = false, n.atualizadaEm = :agora
+        WHERE n.usuario.id = :usuarioId AND n.interacaoPendente = true
+        """)
+    int marcarPendentesComoLidas(@Param("usuarioId") Long usuarioId, @Param("agora") LocalDateTime agora);
+
+    @Modifying(flushAutomatically = true)
+    @Query("""
+        UPDATE Notificacao n SET n.lida = true, n.interacaoPendente = false, n.atualizadaEm = :agora
+        WHERE n.usuario.id = :usuarioId AND n.convite.id = :conviteId
+        """)
+    int marcarComoLidasPorConvite(@Param("conviteId") Long conviteId,
+                                  @Param("usuarioId") Long usuarioId,
+                                  @Param("agora") LocalDateTime agora);
+
+    void deleteByUsuarioId(Long usuarioId);
 
     Optional<Notificacao> findByUsuarioIdAndTipoAndCategoriaAndReferenciaId(Long usuarioId,
                                                                             String tipo,
                                                                             String categoria,
                                                                             Long referenciaId);
-}
\ No newline at end of file
+
+    // Candidatas de um lote do NotificationDispatcher; a chave exata é conferida em memória.
+    @Query("SELECT n FROM Notificacao n WHERE n.usuario.id IN :usuarioIds "
+            + "AND n.tipo IN :tipos AND n.referenciaId IN :referenciaIds")
+    List<Notificacao> findExistentesParaLote(@Param("usuarioIds") Collection<Long> usuarioIds,
+                                             @Param("tipos") Collection<String> tipos,
+                                             @Param("referenciaIds") Collection<Long> referenciaIds);
+}
@@ -0,0 +1,17 @@
+package com.unihub.backend.repository;
+
+import com.unihub.backend.model.Notificacao;
+
+public interface NotificacaoRepositoryCustom {
+
+    /**
+     * Insere a notificação do usuário ou, se já existir uma com a mesma
+     * {@code chaveDeduplicacao}, atualiza a existente — no PostgreSQL num único
+     * {@code INSERT ... ON CONFLICT DO UPDATE}.
+     *
+     * Na atualização, {@code criadaEm} e {@code lida} são preservados, {@code metadataJson}
+     * só é trocado quando informado e {@code interacaoPendente} só muda se
+     * {@code limparPendencia} for verdadeiro.
+     */
+    Notificacao upsert(Long usuarioId, Notificacao dados, boolean limparPendencia);
+}
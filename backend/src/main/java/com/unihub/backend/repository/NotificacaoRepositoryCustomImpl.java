@@ -0,0 +1,128 @@
+package com.unihub.backend.repository;
+
+import com.unihub.backend.model.Notificacao;
+import com.unihub.backend.model.Usuario;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.query.NativeQuery;
+import org.hibernate.type.StandardBasicTypes;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.temporal.ChronoUnit;
+import java.util.Objects;
+
+class NotificacaoRepositoryCustomImpl implements NotificacaoRepositoryCustom {
+
+    // O nextval direto consome o topo de um bloco que o otimizador pooled do Hibernate nunca
+    // recebeu, então não colide com os ids que ele distribui (só desperdiça o resto do bloco).
+    private static final String UPSERT_POSTGRES = """
+            INSERT INTO notificacoes (id, usuario_id, convite_id, titulo, mensagem, lida, tipo, categoria,
+                                      referencia_id, interacao_pendente, metadata_json, criada_em,
+                                      atualizada_em, chave_deduplicacao)
+            VALUES (nextval('notificacoes_seq'), :usuarioId, NULL, :titulo, :mensagem, FALSE, :tipo, :categoria,
+                    :referenciaId, :interacaoPendente, :metadataJson, :criadaEm,
+                    :atualizadaEm, :chave)
+            ON CONFLICT (usuario_id, chave_deduplicacao) DO UPDATE SET
+                convite_id = NULL,
+                titulo = EXCLUDED.titulo,
+                mensagem = EXCLUDED.mensagem,
+                tipo = EXCLUDED.tipo,
+                categoria = EXCLUDED.categoria,
+                referencia_id = EXCLUDED.referencia_id,
+                interacao_pendente = CASE WHEN :limparPendencia THEN FALSE
+                                          ELSE notificacoes.interacao_pendente END,
+                metadata_json = COALESCE(EXCLUDED.metadata_json, notificacoes.metadata_json),
+                atualizada_em = EXCLUDED.atualizada_em
+            RETURNING *
+            """;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private Boolean postgres;
+
+    @Override
+    @Transactional
+    public Notificacao upsert(Long usuarioId, Notificacao dados, boolean limparPendencia) {
+        String chave = Notificacao.chaveDeduplicacao(dados.getTipo(), dados.getCategoria(),
+                dados.getReferenciaId(), dados.getMensagem(), dados.getCriadaEm());
+        return isPostgres()
+                ? upsertNativo(usuarioId, dados, chave, limparPendencia)
+                : upsertPorConsulta(usuarioId, dados, chave, limparPendencia);
+    }
+
+    private Notificacao upsertNativo(Long usuarioId, Notificacao dados, String chave, boolean limparPendencia) {
+        NativeQuery<Notificacao> query = entityManager.unwrap(Session.class)
+                .createNativeQuery(UPSERT_POSTGRES, Notificacao.class);
+        // timestamp do PostgreSQL guarda microssegundos
+        dados.setAtualizadaEm(dados.getAtualizadaEm().truncatedTo(ChronoUnit.MICROS));
+        // Tipos explícitos: o driver do PostgreSQL não infere o tipo de um parâmetro NULL.
+        query.setParameter("usuarioId", usuarioId, StandardBasicTypes.LONG);
+        query.setParameter("titulo", dados.getTitulo(), StandardBasicTypes.STRING);
+        query.setParameter("mensagem", dados.getMensagem(), StandardBasicTypes.STRING);
+        query.setParameter("tipo", dados.getTipo(), StandardBasicTypes.STRING);
+        query.setParameter("categoria", dados.getCategoria(), StandardBasicTypes.STRING);
+        query.setParameter("referenciaId", dados.getReferenciaId(), StandardBasicTypes.LONG);
+        query.setParameter("interacaoPendente", dados.isInteracaoPendente(), StandardBasicTypes.BOOLEAN);
+        query.setParameter("metadataJson", dados.getMetadataJson(), StandardBasicTypes.TEXT);
+        query.setParameter("criadaEm", dados.getCriadaEm(), StandardBasicTypes.LOCAL_DATE_TIME);
+        query.setParameter("atualizadaEm", dados.getAtualizadaEm(), StandardBasicTypes.LOCAL_DATE_TIME);
+        query.setParameter("chave", chave, StandardBasicTypes.STRING);
+        query.setParameter("limparPendencia", limparPendencia, StandardBasicTypes.BOOLEAN);
+
+        Notificacao salva = query.getSingleResult();
+        // Se a linha já estava carregada na sessão, o Hibernate devolve a instância antiga.
+        if (!Objects.equals(salva.getAtualizadaEm(), dados.getAtualizadaEm())) {
+            entityManager.refresh(salva);
+        }
+        return salva;
+    }
+
+    // Demais bancos (H2 nos testes): mesma semântica, com leitura antes da escrita.
+    private Notificacao upsertPorConsulta(Long usuarioId, Notificacao dados, String chave, boolean limparPendencia) {
+        Notificacao notificacao = entityManager.createQuery(
+                        "SELECT n FROM Notificacao n WHERE n.usuario.id = :usuarioId "
+                                + "AND n.chaveDeduplicacao = :chave", Notificacao.class)
+                .setParameter("usuarioId", usuarioId)
+                .setParameter("chave", chave)
+                .getResultStream()
+                .findFirst()
+                .orElse(null);
+
+        if (notificacao == null) {
+            dados.setUsuario(entityManager.getReference(Usuario.class, usuarioId));
+            dados.setConvite(null);
+            dados.setLida(false);
+            entityManager.persist(dados);
+            return dados;
+        }
+
+        notificacao.setConvite(null);
+        notificacao.setTitulo(dados.getTitulo());
+        notificacao.setMensagem(dados.getMensagem());
+        notificacao.setTipo(dados.getTipo());
+        notificacao.setCategoria(dados.getCategoria());
+        notificacao.setReferenciaId(dados.getReferenciaId());
+        if (limparPendencia) {
+            notificacao.setInteracaoPendente(false);
+        }
+        if (dados.getMetadataJson() != null) {
+            notificacao.setMetadataJson(dados.getMetadataJson());
+        }
+        notificacao.setAtualizadaEm(dados.getAtualizadaEm());
+        return notificacao;
+    }
+
+    private boolean isPostgres() {
+        if (postgres == null) {
+            postgres = entityManager.getEntityManagerFactory()
+                    .unwrap(SessionFactoryImplementor.class)
+                    .getJdbcServices()
+                    .getDialect() instanceof PostgreSQLDialect;
+        }
+        return postgres;
+    }
+}
@@ -1,7 +1,9 @@
 package com.unihub.backend.repository;
 
+import com.unihub.backend.dto.planejamento.QuadroPlanejamentoListaResponse;
 import com.unihub.backend.model.QuadroPlanejamento;
 import com.unihub.backend.model.enums.QuadroStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -21,41 +23,64 @@ public interface QuadroPlanejamentoRepository extends JpaRepository<QuadroPlanej
 
     Optional<QuadroPlanejamento> findByIdAndUsuarioId(Long id, Long usuarioId);
 
+    // Acesso resolvido pelo índice quadro_acesso (mantido por QuadroAcessoListener).
     @Query("""
-        SELECT DISTINCT q FROM QuadroPlanejamento q
-        LEFT JOIN q.contato contato
-        LEFT JOIN q.grupo grupo
-        LEFT JOIN grupo.membros membro
-        LEFT JOIN q.colunas coluna
-        LEFT JOIN coluna.tarefas tarefa
-        LEFT JOIN tarefa.responsaveis responsavel
-        WHERE q.usuario.id = :usuarioId
-           OR (contato.idContato IS NOT NULL AND contato.idContato = :usuarioId)
-            OR (contato.ownerId IS NOT NULL AND contato.ownerId = :usuarioId)
-            OR (membro.idContato IS NOT NULL AND membro.idContato = :usuarioId)
-            OR (membro.ownerId IS NOT NULL AND membro.ownerId = :usuarioId)
-            OR (responsavel.idContato IS NOT NULL AND responsavel.idContato = :usuarioId)
-            OR (responsavel.ownerId IS NOT NULL AND responsavel.ownerId = :usuarioId)
+        SELECT q FROM QuadroPlanejamento q
+        WHERE q.id IN (SELECT a.quadroId FROM QuadroAcesso a WHERE a.usuarioId = :usuarioId)
         """)
     List<QuadroPlanejamento> findAllAccessibleByUsuarioId(@Param("usuarioId") Long usuarioId);
 
     @Query("""
-        SELECT DISTINCT q FROM QuadroPlanejamento q
-        LEFT JOIN q.contato contato
-        LEFT JOIN q.grupo grupo
-        LEFT JOIN grupo.membros membro
-        LEFT JOIN q.colunas coluna
-        LEFT JOIN coluna.tarefas tarefa
-        LEFT JOIN tarefa.responsaveis responsavel
-        WHERE q.id = :quadroId AND (
-           q.usuario.id = :usuarioId
-            OR (contato.idContato IS NOT NULL AND contato.idContato = :usuarioId)
-            OR (contato.ownerId IS NOT NULL AND contato.ownerId = :usuarioId)
-            OR (membro.idContato IS NOT NULL AND membro.idContato = :usuarioId)
-            OR (membro.ownerId IS NOT NULL AND membro.ownerId = :usuarioId)
-            OR (responsavel.idContato IS NOT NULL AND responsavel.idContato = :usuarioId)
-            OR (responsavel.ownerId IS NOT NULL AND responsavel.ownerId = :usuarioId)
-        )
+        SELECT q FROM QuadroPlanejamento q
+        WHERE q.id = :quadroId
+          AND EXISTS (SELECT 1 FROM QuadroAcesso a WHERE a.quadroId = q.id AND a.usuarioId = :usuarioId)
         """)
     Optional<QuadroPlanejamento> findByIdAndUsuarioHasAccess(@Param("quadroId") Long quadroId, @Param("usuarioId") Long usuarioId);
+
+    @Query("""
+        SELECT new com.unihub.backend.dto.planejamento.QuadroPlanejamentoListaResponse(
+            q.id, q.titulo, q.status, q.dataPrazo, q.usuario.id, q.disciplina.id, q.contatoIdContato, q.grupo.id)
+        FROM QuadroPlanejamento q
+        WHERE q.id = :quadroId
+          AND EXISTS (SELECT 1 FROM QuadroAcesso a WHERE a.quadroId = q.id AND a.usuarioId = :usuarioId)
+        """)
+    Optional<QuadroPlanejamentoListaResponse> findResumoAcessivel(@Param("quadroId") Long quadroId,
+                                                                  @Param("usuarioId") Long usuarioId);
+
+    // Listagem paginada por keyset: filtros no banco e projeção direta no DTO, sem carregar as entidades.
+    // `titulo` deve chegar já em minúsculas, escapado e com os curingas '%' aplicados.
+    @Query("""
+        SELECT new com.unihub.backend.dto.planejamento.QuadroPlanejamentoListaResponse(
+            q.id, q.titulo, q.status, q.dataPrazo, q.usuario.id, q.disciplina.id, q.contatoIdContato, q.grupo.id)
+        FROM QuadroPlanejamento q
+        WHERE q.id IN (SELECT a.quadroId FROM QuadroAcesso a WHERE a.usuarioId = :usuarioId)
+          AND (:status IS NULL OR q.status = :status)
+          AND (:titulo IS NULL OR LOWER(q.titulo) LIKE :titulo ESCAPE '\\')
+          AND (:cursorId IS NULL OR q.id < :cursorId)
+        ORDER BY q.id DESC
+        """)
+    List<QuadroPlanejamentoListaResponse> findPaginaRecentes(@Param("usuarioId") Long usuarioId,
+                                                             @Param("status") QuadroStatus status,
+                                                             @Param("titulo") String titulo,
+                                                             @Param("cursorId") Long cursorId,
+                                                             Pageable pageable);
+
+    @Query("""
+        SELECT new com.unihub.backend.dto.planejamento.QuadroPlanejamentoListaResponse(
+            q.id, q.titulo, q.status, q.dataPrazo, q.usuario.id, q.disciplina.id, q.contatoIdContato, q.grupo.id)
+        FROM QuadroPlanejamento q
+        WHERE q.id IN (SELECT a.quadroId FROM QuadroAcesso a WHERE a.usuarioId = :usuarioId)
+          AND (:status IS NULL OR q.status = :status)
+          AND (:titulo IS NULL OR LOWER(q.titulo) LIKE :titulo ESCAPE '\\')
+          AND (:cursorId IS NULL
+               OR LOWER(q.titulo) > :cursorNome
+               OR (LOWER(q.titulo) = :cursorNome AND q.id > :cursorId))
+        ORDER BY LOWER(q.titulo), q.id
+        """)
+    List<QuadroPlanejamentoListaResponse> findPaginaPorNome(@Param("usuarioId") Long usuarioId,
+                                                            @Param("status") QuadroStatus status,
+                                                            @Param("titulo") String titulo,
+                                                            @Param("cursorNome") String cursorNome,
+                                                            @Param("cursorId") Long cursorId,
+                                                            Pageable pageable);
 }
@@ -0,0 +1,58 @@
+package com.unihub.backend.repository;
+
+import com.unihub.backend.model.SincronizacaoCalendarioPendente;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface SincronizacaoCalendarioPendenteRepository extends JpaRepository<SincronizacaoCalendarioPendente, Long> {
+
+    // Timeout -2 = SKIP LOCKED, como na fila de e-mails; reservas vencidas voltam para a fila.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("""
+        SELECT s FROM SincronizacaoCalendarioPendente s
+         WHERE s.proximaTentativaEm <= :agora
+           AND (s.reservadoAte IS NULL OR s.reservadoAte < :agora)
+         ORDER BY s.proximaTentativaEm, s.id
+        """)
+    List<SincronizacaoCalendarioPendente> findDisponiveis(@Param("agora") Instant agora, Pageable pageable);
+
+    // Empurra as alterações anteriores da mesma avaliação para junto da nova; as criadas antes
+    // de :limite ficam onde estão, para uma sequência longa de edições não adiar tudo para sempre.
+    @Modifying
+    @Query("""
+        UPDATE SincronizacaoCalendarioPendente s
+           SET s.proximaTentativaEm = :quando
+         WHERE s.usuarioId = :usuarioId
+           AND s.avaliacaoId = :avaliacaoId
+           AND s.reservadoAte IS NULL
+           AND s.tentativas = 0
+           AND s.proximaTentativaEm < :quando
+           AND s.criadaEm > :limite
+        """)
+    int adiar(@Param("usuarioId") Long usuarioId,
+              @Param("avaliacaoId") Long avaliacaoId,
+              @Param("quando") Instant quando,
+              @Param("limite") Instant limite);
+
+    @Modifying
+    @Query("""
+        DELETE FROM SincronizacaoCalendarioPendente s
+         WHERE s.usuarioId = :usuarioId
+           AND s.avaliacaoId = :avaliacaoId
+           AND s.id <= :ate
+        """)
+    int concluir(@Param("usuarioId") Long usuarioId,
+                 @Param("avaliacaoId") Long avaliacaoId,
+                 @Param("ate") Long ate);
+}
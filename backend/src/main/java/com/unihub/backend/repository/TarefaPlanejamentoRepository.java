@@ -1,5 +1,6 @@
 package com.unihub.backend.repository;
 
+import com.unihub.backend.dto.planejamento.TarefaResponsavelResumo;
 import com.unihub.backend.model.TarefaPlanejamento;
 import com.unihub.backend.model.enums.TarefaStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -20,6 +21,20 @@ public interface TarefaPlanejamentoRepository extends JpaRepository<TarefaPlanej
 
     long countByColunaQuadroIdAndStatus(Long quadroId, TarefaStatus status);
 
+    @Query("SELECT t FROM TarefaPlanejamento t WHERE t.coluna.quadro.id = :quadroId ORDER BY t.id")
+    List<TarefaPlanejamento> findByQuadroIdParaDetalhes(@Param("quadroId") Long quadroId);
+
+    // Mesma regra de TarefaPlanejamento.getResponsaveisIds: idContato, depois ownerId, depois id.
+    @Query("""
+            SELECT new com.unihub.backend.dto.planejamento.TarefaResponsavelResumo(
+                t.id, COALESCE(r.idContato, r.ownerId, r.id))
+            FROM TarefaPlanejamento t
+            JOIN t.responsaveis r
+            WHERE t.coluna.quadro.id = :quadroId
+            ORDER BY t.id, r.id
+            """)
+    List<TarefaResponsavelResumo> findResponsaveisByQuadroId(@Param("quadroId") Long quadroId);
+
 
 
     List<TarefaPlanejamento> findDistinctByResponsaveis_IdContato(Long idContato);
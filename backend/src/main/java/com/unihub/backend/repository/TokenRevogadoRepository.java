@@ -0,0 +1,21 @@
+package com.unihub.backend.repository;
+
+import com.unihub.backend.model.TokenRevogado;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface TokenRevogadoRepository extends JpaRepository<TokenRevogado, Long> {
+
+    List<TokenRevogado> findByExpiraEmAfter(Instant agora);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM TokenRevogado t WHERE t.expiraEm <= :agora")
+    int removerExpirados(@Param("agora") Instant agora);
+}
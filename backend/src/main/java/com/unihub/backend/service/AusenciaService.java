@@ -3,11 +3,9 @@ package com.unihub.backend.service;
 import com.unihub.backend.dto.notificacoes.NotificacaoLogRequest;
 import com.unihub.backend.model.Ausencia;
 import com.unihub.backend.model.Disciplina;
-import com.unihub.backend.model.NotificacaoConfiguracao;
 import com.unihub.backend.model.Usuario;
 import com.unihub.backend.repository.AusenciaRepository;
 import com.unihub.backend.repository.DisciplinaRepository;
-import com.unihub.backend.repository.NotificacaoConfiguracaoRepository;
 import org.springframework.stereotype.Service;
 
 import java.time.format.DateTimeFormatter;
@@ -28,18 +26,18 @@ public class AusenciaService {
     private final CategoriaService categoriaService;
     private final DisciplinaRepository disciplinaRepository;
     private final NotificacaoService notificacaoService;
-    private final NotificacaoConfiguracaoRepository notificacaoConfiguracaoRepository;
+    private final PreferenciasNotificacaoCache preferenciasNotificacao;
 
      public AusenciaService(AusenciaRepository repository,
                            CategoriaService categoriaService,
                            DisciplinaRepository disciplinaRepository,
                            NotificacaoService notificacaoService,
-                           NotificacaoConfiguracaoRepository notificacaoConfiguracaoRepository) {
+                           PreferenciasNotificacaoCache preferenciasNotificacao) {
         this.repository = repository;
         this.categoriaService = categoriaService;
         this.disciplinaRepository = disciplinaRepository;
         this.notificacaoService = notificacaoService;
-        this.notificacaoConfiguracaoRepository = notificacaoConfiguracaoRepository;
+        this.preferenciasNotificacao = preferenciasNotificacao;
     }
 
     public List<Ausencia> listarTodas(Long usuarioId) {
@@ -79,9 +77,7 @@ public class AusenciaService {
             return;
         }
 
-        boolean desejaNotificar = notificacaoConfiguracaoRepository.findByUsuarioId(usuarioId)
-                .map(NotificacaoConfiguracao::isNotificacaoDePresenca)
-                .orElse(true);
+        boolean desejaNotificar = preferenciasNotificacao.obter(usuarioId).notificacaoDePresenca();
 
         if (!desejaNotificar) {
             return;
@@ -6,7 +6,10 @@ import com.unihub.backend.model.Contato;
 import com.unihub.backend.model.Usuario;
 import com.unihub.backend.repository.UsuarioRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import com.unihub.backend.repository.InstituicaoRepository;
@@ -17,10 +20,12 @@ import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 
 import jakarta.annotation.PostConstruct;
 
@@ -50,10 +55,37 @@ public class AutenticacaoService {
     @Autowired
     private AuthTokenRepository authTokenRepository;
 
+    @Autowired
+    private TokenAssinadoService tokenAssinadoService;
+
+    @Value("${app.auth.token-cache.max-size:10000}")
+    private long tokenCacheMaxSize;
+
+    @Value("${app.auth.token-cache.ttl-minutes:10}")
+    private long tokenCacheTtlMinutes;
+
+    @Value("${app.auth.token-cache.negative-ttl-seconds:30}")
+    private long tokenCacheNegativeTtlSeconds;
+
+    // Sem a carga inicial o cache enche sob demanda: cada token vai ao banco na primeira requisição.
+    @Value("${app.auth.token-cache.pre-carregar:true}")
+    private boolean preCarregarTokens;
+
+    @Value("${app.auth.token-purge.batch-size:500}")
+    private int tokenPurgeBatchSize;
+
     // Cache in-memory para acelerar a validação de tokens já conhecidos.
-    private final Map<String, Long> tokens = new ConcurrentHashMap<>();
+    // Cada entrada vive até o menor entre o TTL do cache e o expiraEm do token,
+    // para que tokens removidos do banco deixem de autenticar sem reiniciar a aplicação.
+    private Cache<String, TokenCacheado> tokens;
 
-    private static final Duration TOKEN_TTL = Duration.ofDays(7);
+    // Tokens desconhecidos ficam marcados por pouco tempo para não consultar o banco a cada requisição.
+    private Cache<String, Boolean> tokensDesconhecidos;
+
+    static final Duration TOKEN_TTL = Duration.ofDays(7);
+
+    private record TokenCacheado(Long usuarioId, LocalDateTime expiraEm) {
+    }
 
     public Usuario registrar(Usuario usuario) {
         String email = Optional.ofNullable(usuario.getEmail())
@@ -98,11 +130,14 @@ public class AutenticacaoService {
             throw new IllegalArgumentException("Usuário para geração de token é obrigatório");
         }
 
-        LocalDateTime agora = agoraUtc();
+        // Modo sem estado: o token carrega usuário e validade assinados e não é persistido.
+        if (tokenAssinadoService.isHabilitado()) {
+            return tokenAssinadoService.emitir(usuarioId, TOKEN_TTL);
+        }
 
-        // Limpa tokens expirados antes de seguir.
-        authTokenRepository.deleteByExpiraEmBefore(agora);
+        LocalDateTime agora = agoraUtc();
 
+        // Tokens expirados são removidos em segundo plano por removerTokensExpirados().
         // Reutiliza token ativo se existir para o usuário, renovando a validade.
         Optional<AuthToken> existente = authTokenRepository
                 .findFirstByUsuarioIdAndExpiraEmAfterOrderByExpiraEmDesc(usuarioId, agora);
@@ -135,31 +170,41 @@ public class AutenticacaoService {
             return null;
         }
 
-        Long cached = tokens.get(normalizedToken);
-        if (cached != null) {
-            return cached;
+        if (tokenAssinadoService.pareceTokenAssinado(normalizedToken)) {
+            TokenAssinadoService.TokenValidado validado = tokenAssinadoService.validar(normalizedToken);
+            return validado != null ? validado.usuarioId() : null;
         }
 
         LocalDateTime agora = agoraUtc();
 
+        TokenCacheado cached = tokens.getIfPresent(normalizedToken);
+        if (cached != null && cached.expiraEm().isAfter(agora)) {
+            return cached.usuarioId();
+        }
+
+        if (tokensDesconhecidos.getIfPresent(normalizedToken) != null) {
+            return null;
+        }
+
         try {
             Optional<AuthToken> authTokenOpt = authTokenRepository.findByToken(normalizedToken);
             if (authTokenOpt.isEmpty()) {
+                tokensDesconhecidos.put(normalizedToken, Boolean.TRUE);
                 return null;
             }
 
             AuthToken authToken = authTokenOpt.get();
             if (authToken.getExpiraEm().isBefore(agora)) {
                 authTokenRepository.deleteByToken(normalizedToken);
-                tokens.remove(normalizedToken);
+                tokens.invalidate(normalizedToken);
+                tokensDesconhecidos.put(normalizedToken, Boolean.TRUE);
                 return null;
             }
 
-            Long usuarioId = authToken.getUsuarioId();
-            tokens.put(normalizedToken, usuarioId);
-            return usuarioId;
+            cacheToken(authToken);
+            return authToken.getUsuarioId();
         } catch (DataAccessException ex) {
-            return tokens.get(normalizedToken);
+            return cached != null ? cached.usuarioId() : null;
         }
     }
 
@@ -170,11 +215,94 @@ public class AutenticacaoService {
         }
 
         String normalizedToken = token.trim();
-        tokens.remove(normalizedToken);
+        if (tokenAssinadoService.pareceTokenAssinado(normalizedToken)) {
+            tokenAssinadoService.revogar(normalizedToken);
+            return;
+        }
+        tokens.invalidate(normalizedToken);
         authTokenRepository.deleteByToken(normalizedToken);
     }
 
+    /** Invalida todos os tokens do usuário, persistidos ou assinados. */
+    public void invalidarTokensDoUsuario(Long usuarioId) {
+        if (usuarioId == null) {
+            return;
+        }
+        tokenAssinadoService.revogarTodosDoUsuario(usuarioId);
+        tokens.asMap().values().removeIf(token -> usuarioId.equals(token.usuarioId()));
+        authTokenRepository.deleteByUsuarioId(usuarioId);
+    }
+
+    /**
+     * Remove tokens expirados em lotes limitados, fora do caminho do login,
+     * e tira do cache em memória os que foram apagados.
+     */
+    @Scheduled(initialDelayString = "${app.auth.token-purge.initial-delay-ms:60000}",
+            fixedDelayString = "${app.auth.token-purge.interval-ms:3600000}")
+    public void removerTokensExpirados() {
+        LocalDateTime limite = agoraUtc();
+        int tamanhoLote = Math.max(1, tokenPurgeBatchSize);
+        try {
+            List<String> lote;
+            do {
+                lote = authTokenRepository.findTokensExpirados(limite, PageRequest.of(0, tamanhoLote));
+                if (lote.isEmpty()) {
+                    break;
+                }
+                authTokenRepository.deleteExpiradosByTokenIn(lote, limite);
+                tokens.invalidateAll(lote);
+            } while (lote.size() == tamanhoLote);
+        } catch (DataAccessException ignored) {
+            // Tenta novamente na próxima execução agendada.
+        }
+    }
+
     @PostConstruct
+    void inicializar() {
+        construirCaches();
+        if (preCarregarTokens) {
+            carregarTokensAtivos();
+        }
+    }
+
+    private void construirCaches() {
+        Duration ttlCache = Duration.ofMinutes(Math.max(1, tokenCacheTtlMinutes));
+        tokens = Caffeine.newBuilder()
+                .maximumSize(Math.max(1, tokenCacheMaxSize))
+                .expireAfter(new Expiry<String, TokenCacheado>() {
+                    @Override
+                    public long expireAfterCreate(String chave, TokenCacheado valor, long tempoAtual) {
+                        return tempoRestante(valor, ttlCache);
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String chave, TokenCacheado valor, long tempoAtual,
+                                                  long duracaoAtual) {
+                        return tempoRestante(valor, ttlCache);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String chave, TokenCacheado valor, long tempoAtual,
+                                                long duracaoAtual) {
+                        return duracaoAtual;
+                    }
+                })
+                .build();
+
+        tokensDesconhecidos = Caffeine.newBuilder()
+                .maximumSize(Math.max(1, tokenCacheMaxSize))
+                .expireAfterWrite(Duration.ofSeconds(Math.max(1, tokenCacheNegativeTtlSeconds)))
+                .build();
+    }
+
+    private long tempoRestante(TokenCacheado valor, Duration ttlCache) {
+        Duration ateExpirar = Duration.between(agoraUtc(), valor.expiraEm());
+        if (ateExpirar.isNegative()) {
+            return 0L;
+        }
+        return Math.min(ateExpirar.toNanos(), ttlCache.toNanos());
+    }
+
     void carregarTokensAtivos() {
         LocalDateTime agora = agoraUtc();
         try {
@@ -193,10 +321,11 @@ public class AutenticacaoService {
         String valor = Optional.ofNullable(token.getToken())
                 .map(String::trim)
                 .orElse(null);
-        if (valor == null || valor.isEmpty()) {
+        if (valor == null || valor.isEmpty() || token.getExpiraEm() == null) {
             return;
         }
-        tokens.put(valor, token.getUsuarioId());
+        tokensDesconhecidos.invalidate(valor);
+        tokens.put(valor, new TokenCacheado(token.getUsuarioId(), token.getExpiraEm()));
     }
 
     private LocalDateTime agoraUtc() {
@@ -23,16 +23,16 @@ public class AvaliacaoService {
     private final AvaliacaoRepository avaliacaoRepository;
     private final ContatoRepository contatoRepository;
     private final DisciplinaRepository disciplinaRepository;
-    private final GoogleCalendarSyncService googleCalendarSyncService;
+    private final FilaSincronizacaoCalendario filaSincronizacaoCalendario;
 
     public AvaliacaoService(AvaliacaoRepository avaliacaoRepository,
                             ContatoRepository contatoRepository,
                             DisciplinaRepository disciplinaRepository,
-                            GoogleCalendarSyncService googleCalendarSyncService) {
+                            FilaSincronizacaoCalendario filaSincronizacaoCalendario) {
         this.avaliacaoRepository = avaliacaoRepository;
         this.contatoRepository = contatoRepository;
         this.disciplinaRepository = disciplinaRepository;
-        this.googleCalendarSyncService = googleCalendarSyncService;
+        this.filaSincronizacaoCalendario = filaSincronizacaoCalendario;
     }
 
     @Transactional(readOnly = true)
@@ -54,7 +54,7 @@ public class AvaliacaoService {
         Avaliacao a = new Avaliacao();
         aplicar(req, a, usuarioId);
         Avaliacao salvo = avaliacaoRepository.save(a);
-        googleCalendarSyncService.syncEvaluation(salvo.getId(), usuarioId);
+        filaSincronizacaoCalendario.agendarSincronizacao(usuarioId, salvo.getId());
         return salvo.getId();
     }
 
@@ -68,7 +68,7 @@ public class AvaliacaoService {
         Avaliacao a = opt.get();
         aplicar(req, a, usuarioId);
         avaliacaoRepository.save(a);
-        googleCalendarSyncService.syncEvaluation(a.getId(), usuarioId);
+        filaSincronizacaoCalendario.agendarSincronizacao(usuarioId, a.getId());
         return true;
     }
 
@@ -99,12 +99,13 @@ public class AvaliacaoService {
         if (a.getModalidade() == Modalidade.EM_GRUPO) {
             a.getIntegrantes().addAll(carregarIntegrantes(req.integrantes(), usuarioId));
         }
+        a.marcarAlterada();
     }
 
     @Transactional
     public void excluir(Long id, Long usuarioId) {
         Avaliacao a = buscarPorId(id, usuarioId);
-         googleCalendarSyncService.removeFromCalendar(id, usuarioId);
+        filaSincronizacaoCalendario.agendarRemocao(usuarioId, id, a.getGoogleCalendarEventId());
         avaliacaoRepository.delete(a);
     }
 
@@ -0,0 +1,127 @@
+package com.unihub.backend.service;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.function.Consumer;
+
+/**
+ * Um canal LISTEN/NOTIFY do PostgreSQL: {@code pg_notify} na transação de quem emite (o
+ * PostgreSQL só entrega após o commit) e escuta numa conexão dedicada, fora do pool, numa
+ * thread própria que reconecta sozinha. Em outros bancos o canal fica inativo.
+ */
+abstract class CanalPostgres implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(CanalPostgres.class);
+    private static final int ESPERA_NOTIFICACOES_MS = 10_000;
+    private static final long ESPERA_MAXIMA_RECONEXAO_MS = 30_000;
+
+    private final String canal;
+    private final DataSource dataSource;
+    private final ObjectProvider<DataSourceProperties> dataSourceProperties;
+    private final JdbcTemplate jdbcTemplate;
+    private volatile Boolean postgres;
+    private volatile boolean ativo;
+    private Thread escuta;
+
+    CanalPostgres(String canal, DataSource dataSource, ObjectProvider<DataSourceProperties> dataSourceProperties) {
+        this.canal = canal;
+        this.dataSource = dataSource;
+        this.dataSourceProperties = dataSourceProperties;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    public boolean disponivel() {
+        if (postgres == null) {
+            try (Connection conexao = dataSource.getConnection()) {
+                postgres = conexao.isWrapperFor(PGConnection.class);
+            } catch (SQLException ex) {
+                logger.warn("Não foi possível identificar o banco; canal {} fica inativo", canal, ex);
+                postgres = false;
+            }
+        }
+        return postgres;
+    }
+
+    /** Emite o payload na transação corrente (usa a mesma conexão da transação JPA, se houver). */
+    void emitir(String payload) {
+        jdbcTemplate.query("SELECT pg_notify(?, ?)", rs -> null, canal, payload);
+    }
+
+    /**
+     * Começa a escutar o canal numa thread própria. {@code aoConectar} roda a cada (re)conexão,
+     * para que quem escuta recupere o que foi emitido enquanto a escuta estava fora.
+     */
+    synchronized void escutarPayloads(Consumer<String> receptor, Runnable aoConectar) {
+        if (escuta != null || !disponivel()) {
+            return;
+        }
+        ativo = true;
+        escuta = Thread.ofPlatform().name(canal.replace('_', '-') + "-listen").daemon(true)
+                .start(() -> laco(receptor, aoConectar));
+    }
+
+    private void laco(Consumer<String> receptor, Runnable aoConectar) {
+        long espera = 1_000;
+        while (ativo) {
+            DataSourceProperties propriedades = dataSourceProperties.getObject();
+            try (Connection conexao = DriverManager.getConnection(propriedades.determineUrl(),
+                    propriedades.determineUsername(), propriedades.determinePassword())) {
+                try (Statement statement = conexao.createStatement()) {
+                    statement.execute("LISTEN " + canal);
+                }
+                PGConnection pg = conexao.unwrap(PGConnection.class);
+                espera = 1_000;
+                aoConectar.run();
+                while (ativo) {
+                    PGNotification[] notificacoes = pg.getNotifications(ESPERA_NOTIFICACOES_MS);
+                    if (notificacoes == null) {
+                        continue;
+                    }
+                    for (PGNotification notificacao : notificacoes) {
+                        receber(receptor, notificacao.getParameter());
+                    }
+                }
+            } catch (SQLException ex) {
+                if (!ativo) {
+                    return;
+                }
+                logger.warn("Escuta de {} caiu; nova tentativa em {} ms", canal, espera, ex);
+                try {
+                    Thread.sleep(espera);
+                } catch (InterruptedException interrompido) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                espera = Math.min(espera * 2, ESPERA_MAXIMA_RECONEXAO_MS);
+            }
+        }
+    }
+
+    private void receber(Consumer<String> receptor, String payload) {
+        try {
+            receptor.accept(payload);
+        } catch (RuntimeException ex) {
+            logger.error("Falha ao repassar o que foi recebido de {}", canal, ex);
+        }
+    }
+
+    @Override
+    public synchronized void destroy() {
+        ativo = false;
+        if (escuta != null) {
+            escuta.interrupt();
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.unihub.backend.service;
 
 import com.unihub.backend.dto.compartilhamento.*;
+import com.unihub.backend.dto.notificacoes.NotificacaoPendente;
 import com.unihub.backend.model.*;
 import com.unihub.backend.model.enums.StatusConviteCompartilhamento;
 import com.unihub.backend.repository.ContatoRepository;
@@ -33,17 +34,23 @@ public class CompartilhamentoService {
     private final UsuarioRepository usuarioRepository;
     private final ContatoRepository contatoRepository;
     private final NotificacaoRepository notificacaoRepository;
+    private final NotificationDispatcher notificationDispatcher;
+    private final ContadorNotificacoes contadorNotificacoes;
 
     public CompartilhamentoService(ConviteCompartilhamentoRepository conviteRepository,
                                    DisciplinaRepository disciplinaRepository,
                                    UsuarioRepository usuarioRepository,
                                    ContatoRepository contatoRepository,
-                                   NotificacaoRepository notificacaoRepository) {
+                                   NotificacaoRepository notificacaoRepository,
+                                   NotificationDispatcher notificationDispatcher,
+                                   ContadorNotificacoes contadorNotificacoes) {
         this.conviteRepository = conviteRepository;
         this.disciplinaRepository = disciplinaRepository;
         this.usuarioRepository = usuarioRepository;
         this.contatoRepository = contatoRepository;
         this.notificacaoRepository = notificacaoRepository;
+        this.notificationDispatcher = notificationDispatcher;
+        this.contadorNotificacoes = contadorNotificacoes;
     }
 
     @Transactional
@@ -196,12 +203,7 @@ String nomeContato = contato.getNome();
     }
 
     public List<NotificacaoResponse> listarNotificacoes(Long usuarioId) {
-         List<Notificacao> notificacoes = notificacaoRepository.findByUsuarioIdOrderByAtualizadaEmDesc(usuarioId);
-         if (notificacoes.isEmpty()) {
-            notificacoes = notificacaoRepository.findByUsuarioIdOrderByCriadaEmDesc(usuarioId);
-         }
-
-        return notificacoes.stream()
+        return notificacaoRepository.findByUsuarioIdOrderByAtualizadaEmDesc(usuarioId).stream()
                 .map(NotificacaoResponse::fromEntity)
                 .collect(Collectors.toList());
     }
@@ -213,60 +215,24 @@ String nomeContato = contato.getNome();
     }
 
     private void marcarNotificacoesComoLidas(Long conviteId, Long usuarioId) {
-        List<Notificacao> notificacoes = notificacaoRepository.findByConviteIdAndUsuarioId(conviteId, usuarioId);
-        if (notificacoes.isEmpty()) {
-            return;
+        if (notificacaoRepository.marcarComoLidasPorConvite(conviteId, usuarioId, agora()) > 0) {
+            contadorNotificacoes.recalcular(usuarioId);
         }
-        LocalDateTime momentoAtual = agora();
-        notificacoes.forEach(notificacao -> {
-            notificacao.setLida(true);
-            notificacao.setInteracaoPendente(false);
-            notificacao.setAtualizadaEm(momentoAtual);
-        });
-        notificacaoRepository.saveAll(notificacoes);
     }
 
     private void criarNotificacao(Usuario usuario, ConviteCompartilhamento convite,
                                   String mensagem, String tipo) {
-        if (usuario == null) {
+        if (usuario == null || usuario.getId() == null) {
             return;
         }
-        
-        Long usuarioId = usuario.getId();
-        Long referenciaId = convite != null ? convite.getId() : null;
-        if (usuarioId != null && referenciaId != null) {
-            Optional<Notificacao> existente = notificacaoRepository
-                    .findByUsuarioIdAndTipoAndCategoriaAndReferenciaId(usuarioId, tipo,
-                            CATEGORIA_COMPARTILHAMENTO, referenciaId);
-            if (existente.isPresent()) {
-                Notificacao notificacaoExistente = existente.get();
-                notificacaoExistente.setTitulo(definirTituloNotificacao(tipo, convite));
-                notificacaoExistente.setMensagem(mensagem);
-                boolean pendente = TIPO_CONVITE.equals(tipo) && !notificacaoExistente.isLida();
-                notificacaoExistente.setInteracaoPendente(pendente);
-                if (pendente) {
-                    notificacaoExistente.setLida(false);
-                }
-                notificacaoExistente.setAtualizadaEm(agora());
-                notificacaoRepository.save(notificacaoExistente);
-                return;
-            }
-        }
 
-        Notificacao notificacao = new Notificacao();
-        notificacao.setUsuario(usuario);
-        notificacao.setConvite(convite);
-        notificacao.setTitulo(definirTituloNotificacao(tipo, convite));
-        notificacao.setMensagem(mensagem);
-        notificacao.setTipo(tipo);
-        notificacao.setCategoria(CATEGORIA_COMPARTILHAMENTO);
-        notificacao.setReferenciaId(referenciaId);
-        notificacao.setInteracaoPendente(TIPO_CONVITE.equals(tipo));
-        LocalDateTime agoraNotificacao = agora();
-        notificacao.setCriadaEm(agoraNotificacao);
-        notificacao.setAtualizadaEm(agoraNotificacao);
-        notificacao.setLida(false);
-        notificacaoRepository.save(notificacao);
+        Long referenciaId = convite != null ? convite.getId() : null;
+        NotificacaoPendente.Pendencia pendencia = TIPO_CONVITE.equals(tipo)
+                ? NotificacaoPendente.Pendencia.SE_NAO_LIDA
+                : NotificacaoPendente.Pendencia.NUNCA;
+        notificationDispatcher.enviar(new NotificacaoPendente(usuario.getId(), tipo, CATEGORIA_COMPARTILHAMENTO,
+                referenciaId, definirTituloNotificacao(tipo, convite), mensagem, null,
+                convite != null ? convite.getId() : null, pendencia));
     }
 
     private void registrarRespostaParaDestinatario(ConviteCompartilhamento convite,
@@ -276,27 +242,6 @@ String nomeContato = contato.getNome();
             return;
         }
 
-        Long referenciaId = convite != null ? convite.getId() : null;
-        Optional<Notificacao> existente = Optional.empty();
-        if (referenciaId != null) {
-            existente = notificacaoRepository.findByUsuarioIdAndTipoAndCategoriaAndReferenciaId(
-                    destinatario.getId(),
-                    TIPO_RESPOSTA,
-                    CATEGORIA_COMPARTILHAMENTO,
-                    referenciaId
-            );
-        }
-
-        Notificacao notificacao = existente.orElseGet(Notificacao::new);
-        boolean nova = notificacao.getId() == null;
-
-        notificacao.setUsuario(destinatario);
-        notificacao.setConvite(convite);
-        notificacao.setTipo(TIPO_RESPOSTA);
-        notificacao.setCategoria(CATEGORIA_COMPARTILHAMENTO);
-        notificacao.setReferenciaId(referenciaId);
-        notificacao.setInteracaoPendente(false);
-
         String disciplinaNome = Optional.ofNullable(convite)
                 .map(ConviteCompartilhamento::getDisciplina)
                 .map(Disciplina::getNome)
@@ -308,17 +253,10 @@ String nomeContato = contato.getNome();
                 ? String.format("Você aceitou o compartilhamento da disciplina %s.", disciplinaNome)
                 : String.format("Você recusou o compartilhamento da disciplina %s.", disciplinaNome);
 
-        notificacao.setTitulo(titulo);
-        notificacao.setMensagem(mensagem);
-
-        LocalDateTime agora = agora();
-        if (nova) {
-            notificacao.setCriadaEm(agora);
-            notificacao.setLida(false);
-        }
-        notificacao.setAtualizadaEm(agora);
-
-        notificacaoRepository.save(notificacao);
+        Long referenciaId = convite != null ? convite.getId() : null;
+        notificationDispatcher.enviar(new NotificacaoPendente(destinatario.getId(), TIPO_RESPOSTA,
+                CATEGORIA_COMPARTILHAMENTO, referenciaId, titulo, mensagem, null, referenciaId,
+                NotificacaoPendente.Pendencia.NUNCA));
     }
     
      private String definirTituloNotificacao(String tipo, ConviteCompartilhamento convite) {
@@ -0,0 +1,151 @@
+package com.unihub.backend.service;
+
+import com.unihub.backend.model.Contato;
+import com.unihub.backend.model.Usuario;
+import com.unihub.backend.repository.ContatoRepository;
+import com.unihub.backend.repository.UsuarioRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Memoriza, durante uma requisição HTTP, as leituras de usuário e contato que vários
+ * serviços repetem (por id ou e-mail). Preferências de notificação ficam no
+ * {@link PreferenciasNotificacaoCache}, que vale entre requisições.
+ *
+ * Os resultados ficam num atributo da requisição e somem com ela. Fora de uma requisição
+ * (tarefas agendadas, testes unitários) cada chamada vai direto ao repositório.
+ */
+@Component
+public class ConsultasDaRequisicao {
+
+    private static final String ATRIBUTO = ConsultasDaRequisicao.class.getName();
+    private static final String METRICA = "unihub.consultas.requisicao";
+
+    private final UsuarioRepository usuarioRepository;
+    private final ContatoRepository contatoRepository;
+    private final Map<String, Counter> acertos = new HashMap<>();
+    private final Map<String, Counter> faltas = new HashMap<>();
+
+    public ConsultasDaRequisicao(UsuarioRepository usuarioRepository,
+                                 ContatoRepository contatoRepository,
+                                 MeterRegistry meterRegistry) {
+        this.usuarioRepository = usuarioRepository;
+        this.contatoRepository = contatoRepository;
+        for (String tipo : Set.of("usuario", "usuario_email", "contato")) {
+            acertos.put(tipo, Counter.builder(METRICA)
+                    .description("Leituras repetidas atendidas pela memória da requisição")
+                    .tag("tipo", tipo).tag("resultado", "hit")
+                    .register(meterRegistry));
+            faltas.put(tipo, Counter.builder(METRICA)
+                    .description("Leituras que foram ao banco durante a requisição")
+                    .tag("tipo", tipo).tag("resultado", "miss")
+                    .register(meterRegistry));
+        }
+    }
+
+    public Optional<Usuario> usuario(Long id) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        return memorizar("usuario", "usuario:" + id, () -> usuarioRepository.findById(id), true);
+    }
+
+    public Optional<Usuario> usuarioPorEmail(String email) {
+        if (email == null || email.isBlank()) {
+            return Optional.empty();
+        }
+        String chave = "usuario-email:" + email.trim().toLowerCase(Locale.ROOT);
+        return memorizar("usuario_email", chave, () -> usuarioRepository.findByEmailIgnoreCase(email), true);
+    }
+
+    /**
+     * Traz numa única consulta os usuários informados e guarda cada um (inclusive os
+     * ausentes) para as buscas por id seguintes.
+     */
+    public void precarregarUsuarios(Collection<Long> ids) {
+        Set<Long> pendentes = new HashSet<>();
+        Map<String, Optional<?>> memoria = memoria();
+        for (Long id : ids) {
+            if (id != null && (memoria == null || !memoria.containsKey("usuario:" + id))) {
+                pendentes.add(id);
+            }
+        }
+        if (pendentes.size() <= 1) {
+            return;
+        }
+        Map<Long, Usuario> encontrados = new HashMap<>();
+        usuarioRepository.findAllById(pendentes).forEach(usuario -> encontrados.put(usuario.getId(), usuario));
+        if (memoria != null) {
+            pendentes.forEach(id -> memoria.put("usuario:" + id, Optional.ofNullable(encontrados.get(id))));
+        }
+    }
+
+    /**
+     * Contato do dono que aponta para o usuário {@code idContato}. Só resultados encontrados
+     * são memorizados: quem não acha costuma criar o contato logo em seguida.
+     */
+    public Optional<Contato> contatoPorIdContato(Long ownerId, Long idContato) {
+        if (ownerId == null || idContato == null) {
+            return Optional.empty();
+        }
+        return memorizar("contato", "contato:" + ownerId + ":" + idContato,
+                () -> contatoRepository.findByOwnerIdAndIdContato(ownerId, idContato), false);
+    }
+
+    /** Mesma regra de {@link #contatoPorIdContato}: ausências não são memorizadas. */
+    public Optional<Contato> contatoPorEmail(Long ownerId, String email) {
+        if (ownerId == null || email == null || email.isBlank()) {
+            return Optional.empty();
+        }
+        String chave = "contato-email:" + ownerId + ":" + email.trim().toLowerCase(Locale.ROOT);
+        return memorizar("contato", chave,
+                () -> contatoRepository.findByOwnerIdAndEmailIgnoreCase(ownerId, email), false);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> Optional<T> memorizar(String tipo, String chave, Supplier<Optional<T>> consulta,
+                                      boolean memorizarAusencia) {
+        Map<String, Optional<?>> memoria = memoria();
+        if (memoria == null) {
+            return consulta.get();
+        }
+        Optional<?> memorizado = memoria.get(chave);
+        if (memorizado != null) {
+            acertos.get(tipo).increment();
+            return (Optional<T>) memorizado;
+        }
+        faltas.get(tipo).increment();
+        Optional<T> resultado = consulta.get();
+        if (resultado.isPresent() || memorizarAusencia) {
+            memoria.put(chave, resultado);
+        }
+        return resultado;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Optional<?>> memoria() {
+        RequestAttributes atributos = RequestContextHolder.getRequestAttributes();
+        if (atributos == null) {
+            return null;
+        }
+        Object existente = atributos.getAttribute(ATRIBUTO, RequestAttributes.SCOPE_REQUEST);
+        if (existente != null) {
+            return (Map<String, Optional<?>>) existente;
+        }
+        Map<String, Optional<?>> memoria = new HashMap<>();
+        atributos.setAttribute(ATRIBUTO, memoria, RequestAttributes.SCOPE_REQUEST);
+        return memoria;
+    }
+}
@@ -0,0 +1,72 @@
+package com.unihub.backend.service;
+
+import com.unihub.backend.model.NotificacaoContador;
+import com.unihub.backend.repository.NotificacaoContadorRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Contador de não lidas servido ao badge do app com uma leitura por chave primária,
+ * em vez de um COUNT sobre as notificações a cada consulta.
+ *
+ * Quem grava notificações chama {@link #recalcular} na mesma transação; o recálculo é
+ * um único UPDATE e usa o índice (usuario_id, lida). Antes dele, a linha de quem ainda não
+ * tem contador é criada ({@code ON CONFLICT DO NOTHING}), tanto na escrita quanto na primeira
+ * leitura: uma escrita concorrente com a primeira leitura espera a outra na chave, em vez de
+ * achar a tabela vazia e deixar a leitura gravar uma contagem que não inclui a notificação nova.
+ */
+@Component
+public class ContadorNotificacoes {
+
+    private final NotificacaoContadorRepository contadorRepository;
+    private final TransactionTemplate transacao;
+
+    public ContadorNotificacoes(NotificacaoContadorRepository contadorRepository,
+                                PlatformTransactionManager transactionManager) {
+        this.contadorRepository = contadorRepository;
+        this.transacao = new TransactionTemplate(transactionManager);
+    }
+
+    public long naoLidas(Long usuarioId) {
+        return contadorRepository.findById(usuarioId)
+                .map(NotificacaoContador::getNaoLidas)
+                .orElseGet(() -> criar(usuarioId));
+    }
+
+    @Transactional
+    public void recalcular(Long usuarioId) {
+        if (usuarioId != null) {
+            atualizar(List.of(usuarioId));
+        }
+    }
+
+    @Transactional
+    public void recalcular(Collection<Long> usuarioIds) {
+        List<Long> ids = usuarioIds.stream().filter(Objects::nonNull).distinct().toList();
+        if (!ids.isEmpty()) {
+            atualizar(ids);
+        }
+    }
+
+    private void atualizar(List<Long> ids) {
+        Set<Long> existentes = new HashSet<>(contadorRepository.findUsuarioIdsComContador(ids));
+        ids.stream().filter(id -> !existentes.contains(id)).forEach(contadorRepository::criarSeAusente);
+        contadorRepository.recalcular(ids);
+    }
+
+    private long criar(Long usuarioId) {
+        Long naoLidas = transacao.execute(status -> {
+            atualizar(List.of(usuarioId));
+            return contadorRepository.findById(usuarioId).map(NotificacaoContador::getNaoLidas).orElse(0L);
+        });
+        return naoLidas != null ? naoLidas : 0L;
+    }
+}
@@ -1,11 +1,11 @@
 package com.unihub.backend.service;
 
+import com.unihub.backend.dto.notificacoes.NotificacaoPendente;
 import com.unihub.backend.model.Contato;
 import com.unihub.backend.repository.ContatoRepository;
 import com.unihub.backend.repository.UsuarioRepository;
 import com.unihub.backend.repository.NotificacaoRepository;
 import com.unihub.backend.model.Usuario;
-import com.unihub.backend.model.Notificacao;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -46,6 +46,18 @@ public class ContatoService {
      @Autowired
     private InvitationEmailService invitationEmailService;
 
+    @Autowired
+    private ConsultasDaRequisicao consultas;
+
+    @Autowired
+    private NotificationDispatcher notificationDispatcher;
+
+    @Autowired
+    private ContadorNotificacoes contadorNotificacoes;
+
+    @Autowired
+    private NotificacaoEventos notificacaoEventos;
+
     private Long currentUserId() {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
         if (auth == null || auth.getPrincipal() == null) return null;
@@ -111,13 +123,13 @@ public class ContatoService {
 
         if (novoContato && emailNormalizado != null && !emailNormalizado.isBlank()) {
             contato.setEmail(emailNormalizado);
-            Optional<Usuario> usuarioDestino = usuarioRepository.findByEmailIgnoreCase(emailNormalizado);
+            Optional<Usuario> usuarioDestino = consultas.usuarioPorEmail(emailNormalizado);
             if (usuarioDestino.isPresent()) {
                 destinatarioExistente = usuarioDestino.get();
             } else {
                 deveEnviarConvite = true;
                 if (ownerId != null) {
-                    nomeRemetente = usuarioRepository.findById(ownerId)
+                    nomeRemetente = consultas.usuario(ownerId)
                             .map(Usuario::getNomeUsuario)
                             .orElse(null);
                 }
@@ -131,7 +143,7 @@ public class ContatoService {
             } else if (destinatarioExistente != null
                 && !Objects.equals(ownerId, destinatarioExistente.getId())
                 && Boolean.TRUE.equals(salvo.getPendente())) {
-            Usuario remetente = ownerId != null ? usuarioRepository.findById(ownerId).orElse(null) : null;
+            Usuario remetente = ownerId != null ? consultas.usuario(ownerId).orElse(null) : null;
             criarOuAtualizarNotificacaoConvite(salvo, destinatarioExistente, remetente);
         }
 
@@ -166,7 +178,7 @@ public class ContatoService {
 
             Long ownerId = convite.getOwnerId();
             if (ownerId != null && !donosConvite.containsKey(ownerId)) {
-                usuarioRepository.findById(ownerId)
+                consultas.usuario(ownerId)
                         .ifPresent(dono -> donosConvite.put(ownerId, dono));
             }
         }
@@ -248,7 +260,7 @@ return repository.save(contato);
             throw new RuntimeException("Usuário não autenticado");
         }
 
-        Usuario usuarioAtual = usuarioRepository.findById(usuarioId)
+        Usuario usuarioAtual = consultas.usuario(usuarioId)
                 .orElseThrow(() -> new RuntimeException("Usuário não encontrado"));
 
         Contato convite = repository.findById(conviteId)
@@ -274,7 +286,7 @@ return repository.save(contato);
       
 
         Long ownerId = convite.getOwnerId();
-        Usuario donoConvite = ownerId != null ? usuarioRepository.findById(ownerId).orElse(null) : null;
+        Usuario donoConvite = ownerId != null ? consultas.usuario(ownerId).orElse(null) : null;
         if (donoConvite != null) {
             Usuario dono = donoConvite;
             String emailDono = dono.getEmail();
@@ -310,7 +322,7 @@ return repository.save(contato);
             throw new RuntimeException("Usuário não autenticado");
         }
 
-        Usuario usuarioAtual = usuarioRepository.findById(usuarioId)
+        Usuario usuarioAtual = consultas.usuario(usuarioId)
                 .orElseThrow(() -> new RuntimeException("Usuário não encontrado"));
 
         Contato convite = repository.findById(conviteId)
@@ -325,7 +337,7 @@ return repository.save(contato);
         }
 
         Long ownerId = convite.getOwnerId();
-        Usuario donoConvite = ownerId != null ? usuarioRepository.findById(ownerId).orElse(null) : null;
+        Usuario donoConvite = ownerId != null ? consultas.usuario(ownerId).orElse(null) : null;
 
         atualizarNotificacaoConviteParaUsuario(convite, usuarioAtual, donoConvite, false);
         if (donoConvite != null) {
@@ -366,29 +378,11 @@ private void criarOuAtualizarNotificacaoConvite(Contato convite, Usuario destina
             return;
         }
 
-        Notificacao notificacao = notificacaoRepository
-                .findByUsuarioIdAndTipoAndCategoriaAndReferenciaId(destinatarioId,
-                        NOTIFICACAO_TIPO_CONVITE, NOTIFICACAO_CATEGORIA, referenciaId)
-                .orElseGet(Notificacao::new);
-
-        boolean nova = notificacao.getId() == null;
-        notificacao.setUsuario(destinatario);
-        notificacao.setTitulo(NOTIFICACAO_TITULO_CONVITE);
         String nomeRemetente = resolverNomeUsuario(remetente, "Um contato");
         String mensagem = String.format("%s quer adicionar você como contato.", nomeRemetente);
-        notificacao.setMensagem(mensagem);
-        notificacao.setTipo(NOTIFICACAO_TIPO_CONVITE);
-        notificacao.setCategoria(NOTIFICACAO_CATEGORIA);
-        notificacao.setReferenciaId(referenciaId);
-        notificacao.setInteracaoPendente(true);
-        notificacao.setLida(false);
-        notificacao.setConvite(null);
-        LocalDateTime momentoAtual = agora();
-        if (nova) {
-            notificacao.setCriadaEm(momentoAtual);
-        }
-        notificacao.setAtualizadaEm(momentoAtual);
-        notificacaoRepository.save(notificacao);
+        notificationDispatcher.enviar(new NotificacaoPendente(destinatarioId, NOTIFICACAO_TIPO_CONVITE,
+                NOTIFICACAO_CATEGORIA, referenciaId, NOTIFICACAO_TITULO_CONVITE, mensagem, null, null,
+                NotificacaoPendente.Pendencia.SEMPRE));
     }
 
     private void atualizarNotificacaoConviteParaUsuario(Contato convite,
@@ -419,6 +413,8 @@ private void criarOuAtualizarNotificacaoConvite(Contato convite, Usuario destina
                     notificacao.setInteracaoPendente(false);
                     notificacao.setAtualizadaEm(agora());
                     notificacaoRepository.save(notificacao);
+                    contadorNotificacoes.recalcular(usuarioId);
+                    notificacaoEventos.publicar(notificacao);
                 });
     }
 
@@ -436,31 +432,13 @@ private void criarOuAtualizarNotificacaoConvite(Contato convite, Usuario destina
             return;
         }
 
-        Notificacao notificacao = notificacaoRepository
-                .findByUsuarioIdAndTipoAndCategoriaAndReferenciaId(donoId,
-                        NOTIFICACAO_TIPO_RESPOSTA, NOTIFICACAO_CATEGORIA, referenciaId)
-                .orElseGet(Notificacao::new);
-
-        boolean nova = notificacao.getId() == null;
-        notificacao.setUsuario(dono);
-        notificacao.setTitulo(NOTIFICACAO_TITULO_RESPOSTA);
         String nomeRespondente = resolverNomeUsuario(respondente, "Seu contato");
         String mensagem = aceito
                 ? String.format("%s aceitou sua solicitação de contato.", nomeRespondente)
                 : String.format("%s rejeitou sua solicitação de contato.", nomeRespondente);
-        notificacao.setMensagem(mensagem);
-        notificacao.setTipo(NOTIFICACAO_TIPO_RESPOSTA);
-        notificacao.setCategoria(NOTIFICACAO_CATEGORIA);
-        notificacao.setReferenciaId(referenciaId);
-        notificacao.setInteracaoPendente(false);
-        notificacao.setConvite(null);
-         LocalDateTime momentoAtual = agora();
-        if (nova) {
-            notificacao.setCriadaEm(momentoAtual);
-            notificacao.setLida(false);
-        }
-        notificacao.setAtualizadaEm(momentoAtual);
-        notificacaoRepository.save(notificacao);
+        notificationDispatcher.enviar(new NotificacaoPendente(donoId, NOTIFICACAO_TIPO_RESPOSTA,
+                NOTIFICACAO_CATEGORIA, referenciaId, NOTIFICACAO_TITULO_RESPOSTA, mensagem, null, null,
+                NotificacaoPendente.Pendencia.NUNCA));
     }
 
     private String resolverNomeUsuario(Usuario usuario, String fallbackPadrao) {
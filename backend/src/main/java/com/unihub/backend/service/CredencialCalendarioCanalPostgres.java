@@ -0,0 +1,38 @@
+package com.unihub.backend.service;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.function.Consumer;
+
+/**
+ * Avisa as demais instâncias de que a conta do Google Calendar de um usuário foi vinculada de
+ * novo ou desvinculada, para que o {@link GoogleCalendarCredentialService} de todas descarte o
+ * cliente guardado em cache. O payload é só o id do usuário.
+ */
+@Component
+public class CredencialCalendarioCanalPostgres extends CanalPostgres {
+
+    static final String CANAL = "unihub_google_calendar_credenciais";
+
+    public CredencialCalendarioCanalPostgres(DataSource dataSource,
+                                             ObjectProvider<DataSourceProperties> dataSourceProperties) {
+        super(CANAL, dataSource, dataSourceProperties);
+    }
+
+    public void notificar(Long usuarioId) {
+        emitir(String.valueOf(usuarioId));
+    }
+
+    public void escutar(Consumer<Long> receptor, Runnable aoConectar) {
+        escutarPayloads(payload -> {
+            try {
+                receptor.accept(Long.valueOf(payload));
+            } catch (NumberFormatException ex) {
+                // Payload que não é nosso: ignora.
+            }
+        }, aoConectar);
+    }
+}
@@ -0,0 +1,35 @@
+package com.unihub.backend.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Posição de uma notificação na ordem (atualizada_em, id). Codificada de forma opaca, serve
+ * de cursor do histórico paginado e de id dos eventos do stream (Last-Event-ID).
+ */
+record CursorNotificacao(Long id, LocalDateTime atualizadaEm) {
+
+    String codificar() {
+        String valor = id + "|" + atualizadaEm;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** Retorna null sem cursor; lança IllegalArgumentException se o valor não for um cursor válido. */
+    static CursorNotificacao decodificar(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String valor = new String(Base64.getUrlDecoder().decode(cursor.trim()), StandardCharsets.UTF_8);
+            String[] partes = valor.split("\\|", 2);
+            if (partes.length != 2) {
+                throw new IllegalArgumentException("Cursor incompleto");
+            }
+            return new CursorNotificacao(Long.parseLong(partes[0]), LocalDateTime.parse(partes[1]));
+        } catch (DateTimeParseException ex) {
+            throw new IllegalArgumentException("Cursor inválido", ex);
+        }
+    }
+}
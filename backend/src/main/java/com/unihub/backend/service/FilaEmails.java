@@ -0,0 +1,322 @@
+package com.unihub.backend.service;
+
+import com.unihub.backend.model.EmailPendente;
+import com.unihub.backend.model.enums.StatusEmail;
+import com.unihub.backend.repository.EmailPendenteRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.internet.AddressException;
+import jakarta.mail.internet.MimeMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.MailParseException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fila persistente de e-mails (tabela {@code emails_pendentes}). Quem envia só grava a
+ * linha, na própria transação, e segue; o SMTP fica por conta dos workers.
+ *
+ * Cada ciclo reserva um lote com {@code FOR UPDATE SKIP LOCKED}, divide entre os workers e
+ * cada worker manda a sua parte numa única conexão SMTP
+ * ({@link JavaMailSender#send(MimeMessage...)} reaproveita o transporte). Falhas voltam
+ * para a fila com backoff exponencial; endereço recusado pelo servidor ou tentativas
+ * esgotadas deixam a linha como {@code FALHOU}.
+ */
+@Service
+public class FilaEmails {
+
+    private static final Logger logger = LoggerFactory.getLogger(FilaEmails.class);
+    private static final int TAMANHO_ERRO = 1000;
+
+    private final EmailPendenteRepository repository;
+    private final JavaMailSender mailSender;
+    private final TransactionTemplate transacao;
+    private final ExecutorService workers;
+    private final int quantidadeWorkers;
+    private final int tamanhoLote;
+    private final int maximoTentativas;
+    private final Duration backoffInicial;
+    private final Duration backoffMaximo;
+    private final Duration reserva;
+    private final AtomicBoolean drenando = new AtomicBoolean();
+    private final AtomicLong pendentes = new AtomicLong();
+    private final AtomicLong falhas = new AtomicLong();
+    private final MeterRegistry meterRegistry;
+    private final Timer tempoLote;
+
+    public FilaEmails(EmailPendenteRepository repository,
+                      JavaMailSender mailSender,
+                      PlatformTransactionManager transactionManager,
+                      MeterRegistry meterRegistry,
+                      @Value("${app.mail.outbox.workers:2}") int workers,
+                      @Value("${app.mail.outbox.lote:50}") int tamanhoLote,
+                      @Value("${app.mail.outbox.max-tentativas:8}") int maximoTentativas,
+                      @Value("${app.mail.outbox.backoff-inicial-s:30}") long backoffInicialSegundos,
+                      @Value("${app.mail.outbox.backoff-maximo-s:3600}") long backoffMaximoSegundos,
+                      @Value("${app.mail.outbox.reserva-s:600}") long reservaSegundos) {
+        this.repository = repository;
+        this.mailSender = mailSender;
+        this.transacao = new TransactionTemplate(transactionManager);
+        this.quantidadeWorkers = Math.max(1, workers);
+        this.tamanhoLote = Math.max(1, tamanhoLote);
+        this.maximoTentativas = Math.max(1, maximoTentativas);
+        this.backoffInicial = Duration.ofSeconds(Math.max(1, backoffInicialSegundos));
+        this.backoffMaximo = Duration.ofSeconds(Math.max(backoffInicialSegundos, backoffMaximoSegundos));
+        this.reserva = Duration.ofSeconds(Math.max(60, reservaSegundos));
+        AtomicInteger sequencia = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(this.quantidadeWorkers, tarefa -> Thread.ofPlatform()
+                .name("emails-" + sequencia.incrementAndGet()).daemon(true).unstarted(tarefa));
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("unihub.mail.outbox.fila", pendentes, AtomicLong::get)
+                .description("E-mails aguardando envio (pendentes ou reservados)")
+                .tag("status", "pendente")
+                .register(meterRegistry);
+        Gauge.builder("unihub.mail.outbox.fila", falhas, AtomicLong::get)
+                .description("E-mails que esgotaram as tentativas")
+                .tag("status", "falhou")
+                .register(meterRegistry);
+        this.tempoLote = Timer.builder("unihub.mail.outbox.lote")
+                .description("Duração de um ciclo de envio")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Grava o e-mail na fila. Dentro de uma transação, os workers são acordados depois do
+     * commit; se ela for desfeita, o e-mail não existe.
+     */
+    public void enfileirar(String destinatario, String remetente, String assunto, String corpoHtml) {
+        EmailPendente email = new EmailPendente();
+        Instant agora = Instant.now();
+        email.setDestinatario(destinatario);
+        email.setRemetente(remetente != null && !remetente.isBlank() ? remetente : null);
+        email.setAssunto(assunto);
+        email.setCorpoHtml(corpoHtml);
+        email.setCriadoEm(agora);
+        email.setProximaTentativaEm(agora);
+        repository.save(email);
+        pendentes.incrementAndGet();
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    acordar();
+                }
+            });
+        } else {
+            acordar();
+        }
+    }
+
+    @Scheduled(initialDelayString = "${app.mail.outbox.intervalo-ms:5000}",
+            fixedDelayString = "${app.mail.outbox.intervalo-ms:5000}")
+    public void drenar() {
+        if (!drenando.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            List<EmailPendente> lote;
+            do {
+                lote = reservar();
+                if (!lote.isEmpty()) {
+                    List<EmailPendente> reservados = lote;
+                    tempoLote.record(() -> enviar(reservados));
+                }
+            } while (lote.size() == tamanhoLote);
+            atualizarContagens();
+        } catch (DataAccessException ex) {
+            logger.warn("Falha ao ler a fila de e-mails; nova tentativa no próximo ciclo", ex);
+        } finally {
+            drenando.set(false);
+        }
+    }
+
+    private void acordar() {
+        try {
+            workers.execute(this::drenar);
+        } catch (RuntimeException ex) {
+            // Encerrando: o ciclo agendado (ou a próxima instância) envia depois.
+        }
+    }
+
+    private List<EmailPendente> reservar() {
+        List<EmailPendente> reservados = transacao.execute(status -> {
+            Instant agora = Instant.now();
+            List<EmailPendente> disponiveis = repository.findDisponiveis(agora, PageRequest.of(0, tamanhoLote));
+            Instant reservadoAte = agora.plus(reserva);
+            disponiveis.forEach(email -> {
+                email.setStatus(StatusEmail.ENVIANDO);
+                email.setReservadoAte(reservadoAte);
+            });
+            return disponiveis;
+        });
+        return reservados != null ? reservados : List.of();
+    }
+
+    private void enviar(List<EmailPendente> lote) {
+        // Uma fatia por worker; o drenar já roda num worker, que também pega a sua fatia.
+        int fatias = Math.min(quantidadeWorkers, lote.size());
+        int tamanhoFatia = (lote.size() + fatias - 1) / fatias;
+        List<Future<Map<EmailPendente, Exception>>> emAndamento = new ArrayList<>();
+        for (int inicio = tamanhoFatia; inicio < lote.size(); inicio += tamanhoFatia) {
+            List<EmailPendente> fatia = lote.subList(inicio, Math.min(inicio + tamanhoFatia, lote.size()));
+            emAndamento.add(workers.submit(() -> enviarNumaConexao(fatia)));
+        }
+        Map<EmailPendente, Exception> erros = new IdentityHashMap<>(
+                enviarNumaConexao(lote.subList(0, Math.min(tamanhoFatia, lote.size()))));
+        for (Future<Map<EmailPendente, Exception>> futuro : emAndamento) {
+            try {
+                erros.putAll(futuro.get());
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException ex) {
+                // Não deveria acontecer: enviarNumaConexao não lança. A reserva vence e o lote volta.
+                logger.error("Worker de e-mail falhou", ex.getCause());
+            }
+        }
+        registrarResultado(lote, erros);
+    }
+
+    private Map<EmailPendente, Exception> enviarNumaConexao(List<EmailPendente> fatia) {
+        Map<EmailPendente, Exception> erros = new IdentityHashMap<>();
+        Map<MimeMessage, EmailPendente> porMensagem = new IdentityHashMap<>();
+        for (EmailPendente email : fatia) {
+            try {
+                porMensagem.put(montar(email), email);
+            } catch (Exception ex) {
+                erros.put(email, ex);
+            }
+        }
+        if (porMensagem.isEmpty()) {
+            return erros;
+        }
+        try {
+            mailSender.send(porMensagem.keySet().toArray(MimeMessage[]::new));
+        } catch (MailSendException ex) {
+            if (ex.getFailedMessages().isEmpty()) {
+                porMensagem.values().forEach(email -> erros.put(email, ex));
+            } else {
+                ex.getFailedMessages().forEach((mensagem, causa) -> {
+                    EmailPendente email = porMensagem.get(mensagem);
+                    if (email != null) {
+                        erros.put(email, causa);
+                    }
+                });
+            }
+        } catch (RuntimeException ex) {
+            porMensagem.values().forEach(email -> erros.put(email, ex));
+        }
+        return erros;
+    }
+
+    private MimeMessage montar(EmailPendente email) throws Exception {
+        MimeMessage mensagem = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(mensagem, "UTF-8");
+        helper.setTo(email.getDestinatario());
+        if (email.getRemetente() != null) {
+            helper.setFrom(email.getRemetente());
+        }
+        helper.setSubject(email.getAssunto());
+        helper.setText(email.getCorpoHtml(), true);
+        return mensagem;
+    }
+
+    private void registrarResultado(List<EmailPendente> lote, Map<EmailPendente, Exception> erros) {
+        List<Long> enviados = new ArrayList<>();
+        List<EmailPendente> reagendados = new ArrayList<>();
+        Instant agora = Instant.now();
+        for (EmailPendente email : lote) {
+            Exception erro = erros.get(email);
+            if (erro == null) {
+                enviados.add(email.getId());
+                continue;
+            }
+            email.setTentativas(email.getTentativas() + 1);
+            email.setReservadoAte(null);
+            email.setUltimoErro(resumir(erro));
+            if (definitivo(erro) || email.getTentativas() >= maximoTentativas) {
+                email.setStatus(StatusEmail.FALHOU);
+                meterRegistry.counter("unihub.mail.outbox.envios", "resultado", "descartado").increment();
+                logger.error("E-mail {} descartado após {} tentativa(s): {}",
+                        email.getId(), email.getTentativas(), email.getUltimoErro());
+            } else {
+                email.setStatus(StatusEmail.PENDENTE);
+                email.setProximaTentativaEm(agora.plus(backoff(email.getTentativas())));
+                meterRegistry.counter("unihub.mail.outbox.envios", "resultado", "retentativa").increment();
+                logger.warn("Falha ao enviar e-mail {} (tentativa {}); nova tentativa em {}",
+                        email.getId(), email.getTentativas(), email.getProximaTentativaEm());
+            }
+            reagendados.add(email);
+        }
+        meterRegistry.counter("unihub.mail.outbox.envios", "resultado", "enviado").increment(enviados.size());
+
+        transacao.executeWithoutResult(status -> {
+            if (!enviados.isEmpty()) {
+                repository.deleteAllByIdInBatch(enviados);
+            }
+            if (!reagendados.isEmpty()) {
+                repository.saveAll(reagendados);
+            }
+        });
+    }
+
+    /** 30s, 1min, 2min... até o máximo, com ±20% para não sincronizar as retentativas. */
+    Duration backoff(int tentativas) {
+        long base = backoffInicial.toMillis() << Math.min(tentativas - 1, 20);
+        long limitado = Math.min(base, backoffMaximo.toMillis());
+        return Duration.ofMillis((long) (limitado * ThreadLocalRandom.current().nextDouble(0.8, 1.2)));
+    }
+
+    // Endereço recusado pelo servidor ou mensagem que nem chega a ser montada: repetir não adianta.
+    private static boolean definitivo(Exception erro) {
+        if (erro instanceof SendFailedException falha) {
+            return falha.getInvalidAddresses() != null && falha.getInvalidAddresses().length > 0;
+        }
+        return erro instanceof AddressException || erro instanceof MailParseException;
+    }
+
+    private static String resumir(Exception erro) {
+        String texto = erro.getClass().getSimpleName() + ": " + erro.getMessage();
+        return texto.length() > TAMANHO_ERRO ? texto.substring(0, TAMANHO_ERRO) : texto;
+    }
+
+    private void atualizarContagens() {
+        pendentes.set(repository.countByStatus(StatusEmail.PENDENTE) + repository.countByStatus(StatusEmail.ENVIANDO));
+        falhas.set(repository.countByStatus(StatusEmail.FALHOU));
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        workers.shutdown();
+    }
+}
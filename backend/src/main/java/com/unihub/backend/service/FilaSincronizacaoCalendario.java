@@ -0,0 +1,352 @@
+package com.unihub.backend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.unihub.backend.model.SincronizacaoCalendarioPendente;
+import com.unihub.backend.model.enums.OperacaoCalendario;
+import com.unihub.backend.repository.GoogleCalendarCredentialRepository;
+import com.unihub.backend.repository.SincronizacaoCalendarioPendenteRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fila persistente (tabela {@code calendario_sincronizacoes_pendentes}) das alterações de
+ * avaliação que precisam chegar ao Google Calendar. A edição só grava a linha, na própria
+ * transação; a chamada remota acontece depois, nos workers.
+ *
+ * Cada alteração fica {@code google.calendar.fila.atraso-ms} na fila e empurra as anteriores
+ * da mesma avaliação junto com ela, então uma sequência rápida de edições vira um envio só,
+ * com o estado do momento. Cada ciclo reserva um lote com {@code FOR UPDATE SKIP LOCKED},
+ * agrupa por usuário e manda tudo de um usuário num batch request, respeitando um limite de
+ * itens por segundo por conta Google (o que não cabe volta para a fila com a espera
+ * necessária). Falhas voltam com backoff exponencial.
+ */
+@Service
+public class FilaSincronizacaoCalendario {
+
+    private static final Logger logger = LoggerFactory.getLogger(FilaSincronizacaoCalendario.class);
+
+    private final SincronizacaoCalendarioPendenteRepository repository;
+    private final GoogleCalendarCredentialRepository credentialRepository;
+    private final GoogleCalendarSyncService syncService;
+    private final TransactionTemplate transacao;
+    private final ExecutorService workers;
+    private final int tamanhoLote;
+    private final Duration atraso;
+    private final Duration atrasoMaximo;
+    private final int maximoTentativas;
+    private final Duration backoffInicial;
+    private final Duration backoffMaximo;
+    private final Duration reserva;
+    private final double itensPorSegundo;
+    private final int rajada;
+    private final Cache<Long, LimiteTaxa> limites;
+    private final AtomicBoolean drenando = new AtomicBoolean();
+    private final AtomicLong pendentes = new AtomicLong();
+    private final MeterRegistry meterRegistry;
+
+    public FilaSincronizacaoCalendario(SincronizacaoCalendarioPendenteRepository repository,
+                                       GoogleCalendarCredentialRepository credentialRepository,
+                                       GoogleCalendarSyncService syncService,
+                                       PlatformTransactionManager transactionManager,
+                                       MeterRegistry meterRegistry,
+                                       @Value("${google.calendar.fila.workers:2}") int workers,
+                                       @Value("${google.calendar.fila.lote:200}") int tamanhoLote,
+                                       @Value("${google.calendar.fila.atraso-ms:3000}") long atrasoMs,
+                                       @Value("${google.calendar.fila.atraso-maximo-s:60}") long atrasoMaximoSegundos,
+                                       @Value("${google.calendar.fila.max-tentativas:10}") int maximoTentativas,
+                                       @Value("${google.calendar.fila.backoff-inicial-s:30}") long backoffInicialSegundos,
+                                       @Value("${google.calendar.fila.backoff-maximo-s:1800}") long backoffMaximoSegundos,
+                                       @Value("${google.calendar.fila.reserva-s:300}") long reservaSegundos,
+                                       @Value("${google.calendar.fila.itens-por-segundo:5}") double itensPorSegundo,
+                                       @Value("${google.calendar.fila.rajada:50}") int rajada) {
+        this.repository = repository;
+        this.credentialRepository = credentialRepository;
+        this.syncService = syncService;
+        this.transacao = new TransactionTemplate(transactionManager);
+        this.tamanhoLote = Math.max(1, tamanhoLote);
+        this.atraso = Duration.ofMillis(Math.max(0, atrasoMs));
+        this.atrasoMaximo = Duration.ofSeconds(Math.max(1, atrasoMaximoSegundos));
+        this.maximoTentativas = Math.max(1, maximoTentativas);
+        this.backoffInicial = Duration.ofSeconds(Math.max(1, backoffInicialSegundos));
+        this.backoffMaximo = Duration.ofSeconds(Math.max(backoffInicialSegundos, backoffMaximoSegundos));
+        this.reserva = Duration.ofSeconds(Math.max(60, reservaSegundos));
+        this.itensPorSegundo = itensPorSegundo > 0 ? itensPorSegundo : 5;
+        this.rajada = Math.max(1, rajada);
+        // Conta parada por uma hora volta com o balde cheio, o que dá no mesmo.
+        this.limites = Caffeine.newBuilder().expireAfterAccess(Duration.ofHours(1)).build();
+        AtomicInteger sequencia = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(Math.max(1, workers), tarefa -> Thread.ofPlatform()
+                .name("google-calendar-fila-" + sequencia.incrementAndGet()).daemon(true).unstarted(tarefa));
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("unihub.google.calendar.fila", pendentes, AtomicLong::get)
+                .description("Alterações de avaliação aguardando o Google Calendar")
+                .register(meterRegistry);
+    }
+
+    /** Agenda o envio da versão atual da avaliação. Sem conta Google vinculada, não faz nada. */
+    public void agendarSincronizacao(Long usuarioId, Long avaliacaoId) {
+        agendar(usuarioId, avaliacaoId, OperacaoCalendario.SINCRONIZAR, null);
+    }
+
+    /**
+     * Agenda a remoção do evento de uma avaliação que está sendo excluída. O {@code eventId}
+     * vai junto porque a linha da avaliação não vai mais existir quando o worker chegar nela.
+     */
+    public void agendarRemocao(Long usuarioId, Long avaliacaoId, String eventId) {
+        agendar(usuarioId, avaliacaoId, OperacaoCalendario.REMOVER, eventId);
+    }
+
+    private void agendar(Long usuarioId, Long avaliacaoId, OperacaoCalendario operacao, String eventId) {
+        if (usuarioId == null || avaliacaoId == null || !credentialRepository.existsByUsuarioId(usuarioId)) {
+            return;
+        }
+        Instant agora = Instant.now();
+        Instant quando = agora.plus(atraso);
+        repository.adiar(usuarioId, avaliacaoId, quando, agora.minus(atrasoMaximo));
+
+        SincronizacaoCalendarioPendente pendente = new SincronizacaoCalendarioPendente();
+        pendente.setUsuarioId(usuarioId);
+        pendente.setAvaliacaoId(avaliacaoId);
+        pendente.setOperacao(operacao);
+        pendente.setEventId(eventId != null && !eventId.isBlank() ? eventId : null);
+        pendente.setCriadaEm(agora);
+        pendente.setProximaTentativaEm(quando);
+        repository.save(pendente);
+        pendentes.incrementAndGet();
+    }
+
+    @Scheduled(initialDelayString = "${google.calendar.fila.intervalo-ms:2000}",
+            fixedDelayString = "${google.calendar.fila.intervalo-ms:2000}")
+    public void drenar() {
+        if (!drenando.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            List<SincronizacaoCalendarioPendente> lote;
+            do {
+                lote = reservar();
+                processar(lote);
+            } while (lote.size() == tamanhoLote);
+            pendentes.set(repository.count());
+        } catch (DataAccessException ex) {
+            logger.warn("Falha ao ler a fila do Google Calendar; nova tentativa no próximo ciclo", ex);
+        } finally {
+            drenando.set(false);
+        }
+    }
+
+    private List<SincronizacaoCalendarioPendente> reservar() {
+        List<SincronizacaoCalendarioPendente> reservadas = transacao.execute(status -> {
+            Instant agora = Instant.now();
+            List<SincronizacaoCalendarioPendente> disponiveis =
+                    repository.findDisponiveis(agora, PageRequest.of(0, tamanhoLote));
+            Instant reservadoAte = agora.plus(reserva);
+            disponiveis.forEach(pendente -> pendente.setReservadoAte(reservadoAte));
+            return disponiveis;
+        });
+        return reservadas != null ? reservadas : List.of();
+    }
+
+    private void processar(List<SincronizacaoCalendarioPendente> lote) {
+        Map<Long, Map<Long, List<SincronizacaoCalendarioPendente>>> porUsuario = new LinkedHashMap<>();
+        for (SincronizacaoCalendarioPendente pendente : lote) {
+            porUsuario.computeIfAbsent(pendente.getUsuarioId(), id -> new LinkedHashMap<>())
+                    .computeIfAbsent(pendente.getAvaliacaoId(), id -> new ArrayList<>())
+                    .add(pendente);
+        }
+        List<Future<?>> emAndamento = new ArrayList<>(porUsuario.size());
+        porUsuario.forEach((usuarioId, porAvaliacao) ->
+                emAndamento.add(workers.submit(() -> processarUsuario(usuarioId, porAvaliacao))));
+        for (Future<?> futuro : emAndamento) {
+            try {
+                futuro.get();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException ex) {
+                // A reserva vence e as linhas voltam para a fila.
+                logger.error("Worker do Google Calendar falhou", ex.getCause());
+            }
+        }
+    }
+
+    private void processarUsuario(Long usuarioId, Map<Long, List<SincronizacaoCalendarioPendente>> porAvaliacao) {
+        LimiteTaxa limite = limites.get(usuarioId, id -> new LimiteTaxa(itensPorSegundo, rajada));
+        int liberados = limite.consumir(porAvaliacao.size());
+
+        List<Long> sincronizar = new ArrayList<>();
+        Map<Long, String> remover = new HashMap<>();
+        List<SincronizacaoCalendarioPendente> adiadas = new ArrayList<>();
+        int indice = 0;
+        for (Map.Entry<Long, List<SincronizacaoCalendarioPendente>> entrada : porAvaliacao.entrySet()) {
+            if (indice++ >= liberados) {
+                adiadas.addAll(entrada.getValue());
+                continue;
+            }
+            SincronizacaoCalendarioPendente ultima = ultima(entrada.getValue());
+            if (ultima.getOperacao() == OperacaoCalendario.REMOVER) {
+                remover.put(entrada.getKey(), ultima.getEventId());
+            } else {
+                sincronizar.add(entrada.getKey());
+            }
+        }
+        if (!adiadas.isEmpty()) {
+            Instant quando = Instant.now().plus(limite.espera());
+            adiadas.forEach(pendente -> {
+                pendente.setReservadoAte(null);
+                pendente.setProximaTentativaEm(quando);
+            });
+            meterRegistry.counter("unihub.google.calendar.fila.itens", "resultado", "adiado").increment(adiadas.size());
+        }
+
+        Optional<Set<Long>> resolvidas;
+        if (sincronizar.isEmpty() && remover.isEmpty()) {
+            resolvidas = Optional.of(Set.of());
+        } else {
+            try {
+                resolvidas = syncService.sincronizarAvaliacoes(usuarioId, sincronizar, remover);
+            } catch (RuntimeException ex) {
+                logger.warn("Falha ao sincronizar {} avaliação(ões) do usuário {} com o Google Calendar",
+                        sincronizar.size() + remover.size(), usuarioId, ex);
+                resolvidas = Optional.of(Set.of());
+            }
+        }
+
+        Map<Long, Long> concluidas = new HashMap<>();
+        List<SincronizacaoCalendarioPendente> reagendadas = new ArrayList<>(adiadas);
+        List<Long> descartadas = new ArrayList<>();
+        int retentativas = 0;
+        Instant agora = Instant.now();
+        List<Long> enviadas = new ArrayList<>(sincronizar);
+        enviadas.addAll(remover.keySet());
+        for (Long avaliacaoId : enviadas) {
+            List<SincronizacaoCalendarioPendente> linhas = porAvaliacao.get(avaliacaoId);
+            SincronizacaoCalendarioPendente ultima = ultima(linhas);
+            // Sem conta vinculada não há o que enviar: a linha só sai da fila.
+            if (resolvidas.isEmpty() || resolvidas.get().contains(avaliacaoId)) {
+                concluidas.put(avaliacaoId, ultima.getId());
+                continue;
+            }
+            int tentativas = linhas.stream().mapToInt(SincronizacaoCalendarioPendente::getTentativas).max().orElse(0) + 1;
+            if (tentativas >= maximoTentativas) {
+                // O próximo syncAll do usuário ainda pega a avaliação (ela continua pendente).
+                logger.error("Avaliação {} do usuário {} saiu da fila do Google Calendar após {} tentativa(s)",
+                        avaliacaoId, usuarioId, tentativas);
+                linhas.forEach(linha -> descartadas.add(linha.getId()));
+                meterRegistry.counter("unihub.google.calendar.fila.itens", "resultado", "descartado").increment();
+                continue;
+            }
+            retentativas++;
+            Instant quando = agora.plus(backoff(tentativas));
+            linhas.forEach(linha -> {
+                linha.setTentativas(tentativas);
+                linha.setReservadoAte(null);
+                linha.setProximaTentativaEm(quando);
+                reagendadas.add(linha);
+            });
+        }
+        meterRegistry.counter("unihub.google.calendar.fila.itens", "resultado", "sincronizado").increment(concluidas.size());
+        meterRegistry.counter("unihub.google.calendar.fila.itens", "resultado", "retentativa").increment(retentativas);
+
+        transacao.executeWithoutResult(status -> {
+            // Apaga também linhas da mesma avaliação que não vieram neste lote (backoff de uma
+            // falha anterior): o envio de agora já levou o estado atual.
+            concluidas.forEach((avaliacaoId, ate) -> repository.concluir(usuarioId, avaliacaoId, ate));
+            if (!descartadas.isEmpty()) {
+                repository.deleteAllByIdInBatch(descartadas);
+            }
+            if (!reagendadas.isEmpty()) {
+                repository.saveAll(reagendadas);
+            }
+        });
+    }
+
+    private static SincronizacaoCalendarioPendente ultima(List<SincronizacaoCalendarioPendente> linhas) {
+        return linhas.stream().max(Comparator.comparing(SincronizacaoCalendarioPendente::getId)).orElseThrow();
+    }
+
+    /** 30s, 1min, 2min... até o máximo, com ±20% para não sincronizar as retentativas. */
+    Duration backoff(int tentativas) {
+        long base = backoffInicial.toMillis() << Math.min(tentativas - 1, 20);
+        long limitado = Math.min(base, backoffMaximo.toMillis());
+        return Duration.ofMillis((long) (limitado * ThreadLocalRandom.current().nextDouble(0.8, 1.2)));
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        workers.shutdown();
+    }
+
+    /**
+     * Balde de fichas por conta Google: enche {@code itensPorSegundo} por segundo até
+     * {@code capacidade}. Cada item de um batch request conta como uma requisição na cota
+     * do Calendar, então cada avaliação gasta uma ficha.
+     */
+    static final class LimiteTaxa {
+
+        private final double itensPorSegundo;
+        private final int capacidade;
+        private double fichas;
+        private long atualizadoEm;
+
+        LimiteTaxa(double itensPorSegundo, int capacidade) {
+            this.itensPorSegundo = itensPorSegundo;
+            this.capacidade = capacidade;
+            this.fichas = capacidade;
+            this.atualizadoEm = System.nanoTime();
+        }
+
+        /** Gasta até {@code pedidos} fichas e devolve quantas foram concedidas. */
+        synchronized int consumir(int pedidos) {
+            encher();
+            int concedidas = (int) Math.min(pedidos, Math.floor(fichas));
+            fichas -= concedidas;
+            return concedidas;
+        }
+
+        /** Quanto falta para a próxima ficha. */
+        synchronized Duration espera() {
+            encher();
+            if (fichas >= 1) {
+                return Duration.ZERO;
+            }
+            return Duration.ofNanos((long) Math.ceil((1 - fichas) / itensPorSegundo * 1e9));
+        }
+
+        private void encher() {
+            long agora = System.nanoTime();
+            fichas = Math.min(capacidade, fichas + (agora - atualizadoEm) / 1e9 * itensPorSegundo);
+            atualizadoEm = agora;
+        }
+    }
+}
@@ -1,18 +1,13 @@
 package com.unihub.backend.service;
 
-import java.util.Collections;
 import java.util.Date;
 
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import com.google.api.client.googleapis.auth.oauth2.GoogleIdToken;
 import com.google.api.client.googleapis.auth.oauth2.GoogleIdToken.Payload;
 import com.google.api.client.googleapis.auth.oauth2.GoogleIdTokenVerifier;
-import com.google.api.client.googleapis.javanet.GoogleNetHttpTransport;
-import com.unihub.backend.repository.ContatoRepository;
 import com.unihub.backend.repository.InstituicaoRepository;
-import com.google.api.client.json.gson.GsonFactory;
 
 import com.unihub.backend.dto.LoginResponse;
 import com.unihub.backend.model.enums.AuthProvider;
@@ -24,36 +19,30 @@ import com.unihub.backend.repository.UsuarioRepository;
 @Service
 public class GoogleAuthService {
 
-    @Value("${google.oauth.client-id}")
-    private String googleClientId;
-
     private final UsuarioRepository usuarioRepository;
     private final AutenticacaoService autenticacaoService;
     private final GoogleCalendarCredentialService googleCalendarCredentialService;
     private final InstituicaoRepository instituicaoRepository;
     private final ContatoService contatoService;
+    private final GoogleIdTokenVerifier verifier;
 
     public GoogleAuthService(UsuarioRepository usuarioRepository,
                              AutenticacaoService autenticacaoService,
                              GoogleCalendarCredentialService googleCalendarCredentialService,
                              InstituicaoRepository instituicaoRepository,
-                             ContatoService contatoService) {
+                             ContatoService contatoService,
+                             GoogleIdTokenVerifier verifier) {
         this.usuarioRepository = usuarioRepository;
         this.autenticacaoService = autenticacaoService;
         this.googleCalendarCredentialService = googleCalendarCredentialService;
         this.instituicaoRepository = instituicaoRepository;
         this.contatoService = contatoService;
+        this.verifier = verifier;
     }
 
     public LoginResponse loginWithGoogle(String idTokenString) {
         try {
-            var transport = GoogleNetHttpTransport.newTrustedTransport();
-            var jsonFactory = GsonFactory.getDefaultInstance();
-
-            GoogleIdTokenVerifier verifier = new GoogleIdTokenVerifier.Builder(transport, jsonFactory)
-                    .setAudience(Collections.singletonList(googleClientId))
-                    .build();
-
+            // Verificador compartilhado: certificados do Google ficam em cache até o max-age expirar.
             GoogleIdToken idToken = verifier.verify(idTokenString);
             if (idToken == null) {
                 throw new RuntimeException("ID Token inválido ou expirado");
@@ -1,26 +1,52 @@
 package com.unihub.backend.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.api.client.auth.oauth2.Credential;
+import com.google.api.client.auth.oauth2.CredentialRefreshListener;
+import com.google.api.client.auth.oauth2.TokenErrorResponse;
+import com.google.api.client.auth.oauth2.TokenResponse;
 import com.google.api.client.googleapis.auth.oauth2.GoogleAuthorizationCodeTokenRequest;
-import com.google.api.client.googleapis.auth.oauth2.GoogleTokenResponse;
-import com.google.api.client.googleapis.javanet.GoogleNetHttpTransport;
 import com.google.api.client.googleapis.auth.oauth2.GoogleCredential;
+import com.google.api.client.googleapis.auth.oauth2.GoogleTokenResponse;
+import com.google.api.client.http.HttpTransport;
 import com.google.api.client.json.JsonFactory;
-import com.google.api.client.json.gson.GsonFactory;
 import com.google.api.services.calendar.Calendar;
 import com.unihub.backend.model.GoogleCalendarCredential;
 import com.unihub.backend.repository.GoogleCalendarCredentialRepository;
 import com.unihub.backend.repository.UsuarioRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.io.IOException;
-import java.security.GeneralSecurityException;
+import java.time.Duration;
 import java.time.Instant;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
 
+/**
+ * Credenciais OAuth do Google Calendar e os clientes montados sobre elas.
+ *
+ * Cada usuário ganha um {@link Calendar} guardado em cache, todos sobre o mesmo
+ * {@link HttpTransport} (e o mesmo pool de conexões). O registro só é gravado quando uma
+ * renovação trouxe um token diferente do que está no banco.
+ *
+ * Vincular ou desvincular avisa as outras instâncias pelo
+ * {@link CredencialCalendarioCanalPostgres}, e cada uma descarta o cliente daquele usuário.
+ * Mesmo assim, um cliente em cache só é usado se o registro ainda existir no banco.
+ */
 @Service
 public class GoogleCalendarCredentialService {
 
@@ -28,7 +54,12 @@ public class GoogleCalendarCredentialService {
 
     private final GoogleCalendarCredentialRepository credentialRepository;
     private final UsuarioRepository usuarioRepository;
-    private final JsonFactory jsonFactory = GsonFactory.getDefaultInstance();
+    private final HttpTransport httpTransport;
+    private final JsonFactory jsonFactory;
+    private final TransactionTemplate transacao;
+    private final CredencialCalendarioCanalPostgres canal;
+    private final Cache<Long, ClienteUsuario> clientes;
+    private final Duration renovacaoAntecipada;
 
     @Value("${google.oauth.client-id}")
     private String clientId;
@@ -43,9 +74,40 @@ public class GoogleCalendarCredentialService {
     private String applicationName;
 
     public GoogleCalendarCredentialService(GoogleCalendarCredentialRepository credentialRepository,
-                                           UsuarioRepository usuarioRepository) {
+                                           UsuarioRepository usuarioRepository,
+                                           HttpTransport googleHttpTransport,
+                                           JsonFactory googleJsonFactory,
+                                           PlatformTransactionManager transactionManager,
+                                           MeterRegistry meterRegistry,
+                                           CredencialCalendarioCanalPostgres canal,
+                                           @Value("${google.calendar.clientes.max:1000}") long maxClientes,
+                                           @Value("${google.calendar.clientes.expiracao-min:30}") long expiracaoMinutos,
+                                           @Value("${google.calendar.renovacao-antecipada-s:300}") long renovacaoAntecipadaSegundos) {
         this.credentialRepository = credentialRepository;
         this.usuarioRepository = usuarioRepository;
+        this.httpTransport = googleHttpTransport;
+        this.jsonFactory = googleJsonFactory;
+        this.transacao = new TransactionTemplate(transactionManager);
+        this.canal = canal;
+        this.renovacaoAntecipada = Duration.ofSeconds(Math.max(60, renovacaoAntecipadaSegundos));
+        this.clientes = Caffeine.newBuilder()
+                .maximumSize(Math.max(1, maxClientes))
+                // Por escrita, não por acesso: se um aviso do canal se perder, um cliente usado sem
+                // parar aqui nunca expiraria.
+                .expireAfterWrite(Duration.ofMinutes(Math.max(1, expiracaoMinutos)))
+                .recordStats()
+                .build();
+        // cache.gets{result=hit|miss}, cache.evictions, cache.size
+        CaffeineCacheMetrics.monitor(meterRegistry, clientes, "google.calendar.clientes");
+    }
+
+    /** No PostgreSQL, passa a descartar os clientes vinculados/desvinculados em outras instâncias. */
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciarDescarteCompartilhado() {
+        if (canal.disponivel()) {
+            // A cada (re)conexão descarta tudo: algum aviso pode ter chegado com a escuta fora.
+            canal.escutar(clientes::invalidate, clientes::invalidateAll);
+        }
     }
 
     @Transactional
@@ -55,7 +117,7 @@ public class GoogleCalendarCredentialService {
         }
         try {
             GoogleAuthorizationCodeTokenRequest tokenRequest = new GoogleAuthorizationCodeTokenRequest(
-                    GoogleNetHttpTransport.newTrustedTransport(),
+                    httpTransport,
                     jsonFactory,
                     "https://oauth2.googleapis.com/token",
                     clientId,
@@ -87,8 +149,10 @@ public class GoogleCalendarCredentialService {
             credential.setAccessTokenExpiresAt(expiry);
             credential.setLastSyncedAt(null);
 
-            return credentialRepository.save(credential);
-        } catch (IOException | GeneralSecurityException e) {
+            GoogleCalendarCredential salvo = credentialRepository.save(credential);
+            descartarCliente(usuarioId);
+            return salvo;
+        } catch (IOException e) {
             throw new RuntimeException("Falha ao trocar o authorization code por tokens do Google: " + e.getMessage(), e);
         }
     }
@@ -96,6 +160,25 @@ public class GoogleCalendarCredentialService {
     @Transactional
     public void unlink(Long usuarioId) {
         credentialRepository.deleteByUsuarioId(usuarioId);
+        descartarCliente(usuarioId);
+    }
+
+    // Depois do commit, para ninguém recarregar o registro antigo no meio da transação. As outras
+    // instâncias recebem o aviso do canal, que o PostgreSQL também só entrega após o commit.
+    private void descartarCliente(Long usuarioId) {
+        if (canal.disponivel()) {
+            canal.notificar(usuarioId);
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    clientes.invalidate(usuarioId);
+                }
+            });
+        } else {
+            clientes.invalidate(usuarioId);
+        }
     }
 
     public boolean isLinked(Long usuarioId) {
@@ -106,54 +189,130 @@ public class GoogleCalendarCredentialService {
         return credentialRepository.findByUsuarioId(usuarioId);
     }
 
+    /**
+     * Cliente do Calendar do usuário, reaproveitado entre chamadas. Um access token que vence
+     * em menos de {@code google.calendar.renovacao-antecipada-s} é renovado aqui, antes de a
+     * chamada sair; vazio quando não há conta vinculada ou a renovação falhou.
+     */
     public Optional<CalendarClient> prepareCalendar(Long usuarioId) {
-        return credentialRepository.findByUsuarioId(usuarioId).flatMap(credential -> {
-            try {
-                var transport = GoogleNetHttpTransport.newTrustedTransport();
-                GoogleCredential googleCredential = new GoogleCredential.Builder()
-                        .setTransport(transport)
-                        .setJsonFactory(jsonFactory)
-                        .setClientSecrets(clientId, clientSecret)
-                        .build();
-
-                applyTokens(credential, googleCredential);
-
-                Calendar calendar = new Calendar.Builder(transport, jsonFactory, googleCredential)
-                        .setApplicationName(applicationName)
-                        .build();
-
-                return Optional.of(new CalendarClient(calendar, credential));
-            } catch (Exception e) {
-                logger.warn("Falha ao preparar cliente do Google Calendar para usuário {}", usuarioId, e);
-                return Optional.empty();
-            }
-        });
+        if (!credentialRepository.existsByUsuarioId(usuarioId)) {
+            // Desvinculada em outra instância sem o aviso ter chegado aqui.
+            clientes.invalidate(usuarioId);
+            return Optional.empty();
+        }
+        ClienteUsuario cliente;
+        try {
+            cliente = clientes.get(usuarioId, this::criarCliente);
+        } catch (RuntimeException e) {
+            logger.warn("Falha ao preparar cliente do Google Calendar para usuário {}", usuarioId, e);
+            return Optional.empty();
+        }
+        if (cliente == null) {
+            return Optional.empty();
+        }
+        try {
+            cliente.renovarSeNecessario(renovacaoAntecipada);
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Falha ao renovar o access token do Google Calendar para usuário {}", usuarioId, e);
+            return Optional.empty();
+        }
+        return Optional.of(new CalendarClient(cliente.calendar, cliente.registro));
+    }
+
+    // Devolve null sem conta vinculada: o Caffeine não guarda nada e a próxima chamada consulta de novo.
+    private ClienteUsuario criarCliente(Long usuarioId) {
+        return credentialRepository.findByUsuarioId(usuarioId)
+                .map(registro -> new ClienteUsuario(usuarioId, registro))
+                .orElse(null);
     }
 
-    private void applyTokens(GoogleCalendarCredential credential, GoogleCredential googleCredential) throws IOException {
-        googleCredential.setAccessToken(credential.getAccessToken());
-        googleCredential.setRefreshToken(credential.getRefreshToken());
-        if (credential.getAccessTokenExpiresAt() != null) {
-            googleCredential.setExpirationTimeMilliseconds(credential.getAccessTokenExpiresAt().toEpochMilli());
+    private void gravarTokens(ClienteUsuario cliente, String refreshTokenNovo) {
+        GoogleCredential credencial = cliente.credencial;
+        String accessToken = credencial.getAccessToken();
+        if (Objects.equals(accessToken, cliente.accessTokenGravado) && refreshTokenNovo == null) {
+            return;
         }
+        Long expiraMs = credencial.getExpirationTimeMilliseconds();
+        Instant expiraEm = expiraMs != null ? Instant.ofEpochMilli(expiraMs) : Instant.now().plusSeconds(3600);
+        transacao.executeWithoutResult(status ->
+                credentialRepository.atualizarTokens(cliente.usuarioId, accessToken, refreshTokenNovo, expiraEm));
+        cliente.accessTokenGravado = accessToken;
+    }
 
-        boolean needsRefresh = credential.getAccessTokenExpiresAt() == null
-                || credential.getAccessTokenExpiresAt().isBefore(Instant.now().plusSeconds(60));
-        if (needsRefresh) {
-            if (credential.getRefreshToken() == null || credential.getRefreshToken().isBlank()) {
-                throw new IllegalStateException("Refresh token ausente para o usuário " + credential.getUsuario().getId());
+    /**
+     * Calendar e credencial de um usuário sobre o transporte compartilhado. Toda renovação,
+     * seja a antecipada daqui ou a que a própria {@link GoogleCredential} faz ao receber 401,
+     * passa pelo listener, que grava o token novo.
+     */
+    private final class ClienteUsuario implements CredentialRefreshListener {
+
+        private final Long usuarioId;
+        private final GoogleCalendarCredential registro;
+        private final GoogleCredential credencial;
+        private final Calendar calendar;
+        private final ReentrantLock renovacao = new ReentrantLock();
+        private volatile String accessTokenGravado;
+
+        private ClienteUsuario(Long usuarioId, GoogleCalendarCredential registro) {
+            this.usuarioId = usuarioId;
+            this.registro = registro;
+            this.credencial = new GoogleCredential.Builder()
+                    .setTransport(httpTransport)
+                    .setJsonFactory(jsonFactory)
+                    .setClientSecrets(clientId, clientSecret)
+                    .addRefreshListener(this)
+                    .build();
+            credencial.setAccessToken(registro.getAccessToken());
+            credencial.setRefreshToken(registro.getRefreshToken());
+            if (registro.getAccessTokenExpiresAt() != null) {
+                credencial.setExpirationTimeMilliseconds(registro.getAccessTokenExpiresAt().toEpochMilli());
             }
-            if (!googleCredential.refreshToken()) {
-                throw new IllegalStateException("Falha ao atualizar o access token do Google Calendar");
+            this.accessTokenGravado = registro.getAccessToken();
+            this.calendar = new Calendar.Builder(httpTransport, jsonFactory, credencial)
+                    .setApplicationName(applicationName)
+                    .build();
+        }
+
+        /** Uma renovação por usuário por vez; quem esperou encontra o token novo e segue. */
+        private void renovarSeNecessario(Duration antecedencia) throws IOException {
+            if (!pertoDeVencer(antecedencia)) {
+                return;
             }
-            credential.setAccessToken(googleCredential.getAccessToken());
-            Long expiresMs = googleCredential.getExpirationTimeMilliseconds();
-            if (expiresMs != null) {
-                credential.setAccessTokenExpiresAt(Instant.ofEpochMilli(expiresMs));
-            } else {
-                credential.setAccessTokenExpiresAt(Instant.now().plusSeconds(3600));
+            renovacao.lock();
+            try {
+                if (!pertoDeVencer(antecedencia)) {
+                    return;
+                }
+                if (credencial.getRefreshToken() == null || credencial.getRefreshToken().isBlank()) {
+                    throw new IllegalStateException("Refresh token ausente para o usuário " + usuarioId);
+                }
+                if (!credencial.refreshToken()) {
+                    throw new IllegalStateException("Falha ao atualizar o access token do Google Calendar");
+                }
+            } finally {
+                renovacao.unlock();
             }
-            credentialRepository.save(credential);
+        }
+
+        private boolean pertoDeVencer(Duration antecedencia) {
+            Long expiraMs = credencial.getExpirationTimeMilliseconds();
+            return credencial.getAccessToken() == null
+                    || expiraMs == null
+                    || expiraMs - System.currentTimeMillis() < antecedencia.toMillis();
+        }
+
+        @Override
+        public void onTokenResponse(Credential credential, TokenResponse resposta) {
+            String refreshToken = resposta.getRefreshToken();
+            gravarTokens(this, refreshToken != null && !refreshToken.isBlank() ? refreshToken : null);
+        }
+
+        @Override
+        public void onTokenErrorResponse(Credential credential, TokenErrorResponse resposta) {
+            // Token revogado ou conta desvinculada em outra instância: a próxima chamada relê o registro.
+            clientes.invalidate(usuarioId);
+            logger.warn("Google recusou a renovação do token do usuário {}: {}", usuarioId,
+                    resposta != null ? resposta.getError() : "sem resposta");
         }
     }
 
@@ -1,176 +1,380 @@
 package com.unihub.backend.service;
 
+import com.google.api.client.googleapis.batch.BatchRequest;
+import com.google.api.client.googleapis.batch.json.JsonBatchCallback;
+import com.google.api.client.googleapis.json.GoogleJsonError;
+import com.google.api.client.http.HttpHeaders;
 import com.google.api.client.util.DateTime;
+import com.google.api.services.calendar.Calendar;
 import com.google.api.services.calendar.model.Event;
 import com.google.api.services.calendar.model.EventDateTime;
 import com.unihub.backend.model.Avaliacao;
 import com.unihub.backend.repository.AvaliacaoRepository;
 import com.unihub.backend.repository.GoogleCalendarCredentialRepository;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
 
+import javax.sql.DataSource;
+import java.io.IOException;
 import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
 import java.time.ZoneId;
+import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
+/**
+ * Sincronização das avaliações com o Google Calendar.
+ *
+ * Só vai para o Google o que mudou desde a última versão enviada ({@code atualizadaEm}
+ * posterior a {@code googleSincronizadaEm}). As mutações seguem em batch requests de até
+ * {@code google.calendar.sync.lote} itens, fora de qualquer transação: o banco é lido numa
+ * transação curta e os ids dos eventos voltam num único batch JDBC, que ignora a avaliação
+ * editada durante o envio (ela continua pendente para a próxima vez).
+ *
+ * As sincronizações completas rodam num executor limitado, uma por usuário por vez;
+ * pedidos simultâneos do mesmo usuário aguardam a que já está em andamento. Edições avulsas
+ * chegam pela {@link FilaSincronizacaoCalendario}.
+ */
 @Service
 public class GoogleCalendarSyncService {
 
     private static final Logger logger = LoggerFactory.getLogger(GoogleCalendarSyncService.class);
+    private static final String CALENDARIO = "primary";
+    // Avaliação editada durante o envio não casa com atualizada_em e continua pendente.
+    private static final String SQL_GRAVAR_EVENTO = """
+            UPDATE avaliacoes
+               SET google_calendar_event_id = ?,
+                   google_sincronizada_em = ?,
+                   atualizada_em = COALESCE(atualizada_em, ?)
+             WHERE id = ? AND atualizada_em IS NOT DISTINCT FROM ?
+            """;
 
     private final GoogleCalendarCredentialService credentialService;
     private final GoogleCalendarCredentialRepository credentialRepository;
     private final AvaliacaoRepository avaliacaoRepository;
+    private final TransactionTemplate transacao;
+    private final TransactionTemplate leitura;
+    private final JdbcTemplate jdbcTemplate;
+    private final ThreadPoolExecutor executor;
+    private final int tamanhoLote;
+    private final Map<Long, CompletableFuture<SyncResult>> emAndamento = new ConcurrentHashMap<>();
 
     public GoogleCalendarSyncService(GoogleCalendarCredentialService credentialService,
                                      GoogleCalendarCredentialRepository credentialRepository,
-                                     AvaliacaoRepository avaliacaoRepository) {
+                                     AvaliacaoRepository avaliacaoRepository,
+                                     PlatformTransactionManager transactionManager,
+                                     DataSource dataSource,
+                                     @Value("${google.calendar.sync.threads:4}") int threads,
+                                     @Value("${google.calendar.sync.fila:100}") int capacidadeFila,
+                                     @Value("${google.calendar.sync.lote:50}") int tamanhoLote) {
         this.credentialService = credentialService;
         this.credentialRepository = credentialRepository;
         this.avaliacaoRepository = avaliacaoRepository;
+        this.transacao = new TransactionTemplate(transactionManager);
+        this.leitura = new TransactionTemplate(transactionManager);
+        this.leitura.setReadOnly(true);
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        // Limite do Calendar API por batch request.
+        this.tamanhoLote = Math.max(1, Math.min(tamanhoLote, 50));
+        AtomicInteger sequencia = new AtomicInteger();
+        int quantidade = Math.max(1, threads);
+        this.executor = new ThreadPoolExecutor(quantidade, quantidade, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, capacidadeFila)),
+                tarefa -> Thread.ofPlatform().name("google-calendar-sync-" + sequencia.incrementAndGet())
+                        .daemon(true).unstarted(tarefa));
+        this.executor.allowCoreThreadTimeOut(true);
     }
 
-    @Transactional
     public SyncResult syncAll(Long usuarioId) {
-        var clientOpt = credentialService.prepareCalendar(usuarioId);
-        if (clientOpt.isEmpty()) {
-            return new SyncResult(0, 0, null);
-        }
-        var client = clientOpt.get();
-        List<Avaliacao> avaliacoes = avaliacaoRepository.findByUsuarioId(usuarioId);
-        int success = 0;
-        int failures = 0;
-        for (Avaliacao avaliacao : avaliacoes) {
-            if (syncSingle(avaliacao, client)) {
-                success++;
-            } else {
-                failures++;
+        return syncAll(usuarioId, false);
+    }
+
+    /**
+     * Sincroniza o usuário no executor e espera o resultado. Com {@code completa}, reenvia
+     * todas as avaliações (usado ao vincular uma conta).
+     */
+    public SyncResult syncAll(Long usuarioId, boolean completa) {
+        try {
+            return agendar(usuarioId, completa).join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RejectedExecutionException) {
+                throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                        "Muitas sincronizações em andamento; tente novamente em instantes");
             }
+            if (ex.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw ex;
         }
-        Instant now = Instant.now();
-        client.credential().setLastSyncedAt(now);
-        credentialRepository.save(client.credential());
-        return new SyncResult(success, failures, now);
     }
 
-    @Transactional
-    public void syncEvaluation(Long avaliacaoId, Long usuarioId) {
+    public CompletableFuture<SyncResult> agendar(Long usuarioId, boolean completa) {
+        CompletableFuture<SyncResult> novo = new CompletableFuture<>();
+        CompletableFuture<SyncResult> existente = emAndamento.putIfAbsent(usuarioId, novo);
+        if (existente != null) {
+            return existente;
+        }
+        try {
+            executor.execute(() -> {
+                SyncResult resultado = null;
+                Throwable falha = null;
+                try {
+                    resultado = sincronizar(usuarioId, completa);
+                } catch (Throwable ex) {
+                    falha = ex;
+                }
+                // Sai do mapa antes de completar: quem chegar depois do resultado inicia outra rodada.
+                emAndamento.remove(usuarioId, novo);
+                if (falha != null) {
+                    novo.completeExceptionally(falha);
+                } else {
+                    novo.complete(resultado);
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            emAndamento.remove(usuarioId, novo);
+            novo.completeExceptionally(ex);
+        }
+        return novo;
+    }
+
+    private SyncResult sincronizar(Long usuarioId, boolean completa) {
         var clientOpt = credentialService.prepareCalendar(usuarioId);
         if (clientOpt.isEmpty()) {
-            return;
+            return new SyncResult(0, 0, null);
         }
-        var client = clientOpt.get();
-        avaliacaoRepository.findByIdAndUsuarioId(avaliacaoId, usuarioId).ifPresent(avaliacao -> {
-            if (syncSingle(avaliacao, client)) {
-                Instant now = Instant.now();
-                client.credential().setLastSyncedAt(now);
-                credentialRepository.save(client.credential());
-            }
+        List<Envio> envios = leitura.execute(status -> paraEnviar(
+                avaliacaoRepository.findParaSincronizarGoogle(usuarioId, completa)));
+        Instant agora = Instant.now();
+        List<Envio> concluidos = enviar(clientOpt.get().calendar(), envios);
+        transacao.executeWithoutResult(status -> {
+            gravar(concluidos, agora);
+            credentialRepository.registrarSincronizacao(usuarioId, agora);
         });
+        return new SyncResult(concluidos.size(), envios.size() - concluidos.size(), agora);
     }
 
-    @Transactional
-    public void removeFromCalendar(Long avaliacaoId, Long usuarioId) {
+    /**
+     * Envia a versão atual das avaliações {@code sincronizar} e remove os eventos de
+     * {@code remover} (avaliações já excluídas, pelo id do evento), num único batch.
+     * Devolve os ids de avaliação resolvidos: enviados, já em dia ou que não existem mais.
+     * Vazio quando o usuário não tem conta vinculada, ou seja, não há o que fazer.
+     */
+    public Optional<Set<Long>> sincronizarAvaliacoes(Long usuarioId,
+                                                     Collection<Long> sincronizar,
+                                                     Map<Long, String> remover) {
         var clientOpt = credentialService.prepareCalendar(usuarioId);
         if (clientOpt.isEmpty()) {
-            return;
+            // Conta vinculada mas cliente indisponível (token, rede): nada resolvido, tenta de novo.
+            return credentialRepository.existsByUsuarioId(usuarioId) ? Optional.of(Set.of()) : Optional.empty();
         }
-        var client = clientOpt.get();
-        avaliacaoRepository.findByIdAndUsuarioId(avaliacaoId, usuarioId).ifPresent(avaliacao -> {
-            String eventId = avaliacao.getGoogleCalendarEventId();
+        Set<Long> resolvidas = new HashSet<>(sincronizar);
+        List<Envio> envios = new ArrayList<>();
+        if (!sincronizar.isEmpty()) {
+            List<Avaliacao> avaliacoes = leitura.execute(status ->
+                    avaliacaoRepository.findParaSincronizarGoogle(usuarioId, sincronizar));
+            // Já enviada na versão atual (por um syncAll, por exemplo): só sai da fila.
+            List<Avaliacao> pendentes = avaliacoes.stream()
+                    .filter(avaliacao -> avaliacao.getGoogleSincronizadaEm() == null
+                            || avaliacao.getAtualizadaEm() == null
+                            || avaliacao.getAtualizadaEm().isAfter(avaliacao.getGoogleSincronizadaEm()))
+                    .toList();
+            pendentes.forEach(avaliacao -> resolvidas.remove(avaliacao.getId()));
+            envios.addAll(paraEnviar(pendentes));
+        }
+        remover.forEach((avaliacaoId, eventId) -> {
             if (eventId == null || eventId.isBlank()) {
-                return;
-            }
-            try {
-                client.calendar().events().delete("primary", eventId).execute();
-            } catch (Exception e) {
-                logger.warn("Falha ao excluir evento {} do Google Calendar", eventId, e);
+                resolvidas.add(avaliacaoId);
+            } else {
+                envios.add(new Envio(avaliacaoId, eventId, null, null));
             }
-            avaliacao.setGoogleCalendarEventId(null);
-            avaliacaoRepository.save(avaliacao);
-            client.credential().setLastSyncedAt(Instant.now());
-            credentialRepository.save(client.credential());
         });
+        if (envios.isEmpty()) {
+            return Optional.of(resolvidas);
+        }
+        Instant agora = Instant.now();
+        List<Envio> concluidos = enviar(clientOpt.get().calendar(), envios);
+        if (!concluidos.isEmpty()) {
+            transacao.executeWithoutResult(status -> {
+                gravar(concluidos.stream().filter(envio -> !remover.containsKey(envio.avaliacaoId())).toList(), agora);
+                credentialRepository.registrarSincronizacao(usuarioId, agora);
+            });
+        }
+        concluidos.forEach(envio -> resolvidas.add(envio.avaliacaoId()));
+        return Optional.of(resolvidas);
     }
 
     @Transactional
     public void clearMetadata(Long usuarioId) {
-        List<Avaliacao> avaliacoes = avaliacaoRepository.findByUsuarioId(usuarioId);
-        boolean modified = false;
-        for (Avaliacao avaliacao : avaliacoes) {
-            if (avaliacao.getGoogleCalendarEventId() != null) {
-                avaliacao.setGoogleCalendarEventId(null);
-                modified = true;
-            }
-        }
-        if (modified) {
-            avaliacaoRepository.saveAll(avaliacoes);
-        }
+        avaliacaoRepository.limparSincronizacaoGoogle(usuarioId);
     }
 
-    @Transactional
     public void removeAllRemoteEvents(Long usuarioId) {
         var clientOpt = credentialService.prepareCalendar(usuarioId);
         if (clientOpt.isEmpty()) {
             return;
         }
-        var client = clientOpt.get();
-        List<Avaliacao> avaliacoes = avaliacaoRepository.findByUsuarioId(usuarioId);
+        List<Envio> remocoes = leitura.execute(status -> avaliacaoRepository.findGoogleCalendarEventIds(usuarioId))
+                .stream()
+                .filter(eventId -> !eventId.isBlank())
+                .map(eventId -> new Envio(null, eventId, null, null))
+                .toList();
+        enviar(clientOpt.get().calendar(), remocoes);
+        transacao.executeWithoutResult(status ->
+                credentialRepository.registrarSincronizacao(usuarioId, Instant.now()));
+    }
+
+    private List<Envio> paraEnviar(List<Avaliacao> avaliacoes) {
+        List<Envio> envios = new ArrayList<>(avaliacoes.size());
         for (Avaliacao avaliacao : avaliacoes) {
             String eventId = avaliacao.getGoogleCalendarEventId();
-            if (eventId == null || eventId.isBlank()) {
-                continue;
-            }
-            try {
-                client.calendar().events().delete("primary", eventId).execute();
-            } catch (Exception e) {
-                logger.warn("Falha ao remover evento {} do Google Calendar durante desvinculação", eventId, e);
+            Event evento = avaliacao.getDataEntrega() != null ? buildEvent(avaliacao) : null;
+            envios.add(new Envio(avaliacao.getId(),
+                    eventId != null && !eventId.isBlank() ? eventId : null,
+                    evento,
+                    avaliacao.getAtualizadaEm()));
+        }
+        return envios;
+    }
+
+    /**
+     * Envia as mutações em batch requests e devolve as que deram certo, já com o id do evento
+     * resultante. Update de um evento apagado no Google (404/410) vira insert no lote seguinte.
+     */
+    private List<Envio> enviar(Calendar calendar, List<Envio> envios) {
+        List<Envio> concluidos = new ArrayList<>(envios.size());
+        List<Envio> restantes = new ArrayList<>(envios);
+        while (!restantes.isEmpty()) {
+            List<Envio> recriar = new ArrayList<>();
+            for (int inicio = 0; inicio < restantes.size(); inicio += tamanhoLote) {
+                List<Envio> lote = restantes.subList(inicio, Math.min(inicio + tamanhoLote, restantes.size()));
+                enviarLote(calendar, lote, concluidos, recriar);
             }
+            restantes = recriar;
         }
-        client.credential().setLastSyncedAt(Instant.now());
-        credentialRepository.save(client.credential());
+        return concluidos;
     }
 
-    private boolean syncSingle(Avaliacao avaliacao, GoogleCalendarCredentialService.CalendarClient client) {
+    private void enviarLote(Calendar calendar, List<Envio> lote, List<Envio> concluidos, List<Envio> recriar) {
         try {
-            if (avaliacao.getDataEntrega() == null) {
-                if (avaliacao.getGoogleCalendarEventId() != null) {
-                    try {
-                        client.calendar().events().delete("primary", avaliacao.getGoogleCalendarEventId()).execute();
-                    } catch (Exception e) {
-                        logger.warn("Falha ao remover evento do Google Calendar para avaliação {}", avaliacao.getId(), e);
+            BatchRequest batch = calendar.batch();
+            for (Envio envio : lote) {
+                if (envio.evento() == null) {
+                    if (envio.eventId() == null) {
+                        concluidos.add(envio);
+                    } else {
+                        calendar.events().delete(CALENDARIO, envio.eventId())
+                                .queue(batch, new Retorno<>(envio, concluidos, recriar));
                     }
-                    avaliacao.setGoogleCalendarEventId(null);
-                    avaliacaoRepository.save(avaliacao);
+                } else if (envio.eventId() == null) {
+                    calendar.events().insert(CALENDARIO, envio.evento())
+                            .queue(batch, new Retorno<>(envio, concluidos, recriar));
+                } else {
+                    calendar.events().update(CALENDARIO, envio.eventId(), envio.evento())
+                            .queue(batch, new Retorno<>(envio, concluidos, recriar));
                 }
-                return true;
             }
+            if (batch.size() > 0) {
+                batch.execute();
+            }
+        } catch (IOException e) {
+            logger.warn("Falha ao enviar lote de {} eventos ao Google Calendar", lote.size(), e);
+        }
+    }
+
+    private void gravar(List<Envio> concluidos, Instant agora) {
+        List<Object[]> parametros = concluidos.stream()
+                .filter(envio -> envio.avaliacaoId() != null)
+                .map(envio -> {
+                    OffsetDateTime versao = utc(envio.atualizadaEm() != null ? envio.atualizadaEm() : agora);
+                    return new Object[]{envio.eventId(), versao, versao, envio.avaliacaoId(), utc(envio.atualizadaEm())};
+                })
+                .toList();
+        if (!parametros.isEmpty()) {
+            jdbcTemplate.batchUpdate(SQL_GRAVAR_EVENTO, parametros);
+        }
+    }
+
+    private static OffsetDateTime utc(Instant instante) {
+        return instante != null ? instante.atOffset(ZoneOffset.UTC) : null;
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        executor.shutdownNow();
+    }
+
+    /** Uma mutação: sem evento é remoção; sem eventId, inserção; com os dois, atualização. */
+    private record Envio(Long avaliacaoId, String eventId, Event evento, Instant atualizadaEm) {
+
+        Envio comEventId(String novoEventId) {
+            return new Envio(avaliacaoId, novoEventId, evento, atualizadaEm);
+        }
+    }
+
+    private static final class Retorno<T> extends JsonBatchCallback<T> {
+
+        private final Envio envio;
+        private final List<Envio> concluidos;
+        private final List<Envio> recriar;
+
+        private Retorno(Envio envio, List<Envio> concluidos, List<Envio> recriar) {
+            this.envio = envio;
+            this.concluidos = concluidos;
+            this.recriar = recriar;
+        }
+
+        @Override
+        public void onSuccess(T resposta, HttpHeaders responseHeaders) {
+            if (resposta instanceof Event evento) {
+                concluidos.add(envio.comEventId(evento.getId()));
+            } else {
+                concluidos.add(envio.comEventId(null));
+            }
+        }
 
-            Event event = buildEvent(avaliacao);
-            if (avaliacao.getGoogleCalendarEventId() == null || avaliacao.getGoogleCalendarEventId().isBlank()) {
-                Event created = client.calendar().events().insert("primary", event).execute();
-                avaliacao.setGoogleCalendarEventId(created.getId());
+        @Override
+        public void onFailure(GoogleJsonError erro, HttpHeaders responseHeaders) {
+            boolean inexistente = erro.getCode() == 404 || erro.getCode() == 410;
+            if (inexistente && envio.evento() == null) {
+                concluidos.add(envio.comEventId(null));
+            } else if (inexistente && envio.eventId() != null) {
+                recriar.add(envio.comEventId(null));
             } else {
-                Event updated = client.calendar().events()
-                        .update("primary", avaliacao.getGoogleCalendarEventId(), event)
-                        .execute();
-                avaliacao.setGoogleCalendarEventId(updated.getId());
+                logger.warn("Google Calendar recusou a avaliação {} ({}): {}",
+                        envio.avaliacaoId(), erro.getCode(), erro.getMessage());
             }
-            avaliacaoRepository.save(avaliacao);
-            return true;
-        } catch (Exception e) {
-            logger.warn("Falha ao sincronizar avaliação {} com o Google Calendar", avaliacao.getId(), e);
-            return false;
         }
     }
 
-    private Event buildEvent(Avaliacao avaliacao) {
+    Event buildEvent(Avaliacao avaliacao) {
         Event event = new Event();
         String summary = avaliacao.getDescricao();
         if (summary == null || summary.isBlank()) {
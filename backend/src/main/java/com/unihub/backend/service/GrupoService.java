@@ -2,11 +2,10 @@ package com.unihub.backend.service;
 
 import com.unihub.backend.model.Contato;
 import com.unihub.backend.dto.notificacoes.NotificacaoLogRequest;
+import com.unihub.backend.dto.notificacoes.NotificacaoPendente;
 import com.unihub.backend.model.Grupo;
-import com.unihub.backend.model.NotificacaoConfiguracao;
 import com.unihub.backend.repository.ContatoRepository;
 import com.unihub.backend.repository.GrupoRepository;
-import com.unihub.backend.repository.NotificacaoConfiguracaoRepository;
 import jakarta.persistence.EntityNotFoundException; // Boa prática para exceções específicas
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -45,7 +44,13 @@ public class GrupoService {
     private NotificacaoService notificacaoService;
 
     @Autowired
-    private NotificacaoConfiguracaoRepository notificacaoConfiguracaoRepository;
+    private PreferenciasNotificacaoCache preferenciasNotificacao;
+
+    @Autowired
+    private NotificationDispatcher notificationDispatcher;
+
+    @Autowired
+    private ConsultasDaRequisicao consultas;
 
     private static final String NOTIFICACAO_MEMBRO_ADICIONADO = "GRUPO_MEMBRO_ADICIONADO";
 
@@ -64,7 +69,8 @@ public class GrupoService {
                     .forEach(grupo -> gruposVisiveis.put(grupo.getId(), grupo));
         }
 
-        String emailUsuario = usuarioRepository.findById(ownerId)
+        consultas.precarregarUsuarios(gruposVisiveis.values().stream().map(Grupo::getOwnerId).toList());
+        String emailUsuario = consultas.usuario(ownerId)
                 .map(Usuario::getEmail)
                 .orElse(null);
 
@@ -96,7 +102,7 @@ public class GrupoService {
                 ? buscarContatoDoUsuario(ownerId).orElse(null)
                 : localizarContatoDoOwner(grupo);
                 definirAdminContato(grupo, preferenciaAdmin, preferenciaAdmin, false);
-        if (!participaDoGrupo(grupo, ownerId, usuarioRepository.findById(ownerId)
+        if (!participaDoGrupo(grupo, ownerId, consultas.usuario(ownerId)
                 .map(Usuario::getEmail)
                 .orElse(null))) {
             throw new EntityNotFoundException("Grupo não encontrado com ID: " + id);
@@ -110,6 +116,7 @@ public class GrupoService {
         grupo.setId(null);
         grupo.setOwnerId(ownerId);
         List<Contato> membrosGerenciados = carregarMembrosValidos(grupo.getMembros(), ownerId, ownerId);
+        precarregarUsuariosDosMembros(membrosGerenciados);
         List<Contato> novosMembros = identificarNovosMembros(null, membrosGerenciados);
         Contato contatoAdministrador = garantirContatoDoUsuarioNoGrupo(membrosGerenciados, ownerId, true);
         grupo.getMembros().clear();
@@ -145,6 +152,7 @@ public class GrupoService {
             List<Contato> novosMembros = carregarMembrosValidos(
                     grupoDetalhesRequest.getMembros(), ownerIdDoGrupo, solicitanteId);
             contatosAdicionados = identificarNovosMembros(membrosOriginais, novosMembros);
+            precarregarUsuariosDosMembros(novosMembros);
             contatoAdministradorPreferencial = garantirContatoDoUsuarioNoGrupo(novosMembros, ownerIdDoGrupo, false);
             grupoExistente.getMembros().clear();
             grupoExistente.getMembros().addAll(novosMembros);
@@ -200,7 +208,7 @@ public class GrupoService {
         Long usuarioAutenticado = requireUsuario(usuarioId);
 
 
-        Usuario usuario = usuarioRepository.findById(usuarioAutenticado)
+        Usuario usuario = consultas.usuario(usuarioAutenticado)
                 .orElseThrow(() -> new EntityNotFoundException("Usuário não encontrado com ID: " + usuarioAutenticado));
         Grupo grupo = buscarGrupoParticipante(id, usuario);
 
@@ -368,7 +376,8 @@ public class GrupoService {
                     .forEach(grupo -> gruposVisiveis.put(grupo.getId(), grupo));
         }
 
-        String emailUsuario = usuarioRepository.findById(ownerId)
+        consultas.precarregarUsuarios(gruposVisiveis.values().stream().map(Grupo::getOwnerId).toList());
+        String emailUsuario = consultas.usuario(ownerId)
                 .map(Usuario::getEmail)
                 .orElse(null);
 
@@ -490,7 +499,7 @@ public class GrupoService {
         return ids;
     }
 
-    private boolean participaDoGrupo(Grupo grupo, Long usuarioId, String emailUsuario) {
+    boolean participaDoGrupo(Grupo grupo, Long usuarioId, String emailUsuario) {
         if (grupo == null || usuarioId == null) {
             return false;
         }
@@ -526,7 +535,7 @@ public class GrupoService {
                 .forEach(ids::add);
 
 
-        usuarioRepository.findById(usuarioId).ifPresent(usuario -> {
+        consultas.usuario(usuarioId).ifPresent(usuario -> {
             String email = usuario.getEmail();
             if (email != null && !email.isBlank()) {
                 contatoRepository.findByEmailIgnoreCase(email).stream()
@@ -558,12 +567,13 @@ public class GrupoService {
             if (membro.getIdContato() != null) {
                 idsContatoInformados.add(membro.getIdContato());
             }
-            String email = membro.getEmail();
-            if (email != null && !email.isBlank()) {
-                emailsInformados.add(email.trim());
+            String email = normalizarEmail(membro.getEmail());
+            if (email != null) {
+                emailsInformados.add(email);
             }
         }
 
+        // Uma consulta IN por chave (id, idContato, e-mail) em vez de uma por membro.
         Map<Long, Contato> contatosPorId = new HashMap<>();
         if (!idsInformados.isEmpty()) {
             contatoRepository.findByOwnerIdAndIdIn(ownerId, new ArrayList<>(idsInformados))
@@ -571,58 +581,68 @@ public class GrupoService {
         }
 
         Map<Long, Contato> contatosPorIdContato = new HashMap<>();
-        for (Long idContato : idsContatoInformados) {
-            contatoRepository.findByOwnerIdAndIdContato(ownerId, idContato)
-                    .ifPresent(contato -> contatosPorIdContato.put(idContato, contato));
+        if (!idsContatoInformados.isEmpty()) {
+            contatoRepository.findByOwnerIdAndIdContatoInOrderByIdAsc(ownerId, idsContatoInformados)
+                    .forEach(contato -> contatosPorIdContato.putIfAbsent(contato.getIdContato(), contato));
         }
 
         Map<String, Contato> contatosPorEmail = new HashMap<>();
-        for (String email : emailsInformados) {
-            contatoRepository.findByOwnerIdAndEmailIgnoreCase(ownerId, email)
-                    .ifPresent(contato -> contatosPorEmail.put(email.toLowerCase(Locale.ROOT), contato));
+        if (!emailsInformados.isEmpty()) {
+            contatoRepository.findByOwnerIdAndEmailNormalizadoIn(ownerId, emailsInformados)
+                    .forEach(contato -> contatosPorEmail.putIfAbsent(normalizarEmail(contato.getEmail()), contato));
         }
 
-        List<Contato> membrosResolvidos = new ArrayList<>();
-        Set<Long> idsAdicionados = new HashSet<>();
-
-        for (Contato membro : membros) {
+        Contato[] encontrados = new Contato[membros.size()];
+        List<Contato> naoResolvidos = new ArrayList<>();
+        for (int i = 0; i < membros.size(); i++) {
+            Contato membro = membros.get(i);
             if (membro == null) {
                 continue;
             }
-
-            Contato encontrado = null;
-
-            Long id = membro.getId();
-            if (id != null) {
-                encontrado = contatosPorId.get(id);
-            }
-
-            Long idContato = membro.getIdContato();
-            if (encontrado == null && idContato != null) {
-                encontrado = contatosPorIdContato.get(idContato);
+            encontrados[i] = localizarMembro(membro, contatosPorId, contatosPorIdContato, contatosPorEmail);
+            if (encontrados[i] == null) {
+                naoResolvidos.add(membro);
             }
+        }
 
-            String emailNormalizado = normalizarEmail(membro.getEmail());
-            if (encontrado == null && emailNormalizado != null) {
-                encontrado = contatosPorEmail.get(emailNormalizado);
-            }
+        if (!naoResolvidos.isEmpty()) {
+            ReferenciasMembros referencias = carregarReferenciasMembros(naoResolvidos, ownerId, solicitanteId);
+            for (int i = 0; i < membros.size(); i++) {
+                Contato membro = membros.get(i);
+                if (membro == null || encontrados[i] != null) {
+                    continue;
+                }
 
-            if (encontrado == null) {
-                encontrado = criarContatoParaOwnerSeNecessario(ownerId, solicitanteId, membro);
-                if (encontrado != null) {
-                    if (encontrado.getId() != null) {
-                        contatosPorId.put(encontrado.getId(), encontrado);
-                    }
-                    if (encontrado.getIdContato() != null) {
-                        contatosPorIdContato.put(encontrado.getIdContato(), encontrado);
-                    }
-                    String emailCriado = normalizarEmail(encontrado.getEmail());
-                    if (emailCriado != null) {
-                        contatosPorEmail.put(emailCriado, encontrado);
+                // Um contato criado para um membro anterior pode já atender este.
+                Contato encontrado = localizarMembro(membro, contatosPorId, contatosPorIdContato, contatosPorEmail);
+                if (encontrado == null) {
+                    encontrado = criarContatoParaOwnerSeNecessario(ownerId, solicitanteId, membro, referencias);
+                    if (encontrado != null) {
+                        if (encontrado.getId() != null) {
+                            contatosPorId.put(encontrado.getId(), encontrado);
+                        }
+                        if (encontrado.getIdContato() != null) {
+                            contatosPorIdContato.put(encontrado.getIdContato(), encontrado);
+                        }
+                        String emailCriado = normalizarEmail(encontrado.getEmail());
+                        if (emailCriado != null) {
+                            contatosPorEmail.put(emailCriado, encontrado);
+                        }
                     }
                 }
+                encontrados[i] = encontrado;
+            }
+        }
+
+        List<Contato> membrosResolvidos = new ArrayList<>();
+        Set<Long> idsAdicionados = new HashSet<>();
+
+        for (int i = 0; i < membros.size(); i++) {
+            if (membros.get(i) == null) {
+                continue;
             }
 
+            Contato encontrado = encontrados[i];
             if (encontrado == null) {
                 throw new EntityNotFoundException("Alguns contatos informados não puderam ser associados ao grupo.");
             }
@@ -639,6 +659,72 @@ public class GrupoService {
         return membrosResolvidos;
     }
 
+    private Contato localizarMembro(Contato membro,
+                                    Map<Long, Contato> contatosPorId,
+                                    Map<Long, Contato> contatosPorIdContato,
+                                    Map<String, Contato> contatosPorEmail) {
+        Contato encontrado = null;
+
+        Long id = membro.getId();
+        if (id != null) {
+            encontrado = contatosPorId.get(id);
+        }
+
+        Long idContato = membro.getIdContato();
+        if (encontrado == null && idContato != null) {
+            encontrado = contatosPorIdContato.get(idContato);
+        }
+
+        String emailNormalizado = normalizarEmail(membro.getEmail());
+        if (encontrado == null && emailNormalizado != null) {
+            encontrado = contatosPorEmail.get(emailNormalizado);
+        }
+
+        return encontrado;
+    }
+
+    // Dados auxiliares para criar, de uma vez, os contatos que o owner ainda não tem.
+    private record ReferenciasMembros(Map<Long, Contato> contatosPorId,
+                                      Map<Long, Contato> contatosDoSolicitantePorIdContato,
+                                      Map<Long, Usuario> usuariosPorId) {
+    }
+
+    private ReferenciasMembros carregarReferenciasMembros(List<Contato> membros, Long ownerId, Long solicitanteId) {
+        Set<Long> ids = new HashSet<>();
+        Set<Long> idsContato = new HashSet<>();
+        for (Contato membro : membros) {
+            if (membro.getId() != null) {
+                ids.add(membro.getId());
+            }
+            if (membro.getIdContato() != null) {
+                idsContato.add(membro.getIdContato());
+            }
+        }
+
+        Map<Long, Contato> contatosPorId = new HashMap<>();
+        if (!ids.isEmpty()) {
+            contatoRepository.findAllById(ids).forEach(contato -> contatosPorId.put(contato.getId(), contato));
+        }
+
+        Map<Long, Contato> contatosDoSolicitante = new HashMap<>();
+        if (solicitanteId != null && !Objects.equals(ownerId, solicitanteId) && !idsContato.isEmpty()) {
+            contatoRepository.findByOwnerIdAndIdContatoInOrderByIdAsc(solicitanteId, idsContato)
+                    .forEach(contato -> contatosDoSolicitante.putIfAbsent(contato.getIdContato(), contato));
+        }
+
+        Set<Long> idsUsuarios = new HashSet<>(idsContato);
+        contatosPorId.values().stream()
+                .map(Contato::getIdContato)
+                .filter(Objects::nonNull)
+                .forEach(idsUsuarios::add);
+        Map<Long, Usuario> usuariosPorId = new HashMap<>();
+        if (!idsUsuarios.isEmpty()) {
+            usuarioRepository.findAllById(idsUsuarios).forEach(usuario -> usuariosPorId.put(usuario.getId(), usuario));
+        }
+
+        return new ReferenciasMembros(contatosPorId, contatosDoSolicitante, usuariosPorId);
+    }
+
     private String normalizarEmail(String email) {
         if (email == null) {
             return null;
@@ -714,6 +800,7 @@ public class GrupoService {
         }
 
         Set<Long> usuariosNotificados = new HashSet<>();
+        List<NotificacaoPendente> notificacoes = new ArrayList<>();
 
         for (Contato contato : novosMembros) {
             if (contato == null) {
@@ -743,8 +830,9 @@ public class GrupoService {
             }
 
             NotificacaoLogRequest request = criarNotificacaoInclusaoGrupo(grupo, contato, usuarioDestino.get(), autorId);
-            notificacaoService.registrarNotificacao(usuarioDestinoId, request);
+            notificacoes.add(notificacaoService.prepararNotificacao(usuarioDestinoId, request));
         }
+        notificationDispatcher.enviar(notificacoes);
     }
 
     private boolean podeNotificarInclusaoEmGrupo(Long usuarioId) {
@@ -752,9 +840,7 @@ public class GrupoService {
             return false;
         }
 
-        return notificacaoConfiguracaoRepository.findByUsuarioId(usuarioId)
-                .map(NotificacaoConfiguracao::isInclusoEmGrupo)
-                .orElse(true);
+        return preferenciasNotificacao.obter(usuarioId).inclusoEmGrupo();
     }
 
     private NotificacaoLogRequest criarNotificacaoInclusaoGrupo(Grupo grupo, Contato contato, Usuario destinatario, Long autorId) {
@@ -800,39 +886,23 @@ public class GrupoService {
         return request;
     }
 
-    private Contato criarContatoParaOwnerSeNecessario(Long ownerId, Long solicitanteId, Contato membro) {
+    private Contato criarContatoParaOwnerSeNecessario(Long ownerId, Long solicitanteId, Contato membro,
+                                                      ReferenciasMembros referencias) {
         if (ownerId == null || membro == null) {
             return null;
         }
 
+        // Quem chega aqui já não foi encontrado entre os contatos do owner por id, idContato ou e-mail.
         Long idContato = membro.getIdContato();
-        if (idContato != null) {
-            Optional<Contato> existentePorIdContato = contatoRepository.findByOwnerIdAndIdContato(ownerId, idContato);
-            if (existentePorIdContato.isPresent()) {
-                return existentePorIdContato.get();
-            }
-        }
-
-        String emailNormalizado = normalizarEmail(membro.getEmail());
-        if (emailNormalizado != null) {
-            Optional<Contato> existentePorEmail = contatoRepository.findByOwnerIdAndEmailIgnoreCase(ownerId, emailNormalizado);
-            if (existentePorEmail.isPresent()) {
-                return existentePorEmail.get();
-            }
-        }
 
         Contato referencia = null;
         if (membro.getId() != null) {
-            referencia = contatoRepository.findById(membro.getId()).orElse(null);
+            referencia = referencias.contatosPorId().get(membro.getId());
         }
 
-        if (referencia == null && solicitanteId != null && !Objects.equals(ownerId, solicitanteId)) {
-            if (membro.getId() != null) {
-                referencia = contatoRepository.findByIdAndOwnerId(membro.getId(), solicitanteId).orElse(null);
-            }
-            if (referencia == null && idContato != null) {
-                referencia = contatoRepository.findByOwnerIdAndIdContato(solicitanteId, idContato).orElse(null);
-            }
+        if (referencia == null && solicitanteId != null && !Objects.equals(ownerId, solicitanteId)
+                && idContato != null) {
+            referencia = referencias.contatosDoSolicitantePorIdContato().get(idContato);
         }
 
         String nome = membro.getNome();
@@ -852,9 +922,8 @@ public class GrupoService {
         }
 
         if (idContatoFinal != null) {
-            Optional<Usuario> usuarioOptional = usuarioRepository.findById(idContatoFinal);
-            if (usuarioOptional.isPresent()) {
-                Usuario usuario = usuarioOptional.get();
+            Usuario usuario = referencias.usuariosPorId().get(idContatoFinal);
+            if (usuario != null) {
                 if (nome == null || nome.isBlank()) {
                     nome = usuario.getNomeUsuario();
                 }
@@ -913,7 +982,7 @@ public class GrupoService {
         return jaPresente ? contatoDoUsuario : null;
     }
 
-    private Contato definirAdminContato(Grupo grupo, Contato contatoPreferencial, Contato contatoDoUsuario, boolean permitirTransferencia) {
+    Contato definirAdminContato(Grupo grupo, Contato contatoPreferencial, Contato contatoDoUsuario, boolean permitirTransferencia) {
         if (grupo == null) {
             return null;
         }
@@ -930,7 +999,7 @@ public class GrupoService {
             return null;
         }
 
-        String ownerEmail = usuarioRepository.findById(ownerId)
+        String ownerEmail = consultas.usuario(ownerId)
                 .map(Usuario::getEmail)
                 .orElse(null);
 
@@ -1001,7 +1070,7 @@ public class GrupoService {
             return Optional.empty();
         }
 
-        Usuario usuario = usuarioRepository.findById(usuarioId).orElse(null);
+        Usuario usuario = consultas.usuario(usuarioId).orElse(null);
         if (usuario == null) {
             return Optional.empty();
         }
@@ -1084,7 +1153,7 @@ public class GrupoService {
             return contatoPorVinculoDireto.get();
         }
 
-        Optional<Usuario> owner = usuarioRepository.findById(ownerId);
+        Optional<Usuario> owner = consultas.usuario(ownerId);
         if (owner.isEmpty()) {
             return null;
         }
@@ -1113,12 +1182,12 @@ public class GrupoService {
             return Optional.empty();
         }
 
-        Usuario usuario = usuarioRepository.findById(ownerId)
+        Usuario usuario = consultas.usuario(ownerId)
                 .orElseThrow(() -> new EntityNotFoundException("Usuário não encontrado com ID: " + ownerId));
 
         String email = usuario.getEmail();
         if (email != null && !email.isBlank()) {
-            Optional<Contato> contatoPorEmail = contatoRepository.findByOwnerIdAndEmailIgnoreCase(ownerId, email);
+            Optional<Contato> contatoPorEmail = consultas.contatoPorEmail(ownerId, email);
             if (contatoPorEmail.isPresent()) {
                 return contatoPorEmail;
 
@@ -1161,7 +1230,7 @@ public class GrupoService {
 
         Long contatoUsuarioId = contato.getIdContato();
         if (contatoUsuarioId != null) {
-            Optional<Usuario> porId = usuarioRepository.findById(contatoUsuarioId);
+            Optional<Usuario> porId = consultas.usuario(contatoUsuarioId);
             if (porId.isPresent()) {
                 return porId;
             }
@@ -1172,7 +1241,7 @@ public class GrupoService {
             return Optional.empty();
         }
 
-        return usuarioRepository.findByEmailIgnoreCase(email);
+        return consultas.usuarioPorEmail(email);
     }
 
     private int contarParticipantes(Grupo grupo) {
@@ -1186,7 +1255,7 @@ public class GrupoService {
         String ownerEmail = null;
         if (ownerId != null) {
             identificadores.add("usuario:" + ownerId);
-            ownerEmail = usuarioRepository.findById(ownerId)
+            ownerEmail = consultas.usuario(ownerId)
                     .map(Usuario::getEmail)
                     .orElse(null);
         }
@@ -1226,7 +1295,7 @@ public class GrupoService {
     }
 
     private Contato obterOuCriarContatoDoUsuario(Long ownerId) {
-        Usuario usuario = usuarioRepository.findById(ownerId)
+        Usuario usuario = consultas.usuario(ownerId)
                 .orElseThrow(() -> new EntityNotFoundException("Usuário não encontrado com ID: " + ownerId));
 
         String email = usuario.getEmail();
@@ -1252,6 +1321,16 @@ public class GrupoService {
         return contatoRepository.save(contato);
     }
 
+    private void precarregarUsuariosDosMembros(List<Contato> membros) {
+        if (membros == null || membros.isEmpty()) {
+            return;
+        }
+        consultas.precarregarUsuarios(membros.stream()
+                .filter(Objects::nonNull)
+                .map(Contato::getIdContato)
+                .toList());
+    }
+
     private Long requireUsuario(Long usuarioId) {
         if (usuarioId == null) {
             throw new IllegalArgumentException("Usuário autenticado é obrigatório");
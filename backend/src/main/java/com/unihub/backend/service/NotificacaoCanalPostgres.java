@@ -0,0 +1,81 @@
+package com.unihub.backend.service;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Ponte LISTEN/NOTIFY entre instâncias: quem grava notificações emite {@code pg_notify}
+ * com os ids na própria transação (o PostgreSQL só entrega após o commit) e cada instância
+ * escuta o canal numa conexão dedicada, fora do pool, repassando os ids ao
+ * {@link NotificacaoEventos}.
+ *
+ * O payload é {@code usuarioId:id;usuarioId:id}, dividido em mais de um NOTIFY quando
+ * passaria do limite de 8000 bytes do PostgreSQL. Em outros bancos o canal fica inativo.
+ */
+@Component
+public class NotificacaoCanalPostgres extends CanalPostgres {
+
+    static final String CANAL = "unihub_notificacoes";
+    private static final int LIMITE_PAYLOAD = 7900;
+
+    public NotificacaoCanalPostgres(DataSource dataSource, ObjectProvider<DataSourceProperties> dataSourceProperties) {
+        super(CANAL, dataSource, dataSourceProperties);
+    }
+
+    /** Emite os ids na transação corrente (usa a mesma conexão da transação JPA, se houver). */
+    public void notificar(Map<Long, List<Long>> idsPorUsuario) {
+        for (String payload : payloads(idsPorUsuario)) {
+            emitir(payload);
+        }
+    }
+
+    /**
+     * Começa a escutar o canal numa thread própria. {@code aoConectar} roda a cada (re)conexão,
+     * para que os assinantes recuperem o que foi emitido enquanto a escuta estava fora.
+     */
+    public void escutar(Consumer<Map<Long, List<Long>>> receptor, Runnable aoConectar) {
+        escutarPayloads(payload -> receptor.accept(ler(payload)), aoConectar);
+    }
+
+    static List<String> payloads(Map<Long, List<Long>> idsPorUsuario) {
+        List<String> payloads = new ArrayList<>();
+        StringBuilder atual = new StringBuilder();
+        idsPorUsuario.forEach((usuarioId, ids) -> {
+            for (Long id : ids) {
+                String trecho = usuarioId + ":" + id;
+                if (atual.length() + trecho.length() + 1 > LIMITE_PAYLOAD) {
+                    payloads.add(atual.toString());
+                    atual.setLength(0);
+                }
+                atual.append(atual.isEmpty() ? "" : ";").append(trecho);
+            }
+        });
+        if (!atual.isEmpty()) {
+            payloads.add(atual.toString());
+        }
+        return payloads;
+    }
+
+    static Map<Long, List<Long>> ler(String payload) {
+        Map<Long, List<Long>> idsPorUsuario = new LinkedHashMap<>();
+        if (payload == null || payload.isBlank()) {
+            return idsPorUsuario;
+        }
+        for (String trecho : payload.split(";")) {
+            String[] partes = trecho.split(":", 2);
+            if (partes.length == 2) {
+                idsPorUsuario.computeIfAbsent(Long.valueOf(partes[0]), chave -> new ArrayList<>())
+                        .add(Long.valueOf(partes[1]));
+            }
+        }
+        return idsPorUsuario;
+    }
+}
@@ -21,11 +21,14 @@ public class NotificacaoConfiguracaoService {
 
     private final NotificacaoConfiguracaoRepository configuracaoRepository;
     private final UsuarioRepository usuarioRepository;
+    private final PreferenciasNotificacaoCache preferenciasNotificacao;
 
     public NotificacaoConfiguracaoService(NotificacaoConfiguracaoRepository configuracaoRepository,
-                                          UsuarioRepository usuarioRepository) {
+                                          UsuarioRepository usuarioRepository,
+                                          PreferenciasNotificacaoCache preferenciasNotificacao) {
         this.configuracaoRepository = configuracaoRepository;
         this.usuarioRepository = usuarioRepository;
+        this.preferenciasNotificacao = preferenciasNotificacao;
     }
 
     @Transactional
@@ -56,6 +59,7 @@ public class NotificacaoConfiguracaoService {
         atualizarAntecedencias(configuracao, request.getAvaliacoesConfig());
 
         NotificacaoConfiguracao salvo = configuracaoRepository.save(configuracao);
+        preferenciasNotificacao.invalidar(usuarioId);
         return toResponse(salvo);
     }
 
@@ -93,7 +97,9 @@ public class NotificacaoConfiguracaoService {
             configuracao.addAntecedencia(antecedencia);
         }
 
-        return configuracaoRepository.save(configuracao);
+        NotificacaoConfiguracao salva = configuracaoRepository.save(configuracao);
+        preferenciasNotificacao.invalidar(usuarioId);
+        return salva;
     }
 
     private void atualizarAntecedencias(NotificacaoConfiguracao configuracao, AvaliacoesConfigDto dto) {
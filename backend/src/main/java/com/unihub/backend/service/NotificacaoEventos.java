@@ -0,0 +1,324 @@
+package com.unihub.backend.service;
+
+import com.unihub.backend.dto.compartilhamento.NotificacaoResponse;
+import com.unihub.backend.model.Notificacao;
+import com.unihub.backend.repository.NotificacaoRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+/**
+ * Stream de notificações por Server-Sent Events. Cada instância guarda em memória os
+ * assinantes conectados a ela; um cliente ocioso custa só o socket (e um comentário de
+ * heartbeat), nenhuma consulta.
+ *
+ * Com PostgreSQL as publicações passam pelo {@link NotificacaoCanalPostgres}, de modo que
+ * o assinante recebe o evento em qualquer instância. Nos demais bancos a entrega é local,
+ * após o commit.
+ *
+ * O id de cada evento é o cursor (atualizada_em, id) da notificação; um cliente que
+ * reconecta com {@code Last-Event-ID} recebe o que mudou depois dele, ou o evento
+ * {@code ressincronizar} quando a diferença é grande demais para repassar.
+ */
+@Service
+public class NotificacaoEventos {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificacaoEventos.class);
+    private static final ZoneId ZONA_BRASIL = ZoneId.of("America/Sao_Paulo");
+    private static final String EVENTO_NOTIFICACAO = "notificacao";
+    private static final String EVENTO_RESSINCRONIZAR = "ressincronizar";
+    private static final int LIMITE_RETOMADA = 100;
+    private static final Comparator<NotificacaoResponse> ORDEM = Comparator
+            .comparing(NotificacaoResponse::getAtualizadaEm, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(NotificacaoResponse::getId);
+
+    private final NotificacaoRepository notificacaoRepository;
+    private final NotificacaoCanalPostgres canal;
+    private final TransactionTemplate leitura;
+    private final long timeoutMs;
+    private final int maximoPorUsuario;
+    private final Map<Long, Set<Assinatura>> assinaturas = new ConcurrentHashMap<>();
+    // Uma thread por faixa de usuários: mantém a ordem dos eventos de cada usuário e impede
+    // que um cliente lento segure a escuta do canal.
+    private final ExecutorService[] faixas;
+
+    public NotificacaoEventos(NotificacaoRepository notificacaoRepository,
+                              NotificacaoCanalPostgres canal,
+                              PlatformTransactionManager transactionManager,
+                              MeterRegistry meterRegistry,
+                              @Value("${app.notificacoes.stream.timeout-minutes:30}") long timeoutMinutos,
+                              @Value("${app.notificacoes.stream.max-por-usuario:5}") int maximoPorUsuario,
+                              @Value("${app.notificacoes.stream.threads:4}") int threads) {
+        this.notificacaoRepository = notificacaoRepository;
+        this.canal = canal;
+        this.leitura = new TransactionTemplate(transactionManager);
+        this.leitura.setReadOnly(true);
+        this.timeoutMs = Math.max(1, timeoutMinutos) * 60_000;
+        this.maximoPorUsuario = Math.max(1, maximoPorUsuario);
+        this.faixas = new ExecutorService[Math.max(1, threads)];
+        for (int i = 0; i < faixas.length; i++) {
+            faixas[i] = Executors.newSingleThreadExecutor(
+                    Thread.ofPlatform().name("notificacoes-stream-" + i).daemon(true).factory());
+        }
+        Gauge.builder("unihub.notificacoes.stream.assinantes", assinaturas,
+                        mapa -> mapa.values().stream().mapToInt(Set::size).sum())
+                .description("Conexões SSE abertas nesta instância")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciarPonte() {
+        canal.escutar(this::receberDoCanal, this::retomarTodas);
+    }
+
+    public SseEmitter assinar(Long usuarioId, String lastEventId) {
+        CursorNotificacao desde;
+        boolean cursorInvalido = false;
+        try {
+            desde = CursorNotificacao.decodificar(lastEventId);
+        } catch (IllegalArgumentException ex) {
+            desde = null;
+            cursorInvalido = true;
+        }
+
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        // Sem Last-Event-ID a posição é "agora": uma queda da ponte ainda recupera o que vier depois.
+        Assinatura assinatura = new Assinatura(usuarioId, emitter,
+                desde != null ? desde : new CursorNotificacao(0L, LocalDateTime.now(ZONA_BRASIL)));
+        emitter.onCompletion(() -> remover(assinatura));
+        emitter.onTimeout(() -> {
+            remover(assinatura);
+            emitter.complete();
+        });
+        emitter.onError(erro -> remover(assinatura));
+        registrar(assinatura);
+
+        boolean retomar = desde != null;
+        boolean ressincronizar = cursorInvalido;
+        executar(usuarioId, () -> {
+            if (ressincronizar) {
+                enviarRessincronizar(assinatura);
+            } else if (retomar) {
+                retomar(assinatura);
+            } else {
+                enviarComentario(assinatura, "conectado");
+            }
+        });
+        return emitter;
+    }
+
+    /**
+     * Publica notificações gravadas (ou alteradas) na transação corrente. Os assinantes só as
+     * recebem depois do commit; sem transação, a entrega é imediata.
+     */
+    public void publicar(Collection<Notificacao> notificacoes) {
+        if (notificacoes == null || notificacoes.isEmpty()) {
+            return;
+        }
+        if (canal.disponivel()) {
+            Map<Long, List<Long>> ids = new LinkedHashMap<>();
+            notificacoes.forEach(notificacao -> ids
+                    .computeIfAbsent(notificacao.getUsuario().getId(), chave -> new ArrayList<>())
+                    .add(notificacao.getId()));
+            canal.notificar(ids);
+            return;
+        }
+
+        Map<Long, List<NotificacaoResponse>> respostas = notificacoes.stream()
+                .filter(notificacao -> assinaturas.containsKey(notificacao.getUsuario().getId()))
+                .collect(Collectors.groupingBy(notificacao -> notificacao.getUsuario().getId(),
+                        Collectors.mapping(NotificacaoResponse::fromEntity, Collectors.toList())));
+        if (respostas.isEmpty()) {
+            return;
+        }
+        Runnable entregar = () -> respostas.forEach(this::entregar);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    entregar.run();
+                }
+            });
+        } else {
+            entregar.run();
+        }
+    }
+
+    public void publicar(Notificacao notificacao) {
+        if (notificacao != null) {
+            publicar(List.of(notificacao));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.notificacoes.stream.heartbeat-ms:25000}",
+            initialDelayString = "${app.notificacoes.stream.heartbeat-ms:25000}")
+    public void heartbeat() {
+        assinaturas.forEach((usuarioId, doUsuario) ->
+                executar(usuarioId, () -> doUsuario.forEach(assinatura -> enviarComentario(assinatura, "ping"))));
+    }
+
+    private void receberDoCanal(Map<Long, List<Long>> idsPorUsuario) {
+        List<Long> ids = idsPorUsuario.entrySet().stream()
+                .filter(entrada -> assinaturas.containsKey(entrada.getKey()))
+                .flatMap(entrada -> entrada.getValue().stream())
+                .toList();
+        if (ids.isEmpty()) {
+            return;
+        }
+        Map<Long, List<NotificacaoResponse>> respostas = leitura.execute(status ->
+                notificacaoRepository.findAllById(ids).stream()
+                        .collect(Collectors.groupingBy(notificacao -> notificacao.getUsuario().getId(),
+                                Collectors.mapping(NotificacaoResponse::fromEntity, Collectors.toList()))));
+        if (respostas != null) {
+            respostas.forEach(this::entregar);
+        }
+    }
+
+    private void retomarTodas() {
+        assinaturas.forEach((usuarioId, doUsuario) ->
+                executar(usuarioId, () -> doUsuario.forEach(this::retomar)));
+    }
+
+    private void entregar(Long usuarioId, List<NotificacaoResponse> respostas) {
+        List<NotificacaoResponse> ordenadas = respostas.stream().sorted(ORDEM).toList();
+        executar(usuarioId, () -> {
+            Set<Assinatura> doUsuario = assinaturas.get(usuarioId);
+            if (doUsuario != null) {
+                doUsuario.forEach(assinatura -> ordenadas.forEach(resposta -> enviar(assinatura, resposta)));
+            }
+        });
+    }
+
+    // Roda na faixa do usuário.
+    private void retomar(Assinatura assinatura) {
+        CursorNotificacao desde = assinatura.ultimo;
+        List<Notificacao> alteradas = leitura.execute(status -> notificacaoRepository.findAlteradasDepois(
+                assinatura.usuarioId, desde.atualizadaEm(), desde.id(), PageRequest.of(0, LIMITE_RETOMADA + 1)));
+        if (alteradas == null) {
+            return;
+        }
+        if (alteradas.size() > LIMITE_RETOMADA) {
+            enviarRessincronizar(assinatura);
+            return;
+        }
+        alteradas.stream().map(NotificacaoResponse::fromEntity).forEach(resposta -> enviar(assinatura, resposta));
+    }
+
+    private void enviar(Assinatura assinatura, NotificacaoResponse resposta) {
+        CursorNotificacao posicao = new CursorNotificacao(resposta.getId(), resposta.getAtualizadaEm());
+        try {
+            assinatura.emitter.send(SseEmitter.event()
+                    .id(posicao.codificar())
+                    .name(EVENTO_NOTIFICACAO)
+                    .data(resposta));
+            if (resposta.getAtualizadaEm() != null
+                    && resposta.getAtualizadaEm().isAfter(assinatura.ultimo.atualizadaEm())) {
+                assinatura.ultimo = posicao;
+            }
+        } catch (IOException | IllegalStateException ex) {
+            descartar(assinatura, ex);
+        }
+    }
+
+    private void enviarRessincronizar(Assinatura assinatura) {
+        try {
+            assinatura.emitter.send(SseEmitter.event().name(EVENTO_RESSINCRONIZAR).data(""));
+            assinatura.ultimo = new CursorNotificacao(0L, LocalDateTime.now(ZONA_BRASIL));
+        } catch (IOException | IllegalStateException ex) {
+            descartar(assinatura, ex);
+        }
+    }
+
+    private void enviarComentario(Assinatura assinatura, String comentario) {
+        try {
+            assinatura.emitter.send(SseEmitter.event().comment(comentario));
+        } catch (IOException | IllegalStateException ex) {
+            descartar(assinatura, ex);
+        }
+    }
+
+    private void descartar(Assinatura assinatura, Exception causa) {
+        logger.debug("Assinante de notificações do usuário {} desconectado", assinatura.usuarioId, causa);
+        remover(assinatura);
+        assinatura.emitter.completeWithError(causa);
+    }
+
+    private void registrar(Assinatura assinatura) {
+        Set<Assinatura> doUsuario = assinaturas.computeIfAbsent(assinatura.usuarioId,
+                chave -> new CopyOnWriteArraySet<>());
+        doUsuario.add(assinatura);
+        // Limite por usuário: a conexão mais antiga dá lugar à nova.
+        while (doUsuario.size() > maximoPorUsuario) {
+            Assinatura maisAntiga = doUsuario.iterator().next();
+            doUsuario.remove(maisAntiga);
+            maisAntiga.emitter.complete();
+        }
+    }
+
+    private void remover(Assinatura assinatura) {
+        assinaturas.computeIfPresent(assinatura.usuarioId, (chave, doUsuario) -> {
+            doUsuario.remove(assinatura);
+            return doUsuario.isEmpty() ? null : doUsuario;
+        });
+    }
+
+    private void executar(Long usuarioId, Runnable tarefa) {
+        faixas[Math.floorMod(usuarioId.hashCode(), faixas.length)].execute(() -> {
+            try {
+                tarefa.run();
+            } catch (RuntimeException ex) {
+                logger.error("Falha ao enviar notificações ao usuário {}", usuarioId, ex);
+            }
+        });
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        assinaturas.values().forEach(doUsuario -> doUsuario.forEach(assinatura -> assinatura.emitter.complete()));
+        assinaturas.clear();
+        for (ExecutorService faixa : faixas) {
+            faixa.shutdown();
+        }
+    }
+
+    private static final class Assinatura {
+        private final Long usuarioId;
+        private final SseEmitter emitter;
+        private volatile CursorNotificacao ultimo;
+
+        private Assinatura(Long usuarioId, SseEmitter emitter, CursorNotificacao ultimo) {
+            this.usuarioId = usuarioId;
+            this.emitter = emitter;
+            this.ultimo = ultimo;
+        }
+    }
+}
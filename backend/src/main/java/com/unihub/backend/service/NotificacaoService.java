@@ -4,18 +4,22 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.unihub.backend.dto.compartilhamento.NotificacaoResponse;
 import com.unihub.backend.dto.notificacoes.NotificacaoLogRequest;
+import com.unihub.backend.dto.notificacoes.NotificacaoPaginaResponse;
+import com.unihub.backend.dto.notificacoes.NotificacaoPendente;
 import com.unihub.backend.exceptions.ResourceNotFoundException;
 import com.unihub.backend.model.Notificacao;
-import com.unihub.backend.model.Usuario;
 import com.unihub.backend.repository.NotificacaoRepository;
-import com.unihub.backend.repository.UsuarioRepository;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.Optional;
 
@@ -24,126 +28,174 @@ public class NotificacaoService {
 
     private static final String DEFAULT_TIPO = "APP_NOTIFICACAO";
     private static final ZoneId ZONA_BRASIL = ZoneId.of("America/Sao_Paulo");
+    private static final int LIMITE_PAGINA_PADRAO = 30;
+    private static final int LIMITE_PAGINA_MAXIMO = 100;
 
     private final NotificacaoRepository notificacaoRepository;
-    private final UsuarioRepository usuarioRepository;
+    private final ContadorNotificacoes contadorNotificacoes;
+    private final NotificacaoEventos notificacaoEventos;
     private final ObjectMapper objectMapper;
 
     public NotificacaoService(NotificacaoRepository notificacaoRepository,
-                              UsuarioRepository usuarioRepository,
+                              ContadorNotificacoes contadorNotificacoes,
+                              NotificacaoEventos notificacaoEventos,
                               ObjectMapper objectMapper) {
         this.notificacaoRepository = notificacaoRepository;
-        this.usuarioRepository = usuarioRepository;
+        this.contadorNotificacoes = contadorNotificacoes;
+        this.notificacaoEventos = notificacaoEventos;
         this.objectMapper = objectMapper;
     }
 
+    @Transactional
     public List<NotificacaoResponse> listarHistorico(Long usuarioId) {
         if (usuarioId == null) {
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Usuário não autenticado");
         }
 
-        List<Notificacao> notificacoes = notificacaoRepository.findByUsuarioIdOrderByAtualizadaEmDesc(usuarioId);
-        if (notificacoes.isEmpty()) {
-            notificacoes = notificacaoRepository.findByUsuarioIdOrderByCriadaEmDesc(usuarioId);
-        }
-        
-        List<Notificacao> pendentes = notificacoes.stream()
-                .filter(Notificacao::isInteracaoPendente)
+        List<NotificacaoResponse> notificacoes = notificacaoRepository.findByUsuarioIdOrderByAtualizadaEmDesc(usuarioId)
+                .stream()
+                .map(NotificacaoResponse::fromEntity)
                 .collect(java.util.stream.Collectors.toList());
 
-        if (!pendentes.isEmpty()) {
+        // Abrir o histórico dá as pendentes por vistas: um UPDATE e o mesmo ajuste na resposta.
+        if (notificacoes.stream().anyMatch(NotificacaoResponse::isInteracaoPendente)) {
             LocalDateTime agora = agora();
-            pendentes.forEach(notificacao -> {
-                notificacao.setInteracaoPendente(false);
-                notificacao.setLida(true);
-                notificacao.setAtualizadaEm(agora);
-            });
-            notificacaoRepository.saveAll(pendentes);
+            notificacaoRepository.marcarPendentesComoLidas(usuarioId, agora);
+            contadorNotificacoes.recalcular(usuarioId);
+            notificacoes.stream()
+                    .filter(NotificacaoResponse::isInteracaoPendente)
+                    .forEach(notificacao -> {
+                        notificacao.setInteracaoPendente(false);
+                        notificacao.setLida(true);
+                        notificacao.setAtualizadaEm(agora);
+                    });
         }
 
-        return notificacoes.stream()
-                .map(NotificacaoResponse::fromEntity)
-                .collect(java.util.stream.Collectors.toList());
+        return notificacoes;
     }
 
-    public NotificacaoResponse registrarNotificacao(Long usuarioId, NotificacaoLogRequest request) {
-        if (request == null || request.getMensagem() == null || request.getMensagem().trim().isEmpty()) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Mensagem da notificação é obrigatória");
+    public NotificacaoPaginaResponse listarPagina(Long usuarioId, String cursor, Integer limite) {
+        if (usuarioId == null) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Usuário não autenticado");
         }
+        int tamanho = limite == null ? LIMITE_PAGINA_PADRAO : Math.max(1, Math.min(limite, LIMITE_PAGINA_MAXIMO));
+        CursorNotificacao posicao = decodificarCursor(cursor);
+
+        // Busca um item a mais só para saber se existe próxima página.
+        List<Notificacao> notificacoes = notificacaoRepository.findPagina(usuarioId,
+                posicao != null ? posicao.atualizadaEm() : null,
+                posicao != null ? posicao.id() : null,
+                PageRequest.of(0, tamanho + 1));
+
+        boolean temMais = notificacoes.size() > tamanho;
+        if (temMais) {
+            notificacoes = notificacoes.subList(0, tamanho);
+        }
+        String proximoCursor = null;
+        if (temMais) {
+            Notificacao ultima = notificacoes.get(notificacoes.size() - 1);
+            proximoCursor = new CursorNotificacao(ultima.getId(), ultima.getAtualizadaEm()).codificar();
+        }
+        return new NotificacaoPaginaResponse(
+                notificacoes.stream().map(NotificacaoResponse::fromEntity).toList(),
+                proximoCursor,
+                temMais);
+    }
 
-        Usuario usuario = usuarioRepository.findById(usuarioId)
-                .orElseThrow(() -> new ResourceNotFoundException("Usuário não encontrado"));
-
-        LocalDateTime criadaEm = converterTimestamp(request.getTimestamp());
-        String mensagem = request.getMensagem().trim();
-        String tipo = Optional.ofNullable(request.getTipo())
-                .map(String::trim)
-                .filter(value -> !value.isEmpty())
-                .orElse(DEFAULT_TIPO);
-        String categoria = Optional.ofNullable(request.getCategoria())
-                .map(String::trim)  
-                .filter(value -> !value.isEmpty())
-                .orElse(null);
-        String titulo = Optional.ofNullable(request.getTitulo())
-                .map(String::trim)
-                .filter(value -> !value.isEmpty())
-                .orElse(null);
-        Long referenciaId = request.getReferenciaId();
-        Boolean interacaoPendenteRequest = request.getInteracaoPendente();
-        String metadataJson = serializeMetadata(request.getMetadata());
-
-        Optional<Notificacao> existente = Optional.empty();
-
-         if (referenciaId != null) {
-            if (categoria != null) {
-                existente = notificacaoRepository
-                        .findByUsuarioIdAndTipoAndCategoriaAndReferenciaId(usuarioId, tipo, categoria, referenciaId);
-            }
+    /**
+     * Marca como lidas as notificações informadas do usuário, ou todas quando {@code ids} vem vazio,
+     * e publica as alteradas no stream.
+     */
+    @Transactional
+    public void marcarComoLidas(Long usuarioId, List<Long> ids) {
+        if (usuarioId == null) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Usuário não autenticado");
+        }
+        // O banco guarda microssegundos; o mesmo valor serve para achar as alteradas em seguida.
+        LocalDateTime agora = agora().truncatedTo(ChronoUnit.MICROS);
+        int alteradas = (ids == null || ids.isEmpty())
+                ? notificacaoRepository.marcarTodasComoLidas(usuarioId, agora)
+                : notificacaoRepository.marcarComoLidas(usuarioId, ids, agora);
+        if (alteradas > 0) {
+            contadorNotificacoes.recalcular(usuarioId);
+            notificacaoEventos.publicar(notificacaoRepository.findByUsuarioIdAndAtualizadaEm(usuarioId, agora));
+        }
+    }
 
-            if (existente.isEmpty()) {
-                existente = notificacaoRepository
-                        .findByUsuarioIdAndTipoAndReferenciaId(usuarioId, tipo, referenciaId);
-            }
+    public long contarNaoLidas(Long usuarioId) {
+        if (usuarioId == null) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Usuário não autenticado");
         }
+        return contadorNotificacoes.naoLidas(usuarioId);
+    }
 
-        if (existente.isEmpty()) {
-            existente = notificacaoRepository
-                    .findByUsuarioIdAndTipoAndMensagemAndCriadaEm(usuarioId, tipo, mensagem, criadaEm);
+    public NotificacaoResponse registrarNotificacao(Long usuarioId, NotificacaoLogRequest request) {
+        if (request == null || request.getMensagem() == null || request.getMensagem().trim().isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Mensagem da notificação é obrigatória");
+        }
+        if (usuarioId == null) {
+            throw new ResourceNotFoundException("Usuário não encontrado");
         }
 
-        Notificacao notificacao = existente.orElseGet(Notificacao::new);
-        boolean novaNotificacao = notificacao.getId() == null;
-        notificacao.setUsuario(usuario);
-        notificacao.setConvite(null);
-        notificacao.setTitulo(titulo);
-        notificacao.setMensagem(mensagem);
-        notificacao.setTipo(tipo);
-        notificacao.setCategoria(categoria);
-        notificacao.setReferenciaId(referenciaId);
-         boolean interacaoPendenteAtual = notificacao.isInteracaoPendente();
-        boolean interacaoPendenteAtualizada = interacaoPendenteAtual;
+        Notificacao dados = new Notificacao();
+        dados.setTipo(Optional.ofNullable(textoOuNulo(request.getTipo())).orElse(DEFAULT_TIPO));
+        dados.setCategoria(textoOuNulo(request.getCategoria()));
+        dados.setTitulo(textoOuNulo(request.getTitulo()));
+        dados.setMensagem(request.getMensagem().trim());
+        dados.setReferenciaId(request.getReferenciaId());
+        dados.setMetadataJson(serializeMetadata(request.getMetadata()));
+        dados.setInteracaoPendente(Boolean.TRUE.equals(request.getInteracaoPendente()));
+        dados.setCriadaEm(converterTimestamp(request.getTimestamp()));
+        dados.setAtualizadaEm(agora());
 
-        if (Boolean.FALSE.equals(interacaoPendenteRequest)) {
-            interacaoPendenteAtualizada = false;
-        } else if (Boolean.TRUE.equals(interacaoPendenteRequest) && (novaNotificacao || interacaoPendenteAtual)) {
-            interacaoPendenteAtualizada = true;
+        try {
+            Notificacao salvo = notificacaoRepository.upsert(usuarioId, dados,
+                    Boolean.FALSE.equals(request.getInteracaoPendente()));
+            contadorNotificacoes.recalcular(usuarioId);
+            notificacaoEventos.publicar(salvo);
+            return NotificacaoResponse.fromEntity(salvo);
+        } catch (DataIntegrityViolationException ex) {
+            // Sem leitura prévia do usuário: a FK de usuario_id é quem acusa um id inexistente.
+            throw new ResourceNotFoundException("Usuário não encontrado");
         }
+    }
 
-        if (!interacaoPendenteAtual && interacaoPendenteAtualizada) {
-            notificacao.setLida(false);
-        }
-         notificacao.setInteracaoPendente(interacaoPendenteAtualizada);
-        if (metadataJson != null) {
-            notificacao.setMetadataJson(metadataJson);
+    /**
+     * Mesma normalização de {@link #registrarNotificacao}, mas devolve a notificação para
+     * gravação em lote pelo {@link NotificationDispatcher}.
+     */
+    public NotificacaoPendente prepararNotificacao(Long usuarioId, NotificacaoLogRequest request) {
+        if (request == null || request.getMensagem() == null || request.getMensagem().trim().isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Mensagem da notificação é obrigatória");
         }
-        if (novaNotificacao) {
-            notificacao.setCriadaEm(criadaEm);
-            notificacao.setLida(false);
+
+        NotificacaoPendente.Pendencia pendencia = Boolean.TRUE.equals(request.getInteracaoPendente())
+                ? NotificacaoPendente.Pendencia.SE_NOVA
+                : NotificacaoPendente.Pendencia.NUNCA;
+        return new NotificacaoPendente(usuarioId,
+                Optional.ofNullable(textoOuNulo(request.getTipo())).orElse(DEFAULT_TIPO),
+                textoOuNulo(request.getCategoria()),
+                request.getReferenciaId(),
+                textoOuNulo(request.getTitulo()),
+                request.getMensagem().trim(),
+                serializeMetadata(request.getMetadata()),
+                null,
+                pendencia);
+    }
+
+    private CursorNotificacao decodificarCursor(String cursor) {
+        try {
+            return CursorNotificacao.decodificar(cursor);
+        } catch (IllegalArgumentException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cursor de paginação inválido");
         }
-        notificacao.setAtualizadaEm(agora());
+    }
 
-        Notificacao salvo = notificacaoRepository.save(notificacao);
-        return NotificacaoResponse.fromEntity(salvo);
+    private String textoOuNulo(String valor) {
+        return Optional.ofNullable(valor)
+                .map(String::trim)
+                .filter(value -> !value.isEmpty())
+                .orElse(null);
     }
 
     private LocalDateTime converterTimestamp(Long timestamp) {
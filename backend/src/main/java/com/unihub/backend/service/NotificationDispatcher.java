@@ -0,0 +1,275 @@
+package com.unihub.backend.service;
+
+import com.unihub.backend.dto.notificacoes.NotificacaoPendente;
+import com.unihub.backend.model.Notificacao;
+import com.unihub.backend.repository.ConviteCompartilhamentoRepository;
+import com.unihub.backend.repository.NotificacaoRepository;
+import com.unihub.backend.repository.UsuarioRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Grava notificações em lote. As pendentes de uma transação são acumuladas e só
+ * gravadas depois do commit, numa transação própria: o fan-out (comentário numa tarefa
+ * movimentada, inclusão num grupo grande) não prolonga a transação de negócio e não
+ * acontece se ela for desfeita.
+ *
+ * O lote vai para um escritor próprio com fila limitada. No {@code afterCommit} a requisição
+ * ainda segura a conexão da transação de negócio; gravar ali pediria uma segunda conexão ao
+ * pool e, com o pool ocupado, o lote se perderia no timeout. Um único escritor também mantém a
+ * ordem dos lotes, para a versão mais nova de uma chave não ser sobrescrita pela anterior.
+ *
+ * Cada lote resolve as notificações já existentes numa única consulta e envia
+ * inserts/updates em batch ({@code hibernate.jdbc.batch_size}). Se outro lote gravar a mesma
+ * chave entre essa consulta e o flush ({@code uk_notificacoes_usuario_chave}), o lote é refeito
+ * uma notificação por vez, cada uma já enxergando a linha do outro.
+ */
+@Service
+public class NotificationDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationDispatcher.class);
+    private static final ZoneId ZONA_BRASIL = ZoneId.of("America/Sao_Paulo");
+    private static final int MAX_TENTATIVAS_ISOLADA = 3;
+
+    private final NotificacaoRepository notificacaoRepository;
+    private final UsuarioRepository usuarioRepository;
+    private final ConviteCompartilhamentoRepository conviteRepository;
+    private final ContadorNotificacoes contadorNotificacoes;
+    private final NotificacaoEventos notificacaoEventos;
+    private final TransactionTemplate transacaoPropria;
+    private final ThreadPoolExecutor escritor;
+
+    public NotificationDispatcher(NotificacaoRepository notificacaoRepository,
+                                  UsuarioRepository usuarioRepository,
+                                  ConviteCompartilhamentoRepository conviteRepository,
+                                  ContadorNotificacoes contadorNotificacoes,
+                                  NotificacaoEventos notificacaoEventos,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${app.notificacoes.dispatcher.fila:1000}") int capacidadeFila) {
+        this.notificacaoRepository = notificacaoRepository;
+        this.usuarioRepository = usuarioRepository;
+        this.conviteRepository = conviteRepository;
+        this.contadorNotificacoes = contadorNotificacoes;
+        this.notificacaoEventos = notificacaoEventos;
+        this.transacaoPropria = new TransactionTemplate(transactionManager);
+        this.transacaoPropria.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        // Fila cheia: grava na própria thread (comportamento anterior) em vez de descartar o lote.
+        this.escritor = new ThreadPoolExecutor(1, 1, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, capacidadeFila)),
+                tarefa -> Thread.ofPlatform().name("notificacoes-dispatcher").daemon(true).unstarted(tarefa),
+                (tarefa, executor) -> {
+                    logger.warn("Fila de notificações cheia; gravando o lote na thread da requisição");
+                    if (!executor.isShutdown()) {
+                        tarefa.run();
+                    }
+                });
+        this.escritor.allowCoreThreadTimeOut(true);
+    }
+
+    public void enviar(NotificacaoPendente notificacao) {
+        if (notificacao != null) {
+            enviar(List.of(notificacao));
+        }
+    }
+
+    public void enviar(Collection<NotificacaoPendente> notificacoes) {
+        if (notificacoes == null || notificacoes.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isActualTransactionActive()
+                || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            gravar(new ArrayList<>(notificacoes));
+            return;
+        }
+
+        @SuppressWarnings("unchecked")
+        List<NotificacaoPendente> pendentes = (List<NotificacaoPendente>) TransactionSynchronizationManager.getResource(this);
+        if (pendentes == null) {
+            List<NotificacaoPendente> novoLote = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, novoLote);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    escritor.execute(() -> gravar(novoLote));
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(NotificationDispatcher.this);
+                }
+            });
+            pendentes = novoLote;
+        }
+        pendentes.addAll(notificacoes);
+    }
+
+    @PreDestroy
+    public void encerrar() throws InterruptedException {
+        escritor.shutdown();
+        if (!escritor.awaitTermination(10, TimeUnit.SECONDS)) {
+            logger.warn("{} lotes de notificações não gravados no encerramento", escritor.getQueue().size());
+            escritor.shutdownNow();
+        }
+    }
+
+    private void gravar(List<NotificacaoPendente> notificacoes) {
+        try {
+            transacaoPropria.executeWithoutResult(status -> persistir(notificacoes));
+        } catch (DataIntegrityViolationException ex) {
+            logger.debug("Conflito ao gravar lote de {} notificações; gravando uma a uma", notificacoes.size(), ex);
+            notificacoes.forEach(this::gravarIsolada);
+        } catch (RuntimeException ex) {
+            logger.error("Falha ao gravar lote de {} notificações", notificacoes.size(), ex);
+        }
+    }
+
+    // Uma falha aqui só perde esta notificação, não as do resto do lote.
+    private void gravarIsolada(NotificacaoPendente notificacao) {
+        for (int tentativa = 1; ; tentativa++) {
+            try {
+                transacaoPropria.executeWithoutResult(status -> persistir(List.of(notificacao)));
+                return;
+            } catch (DataIntegrityViolationException ex) {
+                if (tentativa >= MAX_TENTATIVAS_ISOLADA) {
+                    logger.error("Falha ao gravar notificação {} do usuário {}", notificacao.chave(),
+                            notificacao.usuarioId(), ex);
+                    return;
+                }
+            } catch (RuntimeException ex) {
+                logger.error("Falha ao gravar notificação {} do usuário {}", notificacao.chave(),
+                        notificacao.usuarioId(), ex);
+                return;
+            }
+        }
+    }
+
+    void persistir(List<NotificacaoPendente> notificacoes) {
+        LocalDateTime agora = LocalDateTime.now(ZONA_BRASIL);
+        // A última pendente de cada chave prevalece. Sem referência, a chave de deduplicação sai
+        // de tipo, mensagem e criadaEm (o mesmo "agora" para o lote todo): pendentes iguais para o
+        // mesmo usuário viram uma só linha em vez de violar a chave única.
+        Map<NotificacaoPendente.Chave, NotificacaoPendente> porChave = new LinkedHashMap<>();
+        Map<String, NotificacaoPendente> semReferencia = new LinkedHashMap<>();
+        for (NotificacaoPendente notificacao : notificacoes) {
+            if (notificacao == null || notificacao.usuarioId() == null) {
+                continue;
+            }
+            if (notificacao.referenciaId() == null) {
+                semReferencia.put(notificacao.usuarioId() + ":" + Notificacao.chaveDeduplicacao(notificacao.tipo(),
+                        notificacao.categoria(), null, notificacao.mensagem(), agora), notificacao);
+            } else {
+                porChave.put(notificacao.chave(), notificacao);
+            }
+        }
+
+        Map<NotificacaoPendente.Chave, Notificacao> existentes = buscarExistentes(porChave.keySet());
+
+        List<Notificacao> gravar = new ArrayList<>(porChave.size() + semReferencia.size());
+        porChave.forEach((chave, pendente) -> {
+            Notificacao notificacao = existentes.get(chave);
+            if (notificacao == null) {
+                notificacao = existentes.get(semCategoria(chave));
+            }
+            gravar.add(aplicar(notificacao != null ? notificacao : new Notificacao(), pendente, agora));
+        });
+        semReferencia.values().forEach(pendente -> gravar.add(aplicar(new Notificacao(), pendente, agora)));
+
+        if (!gravar.isEmpty()) {
+            notificacaoRepository.saveAll(gravar);
+            contadorNotificacoes.recalcular(gravar.stream().map(n -> n.getUsuario().getId()).toList());
+            notificacaoEventos.publicar(gravar);
+        }
+    }
+
+    private Map<NotificacaoPendente.Chave, Notificacao> buscarExistentes(Set<NotificacaoPendente.Chave> chaves) {
+        Map<NotificacaoPendente.Chave, Notificacao> existentes = new HashMap<>();
+        if (chaves.isEmpty()) {
+            return existentes;
+        }
+        Set<Long> usuarioIds = new HashSet<>();
+        Set<String> tipos = new HashSet<>();
+        Set<Long> referenciaIds = new HashSet<>();
+        chaves.forEach(chave -> {
+            usuarioIds.add(chave.usuarioId());
+            tipos.add(chave.tipo());
+            referenciaIds.add(chave.referenciaId());
+        });
+
+        // Igual ao NotificacaoService: casa pela categoria e, na falta, só por tipo e referência.
+        for (Notificacao notificacao : notificacaoRepository.findExistentesParaLote(usuarioIds, tipos, referenciaIds)) {
+            NotificacaoPendente.Chave chave = new NotificacaoPendente.Chave(notificacao.getUsuario().getId(),
+                    notificacao.getTipo(), notificacao.getCategoria(), notificacao.getReferenciaId());
+            if (chaves.contains(chave)) {
+                existentes.putIfAbsent(chave, notificacao);
+            }
+            existentes.putIfAbsent(semCategoria(chave), notificacao);
+        }
+        return existentes;
+    }
+
+    private NotificacaoPendente.Chave semCategoria(NotificacaoPendente.Chave chave) {
+        return new NotificacaoPendente.Chave(chave.usuarioId(), chave.tipo(), null, chave.referenciaId());
+    }
+
+    private Notificacao aplicar(Notificacao notificacao, NotificacaoPendente pendente, LocalDateTime agora) {
+        boolean nova = notificacao.getId() == null;
+        if (nova) {
+            notificacao.setUsuario(usuarioRepository.getReferenceById(pendente.usuarioId()));
+            notificacao.setCriadaEm(agora);
+            notificacao.setLida(false);
+        }
+        notificacao.setTipo(pendente.tipo());
+        notificacao.setCategoria(pendente.categoria());
+        notificacao.setReferenciaId(pendente.referenciaId());
+        notificacao.setTitulo(pendente.titulo());
+        notificacao.setMensagem(pendente.mensagem());
+        if (pendente.metadataJson() != null) {
+            notificacao.setMetadataJson(pendente.metadataJson());
+        }
+        notificacao.setConvite(pendente.conviteId() != null
+                ? conviteRepository.getReferenceById(pendente.conviteId())
+                : null);
+
+        NotificacaoPendente.Pendencia pendencia = Objects.requireNonNullElse(pendente.pendencia(),
+                NotificacaoPendente.Pendencia.SE_NOVA);
+        switch (pendencia) {
+            case SE_NOVA -> {
+                if (nova) {
+                    notificacao.setInteracaoPendente(true);
+                }
+            }
+            case SEMPRE -> {
+                notificacao.setInteracaoPendente(true);
+                notificacao.setLida(false);
+            }
+            case NUNCA -> notificacao.setInteracaoPendente(false);
+            case SE_NAO_LIDA -> notificacao.setInteracaoPendente(nova || !notificacao.isLida());
+        }
+        notificacao.setAtualizadaEm(agora);
+        return notificacao;
+    }
+}
@@ -9,7 +9,6 @@ import com.unihub.backend.repository.UsuarioRepository;
 
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
@@ -26,7 +25,7 @@ public class PasswordResetService {
     private final UsuarioRepository usuarioRepo;
     private final PasswordResetTokenRepository tokenRepo;
     private final PasswordEncoder passwordEncoder;
-    private final JavaMailSender mailSender;
+    private final FilaEmails filaEmails;
 
     /** Remetente: deve ser o mesmo do Gmail configurado em spring.mail.username */
     @Value("${spring.mail.username}")
@@ -43,11 +42,11 @@ public class PasswordResetService {
     public PasswordResetService(UsuarioRepository usuarioRepo,
                                 PasswordResetTokenRepository tokenRepo,
                                 PasswordEncoder passwordEncoder,
-                                JavaMailSender mailSender) {
+                                FilaEmails filaEmails) {
         this.usuarioRepo = usuarioRepo;
         this.tokenRepo = tokenRepo;
         this.passwordEncoder = passwordEncoder;
-        this.mailSender = mailSender;
+        this.filaEmails = filaEmails;
     }
 
     @Transactional
@@ -99,23 +98,11 @@ public class PasswordResetService {
     /* ================== Helpers ================== */
 
     private void enviarEmailReset(String to, String link) {
-        try {
-            var msg = mailSender.createMimeMessage();
-            var helper = new org.springframework.mail.javamail.MimeMessageHelper(msg, "UTF-8");
-            helper.setTo(to);
-            helper.setFrom(from); // <— IMPORTANTE: com Gmail, o from deve ser o mesmo do spring.mail.username
-            helper.setSubject("Redefinição de senha - UniHub");
-            helper.setText(
+        // Entra na fila na mesma transação do token; o SMTP fica com os workers da FilaEmails.
+        filaEmails.enfileirar(to, from, "Redefinição de senha - UniHub",
                 "<p>Para redefinir sua senha, toque no link abaixo no seu dispositivo:</p>" +
                 "<p><a href=\"" + link + "\">Redefinir senha</a></p>" +
-                "<p>Este link expira em 30 minutos.</p>",
-                true
-            );
-            mailSender.send(msg);
-        } catch (Exception e) {
-            // Em dev, se SMTP falhar, ainda imprimimos o link no log para testes manuais
-            System.out.println("Falha ao enviar e-mail. Link de reset (DEV): " + link);
-        }
+                "<p>Este link expira em 30 minutos.</p>");
     }
 
     private static String sha256(String raw) {
@@ -0,0 +1,71 @@
+package com.unihub.backend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.unihub.backend.dto.notificacoes.PreferenciasNotificacao;
+import com.unihub.backend.repository.NotificacaoConfiguracaoRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+
+/**
+ * Cache das preferências de notificação por usuário. Cada destinatário de um evento
+ * (inclusão em grupo, quadro, tarefa, ausência) passa a custar uma leitura em memória
+ * em vez de um SELECT com join nas antecedências.
+ *
+ * Quem altera a configuração chama {@link #invalidar(Long)}; o TTL só cobre alterações
+ * feitas por outra instância.
+ */
+@Component
+public class PreferenciasNotificacaoCache {
+
+    private final NotificacaoConfiguracaoRepository repository;
+    private final Cache<Long, PreferenciasNotificacao> preferencias;
+
+    public PreferenciasNotificacaoCache(NotificacaoConfiguracaoRepository repository,
+                                        MeterRegistry meterRegistry,
+                                        @Value("${app.notificacoes.preferencias-cache.max-size:10000}") long maxSize,
+                                        @Value("${app.notificacoes.preferencias-cache.ttl-minutes:30}") long ttlMinutes) {
+        this.repository = repository;
+        this.preferencias = Caffeine.newBuilder()
+                .maximumSize(Math.max(1, maxSize))
+                .expireAfterWrite(Duration.ofMinutes(Math.max(1, ttlMinutes)))
+                .recordStats()
+                .build();
+        // cache.gets{result=hit|miss}, cache.evictions, cache.size
+        CaffeineCacheMetrics.monitor(meterRegistry, preferencias, "notificacao.preferencias");
+    }
+
+    public PreferenciasNotificacao obter(Long usuarioId) {
+        if (usuarioId == null) {
+            return PreferenciasNotificacao.PADRAO;
+        }
+        return preferencias.get(usuarioId, id -> repository.findByUsuarioId(id)
+                .map(PreferenciasNotificacao::de)
+                .orElse(PreferenciasNotificacao.PADRAO));
+    }
+
+    /**
+     * Remove a cópia do usuário agora e, se houver transação, de novo após o commit, para
+     * que uma leitura concorrente não guarde o valor antigo enquanto a gravação não termina.
+     */
+    public void invalidar(Long usuarioId) {
+        if (usuarioId == null) {
+            return;
+        }
+        preferencias.invalidate(usuarioId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    preferencias.invalidate(usuarioId);
+                }
+            });
+        }
+    }
+}
@@ -1,25 +1,33 @@
 package com.unihub.backend.service;
 
+import com.unihub.backend.dto.notificacoes.NotificacaoPendente;
 import com.unihub.backend.dto.planejamento.AtualizarPreferenciaTarefaRequest;
 import com.unihub.backend.dto.planejamento.AtualizarStatusTarefaRequest;
 import com.unihub.backend.dto.planejamento.AtualizarTarefaPlanejamentoRequest;
+import com.unihub.backend.dto.planejamento.ColunaPlanejamentoDetalheResponse;
 import com.unihub.backend.dto.planejamento.ColunaPlanejamentoRequest;
 import com.unihub.backend.dto.planejamento.PreferenciaTarefaResponse;
 import com.unihub.backend.dto.planejamento.QuadroPlanejamentoDetalhesResponse;
 import com.unihub.backend.dto.planejamento.QuadroPlanejamentoListaResponse;
+import com.unihub.backend.dto.planejamento.QuadroPlanejamentoPaginaResponse;
 import com.unihub.backend.dto.planejamento.QuadroPlanejamentoRequest;
 import com.unihub.backend.dto.planejamento.TarefaComentarioRequest;
 import com.unihub.backend.dto.planejamento.TarefaComentarioResponse;
 import com.unihub.backend.dto.planejamento.TarefaComentariosResponse;
+import com.unihub.backend.dto.planejamento.TarefaPlanejamentoDetalheResponse;
 import com.unihub.backend.dto.planejamento.TarefaPlanejamentoRequest;
 import com.unihub.backend.dto.planejamento.TarefaPlanejamentoResponse;
+import com.unihub.backend.dto.planejamento.TarefaResponsavelResumo;
 import com.unihub.backend.exceptions.ResourceNotFoundException;
 import com.unihub.backend.model.*;
 import com.unihub.backend.model.enums.EstadoPlanejamento;
+import com.unihub.backend.model.enums.OrdenacaoQuadro;
 import com.unihub.backend.model.enums.QuadroStatus;
 import com.unihub.backend.model.enums.TarefaStatus;
 import com.unihub.backend.repository.*;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -29,6 +37,7 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.unihub.backend.dto.planejamento.TarefaDto;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -38,6 +47,8 @@ import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
@@ -66,17 +77,17 @@ public class QuadroPlanejamentoService {
     @Autowired
     private DisciplinaRepository disciplinaRepository;
     @Autowired
-    private UsuarioRepository usuarioRepository;
-    @Autowired
     private TarefaComentarioRepository tarefaComentarioRepository;
     @Autowired
     private TarefaNotificacaoRepository tarefaNotificacaoRepository;
     @Autowired
-    private NotificacaoRepository notificacaoRepository;
+    private ObjectMapper objectMapper;
+    @Autowired
+    private ConsultasDaRequisicao consultas;
     @Autowired
-    private NotificacaoConfiguracaoRepository notificacaoConfiguracaoRepository;
+    private PreferenciasNotificacaoCache preferenciasNotificacao;
     @Autowired
-    private ObjectMapper objectMapper;
+    private NotificationDispatcher notificationDispatcher;
 
     private static final String NOTIFICACAO_TIPO = "APP_NOTIFICACAO";
     private static final String NOTIFICACAO_CATEGORIA = "QUADRO_PLANEJAMENTO";
@@ -86,22 +97,74 @@ public class QuadroPlanejamentoService {
     private static final String NOTIFICACAO_TAREFA_COMENTARIO_CATEGORIA = "TAREFA_COMENTARIO";
     private static final String NOTIFICACAO_TAREFA_COMENTARIO_TITULO = "Novo comentário na tarefa";
     private static final ZoneId ZONA_BRASIL = ZoneId.of("America/Sao_Paulo");
+    private static final int LIMITE_PAGINA_PADRAO = 20;
+    private static final int LIMITE_PAGINA_MAXIMO = 100;
 
     public List<QuadroPlanejamentoListaResponse> listar(Long usuarioId, QuadroStatus status, String titulo) {
-        String tituloNormalizado = titulo != null ? titulo.trim() : null;
-        List<QuadroPlanejamento> quadros = repository.findAllAccessibleByUsuarioId(usuarioId);
-
-        return quadros.stream()
-                .filter(quadro -> status == null || quadro.getStatus() == status)
-                .filter(quadro -> {
-                    if (tituloNormalizado == null || tituloNormalizado.isEmpty()) {
-                        return true;
-                    }
-                    String tituloQuadro = quadro.getTitulo();
-                    return tituloQuadro != null && tituloQuadro.toLowerCase(Locale.ROOT).contains(tituloNormalizado.toLowerCase(Locale.ROOT));
-                })
-                .map(QuadroPlanejamentoListaResponse::fromEntity)
-                .collect(Collectors.toList());
+        return repository.findPaginaPorNome(usuarioId, status, padraoTitulo(titulo), null, null, Pageable.unpaged());
+    }
+
+    public QuadroPlanejamentoPaginaResponse listarPaginado(Long usuarioId, QuadroStatus status, String titulo,
+                                                           OrdenacaoQuadro ordenacao, String cursor, Integer limite) {
+        OrdenacaoQuadro ordem = ordenacao != null ? ordenacao : OrdenacaoQuadro.RECENTES;
+        int tamanho = limite == null ? LIMITE_PAGINA_PADRAO : Math.max(1, Math.min(limite, LIMITE_PAGINA_MAXIMO));
+        // Busca um item a mais só para saber se existe próxima página.
+        Pageable pagina = PageRequest.of(0, tamanho + 1);
+        String padrao = padraoTitulo(titulo);
+        String[] posicao = decodificarCursor(cursor, ordem);
+        Long cursorId = posicao != null ? Long.valueOf(posicao[0]) : null;
+
+        List<QuadroPlanejamentoListaResponse> itens = ordem == OrdenacaoQuadro.NOME
+                ? repository.findPaginaPorNome(usuarioId, status, padrao,
+                        posicao != null ? posicao[1] : null, cursorId, pagina)
+                : repository.findPaginaRecentes(usuarioId, status, padrao, cursorId, pagina);
+
+        boolean temMais = itens.size() > tamanho;
+        if (temMais) {
+            itens = itens.subList(0, tamanho);
+        }
+        String proximoCursor = temMais ? codificarCursor(itens.get(itens.size() - 1), ordem) : null;
+        return new QuadroPlanejamentoPaginaResponse(List.copyOf(itens), proximoCursor, temMais);
+    }
+
+    private String padraoTitulo(String titulo) {
+        if (titulo == null || titulo.isBlank()) {
+            return null;
+        }
+        String escapado = titulo.trim().toLowerCase(Locale.ROOT)
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        return "%" + escapado + "%";
+    }
+
+    private String codificarCursor(QuadroPlanejamentoListaResponse ultimo, OrdenacaoQuadro ordem) {
+        String valor = ordem.name() + ":" + ultimo.getId();
+        if (ordem == OrdenacaoQuadro.NOME) {
+            String nome = ultimo.getNome() != null ? ultimo.getNome() : "";
+            valor += ":" + nome.toLowerCase(Locale.ROOT);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Retorna {id, nome} (nome só na ordenação por nome) ou null quando não há cursor.
+    private String[] decodificarCursor(String cursor, OrdenacaoQuadro ordem) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String valor = new String(Base64.getUrlDecoder().decode(cursor.trim()), StandardCharsets.UTF_8);
+            String[] partes = valor.split(":", 3);
+            if (!ordem.name().equals(partes[0]) || partes.length != (ordem == OrdenacaoQuadro.NOME ? 3 : 2)) {
+                throw new IllegalArgumentException("Cursor de outra ordenação");
+            }
+            Long.parseLong(partes[1]);
+            return ordem == OrdenacaoQuadro.NOME
+                    ? new String[]{partes[1], partes[2]}
+                    : new String[]{partes[1]};
+        } catch (IllegalArgumentException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cursor de paginação inválido");
+        }
     }
 
     public QuadroPlanejamento buscarPorId(Long id, Long usuarioId) {
@@ -117,7 +180,7 @@ public class QuadroPlanejamentoService {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Um quadro só pode ter um contato ou um grupo como integrante, não ambos.");
         }
 
-        Usuario usuario = usuarioRepository.findById(usuarioId)
+        Usuario usuario = consultas.usuario(usuarioId)
                 .orElseThrow(() -> new ResourceNotFoundException("Usuário não encontrado"));
 
         QuadroPlanejamento quadro = new QuadroPlanejamento();
@@ -215,29 +278,58 @@ public class QuadroPlanejamentoService {
     // detalhes atualizado
     @Transactional(readOnly = true)
     public QuadroPlanejamentoDetalhesResponse detalhes(Long id, Long usuarioId) {
-        QuadroPlanejamento quadro = buscarPorId(id, usuarioId);
+        // Quatro consultas fixas (quadro, colunas, tarefas, responsáveis), independente do tamanho do quadro.
+        QuadroPlanejamentoListaResponse quadro = repository.findResumoAcessivel(id, usuarioId)
+                .orElseThrow(() -> new ResourceNotFoundException("Quadro de Planejamento não encontrado"));
         List<ColunaPlanejamento> colunas = colunaRepository.findByQuadroIdOrderByOrdemAsc(quadro.getId());
 
-        List<ColunaPlanejamento> andamento = colunas.stream()
-                .filter(coluna -> coluna.getEstado() == EstadoPlanejamento.EM_ANDAMENTO)
-                .collect(Collectors.toList());
+        Map<Long, List<Long>> responsaveisPorTarefa = new LinkedHashMap<>();
+        for (TarefaResponsavelResumo linha : tarefaRepository.findResponsaveisByQuadroId(quadro.getId())) {
+            List<Long> ids = responsaveisPorTarefa.computeIfAbsent(linha.tarefaId(), chave -> new ArrayList<>());
+            if (linha.responsavelId() != null && !ids.contains(linha.responsavelId())) {
+                ids.add(linha.responsavelId());
+            }
+        }
 
-        List<ColunaPlanejamento> concluidas = colunas.stream()
-                .filter(coluna -> coluna.getEstado() == EstadoPlanejamento.CONCLUIDO)
-                .collect(Collectors.toList());
+        Map<Long, List<TarefaPlanejamentoDetalheResponse>> tarefasPorColuna = new LinkedHashMap<>();
+        for (TarefaPlanejamento tarefa : tarefaRepository.findByQuadroIdParaDetalhes(quadro.getId())) {
+            tarefasPorColuna.computeIfAbsent(tarefa.getColuna().getId(), chave -> new ArrayList<>())
+                    .add(new TarefaPlanejamentoDetalheResponse(
+                            tarefa.getId(),
+                            tarefa.getTitulo(),
+                            tarefa.getDescricao(),
+                            tarefa.getStatus(),
+                            tarefa.getDataPrazo(),
+                            responsaveisPorTarefa.getOrDefault(tarefa.getId(), List.of()),
+                            tarefa.getResponsaveisIdsRegistrados()));
+        }
+
+        List<ColunaPlanejamentoDetalheResponse> andamento = new ArrayList<>();
+        List<ColunaPlanejamentoDetalheResponse> concluidas = new ArrayList<>();
+        for (ColunaPlanejamento coluna : colunas) {
+            ColunaPlanejamentoDetalheResponse detalhe = new ColunaPlanejamentoDetalheResponse(
+                    coluna.getId(),
+                    coluna.getTitulo(),
+                    coluna.getStatusJson(),
+                    coluna.getOrdem(),
+                    tarefasPorColuna.getOrDefault(coluna.getId(), List.of()));
+            if (coluna.getEstado() == EstadoPlanejamento.EM_ANDAMENTO) {
+                andamento.add(detalhe);
+            } else if (coluna.getEstado() == EstadoPlanejamento.CONCLUIDO) {
+                concluidas.add(detalhe);
+            }
+        }
 
         QuadroPlanejamentoDetalhesResponse response = new QuadroPlanejamentoDetalhesResponse();
         response.setId(quadro.getId());
-        response.setNome(quadro.getTitulo());
-        response.setEstado(quadro.getStatus());
-        response.setDataFim(quadro.getDataPrazo());
+        response.setNome(quadro.getNome());
+        response.setEstado(quadro.getEstado());
+        response.setDataFim(quadro.getDataFim());
         response.setDonoId(quadro.getDonoId());
-        
-        // Mapeia os novos campos de ID para a resposta
         response.setDisciplinaId(quadro.getDisciplinaId());
         response.setContatoId(quadro.getContatoId());
         response.setGrupoId(quadro.getGrupoId());
-        
+
         response.setColunasEmAndamento(andamento);
         response.setColunasConcluidas(concluidas);
 
@@ -433,7 +525,7 @@ public class QuadroPlanejamentoService {
         }
 
         TarefaPlanejamento tarefa = buscarTarefaEntity(quadroId, colunaId, tarefaId, usuarioId);
-        Usuario autor = usuarioRepository.findById(usuarioId)
+        Usuario autor = consultas.usuario(usuarioId)
                 .orElseThrow(() -> new ResourceNotFoundException("Usuário não encontrado"));
 
         TarefaComentario comentario = new TarefaComentario();
@@ -490,7 +582,7 @@ public class QuadroPlanejamentoService {
                         boolean jaExiste = tarefaNotificacaoRepository
                     .existsByTarefaIdAndUsuarioId(tarefa.getId(), usuarioId);
             if (!jaExiste) {
-                Usuario usuario = usuarioRepository.findById(usuarioId)
+                Usuario usuario = consultas.usuario(usuarioId)
                         .orElseThrow(() -> new ResourceNotFoundException("Usuário não encontrado"));
                 TarefaNotificacao notificacao = new TarefaNotificacao();
                 notificacao.setTarefa(tarefa);
@@ -662,7 +754,7 @@ public class QuadroPlanejamentoService {
     }
 
     private Contato obterContatoDoUsuario(QuadroPlanejamento quadro, Long usuarioId, Long chaveContato) {
-        return contatoRepository.findByOwnerIdAndIdContato(usuarioId, chaveContato)
+        return consultas.contatoPorIdContato(usuarioId, chaveContato)
                 .or(() -> contatoRepository.findByIdAndOwnerId(chaveContato, usuarioId))
                 .or(() -> localizarContatoEmQuadro(quadro, chaveContato))
                 .or(() -> localizarContatoDoDonoDoQuadro(quadro, chaveContato))
@@ -742,12 +834,12 @@ public class QuadroPlanejamentoService {
             return Optional.empty();
         }
 
-        Optional<Contato> contatoExistente = contatoRepository.findByOwnerIdAndIdContato(usuarioId, chaveContato);
+        Optional<Contato> contatoExistente = consultas.contatoPorIdContato(usuarioId, chaveContato);
         if (contatoExistente.isPresent()) {
             return contatoExistente;
         }
 
-        Optional<Usuario> usuarioOptional = usuarioRepository.findById(usuarioId);
+        Optional<Usuario> usuarioOptional = consultas.usuario(usuarioId);
         if (usuarioOptional.isEmpty()) {
             return Optional.empty();
         }
@@ -755,7 +847,7 @@ public class QuadroPlanejamentoService {
         Usuario usuario = usuarioOptional.get();
         String email = usuario.getEmail();
         if (email != null && !email.isBlank()) {
-            Optional<Contato> contatoPorEmail = contatoRepository.findByOwnerIdAndEmailIgnoreCase(usuarioId, email);
+            Optional<Contato> contatoPorEmail = consultas.contatoPorEmail(usuarioId, email);
             if (contatoPorEmail.isPresent()) {
                 Contato contato = contatoPorEmail.get();
                 if (!Objects.equals(contato.getIdContato(), chaveContato)) {
@@ -865,54 +957,33 @@ public class QuadroPlanejamentoService {
             return;
         }
 
-        novosParticipantes.stream()
+        List<NotificacaoPendente> notificacoes = novosParticipantes.stream()
                 .filter(Objects::nonNull)
                 .filter(this::desejaReceberNotificacaoDeQuadro)
-                .map(usuarioRepository::findById)
+                .map(consultas::usuario)
                 .filter(Optional::isPresent)
-                .map(Optional::get)
-                .forEach(usuario -> registrarNotificacao(quadro, usuario));
+                .map(usuario -> notificacaoDeQuadro(quadro, usuario.get()))
+                .filter(Objects::nonNull)
+                .toList();
+        notificationDispatcher.enviar(notificacoes);
     }
 
     private boolean desejaReceberNotificacaoDeQuadro(Long usuarioId) {
         if (usuarioId == null) {
             return false;
         }
-        return notificacaoConfiguracaoRepository.findByUsuarioId(usuarioId)
-                .map(NotificacaoConfiguracao::isIncluirEmQuadro)
-                .orElse(true);
+        return preferenciasNotificacao.obter(usuarioId).incluirEmQuadro();
     }
 
-    private void registrarNotificacao(QuadroPlanejamento quadro, Usuario usuario) {
+    private NotificacaoPendente notificacaoDeQuadro(QuadroPlanejamento quadro, Usuario usuario) {
         Long quadroId = quadro.getId();
         if (quadroId == null || usuario == null || usuario.getId() == null) {
-            return;
+            return null;
         }
 
-        Notificacao notificacao = notificacaoRepository
-                .findByUsuarioIdAndTipoAndCategoriaAndReferenciaId(usuario.getId(),
-                        NOTIFICACAO_TIPO, NOTIFICACAO_CATEGORIA, quadroId)
-                .orElseGet(Notificacao::new);
-
-        boolean nova = notificacao.getId() == null;
-        notificacao.setUsuario(usuario);
-        notificacao.setConvite(null);
-        notificacao.setTitulo(NOTIFICACAO_TITULO);
-        notificacao.setMensagem(montarMensagemQuadro(quadro));
-        notificacao.setTipo(NOTIFICACAO_TIPO);
-        notificacao.setCategoria(NOTIFICACAO_CATEGORIA);
-        notificacao.setReferenciaId(quadroId);
-         if (nova) {
-            notificacao.setInteracaoPendente(true);
-        }
-        notificacao.setMetadataJson(gerarMetadataQuadro(quadro));
-        LocalDateTime agora = agora();
-        if (nova) {
-            notificacao.setCriadaEm(agora);
-            notificacao.setLida(false);
-        }
-        notificacao.setAtualizadaEm(agora);
-        notificacaoRepository.save(notificacao);
+        return new NotificacaoPendente(usuario.getId(), NOTIFICACAO_TIPO, NOTIFICACAO_CATEGORIA, quadroId,
+                NOTIFICACAO_TITULO, montarMensagemQuadro(quadro), gerarMetadataQuadro(quadro), null,
+                NotificacaoPendente.Pendencia.SE_NOVA);
     }
 
      private Set<Long> extrairResponsaveisIds(TarefaPlanejamento tarefa) {
@@ -933,23 +1004,23 @@ public class QuadroPlanejamentoService {
             return;
         }
 
-        novosResponsaveis.stream()
+        List<NotificacaoPendente> notificacoes = novosResponsaveis.stream()
                 .filter(Objects::nonNull)
                 .filter(responsavelId -> !Objects.equals(responsavelId, autorId))
                 .filter(this::desejaReceberNotificacaoDePrazo)
-                .map(usuarioRepository::findById)
+                .map(consultas::usuario)
                 .filter(Optional::isPresent)
-                .map(Optional::get)
-                .forEach(usuario -> registrarNotificacaoTarefaAtribuida(tarefa, usuario));
+                .map(usuario -> notificacaoDeTarefaAtribuida(tarefa, usuario.get()))
+                .filter(Objects::nonNull)
+                .toList();
+        notificationDispatcher.enviar(notificacoes);
     }
 
     private boolean desejaReceberNotificacaoDePrazo(Long usuarioId) {
         if (usuarioId == null) {
             return false;
         }
-        return notificacaoConfiguracaoRepository.findByUsuarioId(usuarioId)
-                .map(NotificacaoConfiguracao::isPrazoTarefa)
-                .orElse(true);
+        return preferenciasNotificacao.obter(usuarioId).prazoTarefa();
     }
 
     private void sincronizarInscricoesComentarios(TarefaPlanejamento tarefa, Set<Long> responsaveis) {
@@ -967,13 +1038,11 @@ public class QuadroPlanejamentoService {
             return;
         }
 
-        boolean desejaReceber = notificacaoConfiguracaoRepository.findByUsuarioId(usuarioId)
-                .map(NotificacaoConfiguracao::isComentarioTarefa)
-                .orElse(true);
+        boolean desejaReceber = preferenciasNotificacao.obter(usuarioId).comentarioTarefa();
         boolean inscrito = tarefaNotificacaoRepository.existsByTarefaIdAndUsuarioId(tarefa.getId(), usuarioId);
 
         if (desejaReceber && !inscrito) {
-            usuarioRepository.findById(usuarioId)
+            consultas.usuario(usuarioId)
                     .ifPresent(usuario -> {
                         TarefaNotificacao notificacao = new TarefaNotificacao();
                         notificacao.setTarefa(tarefa);
@@ -1001,35 +1070,14 @@ public class QuadroPlanejamentoService {
         tarefaNotificacaoRepository.deleteByTarefaIdAndUsuarioId(tarefa.getId(), usuarioId);
     }
 
-    private void registrarNotificacaoTarefaAtribuida(TarefaPlanejamento tarefa, Usuario usuario) {
+    private NotificacaoPendente notificacaoDeTarefaAtribuida(TarefaPlanejamento tarefa, Usuario usuario) {
         if (usuario == null || usuario.getId() == null || tarefa == null || tarefa.getId() == null) {
-            return;
+            return null;
         }
 
-        Notificacao notificacao = notificacaoRepository
-                .findByUsuarioIdAndTipoAndCategoriaAndReferenciaId(usuario.getId(),
-                        NOTIFICACAO_TIPO, NOTIFICACAO_TAREFA_ATRIBUIDA_CATEGORIA, tarefa.getId())
-                .orElseGet(Notificacao::new);
-
-        boolean nova = notificacao.getId() == null;
-        notificacao.setUsuario(usuario);
-        notificacao.setConvite(null);
-        notificacao.setTitulo(NOTIFICACAO_TAREFA_ATRIBUIDA_TITULO);
-        notificacao.setMensagem(montarMensagemTarefaAtribuida(tarefa));
-        notificacao.setTipo(NOTIFICACAO_TIPO);
-        notificacao.setCategoria(NOTIFICACAO_TAREFA_ATRIBUIDA_CATEGORIA);
-        notificacao.setReferenciaId(tarefa.getId());
-        if (nova) {
-            notificacao.setInteracaoPendente(true);
-        }
-        notificacao.setMetadataJson(gerarMetadataTarefa(tarefa));
-        LocalDateTime agora = agora();
-        if (nova) {
-            notificacao.setCriadaEm(agora);
-            notificacao.setLida(false);
-        }
-        notificacao.setAtualizadaEm(agora);
-        notificacaoRepository.save(notificacao);
+        return new NotificacaoPendente(usuario.getId(), NOTIFICACAO_TIPO, NOTIFICACAO_TAREFA_ATRIBUIDA_CATEGORIA,
+                tarefa.getId(), NOTIFICACAO_TAREFA_ATRIBUIDA_TITULO, montarMensagemTarefaAtribuida(tarefa),
+                gerarMetadataTarefa(tarefa), null, NotificacaoPendente.Pendencia.SE_NOVA);
     }
 
     private void notificarResponsaveisSobreComentario(TarefaPlanejamento tarefa, TarefaComentario comentario) {
@@ -1044,6 +1092,7 @@ public class QuadroPlanejamentoService {
 
         Long autorId = comentario.getAutor() != null ? comentario.getAutor().getId() : null;
         Set<Long> processados = new LinkedHashSet<>();
+        List<NotificacaoPendente> notificacoes = new ArrayList<>();
 
         for (TarefaNotificacao inscricao : inscricoes) {
             if (inscricao == null || inscricao.getUsuario() == null) {
@@ -1061,48 +1110,31 @@ public class QuadroPlanejamentoService {
             if (!desejaReceberComentarioTarefa(destinatarioId)) {
                 continue;
             }
-            registrarNotificacaoComentario(tarefa, comentario, destinatario);
+            NotificacaoPendente notificacao = notificacaoDeComentario(tarefa, comentario, destinatario);
+            if (notificacao != null) {
+                notificacoes.add(notificacao);
+            }
         }
+        notificationDispatcher.enviar(notificacoes);
     }
 
     private boolean desejaReceberComentarioTarefa(Long usuarioId) {
         if (usuarioId == null) {
             return false;
         }
-        return notificacaoConfiguracaoRepository.findByUsuarioId(usuarioId)
-                .map(NotificacaoConfiguracao::isComentarioTarefa)
-                .orElse(true);
+        return preferenciasNotificacao.obter(usuarioId).comentarioTarefa();
     }
 
-    private void registrarNotificacaoComentario(TarefaPlanejamento tarefa, TarefaComentario comentario, Usuario destinatario) {
+    private NotificacaoPendente notificacaoDeComentario(TarefaPlanejamento tarefa, TarefaComentario comentario,
+                                                        Usuario destinatario) {
         if (destinatario == null || destinatario.getId() == null || comentario == null || comentario.getId() == null) {
-            return;
+            return null;
         }
 
-        Notificacao notificacao = notificacaoRepository
-                .findByUsuarioIdAndTipoAndCategoriaAndReferenciaId(destinatario.getId(),
-                        NOTIFICACAO_TIPO, NOTIFICACAO_TAREFA_COMENTARIO_CATEGORIA, comentario.getId())
-                .orElseGet(Notificacao::new);
-
-        boolean nova = notificacao.getId() == null;
-        notificacao.setUsuario(destinatario);
-        notificacao.setConvite(null);
-        notificacao.setTitulo(NOTIFICACAO_TAREFA_COMENTARIO_TITULO);
-        notificacao.setMensagem(montarMensagemComentario(tarefa, comentario.getAutor()));
-        notificacao.setTipo(NOTIFICACAO_TIPO);
-        notificacao.setCategoria(NOTIFICACAO_TAREFA_COMENTARIO_CATEGORIA);
-        notificacao.setReferenciaId(comentario.getId());
-         if (nova) {
-            notificacao.setInteracaoPendente(true);
-        }
-        notificacao.setMetadataJson(gerarMetadataComentario(tarefa, comentario));
-        LocalDateTime agora = agora();
-        if (nova) {
-            notificacao.setCriadaEm(agora);
-            notificacao.setLida(false);
-        }
-        notificacao.setAtualizadaEm(agora);
-        notificacaoRepository.save(notificacao);
+        return new NotificacaoPendente(destinatario.getId(), NOTIFICACAO_TIPO, NOTIFICACAO_TAREFA_COMENTARIO_CATEGORIA,
+                comentario.getId(), NOTIFICACAO_TAREFA_COMENTARIO_TITULO,
+                montarMensagemComentario(tarefa, comentario.getAutor()), gerarMetadataComentario(tarefa, comentario),
+                null, NotificacaoPendente.Pendencia.SE_NOVA);
     }
 
     private String montarMensagemTarefaAtribuida(TarefaPlanejamento tarefa) {
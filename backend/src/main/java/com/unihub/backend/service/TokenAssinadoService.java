@@ -0,0 +1,282 @@
+package com.unihub.backend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.unihub.backend.model.TokenRevogado;
+import com.unihub.backend.repository.TokenRevogadoRepository;
+import com.unihub.backend.service.TokenRevogacaoCanalPostgres.Revogacao;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+import java.util.function.Function;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Emite e valida tokens de acesso autocontidos (HMAC-SHA256), permitindo que o
+ * {@code TokenFilter} autentique requisições sem consultar a tabela {@code auth_tokens}.
+ *
+ * Formato: {@code v1.<usuarioId>.<emitidoEm>.<expiraEm>.<jti>.<assinatura>}, com datas em
+ * segundos desde a época e assinatura em Base64 URL-safe.
+ *
+ * As revogações ficam em {@code tokens_revogados} e em caches locais: cada instância as lê ao
+ * subir e, no PostgreSQL, recebe as novas pelo {@link TokenRevogacaoCanalPostgres}.
+ */
+@Service
+public class TokenAssinadoService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenAssinadoService.class);
+
+    private static final String VERSAO = "v1";
+    private static final String ALGORITMO = "HmacSHA256";
+    private static final int PARTES = 6;
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final SecureRandom random = new SecureRandom();
+    private final TokenRevogadoRepository tokenRevogadoRepository;
+    private final TokenRevogacaoCanalPostgres canal;
+
+    @Value("${app.auth.signed-tokens.enabled:false}")
+    private boolean habilitado;
+
+    @Value("${app.auth.signed-tokens.secret:}")
+    private String segredoConfigurado;
+
+    private SecretKeySpec chave;
+
+    private ThreadLocal<Mac> macs;
+
+    // Tokens revogados individualmente (logout), mantidos só até expirarem.
+    private Cache<String, Instant> revogadosPorJti;
+
+    // Usuários cujos tokens emitidos até o segundo informado (inclusive) não valem mais.
+    private Cache<Long, Instant> revogadosPorUsuario;
+
+    public record TokenValidado(Long usuarioId, Instant emitidoEm, Instant expiraEm, String jti) {
+    }
+
+    public TokenAssinadoService(TokenRevogadoRepository tokenRevogadoRepository, TokenRevogacaoCanalPostgres canal) {
+        this.tokenRevogadoRepository = tokenRevogadoRepository;
+        this.canal = canal;
+    }
+
+    @PostConstruct
+    void inicializar() {
+        byte[] segredo;
+        if (segredoConfigurado != null && !segredoConfigurado.isBlank()) {
+            segredo = DECODER.decode(segredoConfigurado.trim().replace('+', '-').replace('/', '_').replace("=", ""));
+        } else {
+            segredo = new byte[32];
+            random.nextBytes(segredo);
+            if (habilitado) {
+                logger.warn("app.auth.signed-tokens.secret não configurado; usando chave aleatória local. "
+                        + "Tokens assinados não serão aceitos por outras instâncias nem após reinício.");
+            }
+        }
+        chave = new SecretKeySpec(segredo, ALGORITMO);
+        macs = ThreadLocal.withInitial(this::novoMac);
+
+        // Sem limite de tamanho: uma revogação despejada faria o token voltar a valer. O que limita
+        // os caches é a expiração (o token revogado, ou TOKEN_TTL depois da revogação do usuário).
+        revogadosPorJti = Caffeine.newBuilder()
+                .expireAfter(expiraEm(Function.<Instant>identity()))
+                .build();
+        // Depois de TOKEN_TTL todos os tokens anteriores à revogação já expiraram.
+        revogadosPorUsuario = Caffeine.newBuilder()
+                .expireAfter(expiraEm(revogadoEm -> revogadoEm.plus(AutenticacaoService.TOKEN_TTL)))
+                .build();
+    }
+
+    private static <K> Expiry<K, Instant> expiraEm(Function<Instant, Instant> fim) {
+        return new Expiry<>() {
+            @Override
+            public long expireAfterCreate(K chave, Instant valor, long tempoAtual) {
+                return Math.max(0L, Duration.between(Instant.now(), fim.apply(valor)).toNanos());
+            }
+
+            @Override
+            public long expireAfterUpdate(K chave, Instant valor, long tempoAtual, long duracaoAtual) {
+                return expireAfterCreate(chave, valor, tempoAtual);
+            }
+
+            @Override
+            public long expireAfterRead(K chave, Instant valor, long tempoAtual, long duracaoAtual) {
+                return duracaoAtual;
+            }
+        };
+    }
+
+    /**
+     * Carrega as revogações vigentes e, no PostgreSQL, passa a receber as das outras instâncias
+     * (relendo a tabela a cada reconexão da escuta).
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciarRevogacoesCompartilhadas() {
+        if (canal.disponivel()) {
+            canal.escutar(this::aplicar, this::carregarRevogacoes);
+        } else {
+            carregarRevogacoes();
+        }
+    }
+
+    public boolean isHabilitado() {
+        return habilitado;
+    }
+
+    public boolean pareceTokenAssinado(String token) {
+        return token != null && token.startsWith(VERSAO + ".");
+    }
+
+    public String emitir(Long usuarioId, Duration validade) {
+        Instant agora = Instant.now();
+        Instant expiraEm = agora.plus(validade);
+        byte[] jtiBytes = new byte[12];
+        random.nextBytes(jtiBytes);
+        String jti = ENCODER.encodeToString(jtiBytes);
+
+        String conteudo = String.join(".", VERSAO, String.valueOf(usuarioId),
+                String.valueOf(agora.getEpochSecond()), String.valueOf(expiraEm.getEpochSecond()), jti);
+        return conteudo + "." + ENCODER.encodeToString(assinar(conteudo));
+    }
+
+    /**
+     * Valida assinatura, expiração e revogação sem acesso ao banco.
+     *
+     * @return o token decodificado, ou {@code null} se for inválido
+     */
+    public TokenValidado validar(String token) {
+        if (!pareceTokenAssinado(token)) {
+            return null;
+        }
+        String[] partes = token.split("\\.");
+        if (partes.length != PARTES) {
+            return null;
+        }
+
+        int separador = token.lastIndexOf('.');
+        String conteudo = token.substring(0, separador);
+        byte[] assinaturaRecebida;
+        try {
+            assinaturaRecebida = DECODER.decode(partes[5]);
+        } catch (IllegalArgumentException ex) {
+            return null;
+        }
+        if (!MessageDigest.isEqual(assinar(conteudo), assinaturaRecebida)) {
+            return null;
+        }
+
+        TokenValidado validado;
+        try {
+            validado = new TokenValidado(
+                    Long.valueOf(partes[1]),
+                    Instant.ofEpochSecond(Long.parseLong(partes[2])),
+                    Instant.ofEpochSecond(Long.parseLong(partes[3])),
+                    partes[4]);
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+
+        if (!validado.expiraEm().isAfter(Instant.now())) {
+            return null;
+        }
+        if (revogadosPorJti.getIfPresent(validado.jti()) != null) {
+            return null;
+        }
+        // emitidoEm só tem segundos: um token do mesmo segundo da revogação também cai.
+        Instant revogadoEm = revogadosPorUsuario.getIfPresent(validado.usuarioId());
+        if (revogadoEm != null && validado.emitidoEm().getEpochSecond() <= revogadoEm.getEpochSecond()) {
+            return null;
+        }
+        return validado;
+    }
+
+    public void revogar(String token) {
+        TokenValidado validado = validar(token);
+        if (validado != null) {
+            registrar(new Revogacao(validado.jti(), null, validado.expiraEm()), Instant.now(), validado.expiraEm());
+        }
+    }
+
+    public void revogarTodosDoUsuario(Long usuarioId) {
+        if (usuarioId != null) {
+            Instant agora = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+            registrar(new Revogacao(null, usuarioId, agora), agora, agora.plus(AutenticacaoService.TOKEN_TTL));
+        }
+    }
+
+    /** Remove do banco as revogações que não barram mais nenhum token. */
+    @Scheduled(initialDelayString = "${app.auth.token-purge.initial-delay-ms:60000}",
+            fixedDelayString = "${app.auth.token-purge.interval-ms:3600000}")
+    public void removerRevogacoesExpiradas() {
+        try {
+            tokenRevogadoRepository.removerExpirados(Instant.now());
+        } catch (DataAccessException ignored) {
+            // Tenta novamente na próxima execução agendada.
+        }
+    }
+
+    // Vale aqui na hora; as outras instâncias recebem pelo canal (após o commit, se houver
+    // transação) ou, se a escuta estiver fora, ao reconectar.
+    private void registrar(Revogacao revogacao, Instant revogadoEm, Instant expiraEm) {
+        aplicar(revogacao);
+        tokenRevogadoRepository.save(new TokenRevogado(revogacao.jti(), revogacao.usuarioId(), revogadoEm, expiraEm));
+        if (canal.disponivel()) {
+            canal.notificar(revogacao);
+        }
+    }
+
+    private void aplicar(Revogacao revogacao) {
+        if (revogacao.jti() != null) {
+            revogadosPorJti.put(revogacao.jti(), revogacao.instante());
+        } else {
+            revogadosPorUsuario.asMap().merge(revogacao.usuarioId(), revogacao.instante(),
+                    (atual, nova) -> nova.isAfter(atual) ? nova : atual);
+        }
+    }
+
+    private void carregarRevogacoes() {
+        try {
+            for (TokenRevogado revogado : tokenRevogadoRepository.findByExpiraEmAfter(Instant.now())) {
+                aplicar(revogado.getJti() != null
+                        ? new Revogacao(revogado.getJti(), null, revogado.getExpiraEm())
+                        : new Revogacao(null, revogado.getUsuarioId(), revogado.getRevogadoEm()));
+            }
+        } catch (DataAccessException ex) {
+            logger.warn("Não foi possível carregar as revogações de tokens assinados", ex);
+        }
+    }
+
+    private byte[] assinar(String conteudo) {
+        Mac mac = macs.get();
+        return mac.doFinal(conteudo.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Mac novoMac() {
+        try {
+            Mac mac = Mac.getInstance(ALGORITMO);
+            mac.init(chave);
+            return mac;
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException("Não foi possível inicializar HMAC para tokens assinados", ex);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.unihub.backend.service;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.time.Instant;
+import java.util.function.Consumer;
+
+/**
+ * Avisa as demais instâncias de cada revogação de token assinado, para que o
+ * {@link TokenAssinadoService} de todas recuse o token sem consultar o banco.
+ *
+ * O payload é {@code j:<jti>:<expiraEm>} ou {@code u:<usuarioId>:<revogadoEm>}, com datas em
+ * segundos desde a época. A tabela {@code tokens_revogados} continua sendo a fonte: a cada
+ * (re)conexão da escuta ela é relida.
+ */
+@Component
+public class TokenRevogacaoCanalPostgres extends CanalPostgres {
+
+    static final String CANAL = "unihub_tokens_revogados";
+
+    public TokenRevogacaoCanalPostgres(DataSource dataSource, ObjectProvider<DataSourceProperties> dataSourceProperties) {
+        super(CANAL, dataSource, dataSourceProperties);
+    }
+
+    public record Revogacao(String jti, Long usuarioId, Instant instante) {
+    }
+
+    public void notificar(Revogacao revogacao) {
+        emitir(payload(revogacao));
+    }
+
+    public void escutar(Consumer<Revogacao> receptor, Runnable aoConectar) {
+        escutarPayloads(payload -> {
+            Revogacao revogacao = ler(payload);
+            if (revogacao != null) {
+                receptor.accept(revogacao);
+            }
+        }, aoConectar);
+    }
+
+    static String payload(Revogacao revogacao) {
+        return revogacao.jti() != null
+                ? "j:" + revogacao.jti() + ":" + revogacao.instante().getEpochSecond()
+                : "u:" + revogacao.usuarioId() + ":" + revogacao.instante().getEpochSecond();
+    }
+
+    static Revogacao ler(String payload) {
+        String[] partes = payload == null ? new String[0] : payload.split(":", 3);
+        if (partes.length != 3) {
+            return null;
+        }
+        try {
+            Instant instante = Instant.ofEpochSecond(Long.parseLong(partes[2]));
+            return switch (partes[0]) {
+                case "j" -> new Revogacao(partes[1], null, instante);
+                case "u" -> new Revogacao(null, Long.valueOf(partes[1]), instante);
+                default -> null;
+            };
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+}
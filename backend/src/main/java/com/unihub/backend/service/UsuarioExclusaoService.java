@@ -7,6 +7,7 @@ import com.unihub.backend.model.TarefaPlanejamento;
 import com.unihub.backend.model.Usuario;
 import com.unihub.backend.repository.ContatoRepository;
 import com.unihub.backend.repository.ConviteCompartilhamentoRepository;
+import com.unihub.backend.repository.NotificacaoContadorRepository;
 import com.unihub.backend.repository.NotificacaoRepository;
 import com.unihub.backend.repository.QuadroPlanejamentoRepository;
 import com.unihub.backend.repository.TarefaNotificacaoRepository;
@@ -32,9 +33,11 @@ public class UsuarioExclusaoService {
     private final TarefaComentarioRepository tarefaComentarioRepository;
     private final TarefaNotificacaoRepository tarefaComentarioNotificacaoRepository;
     private final NotificacaoRepository notificacaoRepository;
+    private final NotificacaoContadorRepository notificacaoContadorRepository;
     private final ConviteCompartilhamentoRepository conviteRepository;
     private final GrupoService grupoService;
     private final GrupoRepository grupoRepository;
+    private final AutenticacaoService autenticacaoService;
 
     public UsuarioExclusaoService(UsuarioRepository usuarioRepository,
                                   ContatoRepository contatoRepository,
@@ -43,9 +46,11 @@ public class UsuarioExclusaoService {
                                   TarefaComentarioRepository tarefaComentarioRepository,
                                   TarefaNotificacaoRepository tarefaComentarioNotificacaoRepository,
                                   NotificacaoRepository notificacaoRepository,
+                                  NotificacaoContadorRepository notificacaoContadorRepository,
                                   ConviteCompartilhamentoRepository conviteRepository,
                                   GrupoService grupoService,
-                                  GrupoRepository grupoRepository) {
+                                  GrupoRepository grupoRepository,
+                                  AutenticacaoService autenticacaoService) {
         this.usuarioRepository = usuarioRepository;
         this.contatoRepository = contatoRepository;
         this.quadroRepository = quadroRepository;
@@ -53,9 +58,11 @@ public class UsuarioExclusaoService {
         this.tarefaComentarioRepository = tarefaComentarioRepository;
         this.tarefaComentarioNotificacaoRepository = tarefaComentarioNotificacaoRepository;
         this.notificacaoRepository = notificacaoRepository;
+        this.notificacaoContadorRepository = notificacaoContadorRepository;
         this.conviteRepository = conviteRepository;
         this.grupoService = grupoService;
         this.grupoRepository = grupoRepository;
+        this.autenticacaoService = autenticacaoService;
     }
 
     @Transactional
@@ -92,12 +99,14 @@ public class UsuarioExclusaoService {
         // 6) apagar convites e notificações
         conviteRepository.deleteByRemetenteIdOrDestinatarioId(usuarioId, usuarioId);
         notificacaoRepository.deleteByUsuarioId(usuarioId);
+        notificacaoContadorRepository.deleteById(usuarioId);
 
         // 7) apagar contatos ligados ao usuário
         removerContatos(usuario);
 
-        // 8) por fim, apagar o usuário
+        // 8) por fim, apagar o usuário e derrubar as sessões dele
         usuarioRepository.delete(usuario);
+        autenticacaoService.invalidarTokensDoUsuario(usuarioId);
     }
 
     /**
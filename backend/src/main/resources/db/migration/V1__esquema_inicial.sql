@@ -0,0 +1,479 @@
+-- Esquema inicial, equivalente ao que o Hibernate gerava com ddl-auto=create a partir das
+-- entidades. Daqui em diante toda mudança de esquema entra como uma nova migração.
+--
+-- Também roda sobre bancos criados pelo antigo ddl-auto=create (linha de base na versão 0): por
+-- isso o "if not exists", que cria só o que falta. As colunas que as tabelas antigas não têm
+-- entram em db/vendor/postgresql/V1_1. ${tipo_lob} é oid no PostgreSQL (@Lob String).
+--
+-- db/migration roda em qualquer banco (o MigracoesFlywayTest a aplica no H2); o que só existe
+-- no PostgreSQL fica em db/vendor/postgresql.
+
+create sequence if not exists anotacoes_seq start with 1 increment by 50;
+create sequence if not exists ausencia_seq start with 1 increment by 50;
+create sequence if not exists auth_tokens_seq start with 1 increment by 50;
+create sequence if not exists avaliacoes_seq start with 1 increment by 50;
+create sequence if not exists calendario_sincronizacoes_pendentes_seq start with 1 increment by 50;
+create sequence if not exists categoria_seq start with 1 increment by 50;
+create sequence if not exists colunas_planejamento_seq start with 1 increment by 50;
+create sequence if not exists contato_seq start with 1 increment by 50;
+create sequence if not exists convites_compartilhamento_seq start with 1 increment by 50;
+create sequence if not exists disciplina_seq start with 1 increment by 50;
+create sequence if not exists emails_pendentes_seq start with 1 increment by 50;
+create sequence if not exists google_calendar_credentials_seq start with 1 increment by 50;
+create sequence if not exists grupo_seq start with 1 increment by 50;
+create sequence if not exists horario_aula_seq start with 1 increment by 50;
+create sequence if not exists instituicao_seq start with 1 increment by 50;
+create sequence if not exists notificacao_config_antecedencias_seq start with 1 increment by 50;
+create sequence if not exists notificacao_configuracoes_seq start with 1 increment by 50;
+create sequence if not exists notificacoes_seq start with 1 increment by 50;
+create sequence if not exists password_reset_token_seq start with 1 increment by 50;
+create sequence if not exists quadros_planejamento_seq start with 1 increment by 50;
+create sequence if not exists tarefas_comentarios_notificacoes_seq start with 1 increment by 50;
+create sequence if not exists tarefas_comentarios_seq start with 1 increment by 50;
+create sequence if not exists tarefas_planejamento_seq start with 1 increment by 50;
+create sequence if not exists usuarios_seq start with 1 increment by 50;
+
+create table if not exists anotacoes (
+    id bigint not null,
+    created_at timestamp(6) not null,
+    disciplina_id bigint not null,
+    updated_at timestamp(6) not null,
+    titulo varchar(120) not null,
+    conteudo ${tipo_lob} not null,
+    primary key (id)
+);
+
+create table if not exists ausencia (
+    id bigint not null,
+    data date,
+    disciplina_id bigint,
+    usuario_id bigint,
+    categoria varchar(255),
+    justificativa varchar(255),
+    primary key (id)
+);
+
+create table if not exists auth_tokens (
+    id bigint not null,
+    criado_em timestamp(6) not null,
+    expira_em timestamp(6) not null,
+    usuario_id bigint not null,
+    token varchar(64) not null unique,
+    primary key (id)
+);
+
+create table if not exists avaliacao_integrantes_contato (
+    avaliacao_id bigint not null,
+    contato_id bigint not null
+);
+
+create table if not exists avaliacoes (
+    id bigint not null,
+    dificuldade integer,
+    nota float(53),
+    peso float(53),
+    receber_notificacoes boolean not null,
+    atualizada_em timestamp(6) with time zone,
+    data_entrega timestamp(6),
+    disciplina_id bigint,
+    google_sincronizada_em timestamp(6) with time zone,
+    usuario_id bigint not null,
+    tipo_avaliacao varchar(100),
+    google_calendar_event_id varchar(512),
+    descricao varchar(255),
+    estado varchar(255) not null check (estado in ('A_REALIZAR','EM_ANDAMENTO','CONCLUIDA')),
+    modalidade varchar(255) not null check (modalidade in ('INDIVIDUAL','EM_GRUPO')),
+    prioridade varchar(255) not null check (prioridade in ('MUITO_BAIXA','BAIXA','MEDIA','ALTA','MUITO_ALTA')),
+    primary key (id)
+);
+
+create table if not exists calendario_sincronizacoes_pendentes (
+    id bigint not null,
+    tentativas integer not null,
+    avaliacao_id bigint not null,
+    criada_em timestamp(6) with time zone not null,
+    proxima_tentativa_em timestamp(6) with time zone not null,
+    reservado_ate timestamp(6) with time zone,
+    usuario_id bigint not null,
+    operacao varchar(16) not null check (operacao in ('SINCRONIZAR','REMOVER')),
+    event_id varchar(255),
+    primary key (id)
+);
+
+create table if not exists categoria (
+    id bigint not null,
+    usuario_id bigint not null,
+    nome varchar(255) not null,
+    primary key (id),
+    unique (nome, usuario_id)
+);
+
+create table if not exists colunas_planejamento (
+    id bigint not null,
+    ordem integer,
+    quadro_id bigint not null,
+    estado varchar(255) not null check (estado in ('EM_ANDAMENTO','CONCLUIDO')),
+    titulo varchar(255) not null,
+    primary key (id)
+);
+
+create table if not exists contato (
+    id bigint not null,
+    pendente boolean,
+    data_confirmacao timestamp(6),
+    data_solicitacao timestamp(6),
+    id_contato bigint,
+    owner_id bigint not null,
+    email varchar(255),
+    nome varchar(255),
+    primary key (id)
+);
+
+create table if not exists convites_compartilhamento (
+    id bigint not null,
+    criado_em timestamp(6) not null,
+    destinatario_id bigint not null,
+    disciplina_id bigint not null,
+    remetente_id bigint not null,
+    respondido_em timestamp(6),
+    status varchar(30) not null check (status in ('PENDENTE','ACEITO','RECUSADO')),
+    mensagem varchar(500),
+    primary key (id)
+);
+
+create table if not exists disciplina (
+    id bigint not null,
+    ausencias_permitidas integer,
+    carga_horaria integer not null,
+    data_fim_semestre date,
+    data_inicio_semestre date,
+    is_ativa boolean not null,
+    qtd_semanas integer,
+    receber_notificacoes boolean not null,
+    usuario_id bigint,
+    codigo varchar(255),
+    email_professor varchar(255),
+    nome varchar(255),
+    periodo varchar(255),
+    plataforma varchar(255),
+    professor varchar(255),
+    sala_professor varchar(255),
+    telefone_professor varchar(255),
+    primary key (id)
+);
+
+create table if not exists emails_pendentes (
+    id bigint not null,
+    tentativas integer not null,
+    criado_em timestamp(6) with time zone not null,
+    proxima_tentativa_em timestamp(6) with time zone not null,
+    reservado_ate timestamp(6) with time zone,
+    status varchar(16) not null check (status in ('PENDENTE','ENVIANDO','FALHOU')),
+    destinatario varchar(320) not null,
+    remetente varchar(320),
+    ultimo_erro varchar(1000),
+    assunto varchar(255) not null,
+    corpo_html TEXT not null,
+    primary key (id)
+);
+
+create table if not exists google_calendar_credentials (
+    id bigint not null,
+    access_token_expires_at timestamp(6) with time zone,
+    last_synced_at timestamp(6) with time zone,
+    usuario_id bigint not null unique,
+    access_token varchar(2048),
+    refresh_token varchar(2048),
+    primary key (id)
+);
+
+create table if not exists grupo (
+    id bigint not null,
+    owner_id bigint not null,
+    nome varchar(255) not null,
+    primary key (id)
+);
+
+create table if not exists grupo_membros_contato (
+    grupo_id bigint not null,
+    id_contato bigint not null
+);
+
+create table if not exists horario_aula (
+    id bigint not null,
+    horario_fim integer not null,
+    horario_inicio integer not null,
+    disciplina_id bigint not null,
+    dia_da_semana varchar(255),
+    sala varchar(255),
+    primary key (id)
+);
+
+create table if not exists instituicao (
+    id bigint not null,
+    frequencia_minima integer,
+    media_aprovacao float(53),
+    usuario_id bigint,
+    nome varchar(255),
+    primary key (id)
+);
+
+create table if not exists notificacao_config_antecedencias (
+    id bigint not null,
+    configuracao_id bigint not null,
+    antecedencia varchar(255) not null check (antecedencia in ('NA_HORA','UMA_HORA','DUAS_HORAS','TRES_HORAS','SEIS_HORAS','DOZE_HORAS','UM_DIA','DOIS_DIAS','TRES_DIAS','UMA_SEMANA','DUAS_SEMANAS')),
+    prioridade varchar(255) not null check (prioridade in ('MUITO_BAIXA','BAIXA','MEDIA','ALTA','MUITO_ALTA')),
+    primary key (id),
+    unique (configuracao_id, prioridade)
+);
+
+create table if not exists notificacao_configuracoes (
+    id bigint not null,
+    avaliacoes_ativas boolean not null,
+    comentario_tarefa boolean not null,
+    compartilhamento_disciplina boolean not null,
+    convite_contato boolean not null,
+    incluir_em_quadro boolean not null,
+    incluso_em_grupo boolean not null,
+    notificacao_de_presenca boolean not null,
+    prazo_tarefa boolean not null,
+    usuario_id bigint not null unique,
+    primary key (id)
+);
+
+create table if not exists notificacao_contadores (
+    nao_lidas bigint not null,
+    usuario_id bigint not null,
+    primary key (usuario_id)
+);
+
+create table if not exists notificacoes (
+    id bigint not null,
+    interacao_pendente boolean not null,
+    lida boolean not null,
+    atualizada_em timestamp(6) not null,
+    convite_id bigint,
+    criada_em timestamp(6) not null,
+    referencia_id bigint,
+    usuario_id bigint not null,
+    chave_deduplicacao varchar(64) not null,
+    categoria varchar(100),
+    tipo varchar(100),
+    titulo varchar(150),
+    mensagem varchar(500) not null,
+    metadata_json TEXT,
+    primary key (id),
+    constraint uk_notificacoes_usuario_chave unique (usuario_id, chave_deduplicacao)
+);
+
+create table if not exists password_reset_token (
+    id bigint not null,
+    expires_at timestamp(6) with time zone,
+    used_at timestamp(6) with time zone,
+    user_id bigint,
+    token_hash varchar(64) unique,
+    primary key (id)
+);
+
+create table if not exists quadro_acesso (
+    quadro_id bigint not null,
+    usuario_id bigint not null,
+    motivo varchar(20) not null check (motivo in ('DONO','CONTATO','GRUPO','RESPONSAVEL')),
+    primary key (quadro_id, usuario_id, motivo)
+);
+
+create table if not exists quadros_planejamento (
+    id bigint not null,
+    contato_id bigint,
+    data_prazo timestamp(6),
+    disciplina_id bigint,
+    grupo_id bigint,
+    usuario_id bigint not null,
+    status varchar(255) not null check (status in ('ATIVO','ENCERRADO')),
+    titulo varchar(255) not null,
+    primary key (id)
+);
+
+create table if not exists tarefas_comentarios (
+    id bigint not null,
+    autor_id bigint not null,
+    data_atualizacao timestamp(6) not null,
+    data_criacao timestamp(6) not null,
+    tarefa_id bigint not null,
+    conteudo varchar(2000) not null,
+    primary key (id)
+);
+
+create table if not exists tarefas_comentarios_notificacoes (
+    id bigint not null,
+    tarefa_id bigint not null,
+    usuario_id bigint not null,
+    primary key (id),
+    unique (tarefa_id, usuario_id)
+);
+
+create table if not exists tarefas_planejamento (
+    id bigint not null,
+    coluna_id bigint not null,
+    data_prazo timestamp(6),
+    responsaveis_ids varchar(1000),
+    descricao varchar(2000),
+    status varchar(255) not null check (status in ('PENDENTE','CONCLUIDA')),
+    titulo varchar(255) not null,
+    primary key (id)
+);
+
+create table if not exists tarefas_planejamento_responsaveis (
+    contato_id bigint not null,
+    tarefa_id bigint not null,
+    primary key (contato_id, tarefa_id)
+);
+
+create table if not exists usuarios (
+    id bigint not null,
+    email_verified boolean,
+    last_login_at timestamp(6),
+    email varchar(255) not null unique,
+    nome_usuario varchar(255),
+    picture_url varchar(255),
+    provider varchar(255) not null check (provider in ('LOCAL','GOOGLE')),
+    provider_id varchar(255),
+    senha varchar(255),
+    primary key (id)
+);
+
+create index if not exists idx_auth_tokens_usuario on auth_tokens (usuario_id, expira_em);
+create index if not exists idx_auth_tokens_expira_em on auth_tokens (expira_em);
+create index if not exists idx_calendario_sinc_proxima on calendario_sincronizacoes_pendentes (proxima_tentativa_em);
+create index if not exists idx_calendario_sinc_avaliacao on calendario_sincronizacoes_pendentes (usuario_id, avaliacao_id);
+create index if not exists idx_emails_pendentes_status_proxima on emails_pendentes (status, proxima_tentativa_em);
+create index if not exists idx_notificacoes_usuario_atualizada on notificacoes (usuario_id, atualizada_em, id);
+create index if not exists idx_notificacoes_usuario_lida on notificacoes (usuario_id, lida);
+create index if not exists idx_quadro_acesso_usuario on quadro_acesso (usuario_id, quadro_id);
+
+alter table anotacoes
+    add constraint fk_anotacoes_disciplina_id
+    foreign key (disciplina_id) references disciplina;
+
+alter table ausencia
+    add constraint fk_ausencia_disciplina_id
+    foreign key (disciplina_id) references disciplina;
+
+alter table ausencia
+    add constraint fk_ausencia_usuario_id
+    foreign key (usuario_id) references usuarios;
+
+alter table avaliacao_integrantes_contato
+    add constraint fk_avaliacao_integrantes_contato_contato_id
+    foreign key (contato_id) references contato;
+
+alter table avaliacao_integrantes_contato
+    add constraint fk_avaliacao_integrantes_contato_avaliacao_id
+    foreign key (avaliacao_id) references avaliacoes;
+
+alter table avaliacoes
+    add constraint fk_avaliacoes_disciplina_id
+    foreign key (disciplina_id) references disciplina;
+
+alter table avaliacoes
+    add constraint fk_avaliacoes_usuario_id
+    foreign key (usuario_id) references usuarios;
+
+alter table categoria
+    add constraint fk_categoria_usuario_id
+    foreign key (usuario_id) references usuarios;
+
+alter table colunas_planejamento
+    add constraint fk_colunas_planejamento_quadro_id
+    foreign key (quadro_id) references quadros_planejamento;
+
+alter table convites_compartilhamento
+    add constraint fk_convites_compartilhamento_destinatario_id
+    foreign key (destinatario_id) references usuarios;
+
+alter table convites_compartilhamento
+    add constraint fk_convites_compartilhamento_disciplina_id
+    foreign key (disciplina_id) references disciplina;
+
+alter table convites_compartilhamento
+    add constraint fk_convites_compartilhamento_remetente_id
+    foreign key (remetente_id) references usuarios;
+
+alter table disciplina
+    add constraint fk_disciplina_usuario_id
+    foreign key (usuario_id) references usuarios;
+
+alter table google_calendar_credentials
+    add constraint fk_google_calendar_credentials_usuario_id
+    foreign key (usuario_id) references usuarios;
+
+alter table grupo_membros_contato
+    add constraint fk_grupo_membros_contato_grupo_id
+    foreign key (grupo_id) references grupo;
+
+alter table horario_aula
+    add constraint fk_horario_aula_disciplina_id
+    foreign key (disciplina_id) references disciplina;
+
+alter table instituicao
+    add constraint fk_instituicao_usuario_id
+    foreign key (usuario_id) references usuarios;
+
+alter table notificacao_config_antecedencias
+    add constraint fk_notificacao_config_antecedencias_configuracao_id
+    foreign key (configuracao_id) references notificacao_configuracoes;
+
+alter table notificacao_configuracoes
+    add constraint fk_notificacao_configuracoes_usuario_id
+    foreign key (usuario_id) references usuarios;
+
+alter table notificacoes
+    add constraint fk_notificacoes_convite_id
+    foreign key (convite_id) references convites_compartilhamento;
+
+alter table notificacoes
+    add constraint fk_notificacoes_usuario_id
+    foreign key (usuario_id) references usuarios;
+
+-- quadros_planejamento.contato_id aponta para contato.id_contato, que não é único:
+-- o PostgreSQL não aceita chave estrangeira para ela, então a integridade fica na aplicação.
+
+alter table quadros_planejamento
+    add constraint fk_quadros_planejamento_disciplina_id
+    foreign key (disciplina_id) references disciplina;
+
+alter table quadros_planejamento
+    add constraint fk_quadros_planejamento_grupo_id
+    foreign key (grupo_id) references grupo;
+
+alter table quadros_planejamento
+    add constraint fk_quadros_planejamento_usuario_id
+    foreign key (usuario_id) references usuarios;
+
+alter table tarefas_comentarios
+    add constraint fk_tarefas_comentarios_autor_id
+    foreign key (autor_id) references usuarios;
+
+alter table tarefas_comentarios
+    add constraint fk_tarefas_comentarios_tarefa_id
+    foreign key (tarefa_id) references tarefas_planejamento;
+
+alter table tarefas_comentarios_notificacoes
+    add constraint fk_tarefas_comentarios_notificacoes_tarefa_id
+    foreign key (tarefa_id) references tarefas_planejamento;
+
+alter table tarefas_comentarios_notificacoes
+    add constraint fk_tarefas_comentarios_notificacoes_usuario_id
+    foreign key (usuario_id) references usuarios;
+
+alter table tarefas_planejamento
+    add constraint fk_tarefas_planejamento_coluna_id
+    foreign key (coluna_id) references colunas_planejamento;
+
+alter table tarefas_planejamento_responsaveis
+    add constraint fk_tarefas_planejamento_responsaveis_contato_id
+    foreign key (contato_id) references contato;
+
+alter table tarefas_planejamento_responsaveis
+    add constraint fk_tarefas_planejamento_responsaveis_tarefa_id
+    foreign key (tarefa_id) references tarefas_planejamento;
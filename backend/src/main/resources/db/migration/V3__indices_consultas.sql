@@ -0,0 +1,29 @@
+-- Índices para as consultas dos repositórios. IF NOT EXISTS porque bancos criados pelo antigo
+-- ddl-auto=create (linha de base na versão 0) podem já ter alguns deles (os declarados nas entidades).
+
+-- Deduplicação de lembretes: findByUsuarioIdAndTipoAndCategoriaAndReferenciaId.
+create index if not exists idx_notificacoes_usuario_tipo_ref
+    on notificacoes (usuario_id, tipo, categoria, referencia_id);
+
+-- Contatos: por dono e usuário vinculado e por usuário vinculado (responsáveis, membros de
+-- grupo). O índice por lower(email) é só do PostgreSQL (db/vendor/postgresql).
+create index if not exists idx_contato_owner_id_contato on contato (owner_id, id_contato);
+create index if not exists idx_contato_id_contato on contato (id_contato);
+
+-- Tabelas de junção: a chave (ou a falta dela) só cobre um dos lados.
+create index if not exists idx_grupo_membros_contato_contato on grupo_membros_contato (id_contato);
+create index if not exists idx_grupo_membros_contato_grupo on grupo_membros_contato (grupo_id);
+create index if not exists idx_tarefas_responsaveis_tarefa on tarefas_planejamento_responsaveis (tarefa_id);
+create index if not exists idx_avaliacao_integrantes_avaliacao on avaliacao_integrantes_contato (avaliacao_id);
+
+-- Listagens por usuário e por disciplina.
+create index if not exists idx_avaliacoes_usuario_disciplina on avaliacoes (usuario_id, disciplina_id);
+create index if not exists idx_disciplina_usuario on disciplina (usuario_id);
+create index if not exists idx_horario_aula_disciplina on horario_aula (disciplina_id);
+create index if not exists idx_grupo_owner on grupo (owner_id);
+
+-- Quadros: colunas do quadro, tarefas da coluna por prazo e comentários da tarefa.
+create index if not exists idx_quadros_planejamento_usuario on quadros_planejamento (usuario_id);
+create index if not exists idx_colunas_planejamento_quadro on colunas_planejamento (quadro_id);
+create index if not exists idx_tarefas_planejamento_coluna_prazo on tarefas_planejamento (coluna_id, data_prazo);
+create index if not exists idx_tarefas_comentarios_tarefa on tarefas_comentarios (tarefa_id);
@@ -0,0 +1,14 @@
+-- Revogações de tokens assinados (logout e exclusão de conta), lidas por todas as instâncias
+-- ao subir e avisadas pelo canal unihub_tokens_revogados no PostgreSQL.
+create sequence if not exists tokens_revogados_seq start with 1 increment by 50;
+
+create table if not exists tokens_revogados (
+    id bigint not null,
+    jti varchar(32),
+    usuario_id bigint,
+    revogado_em timestamp(6) with time zone not null,
+    expira_em timestamp(6) with time zone not null,
+    primary key (id)
+);
+
+create index if not exists idx_tokens_revogados_expira_em on tokens_revogados (expira_em);
@@ -0,0 +1,62 @@
+package com.unihub.backend.config;
+
+import com.unihub.backend.service.AutenticacaoService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.autoconfigure.endpoint.EndpointAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.endpoint.web.WebEndpointAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.health.HealthEndpointAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.metrics.MetricsAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.metrics.MetricsEndpointAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.metrics.export.simple.SimpleMetricsExportAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.web.server.ManagementContextAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.web.servlet.ServletManagementContextAutoConfiguration;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/** Só o health do actuator fica aberto a qualquer usuário autenticado. */
+@WebMvcTest(controllers = SecurityConfig.class, properties = {
+        "management.endpoints.web.exposure.include=health,metrics",
+        "app.admin.usuario-ids=2"
+})
+@Import(SecurityConfig.class)
+@ImportAutoConfiguration({EndpointAutoConfiguration.class, WebEndpointAutoConfiguration.class,
+        HealthEndpointAutoConfiguration.class, MetricsAutoConfiguration.class,
+        SimpleMetricsExportAutoConfiguration.class, MetricsEndpointAutoConfiguration.class,
+        ManagementContextAutoConfiguration.class, ServletManagementContextAutoConfiguration.class})
+class ActuatorSegurancaTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private AutenticacaoService autenticacaoService;
+
+    @MockitoBean
+    private RegistroRequisicoes registroRequisicoes;
+
+    @BeforeEach
+    void setUp() {
+        when(autenticacaoService.getUsuarioIdPorToken("usuario")).thenReturn(1L);
+        when(autenticacaoService.getUsuarioIdPorToken("admin")).thenReturn(2L);
+    }
+
+    @Test
+    void metricasSoParaAdministradores() throws Exception {
+        mockMvc.perform(get("/actuator/metrics")).andExpect(status().isForbidden());
+        mockMvc.perform(get("/actuator/metrics").header("Authorization", "Bearer usuario"))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/actuator/metrics").header("Authorization", "Bearer admin"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/actuator/health").header("Authorization", "Bearer usuario"))
+                .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,71 @@
+package com.unihub.backend.config;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.slf4j.event.KeyValuePair;
+
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RegistroRequisicoesTest {
+
+    private final Logger logger = (Logger) LoggerFactory.getLogger("unihub.requisicoes");
+    private final ListAppender<ILoggingEvent> eventos = new ListAppender<>();
+
+    @BeforeEach
+    void setUp() {
+        eventos.start();
+        logger.addAppender(eventos);
+    }
+
+    @AfterEach
+    void tearDown() {
+        logger.detachAppender(eventos);
+    }
+
+    @Test
+    void amostragemPorRotaComErrosELentasSempreRegistrados() {
+        RegistroRequisicoes registro = new RegistroRequisicoes(0.0, "/api/auth/**=1, /api/notificacoes/stream=0", 500);
+
+        assertEquals(1.0, registro.taxaPara("/api/auth/login"));
+        assertEquals(0.0, registro.taxaPara("/api/notificacoes/stream"));
+        assertEquals(0.0, registro.taxaPara("/api/disciplinas"));
+        assertTrue(registro.deveRegistrar("/api/auth/login", 200, 1_000_000L));
+        assertFalse(registro.deveRegistrar("/api/disciplinas", 200, 1_000_000L));
+        assertTrue(registro.deveRegistrar("/api/disciplinas", 503, 1_000_000L));
+        assertTrue(registro.deveRegistrar("/api/disciplinas", 200, 600_000_000L));
+    }
+
+    @Test
+    void registroTrazTemposSemOToken() {
+        RegistroRequisicoes registro = new RegistroRequisicoes(1.0, "", 1000);
+        String token = "3f1c9a0e-5b7d-4e2a-9c61-0d8e4b2f7a15";
+
+        registro.registrar("GET", "/api/disciplinas", 200, token, 42L,
+                12_345_678L, 250_000L, TempoBancoRequisicao.iniciar());
+        TempoBancoRequisicao.encerrar();
+
+        assertEquals(1, eventos.list.size());
+        ILoggingEvent evento = eventos.list.get(0);
+        Map<String, Object> campos = evento.getKeyValuePairs().stream()
+                .collect(Collectors.toMap(par -> par.key, par -> par.value));
+        assertEquals(12.346, campos.get("filtroMs"));
+        assertEquals(0.25, campos.get("tokenMs"));
+        assertEquals(0.0, campos.get("bancoMs"));
+        assertEquals(42L, campos.get("usuarioId"));
+        assertTrue(((String) campos.get("token")).startsWith("opaco:"));
+        for (KeyValuePair par : evento.getKeyValuePairs()) {
+            assertFalse(String.valueOf(par.value).contains(token.substring(0, 8)));
+        }
+        assertFalse(evento.getFormattedMessage().contains(token));
+    }
+}
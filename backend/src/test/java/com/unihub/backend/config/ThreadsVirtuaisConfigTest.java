@@ -0,0 +1,84 @@
+package com.unihub.backend.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.LazyInitializationBeanFactoryPostProcessor;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.context.PropertyPlaceholderAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+
+import java.io.InputStream;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ThreadsVirtuaisConfigTest {
+
+    @Test
+    void enviosSimultaneosRespeitamOLimite() throws Exception {
+        AtomicInteger emAndamento = new AtomicInteger();
+        AtomicInteger pico = new AtomicInteger();
+        JavaMailSender lento = new JavaMailSender() {
+            @Override
+            public MimeMessage createMimeMessage() {
+                return null;
+            }
+
+            @Override
+            public MimeMessage createMimeMessage(InputStream contentStream) {
+                return null;
+            }
+
+            @Override
+            public void send(MimeMessage... mimeMessages) {
+            }
+
+            @Override
+            public void send(SimpleMailMessage... simpleMessages) {
+                pico.accumulateAndGet(emAndamento.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(20);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+                emAndamento.decrementAndGet();
+            }
+        };
+        JavaMailSender limitado = new ThreadsVirtuaisConfig.EnvioEmailLimitado(lento, 2);
+
+        int envios = 20;
+        CountDownLatch concluidos = new CountDownLatch(envios);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < envios; i++) {
+                executor.submit(() -> {
+                    limitado.send(new SimpleMailMessage());
+                    concluidos.countDown();
+                });
+            }
+            assertTrue(concluidos.await(10, TimeUnit.SECONDS));
+        }
+
+        assertEquals(2, pico.get());
+    }
+
+    @Test
+    void diagnosticoPinagemNasceMesmoComInicializacaoPreguicosa() {
+        new ApplicationContextRunner()
+                .withInitializer(contexto -> contexto.addBeanFactoryPostProcessor(
+                        new LazyInitializationBeanFactoryPostProcessor()))
+                .withConfiguration(AutoConfigurations.of(PropertyPlaceholderAutoConfiguration.class))
+                .withPropertyValues("spring.threads.virtual.enabled=true")
+                .withBean(MeterRegistry.class, SimpleMeterRegistry::new)
+                .withUserConfiguration(InicializacaoConfig.class, ThreadsVirtuaisConfig.class)
+                .run(contexto -> assertTrue(contexto.getBeanFactory().containsSingleton("diagnosticoPinagem")));
+    }
+}
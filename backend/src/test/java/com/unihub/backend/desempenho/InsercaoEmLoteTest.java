@@ -0,0 +1,88 @@
+package com.unihub.backend.desempenho;
+
+import com.unihub.backend.config.HibernateConfig;
+import com.unihub.backend.model.Avaliacao;
+import com.unihub.backend.model.Disciplina;
+import com.unihub.backend.model.HorarioAula;
+import com.unihub.backend.model.Usuario;
+import com.unihub.backend.model.enums.EstadoAvaliacao;
+import com.unihub.backend.model.enums.Modalidade;
+import com.unihub.backend.model.enums.Prioridade;
+import com.unihub.backend.repository.DisciplinaRepository;
+import com.unihub.backend.repository.UsuarioRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Com ids de sequência (pooled, blocos de 50) o Hibernate agrupa os INSERTs em batch: uma
+ * disciplina clonada com 30 avaliações e 10 horários sai em poucos comandos, não em 41.
+ */
+@DataJpaTest
+@Import(HibernateConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class InsercaoEmLoteTest {
+
+    @Autowired
+    private DisciplinaRepository disciplinaRepository;
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void disciplinaComAvaliacoesEHorariosEntraEmBatch() {
+        Usuario usuario = new Usuario();
+        String email = "lote-" + UUID.randomUUID() + "@teste.com";
+        usuario.setNomeUsuario(email);
+        usuario.setEmail(email);
+        Usuario dono = usuarioRepository.save(usuario);
+
+        Disciplina disciplina = new Disciplina();
+        disciplina.setNome("Cálculo I");
+        disciplina.setUsuario(dono);
+        for (int i = 0; i < 10; i++) {
+            HorarioAula aula = new HorarioAula();
+            aula.setDiaDaSemana("SEGUNDA");
+            aula.setSala("B-" + i);
+            disciplina.addAula(aula);
+        }
+        for (int i = 0; i < 30; i++) {
+            Avaliacao avaliacao = new Avaliacao();
+            avaliacao.setDescricao("Avaliação " + i);
+            avaliacao.setDataEntrega(LocalDateTime.of(2025, 3, 1, 19, 0).plusWeeks(i));
+            avaliacao.setUsuario(dono);
+            avaliacao.setPrioridade(Prioridade.MEDIA);
+            avaliacao.setEstado(EstadoAvaliacao.A_REALIZAR);
+            avaliacao.setModalidade(Modalidade.INDIVIDUAL);
+            disciplina.addAvaliacao(avaliacao);
+        }
+
+        Statistics estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estatisticas.clear();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> disciplinaRepository.save(disciplina));
+
+        assertEquals(41, estatisticas.getEntityInsertCount());
+        // 3 INSERTs em batch + a busca de um bloco em cada sequência.
+        long comandos = estatisticas.getPrepareStatementCount();
+        assertTrue(comandos <= 8, "clonagem executou " + comandos + " comandos SQL");
+    }
+}
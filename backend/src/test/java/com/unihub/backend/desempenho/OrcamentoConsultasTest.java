@@ -0,0 +1,144 @@
+package com.unihub.backend.desempenho;
+
+import com.unihub.backend.TestMailConfiguration;
+import com.unihub.backend.config.TestPropertiesConfig;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.support.PropertiesLoaderUtils;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Mede quantos comandos SQL (e quanto tempo) cada endpoint de leitura gasta sobre uma
+ * carga gerada pelo {@link SemeadorCarga} e falha quando o orçamento definido em
+ * {@code desempenho/orcamento-consultas.properties} é ultrapassado.
+ *
+ * A escala padrão é 10; use {@code gradle test -Pdesempenho.escala=50} para uma carga maior.
+ * Como os orçamentos de consultas não dependem da escala, um N+1 estoura o limite já na padrão.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Import({ TestMailConfiguration.class, TestPropertiesConfig.class, SemeadorCarga.class })
+@TestPropertySource(properties = {
+        "spring.mail.username=test",
+        "spring.mail.password=test",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        // As estatísticas são globais: as filas agendadas não podem rodar durante a medição.
+        "app.mail.outbox.intervalo-ms=3600000",
+        "google.calendar.fila.intervalo-ms=3600000"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class OrcamentoConsultasTest {
+
+    private static final Logger log = LoggerFactory.getLogger(OrcamentoConsultasTest.class);
+    private static final int ESCALA = Integer.getInteger("desempenho.escala", 10);
+    private static final int MEDICOES = 5;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private SemeadorCarga semeador;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private SemeadorCarga.Carga carga;
+    private Properties orcamentos;
+
+    record Endpoint(String nome, Function<SemeadorCarga.Carga, String> caminho) {
+        @Override
+        public String toString() {
+            return nome;
+        }
+    }
+
+    static List<Endpoint> endpoints() {
+        return List.of(
+                new Endpoint("quadros.listar", c -> "/quadros-planejamento"),
+                new Endpoint("quadros.pagina", c -> "/quadros-planejamento/pagina?limite=20"),
+                new Endpoint("quadros.detalhes", c -> "/quadros-planejamento/" + c.quadroIds().get(0) + "/detalhes"),
+                new Endpoint("grupos.listar", c -> "/api/grupos"),
+                new Endpoint("grupos.buscar", c -> "/api/grupos/" + c.grupoIds().get(0)),
+                new Endpoint("contatos.listar", c -> "/contato"),
+                new Endpoint("notificacoes.historico", c -> "/api/notificacoes/historico")
+        );
+    }
+
+    @BeforeAll
+    void semear() throws IOException {
+        carga = semeador.semear(ESCALA);
+        orcamentos = PropertiesLoaderUtils.loadProperties(
+                new ClassPathResource("desempenho/orcamento-consultas.properties"));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("endpoints")
+    void endpointRespeitaOrcamento(Endpoint endpoint) throws Exception {
+        String caminho = endpoint.caminho().apply(carga);
+        String limiteConsultas = orcamentos.getProperty(endpoint.nome() + ".consultas");
+        String limiteLatencia = orcamentos.getProperty(endpoint.nome() + ".latencia-ms");
+        assertNotNull(limiteConsultas, "Sem orçamento de consultas para " + endpoint.nome());
+        assertNotNull(limiteLatencia, "Sem orçamento de latência para " + endpoint.nome());
+
+        // Aquecimento: caches de token, planos de consulta e JIT não entram na medição.
+        executar(caminho);
+
+        Statistics estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        long[] consultas = new long[MEDICOES];
+        long[] duracoes = new long[MEDICOES];
+        for (int i = 0; i < MEDICOES; i++) {
+            estatisticas.clear();
+            long inicio = System.nanoTime();
+            executar(caminho);
+            duracoes[i] = (System.nanoTime() - inicio) / 1_000_000;
+            consultas[i] = estatisticas.getPrepareStatementCount();
+        }
+
+        long maxConsultas = Arrays.stream(consultas).max().orElse(0);
+        long medianaMs = mediana(duracoes);
+        log.info("{} escala={} consultas={} (limite {}) mediana={}ms (limite {})",
+                endpoint.nome(), ESCALA, maxConsultas, limiteConsultas, medianaMs, limiteLatencia);
+
+        assertTrue(maxConsultas <= Long.parseLong(limiteConsultas),
+                endpoint.nome() + " executou " + maxConsultas + " comandos SQL; orçamento é " + limiteConsultas);
+        assertTrue(medianaMs <= Long.parseLong(limiteLatencia),
+                endpoint.nome() + " levou " + medianaMs + "ms (mediana); orçamento é " + limiteLatencia + "ms");
+    }
+
+    private void executar(String caminho) throws Exception {
+        mockMvc.perform(get(caminho).header("Authorization", "Bearer " + carga.token()))
+                .andExpect(status().isOk());
+    }
+
+    private static long mediana(long[] valores) {
+        long[] ordenados = valores.clone();
+        Arrays.sort(ordenados);
+        return ordenados[ordenados.length / 2];
+    }
+}
@@ -0,0 +1,151 @@
+package com.unihub.backend.desempenho;
+
+import com.unihub.backend.model.AuthToken;
+import com.unihub.backend.model.ColunaPlanejamento;
+import com.unihub.backend.model.Contato;
+import com.unihub.backend.model.Grupo;
+import com.unihub.backend.model.Notificacao;
+import com.unihub.backend.model.QuadroPlanejamento;
+import com.unihub.backend.model.TarefaPlanejamento;
+import com.unihub.backend.model.Usuario;
+import com.unihub.backend.model.enums.EstadoPlanejamento;
+import com.unihub.backend.repository.AuthTokenRepository;
+import com.unihub.backend.repository.ContatoRepository;
+import com.unihub.backend.repository.GrupoRepository;
+import com.unihub.backend.repository.NotificacaoRepository;
+import com.unihub.backend.repository.QuadroPlanejamentoRepository;
+import com.unihub.backend.repository.UsuarioRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.TestComponent;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Versão parametrizável do DataInitializer para os testes de orçamento de consultas.
+ * Para uma escala N, o usuário principal recebe N contatos, N/2 grupos, N quadros
+ * (3 colunas com N tarefas cada) e 2N notificações.
+ */
+@TestComponent
+public class SemeadorCarga {
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private ContatoRepository contatoRepository;
+
+    @Autowired
+    private GrupoRepository grupoRepository;
+
+    @Autowired
+    private QuadroPlanejamentoRepository quadroRepository;
+
+    @Autowired
+    private NotificacaoRepository notificacaoRepository;
+
+    @Autowired
+    private AuthTokenRepository authTokenRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    public record Carga(Usuario dono, String token, List<Long> quadroIds, List<Long> grupoIds) {
+    }
+
+    public Carga semear(int escala) {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        String sufixo = UUID.randomUUID().toString().substring(0, 8);
+
+        Usuario dono = usuarioRepository.save(usuario("carga-dono-" + sufixo));
+
+        List<Contato> contatos = tx.execute(status -> {
+            List<Contato> criados = new ArrayList<>();
+            for (int i = 0; i < escala; i++) {
+                Usuario usuario = usuarioRepository.save(usuario("carga-" + sufixo + "-" + i));
+                Contato contato = new Contato(usuario.getNomeUsuario(), usuario.getEmail());
+                contato.setOwnerId(dono.getId());
+                contato.setIdContato(usuario.getId());
+                contato.setPendente(false);
+                criados.add(contatoRepository.save(contato));
+            }
+            return criados;
+        });
+
+        List<Long> grupoIds = tx.execute(status -> {
+            List<Long> ids = new ArrayList<>();
+            for (int g = 0; g < Math.max(1, escala / 2); g++) {
+                Grupo grupo = new Grupo("Grupo de carga " + g);
+                grupo.setOwnerId(dono.getId());
+                for (int m = 0; m < contatos.size(); m += 2) {
+                    grupo.getMembros().add(contatoRepository.getReferenceById(contatos.get((m + g) % contatos.size()).getId()));
+                }
+                ids.add(grupoRepository.save(grupo).getId());
+            }
+            return ids;
+        });
+
+        List<Long> quadroIds = tx.execute(status -> {
+            List<Long> ids = new ArrayList<>();
+            for (int q = 0; q < escala; q++) {
+                QuadroPlanejamento quadro = new QuadroPlanejamento();
+                quadro.setTitulo("Quadro de carga " + q);
+                quadro.setUsuario(usuarioRepository.getReferenceById(dono.getId()));
+                for (int c = 0; c < 3; c++) {
+                    ColunaPlanejamento coluna = new ColunaPlanejamento();
+                    coluna.setTitulo("Coluna " + c);
+                    coluna.setOrdem(c + 1);
+                    coluna.setEstado(c == 2 ? EstadoPlanejamento.CONCLUIDO : EstadoPlanejamento.EM_ANDAMENTO);
+                    coluna.setQuadro(quadro);
+                    for (int t = 0; t < escala; t++) {
+                        TarefaPlanejamento tarefa = new TarefaPlanejamento();
+                        tarefa.setTitulo("Tarefa " + c + "." + t);
+                        tarefa.setColuna(coluna);
+                        tarefa.setResponsaveis(new LinkedHashSet<>(List.of(
+                                contatoRepository.getReferenceById(contatos.get(t % contatos.size()).getId()))));
+                        coluna.getTarefas().add(tarefa);
+                    }
+                    quadro.getColunas().add(coluna);
+                }
+                ids.add(quadroRepository.save(quadro).getId());
+            }
+            return ids;
+        });
+
+        tx.executeWithoutResult(status -> {
+            for (int n = 0; n < escala * 2; n++) {
+                Notificacao notificacao = new Notificacao();
+                notificacao.setUsuario(usuarioRepository.getReferenceById(dono.getId()));
+                notificacao.setTitulo("Notificação " + n);
+                notificacao.setMensagem("Mensagem de carga " + n);
+                notificacao.setTipo("INFO");
+                notificacao.setCategoria("GERAL");
+                notificacao.setCriadaEm(LocalDateTime.now().minusMinutes(n));
+                notificacao.setAtualizadaEm(LocalDateTime.now().minusMinutes(n));
+                notificacaoRepository.save(notificacao);
+            }
+        });
+
+        AuthToken token = new AuthToken();
+        token.setUsuarioId(dono.getId());
+        token.setToken(UUID.randomUUID().toString());
+        token.setCriadoEm(LocalDateTime.now());
+        token.setExpiraEm(LocalDateTime.now().plusDays(1));
+        authTokenRepository.save(token);
+
+        return new Carga(dono, token.getToken(), quadroIds, grupoIds);
+    }
+
+    private Usuario usuario(String prefixo) {
+        Usuario usuario = new Usuario();
+        usuario.setNomeUsuario(prefixo);
+        usuario.setEmail(prefixo + "@carga.test");
+        usuario.setSenha("senha-de-carga");
+        return usuario;
+    }
+}
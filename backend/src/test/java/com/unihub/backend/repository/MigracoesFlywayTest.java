@@ -0,0 +1,46 @@
+package com.unihub.backend.repository;
+
+import com.unihub.backend.config.HibernateConfig;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationInfo;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Sobe o esquema pelas migrações (não pelas entidades) e deixa o Hibernate validar o mapeamento:
+ * uma entidade alterada sem migração correspondente quebra este teste. Roda só a parte comum
+ * (db/migration); os scripts de db/vendor/postgresql não têm equivalente no H2.
+ */
+@DataJpaTest
+@Import(HibernateConfig.class)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:migracoes;DB_CLOSE_DELAY=-1",
+        "spring.flyway.enabled=true",
+        "spring.flyway.locations=classpath:db/migration,classpath:db/vendor/{vendor}",
+        "spring.flyway.placeholders.tipo_lob=clob",
+        "spring.jpa.hibernate.ddl-auto=validate"
+})
+class MigracoesFlywayTest {
+
+    @Autowired
+    private Flyway flyway;
+
+    @Test
+    void migracoesComunsBatemComAsEntidades() {
+        List<String> aplicadas = Arrays.stream(flyway.info().applied())
+                .map(MigrationInfo::getVersion)
+                .map(Object::toString)
+                .toList();
+        assertEquals(List.of("1", "3", "4"), aplicadas);
+    }
+}
@@ -0,0 +1,103 @@
+package com.unihub.backend.repository;
+
+import com.unihub.backend.config.HibernateConfig;
+import com.unihub.backend.model.Notificacao;
+import com.unihub.backend.model.Usuario;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+@Import(HibernateConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class NotificacaoRepositoryTest {
+
+    @Autowired
+    private NotificacaoRepository notificacaoRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Test
+    void upsertAtualizaPelaChaveSemMexerEmLidaOuCriacao() {
+        Usuario usuario = usuario("upsert@teste.com");
+        LocalDateTime criadaEm = LocalDateTime.of(2025, 3, 10, 8, 0);
+
+        Notificacao primeira = notificacaoRepository.upsert(usuario.getId(),
+                dados("Prazo amanhã", 42L, true, criadaEm), false);
+        primeira.setLida(true);
+        notificacaoRepository.save(primeira);
+
+        Notificacao segunda = notificacaoRepository.upsert(usuario.getId(),
+                dados("Prazo hoje", 42L, true, criadaEm.plusDays(1)), false);
+
+        List<Notificacao> todas = notificacaoRepository.findByUsuarioIdOrderByCriadaEmDesc(usuario.getId());
+        assertEquals(1, todas.size());
+        assertEquals(primeira.getId(), segunda.getId());
+        Notificacao salva = todas.get(0);
+        assertEquals("Prazo hoje", salva.getMensagem());
+        assertEquals(criadaEm, salva.getCriadaEm());
+        assertTrue(salva.isLida());
+        assertTrue(salva.isInteracaoPendente());
+
+        notificacaoRepository.upsert(usuario.getId(), dados("Prazo hoje", 42L, false, criadaEm), true);
+        assertFalse(notificacaoRepository.findById(salva.getId()).orElseThrow().isInteracaoPendente());
+    }
+
+    @Test
+    void semReferenciaDeduplicaPorMensagemECriacao() {
+        Usuario usuario = usuario("sem-referencia@teste.com");
+        LocalDateTime criadaEm = LocalDateTime.of(2025, 3, 10, 8, 0);
+
+        notificacaoRepository.upsert(usuario.getId(), dados("Lembrete", null, false, criadaEm), false);
+        notificacaoRepository.upsert(usuario.getId(), dados("Lembrete", null, false, criadaEm), false);
+        notificacaoRepository.upsert(usuario.getId(), dados("Lembrete", null, false, criadaEm.plusMinutes(5)), false);
+
+        assertEquals(2, notificacaoRepository.findByUsuarioIdOrderByCriadaEmDesc(usuario.getId()).size());
+    }
+
+    @Test
+    void indiceUnicoImpedeDuplicataDaMesmaChave() {
+        Usuario usuario = usuario("duplicata@teste.com");
+        LocalDateTime criadaEm = LocalDateTime.of(2025, 3, 10, 8, 0);
+
+        Notificacao original = dados("Convite", 7L, true, criadaEm);
+        original.setUsuario(usuario);
+        notificacaoRepository.save(original);
+
+        Notificacao duplicata = dados("Convite", 7L, true, criadaEm);
+        duplicata.setUsuario(usuario);
+        assertThrows(DataIntegrityViolationException.class, () -> notificacaoRepository.save(duplicata));
+    }
+
+    private Notificacao dados(String mensagem, Long referenciaId, boolean pendente, LocalDateTime criadaEm) {
+        Notificacao notificacao = new Notificacao();
+        notificacao.setTipo("APP_NOTIFICACAO");
+        notificacao.setCategoria("LEMBRETE");
+        notificacao.setReferenciaId(referenciaId);
+        notificacao.setMensagem(mensagem);
+        notificacao.setInteracaoPendente(pendente);
+        notificacao.setCriadaEm(criadaEm);
+        notificacao.setAtualizadaEm(LocalDateTime.now());
+        return notificacao;
+    }
+
+    private Usuario usuario(String email) {
+        Usuario usuario = new Usuario();
+        usuario.setNomeUsuario(email);
+        usuario.setEmail(email);
+        return usuarioRepository.save(usuario);
+    }
+}
@@ -0,0 +1,273 @@
+package com.unihub.backend.repository;
+
+import com.unihub.backend.config.HibernateConfig;
+import com.unihub.backend.config.QuadroAcessoListener;
+import com.unihub.backend.dto.planejamento.QuadroPlanejamentoListaResponse;
+import com.unihub.backend.model.ColunaPlanejamento;
+import com.unihub.backend.model.Contato;
+import com.unihub.backend.model.Grupo;
+import com.unihub.backend.model.QuadroPlanejamento;
+import com.unihub.backend.model.TarefaPlanejamento;
+import com.unihub.backend.model.Usuario;
+import com.unihub.backend.model.enums.QuadroStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+@Import(HibernateConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class QuadroPlanejamentoRepositoryTest {
+
+    @Autowired
+    private QuadroPlanejamentoRepository quadroRepository;
+
+    @Autowired
+    private ColunaPlanejamentoRepository colunaRepository;
+
+    @Autowired
+    private TarefaPlanejamentoRepository tarefaRepository;
+
+    @Autowired
+    private ContatoRepository contatoRepository;
+
+    @Autowired
+    private GrupoRepository grupoRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void indiceDeAcessoAcompanhaContatoGrupoEResponsaveis() {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+
+        Usuario dono = usuario("dono@teste.com");
+        Usuario contatoDireto = usuario("contato@teste.com");
+        Usuario membro = usuario("membro@teste.com");
+        Usuario responsavel = usuario("responsavel@teste.com");
+        Usuario estranho = usuario("estranho@teste.com");
+
+        Contato contatoQuadro = contatoRepository.save(contato(dono, contatoDireto));
+        Contato contatoMembro = contatoRepository.save(contato(dono, membro));
+        Contato contatoResponsavel = contatoRepository.save(contato(dono, responsavel));
+
+        Long quadroContatoId = tx.execute(status -> {
+            QuadroPlanejamento quadro = quadro(dono, "Quadro do contato");
+            quadro.setContato(contatoRepository.findById(contatoQuadro.getId()).orElseThrow());
+            return quadroRepository.save(quadro).getId();
+        });
+
+        Long grupoId = tx.execute(status -> {
+            Grupo grupo = new Grupo("Grupo de estudos");
+            grupo.setOwnerId(dono.getId());
+            grupo.getMembros().add(contatoRepository.findById(contatoMembro.getId()).orElseThrow());
+            return grupoRepository.save(grupo).getId();
+        });
+
+        Long quadroGrupoId = tx.execute(status -> {
+            QuadroPlanejamento quadro = quadro(dono, "Quadro do grupo");
+            quadro.setGrupo(grupoRepository.findById(grupoId).orElseThrow());
+            return quadroRepository.save(quadro).getId();
+        });
+
+        Long tarefaId = tx.execute(status -> {
+            QuadroPlanejamento quadro = quadroRepository.findById(quadroContatoId).orElseThrow();
+            ColunaPlanejamento coluna = new ColunaPlanejamento();
+            coluna.setTitulo("A fazer");
+            coluna.setOrdem(1);
+            coluna.setQuadro(quadro);
+            coluna = colunaRepository.save(coluna);
+
+            TarefaPlanejamento tarefa = new TarefaPlanejamento();
+            tarefa.setTitulo("Resumo");
+            tarefa.setColuna(coluna);
+            tarefa.setResponsaveis(new LinkedHashSet<>(
+                    List.of(contatoRepository.findById(contatoResponsavel.getId()).orElseThrow())));
+            return tarefaRepository.save(tarefa).getId();
+        });
+
+        assertEquals(Set.of(quadroContatoId, quadroGrupoId), idsAcessiveis(dono));
+        assertEquals(Set.of(quadroContatoId), idsAcessiveis(contatoDireto));
+        assertEquals(Set.of(quadroGrupoId), idsAcessiveis(membro));
+        assertEquals(Set.of(quadroContatoId), idsAcessiveis(responsavel));
+        assertTrue(idsAcessiveis(estranho).isEmpty());
+        assertTrue(quadroRepository.findByIdAndUsuarioHasAccess(quadroGrupoId, membro.getId()).isPresent());
+        assertFalse(quadroRepository.findByIdAndUsuarioHasAccess(quadroGrupoId, estranho.getId()).isPresent());
+
+        tx.executeWithoutResult(status -> {
+            Grupo grupo = grupoRepository.findById(grupoId).orElseThrow();
+            grupo.getMembros().clear();
+            grupoRepository.save(grupo);
+        });
+        tx.executeWithoutResult(status -> {
+            TarefaPlanejamento tarefa = tarefaRepository.findById(tarefaId).orElseThrow();
+            tarefa.setResponsaveis(new LinkedHashSet<>());
+            tarefaRepository.save(tarefa);
+        });
+
+        assertTrue(idsAcessiveis(membro).isEmpty());
+        assertTrue(idsAcessiveis(responsavel).isEmpty());
+
+        quadroRepository.deleteById(quadroGrupoId);
+        assertEquals(Set.of(quadroContatoId), idsAcessiveis(dono));
+    }
+
+    @Test
+    void tarefaMovidaParaOutroQuadroLevaOAcessoDoResponsavel() {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        Usuario dono = usuario("dono-mover@teste.com");
+        Usuario responsavel = usuario("responsavel-mover@teste.com");
+        Contato contatoResponsavel = contatoRepository.save(contato(dono, responsavel));
+
+        Long origemId = quadroRepository.save(quadro(dono, "Origem")).getId();
+        Long destinoId = quadroRepository.save(quadro(dono, "Destino")).getId();
+        Long aFazer = coluna(origemId, "A fazer", 1);
+        Long fazendo = coluna(origemId, "Fazendo", 2);
+        Long destino = coluna(destinoId, "A fazer", 1);
+
+        Long tarefaId = tx.execute(status -> {
+            TarefaPlanejamento tarefa = new TarefaPlanejamento();
+            tarefa.setTitulo("Resumo");
+            tarefa.setColuna(colunaRepository.getReferenceById(aFazer));
+            tarefa.setResponsaveis(new LinkedHashSet<>(
+                    List.of(contatoRepository.findById(contatoResponsavel.getId()).orElseThrow())));
+            return tarefaRepository.save(tarefa).getId();
+        });
+        assertEquals(Set.of(origemId), idsAcessiveis(responsavel));
+
+        moverTarefa(tx, tarefaId, fazendo);
+        assertEquals(Set.of(origemId), idsAcessiveis(responsavel));
+
+        moverTarefa(tx, tarefaId, destino);
+        assertEquals(Set.of(destinoId), idsAcessiveis(responsavel));
+    }
+
+    @Test
+    void reconstrucoesConcorrentesDoMesmoQuadroNaoColidem() throws Exception {
+        Usuario dono = usuario("dono-concorrente@teste.com");
+        Long quadroId = quadroRepository.save(quadro(dono, "Concorrente")).getId();
+
+        try (Connection primeira = dataSource.getConnection()) {
+            primeira.setAutoCommit(false);
+            QuadroAcessoListener.reconstruir(primeira, List.of(quadroId));
+
+            // A segunda espera a trava da primeira em vez de inserir a mesma chave por cima.
+            CompletableFuture<Void> segunda = CompletableFuture.runAsync(() -> {
+                try (Connection conexao = dataSource.getConnection()) {
+                    conexao.setAutoCommit(false);
+                    QuadroAcessoListener.reconstruir(conexao, List.of(quadroId));
+                    conexao.commit();
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            Thread.sleep(200);
+            assertFalse(segunda.isDone());
+            primeira.commit();
+            segunda.get(10, TimeUnit.SECONDS);
+        }
+
+        assertEquals(Set.of(quadroId), idsAcessiveis(dono));
+    }
+
+    @Test
+    void paginacaoPorNomeFiltraNoBancoESegueOCursor() {
+        Usuario dono = usuario("paginas@teste.com");
+        Usuario outro = usuario("outro-paginas@teste.com");
+        Long calculo = quadroRepository.save(quadro(dono, "Cálculo")).getId();
+        Long fisica = quadroRepository.save(quadro(dono, "física 100%")).getId();
+        Long fisicaB = quadroRepository.save(quadro(dono, "Física B")).getId();
+        QuadroPlanejamento encerrado = quadro(dono, "Física antiga");
+        encerrado.setStatus(QuadroStatus.ENCERRADO);
+        quadroRepository.save(encerrado);
+        quadroRepository.save(quadro(outro, "Física do outro"));
+
+        List<QuadroPlanejamentoListaResponse> primeira = quadroRepository.findPaginaPorNome(
+                dono.getId(), QuadroStatus.ATIVO, "%f_sica%", null, null, PageRequest.of(0, 1));
+        assertEquals(List.of(fisica), primeira.stream().map(QuadroPlanejamentoListaResponse::getId).toList());
+        assertEquals(dono.getId(), primeira.get(0).getDonoId());
+
+        QuadroPlanejamentoListaResponse ultimo = primeira.get(0);
+        List<QuadroPlanejamentoListaResponse> segunda = quadroRepository.findPaginaPorNome(
+                dono.getId(), QuadroStatus.ATIVO, "%f_sica%", ultimo.getNome().toLowerCase(), ultimo.getId(),
+                PageRequest.of(0, 10));
+        assertEquals(List.of(fisicaB), segunda.stream().map(QuadroPlanejamentoListaResponse::getId).toList());
+
+        // '%' e '_' escapados são tratados literalmente.
+        List<QuadroPlanejamentoListaResponse> literal = quadroRepository.findPaginaPorNome(
+                dono.getId(), null, "%100\\%%", null, null, PageRequest.of(0, 10));
+        assertEquals(List.of(fisica), literal.stream().map(QuadroPlanejamentoListaResponse::getId).toList());
+
+        List<QuadroPlanejamentoListaResponse> recentes = quadroRepository.findPaginaRecentes(
+                dono.getId(), QuadroStatus.ATIVO, null, fisicaB, PageRequest.of(0, 10));
+        assertEquals(List.of(fisica, calculo), recentes.stream().map(QuadroPlanejamentoListaResponse::getId).toList());
+    }
+
+    private Long coluna(Long quadroId, String titulo, int ordem) {
+        ColunaPlanejamento coluna = new ColunaPlanejamento();
+        coluna.setTitulo(titulo);
+        coluna.setOrdem(ordem);
+        coluna.setQuadro(quadroRepository.getReferenceById(quadroId));
+        return colunaRepository.save(coluna).getId();
+    }
+
+    private void moverTarefa(TransactionTemplate tx, Long tarefaId, Long colunaId) {
+        tx.executeWithoutResult(status -> {
+            TarefaPlanejamento tarefa = tarefaRepository.findById(tarefaId).orElseThrow();
+            tarefa.setColuna(colunaRepository.getReferenceById(colunaId));
+        });
+    }
+
+    private Set<Long> idsAcessiveis(Usuario usuario) {
+        Set<Long> ids = new LinkedHashSet<>();
+        quadroRepository.findAllAccessibleByUsuarioId(usuario.getId())
+                .forEach(quadro -> ids.add(quadro.getId()));
+        return ids;
+    }
+
+    private Usuario usuario(String email) {
+        Usuario usuario = new Usuario();
+        usuario.setNomeUsuario(email);
+        usuario.setEmail(email);
+        return usuarioRepository.save(usuario);
+    }
+
+    private Contato contato(Usuario owner, Usuario usuario) {
+        Contato contato = new Contato(usuario.getNomeUsuario(), usuario.getEmail());
+        contato.setOwnerId(owner.getId());
+        contato.setIdContato(usuario.getId());
+        contato.setPendente(false);
+        return contato;
+    }
+
+    private QuadroPlanejamento quadro(Usuario dono, String titulo) {
+        QuadroPlanejamento quadro = new QuadroPlanejamento();
+        quadro.setTitulo(titulo);
+        quadro.setUsuario(usuarioRepository.getReferenceById(dono.getId()));
+        return quadro;
+    }
+}
@@ -0,0 +1,115 @@
+package com.unihub.backend.service;
+
+import com.unihub.backend.model.Contato;
+import com.unihub.backend.model.Usuario;
+import com.unihub.backend.repository.ContatoRepository;
+import com.unihub.backend.repository.UsuarioRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ConsultasDaRequisicaoTest {
+
+    @Mock
+    private UsuarioRepository usuarioRepository;
+    @Mock
+    private ContatoRepository contatoRepository;
+
+    private SimpleMeterRegistry registry;
+    private ConsultasDaRequisicao consultas;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        consultas = new ConsultasDaRequisicao(usuarioRepository, contatoRepository, registry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void mesmaRequisicaoConsultaOBancoUmaVezPorChave() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        Usuario usuario = usuario(1L);
+        when(usuarioRepository.findById(1L)).thenReturn(Optional.of(usuario));
+        when(usuarioRepository.findByEmailIgnoreCase("Usuario1@Example.com")).thenReturn(Optional.of(usuario));
+
+        assertSame(usuario, consultas.usuario(1L).orElseThrow());
+        assertSame(usuario, consultas.usuario(1L).orElseThrow());
+        consultas.usuarioPorEmail("Usuario1@Example.com");
+        consultas.usuarioPorEmail("usuario1@example.com");
+
+        verify(usuarioRepository, times(1)).findById(1L);
+        verify(usuarioRepository, times(1)).findByEmailIgnoreCase("Usuario1@Example.com");
+        assertEquals(1.0, contador("usuario", "hit"));
+        assertEquals(1.0, contador("usuario", "miss"));
+        assertEquals(1.0, contador("usuario_email", "hit"));
+        assertEquals(1.0, contador("usuario_email", "miss"));
+    }
+
+    @Test
+    void precarregamentoAtendeBuscasPorIdEContatoAusenteNaoEhMemorizado() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        when(usuarioRepository.findAllById(anyIterable())).thenReturn(List.of(usuario(1L), usuario(2L)));
+        when(contatoRepository.findByOwnerIdAndIdContato(1L, 2L))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(new Contato()));
+
+        consultas.precarregarUsuarios(List.of(1L, 2L, 3L));
+
+        assertTrue(consultas.usuario(2L).isPresent());
+        assertTrue(consultas.usuario(3L).isEmpty());
+        assertTrue(consultas.contatoPorIdContato(1L, 2L).isEmpty());
+        assertTrue(consultas.contatoPorIdContato(1L, 2L).isPresent());
+        verify(usuarioRepository, never()).findById(2L);
+        verify(usuarioRepository, never()).findById(3L);
+    }
+
+    @Test
+    void foraDeRequisicaoSempreConsultaORepositorio() {
+        when(usuarioRepository.findById(1L)).thenReturn(Optional.of(usuario(1L)));
+
+        consultas.usuario(1L);
+        consultas.usuario(1L);
+
+        verify(usuarioRepository, times(2)).findById(1L);
+        assertEquals(0.0, contador("usuario", "hit"));
+    }
+
+    private double contador(String tipo, String resultado) {
+        return registry.get("unihub.consultas.requisicao")
+                .tag("tipo", tipo)
+                .tag("resultado", resultado)
+                .counter()
+                .count();
+    }
+
+    private Usuario usuario(Long id) {
+        Usuario usuario = new Usuario();
+        usuario.setId(id);
+        usuario.setEmail("usuario" + id + "@example.com");
+        return usuario;
+    }
+}
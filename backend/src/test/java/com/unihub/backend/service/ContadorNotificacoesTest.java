@@ -0,0 +1,80 @@
+package com.unihub.backend.service;
+
+import com.unihub.backend.config.HibernateConfig;
+import com.unihub.backend.model.Notificacao;
+import com.unihub.backend.model.Usuario;
+import com.unihub.backend.repository.NotificacaoContadorRepository;
+import com.unihub.backend.repository.NotificacaoRepository;
+import com.unihub.backend.repository.UsuarioRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+@Import({HibernateConfig.class, ContadorNotificacoes.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ContadorNotificacoesTest {
+
+    @Autowired
+    private ContadorNotificacoes contadorNotificacoes;
+
+    @Autowired
+    private NotificacaoContadorRepository contadorRepository;
+
+    @Autowired
+    private NotificacaoRepository notificacaoRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Test
+    void escritaCriaOContadorDeQuemAindaNaoTinha() {
+        Usuario usuario = usuario();
+        notificacao(usuario, false);
+        notificacao(usuario, true);
+
+        contadorNotificacoes.recalcular(usuario.getId());
+
+        assertEquals(1L, contadorRepository.findById(usuario.getId()).orElseThrow().getNaoLidas());
+
+        notificacao(usuario, false);
+        contadorNotificacoes.recalcular(usuario.getId());
+        assertEquals(2L, contadorNotificacoes.naoLidas(usuario.getId()));
+    }
+
+    @Test
+    void primeiraLeituraCriaOContador() {
+        Usuario usuario = usuario();
+        notificacao(usuario, false);
+
+        assertEquals(1L, contadorNotificacoes.naoLidas(usuario.getId()));
+        assertEquals(1L, contadorRepository.findById(usuario.getId()).orElseThrow().getNaoLidas());
+    }
+
+    private void notificacao(Usuario usuario, boolean lida) {
+        Notificacao notificacao = new Notificacao();
+        notificacao.setUsuario(usuario);
+        notificacao.setTipo("APP_NOTIFICACAO");
+        notificacao.setMensagem(UUID.randomUUID().toString());
+        notificacao.setLida(lida);
+        notificacao.setCriadaEm(LocalDateTime.now());
+        notificacao.setAtualizadaEm(LocalDateTime.now());
+        notificacaoRepository.save(notificacao);
+    }
+
+    private Usuario usuario() {
+        Usuario usuario = new Usuario();
+        String email = UUID.randomUUID() + "@teste.com";
+        usuario.setNomeUsuario(email);
+        usuario.setEmail(email);
+        return usuarioRepository.save(usuario);
+    }
+}
@@ -0,0 +1,113 @@
+package com.unihub.backend.service;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import com.unihub.backend.config.HibernateConfig;
+import com.unihub.backend.model.EmailPendente;
+import com.unihub.backend.model.enums.StatusEmail;
+import com.unihub.backend.repository.EmailPendenteRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+@Import(HibernateConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class FilaEmailsTest {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    @Autowired
+    private EmailPendenteRepository repository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private FilaEmails fila;
+
+    @AfterEach
+    void tearDown() {
+        if (fila != null) {
+            fila.encerrar();
+        }
+        repository.deleteAll();
+    }
+
+    @Test
+    void enviaLoteESomeComAsLinhasEnviadas() throws Exception {
+        SimpleMeterRegistry metricas = new SimpleMeterRegistry();
+        fila = fila(greenMail.getSmtp().getPort(), metricas);
+        salvarPendente("a@teste.com");
+        salvarPendente("b@teste.com");
+        salvarPendente("c@teste.com");
+
+        fila.drenar();
+
+        assertTrue(greenMail.waitForIncomingEmail(5_000, 3));
+        MimeMessage[] recebidas = greenMail.getReceivedMessages();
+        assertEquals(3, recebidas.length);
+        assertEquals("Assunto", recebidas[0].getSubject());
+        assertEquals(0, repository.count());
+        assertEquals(0.0, metricas.get("unihub.mail.outbox.fila").tag("status", "pendente").gauge().value());
+        assertEquals(3.0, metricas.get("unihub.mail.outbox.envios").tag("resultado", "enviado").counter().count());
+    }
+
+    @Test
+    void falhaDeConexaoReagendaComBackoff() {
+        int portaSemServidor = greenMail.getSmtp().getPort() + 1;
+        fila = fila(portaSemServidor, new SimpleMeterRegistry());
+        salvarPendente("a@teste.com");
+        Instant antes = Instant.now();
+
+        fila.drenar();
+
+        List<EmailPendente> pendentes = repository.findAll();
+        assertEquals(1, pendentes.size());
+        EmailPendente email = pendentes.get(0);
+        assertEquals(StatusEmail.PENDENTE, email.getStatus());
+        assertEquals(1, email.getTentativas());
+        assertTrue(email.getProximaTentativaEm().isAfter(antes.plusSeconds(20)));
+        assertTrue(email.getUltimoErro() != null && !email.getUltimoErro().isBlank());
+
+        Duration terceira = fila.backoff(3);
+        assertTrue(terceira.toSeconds() >= 96 && terceira.toSeconds() <= 144);
+        assertTrue(fila.backoff(30).toSeconds() <= 3600 * 1.2);
+    }
+
+    private FilaEmails fila(int porta, SimpleMeterRegistry metricas) {
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(porta);
+        mailSender.getJavaMailProperties().put("mail.smtp.connectiontimeout", "2000");
+        return new FilaEmails(repository, mailSender, transactionManager, metricas,
+                2, 50, 8, 30, 3600, 600);
+    }
+
+    private void salvarPendente(String destinatario) {
+        EmailPendente email = new EmailPendente();
+        email.setDestinatario(destinatario);
+        email.setRemetente("unihub@teste.com");
+        email.setAssunto("Assunto");
+        email.setCorpoHtml("<p>Corpo</p>");
+        email.setCriadoEm(Instant.now());
+        email.setProximaTentativaEm(Instant.now());
+        repository.save(email);
+    }
+}
@@ -0,0 +1,128 @@
+package com.unihub.backend.service;
+
+import com.unihub.backend.config.HibernateConfig;
+import com.unihub.backend.model.SincronizacaoCalendarioPendente;
+import com.unihub.backend.repository.GoogleCalendarCredentialRepository;
+import com.unihub.backend.repository.SincronizacaoCalendarioPendenteRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest
+@Import(HibernateConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class FilaSincronizacaoCalendarioTest {
+
+    @Autowired
+    private SincronizacaoCalendarioPendenteRepository repository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final GoogleCalendarSyncService syncService = mock(GoogleCalendarSyncService.class);
+    private final long usuarioId = ThreadLocalRandom.current().nextLong(1_000_000, Long.MAX_VALUE);
+    private FilaSincronizacaoCalendario fila;
+
+    @AfterEach
+    void tearDown() {
+        if (fila != null) {
+            fila.encerrar();
+        }
+        repository.deleteAllInBatch();
+    }
+
+    @Test
+    void edicoesSeguidasViramUmEnvioComOUltimoEstado() {
+        fila = fila(5, 50);
+        when(syncService.sincronizarAvaliacoes(eq(usuarioId), any(), any()))
+                .thenReturn(Optional.of(Set.of(10L, 11L)));
+
+        agendar(() -> {
+            fila.agendarSincronizacao(usuarioId, 10L);
+            fila.agendarSincronizacao(usuarioId, 10L);
+            fila.agendarSincronizacao(usuarioId, 11L);
+            fila.agendarSincronizacao(usuarioId, 10L);
+            fila.agendarRemocao(usuarioId, 11L, "evt-11");
+        });
+        fila.drenar();
+
+        verify(syncService, times(1)).sincronizarAvaliacoes(usuarioId, List.of(10L), Map.of(11L, "evt-11"));
+        assertEquals(0, repository.count());
+    }
+
+    @Test
+    void limitePorContaDeixaOExcedenteNaFila() {
+        fila = fila(0.001, 2);
+        when(syncService.sincronizarAvaliacoes(eq(usuarioId), any(), any()))
+                .thenAnswer(invocacao -> Optional.of(Set.copyOf(invocacao.<List<Long>>getArgument(1))));
+
+        agendar(() -> {
+            fila.agendarSincronizacao(usuarioId, 1L);
+            fila.agendarSincronizacao(usuarioId, 2L);
+            fila.agendarSincronizacao(usuarioId, 3L);
+        });
+        fila.drenar();
+
+        verify(syncService).sincronizarAvaliacoes(usuarioId, List.of(1L, 2L), Map.of());
+        List<SincronizacaoCalendarioPendente> restantes = repository.findAll();
+        assertEquals(1, restantes.size());
+        assertEquals(3L, restantes.get(0).getAvaliacaoId());
+        assertTrue(restantes.get(0).getProximaTentativaEm().isAfter(Instant.now().plusSeconds(60)));
+    }
+
+    @Test
+    void falhaVoltaComBackoffESemContaVinculadaSaiDaFila() {
+        fila = fila(5, 50);
+        when(syncService.sincronizarAvaliacoes(eq(usuarioId), any(), any())).thenReturn(Optional.of(Set.of()));
+
+        agendar(() -> fila.agendarSincronizacao(usuarioId, 7L));
+        fila.drenar();
+
+        SincronizacaoCalendarioPendente pendente = repository.findAll().get(0);
+        assertEquals(1, pendente.getTentativas());
+        assertTrue(pendente.getProximaTentativaEm().isAfter(Instant.now().plusSeconds(20)));
+
+        when(syncService.sincronizarAvaliacoes(eq(usuarioId), any(), any())).thenReturn(Optional.empty());
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            SincronizacaoCalendarioPendente vencida = repository.findById(pendente.getId()).orElseThrow();
+            vencida.setProximaTentativaEm(Instant.now().minusSeconds(1));
+        });
+        fila.drenar();
+
+        assertEquals(0, repository.count());
+    }
+
+    private FilaSincronizacaoCalendario fila(double itensPorSegundo, int rajada) {
+        GoogleCalendarCredentialRepository credentialRepository = mock(GoogleCalendarCredentialRepository.class);
+        when(credentialRepository.existsByUsuarioId(anyLong())).thenReturn(true);
+        return new FilaSincronizacaoCalendario(repository, credentialRepository, syncService, transactionManager,
+                new SimpleMeterRegistry(), 2, 50, 0, 60, 5, 30, 1800, 300, itensPorSegundo, rajada);
+    }
+
+    private void agendar(Runnable edicoes) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> edicoes.run());
+    }
+}
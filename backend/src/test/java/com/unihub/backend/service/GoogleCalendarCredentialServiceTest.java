@@ -0,0 +1,154 @@
+package com.unihub.backend.service;
+
+import com.google.api.client.http.LowLevelHttpRequest;
+import com.google.api.client.http.LowLevelHttpResponse;
+import com.google.api.client.json.gson.GsonFactory;
+import com.google.api.client.testing.http.MockHttpTransport;
+import com.google.api.client.testing.http.MockLowLevelHttpRequest;
+import com.google.api.client.testing.http.MockLowLevelHttpResponse;
+import com.unihub.backend.model.GoogleCalendarCredential;
+import com.unihub.backend.repository.GoogleCalendarCredentialRepository;
+import com.unihub.backend.repository.UsuarioRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class GoogleCalendarCredentialServiceTest {
+
+    private final GoogleCalendarCredentialRepository repository = mock(GoogleCalendarCredentialRepository.class);
+    private final CredencialCalendarioCanalPostgres canal = mock(CredencialCalendarioCanalPostgres.class);
+    private final AtomicInteger renovacoes = new AtomicInteger();
+    private GoogleCalendarCredentialService service;
+
+    @BeforeEach
+    void setUp() {
+        MockHttpTransport endpointToken = new MockHttpTransport() {
+            @Override
+            public LowLevelHttpRequest buildRequest(String method, String url) {
+                return new MockLowLevelHttpRequest(url) {
+                    @Override
+                    public LowLevelHttpResponse execute() throws java.io.IOException {
+                        try {
+                            Thread.sleep(50);
+                        } catch (InterruptedException ex) {
+                            Thread.currentThread().interrupt();
+                        }
+                        int numero = renovacoes.incrementAndGet();
+                        return new MockLowLevelHttpResponse()
+                                .setContentType("application/json")
+                                .setContent("{\"access_token\":\"novo-" + numero + "\",\"expires_in\":3600,\"token_type\":\"Bearer\"}");
+                    }
+                };
+            }
+        };
+        service = new GoogleCalendarCredentialService(repository, mock(UsuarioRepository.class), endpointToken,
+                GsonFactory.getDefaultInstance(), mock(PlatformTransactionManager.class), new SimpleMeterRegistry(),
+                canal, 100, 30, 300);
+        ReflectionTestUtils.setField(service, "clientId", "cliente");
+        ReflectionTestUtils.setField(service, "clientSecret", "segredo");
+        ReflectionTestUtils.setField(service, "applicationName", "UniHub-teste");
+    }
+
+    @Test
+    void clienteFicaEmCacheETokenValidoNaoEGravado() {
+        when(repository.existsByUsuarioId(1L)).thenReturn(true);
+        when(repository.findByUsuarioId(1L)).thenReturn(Optional.of(credencial(Instant.now().plusSeconds(3000))));
+
+        var primeiro = service.prepareCalendar(1L).orElseThrow();
+        var segundo = service.prepareCalendar(1L).orElseThrow();
+
+        assertSame(primeiro.calendar(), segundo.calendar());
+        verify(repository, times(1)).findByUsuarioId(1L);
+        assertEquals(0, renovacoes.get());
+        verify(repository, never()).atualizarTokens(anyLong(), anyString(), any(), any());
+    }
+
+    @Test
+    void renovacaoAntecipadaAconteceUmaVezParaChamadasSimultaneas() throws Exception {
+        when(repository.existsByUsuarioId(2L)).thenReturn(true);
+        when(repository.findByUsuarioId(2L)).thenReturn(Optional.of(credencial(Instant.now().plusSeconds(120))));
+
+        List<Future<Boolean>> chamadas = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            Callable<Boolean> preparar = () -> service.prepareCalendar(2L).isPresent();
+            for (int i = 0; i < 8; i++) {
+                chamadas.add(executor.submit(preparar));
+            }
+            for (Future<Boolean> chamada : chamadas) {
+                assertTrue(chamada.get());
+            }
+        }
+
+        assertEquals(1, renovacoes.get());
+        verify(repository, times(1)).atualizarTokens(eq(2L), eq("novo-1"), isNull(), any());
+    }
+
+    @Test
+    void semContaVinculadaNaoGuardaNada() {
+        when(repository.existsByUsuarioId(3L)).thenReturn(true);
+        when(repository.findByUsuarioId(3L)).thenReturn(Optional.empty());
+
+        assertTrue(service.prepareCalendar(3L).isEmpty());
+        assertTrue(service.prepareCalendar(3L).isEmpty());
+        verify(repository, times(2)).findByUsuarioId(3L);
+    }
+
+    @Test
+    void clienteEmCacheNaoEUsadoDepoisDeDesvincularEmOutraInstancia() {
+        when(canal.disponivel()).thenReturn(true);
+        service.iniciarDescarteCompartilhado();
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Consumer<Long>> receptor = ArgumentCaptor.forClass(Consumer.class);
+        verify(canal).escutar(receptor.capture(), any());
+
+        when(repository.existsByUsuarioId(4L)).thenReturn(true);
+        when(repository.findByUsuarioId(4L)).thenReturn(Optional.of(credencial(Instant.now().plusSeconds(3000))));
+        var antes = service.prepareCalendar(4L).orElseThrow();
+
+        // Aviso do canal: o próximo uso monta outro cliente.
+        receptor.getValue().accept(4L);
+        assertNotSame(antes.calendar(), service.prepareCalendar(4L).orElseThrow().calendar());
+
+        // Sem o aviso, o registro apagado basta para o cliente em cache não ser usado.
+        when(repository.existsByUsuarioId(4L)).thenReturn(false);
+        assertTrue(service.prepareCalendar(4L).isEmpty());
+        verify(repository, times(2)).findByUsuarioId(4L);
+    }
+
+    private static GoogleCalendarCredential credencial(Instant expiraEm) {
+        GoogleCalendarCredential credencial = new GoogleCalendarCredential();
+        credencial.setAccessToken("atual");
+        credencial.setRefreshToken("refresh");
+        credencial.setAccessTokenExpiresAt(expiraEm);
+        return credencial;
+    }
+}
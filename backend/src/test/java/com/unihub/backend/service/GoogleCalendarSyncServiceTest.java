@@ -0,0 +1,219 @@
+package com.unihub.backend.service;
+
+import com.google.api.client.http.LowLevelHttpRequest;
+import com.google.api.client.http.LowLevelHttpResponse;
+import com.google.api.client.json.gson.GsonFactory;
+import com.google.api.client.testing.http.MockHttpTransport;
+import com.google.api.client.testing.http.MockLowLevelHttpRequest;
+import com.google.api.client.testing.http.MockLowLevelHttpResponse;
+import com.google.api.services.calendar.Calendar;
+import com.unihub.backend.config.HibernateConfig;
+import com.unihub.backend.model.Avaliacao;
+import com.unihub.backend.model.GoogleCalendarCredential;
+import com.unihub.backend.model.Usuario;
+import com.unihub.backend.model.enums.EstadoAvaliacao;
+import com.unihub.backend.model.enums.Modalidade;
+import com.unihub.backend.model.enums.Prioridade;
+import com.unihub.backend.repository.AvaliacaoRepository;
+import com.unihub.backend.repository.GoogleCalendarCredentialRepository;
+import com.unihub.backend.repository.UsuarioRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest
+@Import(HibernateConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class GoogleCalendarSyncServiceTest {
+
+    private static final Pattern LINHA_REQUISICAO = Pattern.compile("(?m)^(POST|PUT|DELETE) (\\S+) HTTP/1\\.1");
+
+    @Autowired
+    private AvaliacaoRepository avaliacaoRepository;
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+    @Autowired
+    private GoogleCalendarCredentialRepository credentialRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private DataSource dataSource;
+
+    private final CalendarioFalso calendario = new CalendarioFalso();
+    private GoogleCalendarSyncService service;
+    private Usuario usuario;
+
+    @BeforeEach
+    void setUp() {
+        usuario = new Usuario();
+        String email = "agenda-" + UUID.randomUUID() + "@teste.com";
+        usuario.setNomeUsuario(email);
+        usuario.setEmail(email);
+        usuario = usuarioRepository.save(usuario);
+
+        Calendar calendar = new Calendar.Builder(calendario, GsonFactory.getDefaultInstance(), null)
+                .setApplicationName("UniHub-teste")
+                .build();
+        GoogleCalendarCredentialService credentialService = mock(GoogleCalendarCredentialService.class);
+        when(credentialService.prepareCalendar(usuario.getId())).thenReturn(Optional.of(
+                new GoogleCalendarCredentialService.CalendarClient(calendar, new GoogleCalendarCredential())));
+        service = new GoogleCalendarSyncService(credentialService, credentialRepository, avaliacaoRepository,
+                transactionManager, dataSource, 2, 10, 50);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.encerrar();
+        avaliacaoRepository.deleteAll(avaliacaoRepository.findByUsuarioId(usuario.getId()));
+    }
+
+    @Test
+    void enviaSoOQueMudouEmBatchEGravaOsIds() {
+        Avaliacao prova = avaliacao("Prova 1", LocalDateTime.of(2025, 6, 10, 19, 0));
+        Avaliacao trabalho = avaliacao("Trabalho", LocalDateTime.of(2025, 6, 20, 23, 59));
+        Avaliacao semData = avaliacao("Seminário", null);
+
+        GoogleCalendarSyncService.SyncResult primeira = service.syncAll(usuario.getId());
+
+        assertEquals(3, primeira.synced());
+        assertEquals(0, primeira.failures());
+        assertEquals(1, calendario.batches.get());
+        assertEquals(List.of("POST", "POST"), calendario.metodos);
+        assertNotNull(recarregar(prova).getGoogleCalendarEventId());
+        assertNotNull(recarregar(trabalho).getGoogleCalendarEventId());
+        assertNull(recarregar(semData).getGoogleCalendarEventId());
+
+        GoogleCalendarSyncService.SyncResult semMudancas = service.syncAll(usuario.getId());
+        assertEquals(0, semMudancas.synced());
+        assertEquals(1, calendario.batches.get());
+
+        Avaliacao alterada = recarregar(prova);
+        alterada.setDescricao("Prova 1 (sala 204)");
+        avaliacaoRepository.save(alterada);
+        calendario.metodos.clear();
+
+        GoogleCalendarSyncService.SyncResult incremental = service.syncAll(usuario.getId());
+        assertEquals(1, incremental.synced());
+        assertEquals(2, calendario.batches.get());
+        assertEquals(List.of("PUT"), calendario.metodos);
+        assertEquals(recarregar(prova).getAtualizadaEm(), recarregar(prova).getGoogleSincronizadaEm());
+    }
+
+    @Test
+    void completaReenviaTudoERemocaoUsaBatch() {
+        avaliacao("Prova 1", LocalDateTime.of(2025, 6, 10, 19, 0));
+        avaliacao("Prova 2", LocalDateTime.of(2025, 6, 17, 19, 0));
+        service.syncAll(usuario.getId());
+        calendario.metodos.clear();
+
+        assertEquals(2, service.syncAll(usuario.getId(), true).synced());
+        assertEquals(List.of("PUT", "PUT"), calendario.metodos);
+
+        calendario.metodos.clear();
+        service.removeAllRemoteEvents(usuario.getId());
+        assertEquals(3, calendario.batches.get());
+        assertEquals(List.of("DELETE", "DELETE"), calendario.metodos);
+    }
+
+    @Test
+    void filaEnviaSoAsAlteradasERemoveEventosDeExcluidas() {
+        Avaliacao prova = avaliacao("Prova 1", LocalDateTime.of(2025, 6, 10, 19, 0));
+        Avaliacao trabalho = avaliacao("Trabalho", LocalDateTime.of(2025, 6, 20, 23, 59));
+        service.syncAll(usuario.getId());
+        calendario.metodos.clear();
+
+        Avaliacao alterada = recarregar(trabalho);
+        alterada.setDescricao("Trabalho final");
+        avaliacaoRepository.save(alterada);
+
+        Set<Long> resolvidas = service.sincronizarAvaliacoes(usuario.getId(),
+                List.of(prova.getId(), trabalho.getId(), -1L), Map.of(-2L, "evt-antigo")).orElseThrow();
+
+        assertEquals(Set.of(prova.getId(), trabalho.getId(), -1L, -2L), resolvidas);
+        assertEquals(2, calendario.batches.get());
+        assertEquals(List.of("PUT", "DELETE"), calendario.metodos);
+        assertEquals(recarregar(trabalho).getAtualizadaEm(), recarregar(trabalho).getGoogleSincronizadaEm());
+    }
+
+    private Avaliacao avaliacao(String descricao, LocalDateTime dataEntrega) {
+        Avaliacao avaliacao = new Avaliacao();
+        avaliacao.setDescricao(descricao);
+        avaliacao.setDataEntrega(dataEntrega);
+        avaliacao.setUsuario(usuario);
+        avaliacao.setPrioridade(Prioridade.MEDIA);
+        avaliacao.setEstado(EstadoAvaliacao.A_REALIZAR);
+        avaliacao.setModalidade(Modalidade.INDIVIDUAL);
+        return avaliacaoRepository.save(avaliacao);
+    }
+
+    private Avaliacao recarregar(Avaliacao avaliacao) {
+        return avaliacaoRepository.findById(avaliacao.getId()).orElseThrow();
+    }
+
+    /** Endpoint de batch do Calendar: responde a cada parte do multipart na mesma ordem. */
+    private static final class CalendarioFalso extends MockHttpTransport {
+
+        private final AtomicInteger batches = new AtomicInteger();
+        private final AtomicInteger eventos = new AtomicInteger();
+        private final List<String> metodos = new CopyOnWriteArrayList<>();
+
+        @Override
+        public LowLevelHttpRequest buildRequest(String method, String url) {
+            return new MockLowLevelHttpRequest(url) {
+                @Override
+                public LowLevelHttpResponse execute() throws IOException {
+                    if (!url.contains("/batch/")) {
+                        throw new IOException("Esperava batch request, veio " + method + " " + url);
+                    }
+                    batches.incrementAndGet();
+                    StringBuilder corpo = new StringBuilder();
+                    Matcher matcher = LINHA_REQUISICAO.matcher(getContentAsString());
+                    while (matcher.find()) {
+                        String metodo = matcher.group(1);
+                        String caminho = matcher.group(2);
+                        metodos.add(metodo);
+                        corpo.append("--resposta\r\nContent-Type: application/http\r\n\r\n");
+                        if ("DELETE".equals(metodo)) {
+                            corpo.append("HTTP/1.1 204 No Content\r\n\r\n");
+                        } else {
+                            String id = "PUT".equals(metodo)
+                                    ? caminho.substring(caminho.lastIndexOf('/') + 1)
+                                    : "evt-" + eventos.incrementAndGet();
+                            corpo.append("HTTP/1.1 200 OK\r\nContent-Type: application/json; charset=UTF-8\r\n\r\n")
+                                    .append("{\"id\":\"").append(id).append("\"}\r\n");
+                        }
+                    }
+                    corpo.append("--resposta--\r\n");
+                    return new MockLowLevelHttpResponse()
+                            .setContentType("multipart/mixed; boundary=resposta")
+                            .setContent(corpo.toString());
+                }
+            };
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.unihub.backend.service;
 
 import com.unihub.backend.model.Contato;
 import com.unihub.backend.dto.notificacoes.NotificacaoLogRequest;
+import com.unihub.backend.dto.notificacoes.NotificacaoPendente;
 import com.unihub.backend.model.Grupo;
 import com.unihub.backend.model.NotificacaoConfiguracao;
 import com.unihub.backend.model.Usuario;
@@ -10,6 +11,7 @@ import com.unihub.backend.repository.GrupoRepository;
 import com.unihub.backend.repository.NotificacaoConfiguracaoRepository;
 import com.unihub.backend.repository.UsuarioRepository;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -19,7 +21,9 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -41,6 +45,7 @@ import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.eq;
 import static org.mockito.Mockito.lenient;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
 
@@ -63,11 +68,18 @@ class GrupoServiceTest {
     @Mock
     private NotificacaoConfiguracaoRepository notificacaoConfiguracaoRepository;
 
+    @Mock
+    private NotificationDispatcher notificationDispatcher;
+
     @InjectMocks
     private GrupoService grupoService;
 
     @BeforeEach
     void setUp() {
+        ReflectionTestUtils.setField(grupoService, "consultas",
+                new ConsultasDaRequisicao(usuarioRepository, contatoRepository, new SimpleMeterRegistry()));
+        ReflectionTestUtils.setField(grupoService, "preferenciasNotificacao",
+                new PreferenciasNotificacaoCache(notificacaoConfiguracaoRepository, new SimpleMeterRegistry(), 100, 30));
         lenient().when(usuarioRepository.findByEmailIgnoreCase(anyString())).thenReturn(Optional.empty());
         lenient().when(notificacaoConfiguracaoRepository.findByUsuarioId(anyLong())).thenReturn(Optional.empty());
     }
@@ -179,15 +191,16 @@ class GrupoServiceTest {
 
         Grupo grupoRequest = new Grupo();
         grupoRequest.setNome("Novo Grupo");
-        grupoRequest.setMembros(List.of(contatoMembro));
+        grupoRequest.setMembros(new ArrayList<>(List.of(contatoMembro)));
 
         when(usuarioRepository.findById(ownerId)).thenReturn(Optional.of(owner));
         when(usuarioRepository.findById(membroUsuarioId)).thenReturn(Optional.of(usuarioMembro));
         when(contatoRepository.findByOwnerIdAndEmail(ownerId, owner.getEmail())).thenReturn(Optional.of(contatoOwner));
         when(contatoRepository.findByOwnerIdAndIdIn(eq(ownerId), anyList())).thenReturn(List.of(contatoMembro));
-        when(contatoRepository.findByOwnerIdAndIdContato(ownerId, membroUsuarioId)).thenReturn(Optional.of(contatoMembro));
-        when(contatoRepository.findByOwnerIdAndEmailIgnoreCase(ownerId, "member@example.com"))
-                .thenReturn(Optional.of(contatoMembro));
+        when(contatoRepository.findByOwnerIdAndIdContatoInOrderByIdAsc(eq(ownerId), anyCollection()))
+                .thenReturn(List.of(contatoMembro));
+        when(contatoRepository.findByOwnerIdAndEmailNormalizadoIn(eq(ownerId), anyCollection()))
+                .thenReturn(List.of(contatoMembro));
         when(grupoRepository.save(any(Grupo.class))).thenAnswer(invocation -> {
             Grupo value = invocation.getArgument(0);
             if (value.getId() == null) {
@@ -196,18 +209,21 @@ class GrupoServiceTest {
             return value;
         });
         when(notificacaoConfiguracaoRepository.findByUsuarioId(membroUsuarioId)).thenReturn(Optional.of(configuracao(true)));
-        when(notificacaoService.registrarNotificacao(anyLong(), any(NotificacaoLogRequest.class))).thenReturn(null);
+        NotificacaoPendente pendente = new NotificacaoPendente(membroUsuarioId, "GRUPO_MEMBRO_ADICIONADO",
+                "GRUPO_MEMBRO_ADICIONADO", 500L, null, "Novo Grupo", null, null, NotificacaoPendente.Pendencia.SE_NOVA);
+        when(notificacaoService.prepararNotificacao(anyLong(), any(NotificacaoLogRequest.class))).thenReturn(pendente);
 
         Grupo resultado = grupoService.criarGrupo(grupoRequest, ownerId);
 
         assertEquals(500L, resultado.getId());
         ArgumentCaptor<NotificacaoLogRequest> captor = ArgumentCaptor.forClass(NotificacaoLogRequest.class);
-        verify(notificacaoService).registrarNotificacao(eq(membroUsuarioId), captor.capture());
+        verify(notificacaoService).prepararNotificacao(eq(membroUsuarioId), captor.capture());
         NotificacaoLogRequest request = captor.getValue();
         assertEquals("GRUPO_MEMBRO_ADICIONADO", request.getTipo());
         assertEquals("GRUPO_MEMBRO_ADICIONADO", request.getCategoria());
         assertEquals(500L, request.getReferenciaId());
         assertTrue(request.getMensagem().contains("Novo Grupo"));
+        verify(notificationDispatcher).enviar(List.of(pendente));
     }
 
     @Test
@@ -316,18 +332,16 @@ class GrupoServiceTest {
         when(usuarioRepository.findById(novoUsuarioId)).thenReturn(Optional.of(usuarioNovo));
         when(contatoRepository.findByOwnerIdAndEmail(ownerId, owner.getEmail())).thenReturn(Optional.of(contatoOwner));
         when(contatoRepository.findByOwnerIdAndIdIn(eq(ownerId), anyList())).thenReturn(List.of(contatoExistente, contatoNovo));
-        when(contatoRepository.findByOwnerIdAndIdContato(ownerId, contatoExistente.getIdContato()))
-                .thenReturn(Optional.of(contatoExistente));
-        when(contatoRepository.findByOwnerIdAndIdContato(ownerId, contatoNovo.getIdContato()))
-                .thenReturn(Optional.of(contatoNovo));
-        when(contatoRepository.findByOwnerIdAndEmailIgnoreCase(ownerId, "novo-membro@example.com"))
-                .thenReturn(Optional.of(contatoNovo));
+        when(contatoRepository.findByOwnerIdAndIdContatoInOrderByIdAsc(eq(ownerId), anyCollection()))
+                .thenReturn(List.of(contatoExistente, contatoNovo));
+        when(contatoRepository.findByOwnerIdAndEmailNormalizadoIn(eq(ownerId), anyCollection()))
+                .thenReturn(List.of(contatoExistente, contatoNovo));
         when(grupoRepository.save(any(Grupo.class))).thenAnswer(invocation -> invocation.getArgument(0));
         when(notificacaoConfiguracaoRepository.findByUsuarioId(novoUsuarioId)).thenReturn(Optional.of(configuracao(false)));
 
         grupoService.atualizarGrupo(grupoId, request, ownerId);
 
-        verify(notificacaoService, never()).registrarNotificacao(anyLong(), any(NotificacaoLogRequest.class));
+        verify(notificacaoService, never()).prepararNotificacao(anyLong(), any(NotificacaoLogRequest.class));
     }
 
     @Test
@@ -568,6 +582,64 @@ class GrupoServiceTest {
         verify(grupoRepository, times(2)).save(grupo);
     }
 
+    @Test
+    void atualizarGrupoResolveMembrosEmLote() {
+        Long ownerId = 7L;
+
+        Usuario usuario = new Usuario();
+        usuario.setId(ownerId);
+        usuario.setEmail("owner7@example.com");
+
+        Contato contatoOwner = new Contato();
+        contatoOwner.setId(70L);
+        contatoOwner.setOwnerId(ownerId);
+        contatoOwner.setEmail("owner7@example.com");
+        contatoOwner.setPendente(Boolean.FALSE);
+
+        Grupo grupoExistente = new Grupo();
+        grupoExistente.setId(700L);
+        grupoExistente.setNome("Grupo Grande");
+        grupoExistente.setOwnerId(ownerId);
+        grupoExistente.addMembro(contatoOwner);
+
+        List<Contato> solicitados = new ArrayList<>();
+        List<Contato> contatosDoOwner = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            Contato solicitado = new Contato();
+            solicitado.setId(2000L + i);
+            solicitado.setIdContato(1000L + i);
+            solicitado.setEmail("membro" + i + "@example.com");
+            solicitados.add(solicitado);
+
+            Contato doOwner = new Contato();
+            doOwner.setId(3000L + i);
+            doOwner.setOwnerId(ownerId);
+            doOwner.setIdContato(1000L + i);
+            doOwner.setEmail("membro" + i + "@example.com");
+            doOwner.setPendente(Boolean.FALSE);
+            contatosDoOwner.add(doOwner);
+        }
+
+        Grupo request = new Grupo();
+        request.setMembros(solicitados);
+
+        when(grupoRepository.findByIdAndOwnerId(grupoExistente.getId(), ownerId))
+                .thenReturn(Optional.of(grupoExistente));
+        when(usuarioRepository.findById(ownerId)).thenReturn(Optional.of(usuario));
+        when(contatoRepository.findByOwnerIdAndEmail(ownerId, "owner7@example.com"))
+                .thenReturn(Optional.of(contatoOwner));
+        when(contatoRepository.findByOwnerIdAndIdContatoInOrderByIdAsc(eq(ownerId), anyCollection()))
+                .thenReturn(contatosDoOwner);
+        when(grupoRepository.save(any(Grupo.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Grupo atualizado = grupoService.atualizarGrupo(grupoExistente.getId(), request, ownerId);
+
+        assertEquals(50, atualizado.getMembros().size());
+        assertTrue(atualizado.getMembros().containsAll(contatosDoOwner));
+        verify(contatoRepository, times(1)).findByOwnerIdAndIdContatoInOrderByIdAsc(eq(ownerId), anyCollection());
+        verify(contatoRepository, never()).findByOwnerIdAndIdContato(eq(ownerId), any());
+    }
+
     private NotificacaoConfiguracao configuracao(boolean incluso) {
         NotificacaoConfiguracao configuracao = new NotificacaoConfiguracao();
         configuracao.setInclusoEmGrupo(incluso);
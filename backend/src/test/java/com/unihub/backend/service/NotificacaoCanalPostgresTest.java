@@ -0,0 +1,44 @@
+package com.unihub.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NotificacaoCanalPostgresTest {
+
+    @Test
+    void payloadGrandeEDivididoSemPerderIds() {
+        Map<Long, List<Long>> ids = new LinkedHashMap<>();
+        ids.put(1L, LongStream.range(1_000_000L, 1_001_000L).boxed().toList());
+        ids.put(2L, List.of(5L, 6L));
+
+        List<String> payloads = NotificacaoCanalPostgres.payloads(ids);
+
+        assertTrue(payloads.size() > 1);
+        payloads.forEach(payload -> assertTrue(payload.getBytes(StandardCharsets.UTF_8).length < 8000));
+        Map<Long, List<Long>> lidos = new LinkedHashMap<>();
+        payloads.forEach(payload -> NotificacaoCanalPostgres.ler(payload).forEach((usuarioId, doUsuario) ->
+                lidos.computeIfAbsent(usuarioId, chave -> new ArrayList<>()).addAll(doUsuario)));
+        assertEquals(ids, lidos);
+    }
+
+    @Test
+    void cursorDoEventoIdaEVolta() {
+        CursorNotificacao cursor = new CursorNotificacao(42L, LocalDateTime.of(2025, 5, 2, 14, 30, 0, 123_456_000));
+
+        assertEquals(cursor, CursorNotificacao.decodificar(cursor.codificar()));
+        assertNull(CursorNotificacao.decodificar(" "));
+        assertThrows(IllegalArgumentException.class, () -> CursorNotificacao.decodificar("%%%"));
+    }
+}
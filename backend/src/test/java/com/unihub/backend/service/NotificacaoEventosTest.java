@@ -0,0 +1,149 @@
+package com.unihub.backend.service;
+
+import com.unihub.backend.config.HibernateConfig;
+import com.unihub.backend.controller.NotificacoesController;
+import com.unihub.backend.model.Notificacao;
+import com.unihub.backend.model.Usuario;
+import com.unihub.backend.repository.NotificacaoRepository;
+import com.unihub.backend.repository.UsuarioRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.method.annotation.AuthenticationPrincipalArgumentResolver;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+/**
+ * Stream de notificações no caminho local (H2, sem o canal do PostgreSQL): entrega após o
+ * commit e retomada a partir do {@code Last-Event-ID}.
+ */
+@DataJpaTest
+@Import({HibernateConfig.class, NotificacaoService.class, ContadorNotificacoes.class, NotificacaoEventos.class,
+        NotificacaoCanalPostgres.class, SimpleMeterRegistry.class, JacksonAutoConfiguration.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class NotificacaoEventosTest {
+
+    private static final Pattern EVENTO = Pattern.compile("id:(\\S+)\nevent:notificacao\ndata:(\\{.*})\n");
+    private static final Pattern ID = Pattern.compile("\"id\":(\\d+)");
+
+    @Autowired
+    private NotificacaoService notificacaoService;
+
+    @Autowired
+    private NotificacaoEventos notificacaoEventos;
+
+    @Autowired
+    private NotificacaoRepository notificacaoRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders
+                .standaloneSetup(new NotificacoesController(null, notificacaoService, notificacaoEventos))
+                .setCustomArgumentResolvers(new AuthenticationPrincipalArgumentResolver())
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void leituraChegaAoStreamEReconexaoRetomaDoCursor() throws Exception {
+        Usuario usuario = usuario();
+        LocalDateTime base = LocalDateTime.of(2025, 4, 1, 9, 0);
+        Notificacao primeira = notificacao(usuario, "a", base);
+        Notificacao segunda = notificacao(usuario, "b", base.plusMinutes(1));
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken(usuario.getId(), null));
+
+        MvcResult aberto = mockMvc.perform(get("/api/notificacoes/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        aguardar(aberto, 0);
+
+        notificacaoService.marcarComoLidas(usuario.getId(), List.of(primeira.getId()));
+        List<String[]> recebidos = aguardar(aberto, 1);
+        assertEquals(String.valueOf(primeira.getId()), recebidos.get(0)[1]);
+        String cursor = recebidos.get(0)[0];
+
+        notificacaoService.marcarComoLidas(usuario.getId(), null);
+        recebidos = aguardar(aberto, 2);
+        assertEquals(String.valueOf(segunda.getId()), recebidos.get(1)[1]);
+
+        MvcResult retomado = mockMvc.perform(get("/api/notificacoes/stream").header("Last-Event-ID", cursor))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        List<String[]> retomados = aguardar(retomado, 1);
+        assertEquals(1, retomados.size());
+        assertEquals(String.valueOf(segunda.getId()), retomados.get(0)[1]);
+        assertFalse(retomado.getResponse().getContentAsString().contains(":conectado"));
+    }
+
+    // Os eventos saem na thread da faixa do usuário: espera a conexão ser aceita e a quantidade
+    // de eventos completos chegar. Devolve pares (cursor, id da notificação).
+    private List<String[]> aguardar(MvcResult resultado, int quantidade) throws Exception {
+        long limite = System.currentTimeMillis() + 5_000;
+        while (true) {
+            String conteudo = resultado.getResponse().getContentAsString();
+            List<String[]> eventos = EVENTO.matcher(conteudo).results()
+                    .map(evento -> new String[]{evento.group(1), id(evento.group(2))})
+                    .toList();
+            if (!conteudo.isEmpty() && eventos.size() >= quantidade) {
+                return eventos;
+            }
+            assertTrue(System.currentTimeMillis() < limite, "Eventos esperados: " + quantidade + "; stream: " + conteudo);
+            Thread.sleep(20);
+        }
+    }
+
+    private static String id(String dados) {
+        Matcher id = ID.matcher(dados);
+        assertTrue(id.find(), dados);
+        return id.group(1);
+    }
+
+    private Notificacao notificacao(Usuario usuario, String mensagem, LocalDateTime atualizadaEm) {
+        Notificacao notificacao = new Notificacao();
+        notificacao.setUsuario(usuario);
+        notificacao.setTipo("APP_NOTIFICACAO");
+        notificacao.setMensagem(mensagem);
+        notificacao.setCriadaEm(atualizadaEm);
+        notificacao.setAtualizadaEm(atualizadaEm);
+        return notificacaoRepository.save(notificacao);
+    }
+
+    private Usuario usuario() {
+        Usuario usuario = new Usuario();
+        String email = UUID.randomUUID() + "@teste.com";
+        usuario.setNomeUsuario(email);
+        usuario.setEmail(email);
+        return usuarioRepository.save(usuario);
+    }
+}
@@ -0,0 +1,117 @@
+package com.unihub.backend.service;
+
+import com.unihub.backend.config.HibernateConfig;
+import com.unihub.backend.dto.compartilhamento.NotificacaoResponse;
+import com.unihub.backend.dto.notificacoes.NotificacaoPaginaResponse;
+import com.unihub.backend.model.Notificacao;
+import com.unihub.backend.model.Usuario;
+import com.unihub.backend.repository.NotificacaoRepository;
+import com.unihub.backend.repository.UsuarioRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DataJpaTest
+@Import({HibernateConfig.class, NotificacaoService.class, ContadorNotificacoes.class, NotificacaoEventos.class,
+        NotificacaoCanalPostgres.class, SimpleMeterRegistry.class, JacksonAutoConfiguration.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class NotificacaoHistoricoPaginadoTest {
+
+    @Autowired
+    private NotificacaoService notificacaoService;
+
+    @Autowired
+    private NotificacaoRepository notificacaoRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Test
+    void cursorPercorreHistoricoSemRepetirNemPular() {
+        Usuario usuario = usuario("pagina@teste.com");
+        LocalDateTime base = LocalDateTime.of(2025, 4, 1, 9, 0);
+        // Duas com o mesmo atualizadaEm para exercitar o desempate por id.
+        for (int i = 0; i < 5; i++) {
+            notificacao(usuario, "n" + i, base.plusMinutes(i == 4 ? 3 : i));
+        }
+
+        List<Long> vistos = new ArrayList<>();
+        String cursor = null;
+        int paginas = 0;
+        do {
+            NotificacaoPaginaResponse pagina = notificacaoService.listarPagina(usuario.getId(), cursor, 2);
+            pagina.itens().stream().map(NotificacaoResponse::getId).forEach(vistos::add);
+            cursor = pagina.proximoCursor();
+            paginas++;
+        } while (cursor != null);
+
+        assertEquals(3, paginas);
+        assertEquals(5, vistos.size());
+        assertEquals(5, vistos.stream().distinct().count());
+        List<NotificacaoResponse> todas = notificacaoService.listarPagina(usuario.getId(), null, 10).itens();
+        for (int i = 1; i < todas.size(); i++) {
+            NotificacaoResponse anterior = todas.get(i - 1);
+            NotificacaoResponse atual = todas.get(i);
+            assertFalse(atual.getAtualizadaEm().isAfter(anterior.getAtualizadaEm()));
+        }
+        assertEquals(todas.stream().map(NotificacaoResponse::getId).toList(), vistos);
+    }
+
+    @Test
+    void contadorAcompanhaMarcacaoEmLote() {
+        Usuario usuario = usuario("contador@teste.com");
+        LocalDateTime base = LocalDateTime.of(2025, 4, 1, 9, 0);
+        Notificacao primeira = notificacao(usuario, "a", base);
+        Notificacao segunda = notificacao(usuario, "b", base.plusMinutes(1));
+        notificacao(usuario, "c", base.plusMinutes(2));
+
+        assertEquals(3, notificacaoService.contarNaoLidas(usuario.getId()));
+
+        notificacaoService.marcarComoLidas(usuario.getId(), List.of(primeira.getId(), segunda.getId()));
+        assertEquals(1, notificacaoService.contarNaoLidas(usuario.getId()));
+
+        notificacaoService.marcarComoLidas(usuario.getId(), null);
+        assertEquals(0, notificacaoService.contarNaoLidas(usuario.getId()));
+        assertEquals(0, notificacaoRepository.countByUsuarioIdAndLidaFalse(usuario.getId()));
+    }
+
+    @Test
+    void cursorInvalidoRetornaBadRequest() {
+        Usuario usuario = usuario("cursor@teste.com");
+        assertNull(notificacaoService.listarPagina(usuario.getId(), null, 5).proximoCursor());
+        assertThrows(ResponseStatusException.class,
+                () -> notificacaoService.listarPagina(usuario.getId(), "nao-e-cursor", 5));
+    }
+
+    private Notificacao notificacao(Usuario usuario, String mensagem, LocalDateTime atualizadaEm) {
+        Notificacao notificacao = new Notificacao();
+        notificacao.setUsuario(usuario);
+        notificacao.setTipo("APP_NOTIFICACAO");
+        notificacao.setMensagem(mensagem);
+        notificacao.setCriadaEm(atualizadaEm);
+        notificacao.setAtualizadaEm(atualizadaEm);
+        return notificacaoRepository.save(notificacao);
+    }
+
+    private Usuario usuario(String email) {
+        Usuario usuario = new Usuario();
+        usuario.setNomeUsuario(email);
+        usuario.setEmail(email);
+        return usuarioRepository.save(usuario);
+    }
+}
@@ -0,0 +1,71 @@
+package com.unihub.backend.service;
+
+import com.unihub.backend.config.HibernateConfig;
+import com.unihub.backend.dto.notificacoes.NotificacaoPendente;
+import com.unihub.backend.model.Usuario;
+import com.unihub.backend.repository.NotificacaoRepository;
+import com.unihub.backend.repository.UsuarioRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Com uma única conexão no pool, o lote gravado depois do commit não pode depender de uma
+ * segunda conexão enquanto a transação de negócio ainda segura a primeira.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:dispatcher-conexoes;DB_CLOSE_DELAY=-1",
+        "spring.datasource.hikari.maximum-pool-size=1",
+        "spring.datasource.hikari.connection-timeout=250"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({HibernateConfig.class, NotificationDispatcher.class, ContadorNotificacoes.class, NotificacaoEventos.class,
+        NotificacaoCanalPostgres.class, SimpleMeterRegistry.class, JacksonAutoConfiguration.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class NotificationDispatcherConexoesTest {
+
+    @Autowired
+    private NotificationDispatcher dispatcher;
+
+    @Autowired
+    private NotificacaoRepository notificacaoRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void loteDoCommitEGravadoComPoolDeUmaConexao() throws Exception {
+        Usuario usuario = new Usuario();
+        String email = UUID.randomUUID() + "@teste.com";
+        usuario.setNomeUsuario(email);
+        usuario.setEmail(email);
+        Long usuarioId = usuarioRepository.save(usuario).getId();
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            usuarioRepository.findById(usuarioId).orElseThrow();
+            dispatcher.enviar(new NotificacaoPendente(usuarioId, "APP_NOTIFICACAO", "GRUPO", null,
+                    "Grupo", "Você foi adicionado ao grupo", null, null, NotificacaoPendente.Pendencia.SE_NOVA));
+        });
+
+        long limite = System.currentTimeMillis() + 5_000;
+        while (notificacaoRepository.count() == 0) {
+            assertTrue(System.currentTimeMillis() < limite, "Lote de notificações não foi gravado");
+            Thread.sleep(20);
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.unihub.backend.service;
+
+import com.unihub.backend.dto.notificacoes.NotificacaoPendente;
+import com.unihub.backend.model.Notificacao;
+import com.unihub.backend.model.Usuario;
+import com.unihub.backend.repository.ConviteCompartilhamentoRepository;
+import com.unihub.backend.repository.NotificacaoRepository;
+import com.unihub.backend.repository.UsuarioRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationDispatcherTest {
+
+    @Mock
+    private NotificacaoRepository notificacaoRepository;
+    @Mock
+    private UsuarioRepository usuarioRepository;
+    @Mock
+    private ConviteCompartilhamentoRepository conviteRepository;
+    @Mock
+    private ContadorNotificacoes contadorNotificacoes;
+    @Mock
+    private NotificacaoEventos notificacaoEventos;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private NotificationDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        dispatcher = new NotificationDispatcher(notificacaoRepository, usuarioRepository, conviteRepository,
+                contadorNotificacoes, notificacaoEventos, transactionManager, 10);
+    }
+
+    @Test
+    void persistirAtualizaExistentesEInsereNovasComUmaUnicaConsulta() {
+        Usuario existenteUsuario = usuario(1L);
+        Notificacao existente = new Notificacao();
+        existente.setId(100L);
+        existente.setUsuario(existenteUsuario);
+        existente.setTipo("APP_NOTIFICACAO");
+        existente.setCategoria("TAREFA_COMENTARIO");
+        existente.setReferenciaId(10L);
+        existente.setLida(true);
+        existente.setInteracaoPendente(false);
+
+        when(notificacaoRepository.findExistentesParaLote(anyCollection(), anyCollection(), anyCollection()))
+                .thenReturn(List.of(existente));
+        when(usuarioRepository.getReferenceById(2L)).thenReturn(usuario(2L));
+
+        dispatcher.persistir(List.of(
+                pendente(1L, "Comentário antigo"),
+                pendente(2L, "Novo comentário"),
+                pendente(1L, "Comentário atualizado")));
+
+        verify(notificacaoRepository, times(1))
+                .findExistentesParaLote(anyCollection(), anyCollection(), anyCollection());
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Notificacao>> captor = ArgumentCaptor.forClass(List.class);
+        verify(notificacaoRepository).saveAll(captor.capture());
+        List<Notificacao> gravadas = new ArrayList<>(captor.getValue());
+        assertEquals(2, gravadas.size());
+
+        Notificacao atualizada = gravadas.get(0);
+        assertSame(existente, atualizada);
+        assertEquals("Comentário atualizado", atualizada.getMensagem());
+        assertTrue(atualizada.isLida());
+        assertFalse(atualizada.isInteracaoPendente());
+
+        Notificacao nova = gravadas.get(1);
+        assertEquals(2L, nova.getUsuario().getId());
+        assertEquals("Novo comentário", nova.getMensagem());
+        assertFalse(nova.isLida());
+        assertTrue(nova.isInteracaoPendente());
+        assertNotNull(nova.getCriadaEm());
+        verify(contadorNotificacoes).recalcular(List.of(1L, 2L));
+        verify(notificacaoEventos).publicar(captor.getValue());
+    }
+
+    @Test
+    void pendentesSemReferenciaIguaisNoMesmoLoteViramUmaSoLinha() {
+        when(usuarioRepository.getReferenceById(1L)).thenReturn(usuario(1L));
+
+        dispatcher.persistir(List.of(
+                semReferencia(1L, "Você foi adicionado ao grupo"),
+                semReferencia(1L, "Você foi adicionado ao grupo"),
+                semReferencia(1L, "Convite aceito")));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Notificacao>> captor = ArgumentCaptor.forClass(List.class);
+        verify(notificacaoRepository).saveAll(captor.capture());
+        List<Notificacao> gravadas = captor.getValue();
+        assertEquals(2, gravadas.size());
+        assertEquals("Você foi adicionado ao grupo", gravadas.get(0).getMensagem());
+        assertEquals("Convite aceito", gravadas.get(1).getMensagem());
+    }
+
+    @Test
+    void conflitoNaChaveUnicaRefazOLoteUmaNotificacaoPorVez() {
+        when(notificacaoRepository.findExistentesParaLote(anyCollection(), anyCollection(), anyCollection()))
+                .thenReturn(List.of());
+        when(usuarioRepository.getReferenceById(1L)).thenReturn(usuario(1L));
+        when(usuarioRepository.getReferenceById(2L)).thenReturn(usuario(2L));
+        when(notificacaoRepository.saveAll(any()))
+                .thenThrow(new DataIntegrityViolationException("uk_notificacoes_usuario_chave"))
+                .thenAnswer(invocacao -> invocacao.getArgument(0));
+
+        dispatcher.enviar(List.of(pendente(1L, "Para o usuário 1"), pendente(2L, "Para o usuário 2")));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Notificacao>> captor = ArgumentCaptor.forClass(List.class);
+        verify(notificacaoRepository, times(3)).saveAll(captor.capture());
+        List<List<Notificacao>> chamadas = captor.getAllValues();
+        assertEquals(2, chamadas.get(0).size());
+        assertEquals(1L, chamadas.get(1).get(0).getUsuario().getId());
+        assertEquals(2L, chamadas.get(2).get(0).getUsuario().getId());
+        verify(notificacaoEventos, times(2)).publicar(anyCollection());
+    }
+
+    private NotificacaoPendente semReferencia(Long usuarioId, String mensagem) {
+        return new NotificacaoPendente(usuarioId, "APP_NOTIFICACAO", "GRUPO", null,
+                "Grupo", mensagem, null, null, NotificacaoPendente.Pendencia.SE_NOVA);
+    }
+
+    private NotificacaoPendente pendente(Long usuarioId, String mensagem) {
+        return new NotificacaoPendente(usuarioId, "APP_NOTIFICACAO", "TAREFA_COMENTARIO", 10L,
+                "Novo comentário", mensagem, null, null, NotificacaoPendente.Pendencia.SE_NOVA);
+    }
+
+    private Usuario usuario(Long id) {
+        Usuario usuario = new Usuario();
+        usuario.setId(id);
+        return usuario;
+    }
+}
@@ -0,0 +1,67 @@
+package com.unihub.backend.service;
+
+import com.unihub.backend.dto.notificacoes.PreferenciasNotificacao;
+import com.unihub.backend.model.NotificacaoConfiguracao;
+import com.unihub.backend.repository.NotificacaoConfiguracaoRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PreferenciasNotificacaoCacheTest {
+
+    @Mock
+    private NotificacaoConfiguracaoRepository repository;
+
+    private SimpleMeterRegistry registry;
+    private PreferenciasNotificacaoCache cache;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        cache = new PreferenciasNotificacaoCache(repository, registry, 100, 30);
+    }
+
+    @Test
+    void consultaOBancoUmaVezAteSerInvalidado() {
+        NotificacaoConfiguracao configuracao = new NotificacaoConfiguracao();
+        configuracao.setInclusoEmGrupo(false);
+        NotificacaoConfiguracao alterada = new NotificacaoConfiguracao();
+        alterada.setInclusoEmGrupo(true);
+        when(repository.findByUsuarioId(1L))
+                .thenReturn(Optional.of(configuracao))
+                .thenReturn(Optional.of(alterada));
+
+        for (int i = 0; i < 40; i++) {
+            assertFalse(cache.obter(1L).inclusoEmGrupo());
+        }
+        cache.invalidar(1L);
+
+        assertTrue(cache.obter(1L).inclusoEmGrupo());
+        verify(repository, times(2)).findByUsuarioId(1L);
+        assertEquals(39.0, registry.get("cache.gets").tag("cache", "notificacao.preferencias")
+                .tag("result", "hit").functionCounter().count());
+    }
+
+    @Test
+    void usuarioSemConfiguracaoRecebePadrao() {
+        when(repository.findByUsuarioId(2L)).thenReturn(Optional.empty());
+
+        assertSame(PreferenciasNotificacao.PADRAO, cache.obter(2L));
+        assertSame(PreferenciasNotificacao.PADRAO, cache.obter(2L));
+        verify(repository, times(1)).findByUsuarioId(2L);
+    }
+}
@@ -0,0 +1,139 @@
+package com.unihub.backend.service;
+
+import com.unihub.backend.config.HibernateConfig;
+import com.unihub.backend.dto.planejamento.ColunaPlanejamentoDetalheResponse;
+import com.unihub.backend.dto.planejamento.QuadroPlanejamentoDetalhesResponse;
+import com.unihub.backend.dto.planejamento.TarefaPlanejamentoDetalheResponse;
+import com.unihub.backend.model.ColunaPlanejamento;
+import com.unihub.backend.model.Contato;
+import com.unihub.backend.model.QuadroPlanejamento;
+import com.unihub.backend.model.TarefaPlanejamento;
+import com.unihub.backend.model.Usuario;
+import com.unihub.backend.model.enums.EstadoPlanejamento;
+import com.unihub.backend.repository.ColunaPlanejamentoRepository;
+import com.unihub.backend.repository.ContatoRepository;
+import com.unihub.backend.repository.QuadroPlanejamentoRepository;
+import com.unihub.backend.repository.TarefaPlanejamentoRepository;
+import com.unihub.backend.repository.UsuarioRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({HibernateConfig.class, QuadroPlanejamentoService.class, ConsultasDaRequisicao.class, NotificationDispatcher.class,
+        ContadorNotificacoes.class, NotificacaoEventos.class, NotificacaoCanalPostgres.class,
+        PreferenciasNotificacaoCache.class, SimpleMeterRegistry.class,
+        JacksonAutoConfiguration.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class QuadroPlanejamentoDetalhesConsultasTest {
+
+    // quadro + colunas + tarefas + responsáveis
+    private static final long CONSULTAS_ESPERADAS = 4;
+
+    @Autowired
+    private QuadroPlanejamentoService service;
+
+    @Autowired
+    private QuadroPlanejamentoRepository quadroRepository;
+
+    @Autowired
+    private ColunaPlanejamentoRepository colunaRepository;
+
+    @Autowired
+    private TarefaPlanejamentoRepository tarefaRepository;
+
+    @Autowired
+    private ContatoRepository contatoRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void detalhesUsaNumeroFixoDeConsultas() {
+        Usuario dono = usuario("dono-detalhes@teste.com");
+        Usuario responsavel = usuario("resp-detalhes@teste.com");
+        Contato contato = contatoRepository.save(contato(dono, responsavel));
+
+        Long pequeno = quadroComTarefas(dono, contato, 1, 1);
+        Long grande = quadroComTarefas(dono, contato, 4, 6);
+
+        assertEquals(CONSULTAS_ESPERADAS, consultasPara(pequeno, dono.getId()));
+        assertEquals(CONSULTAS_ESPERADAS, consultasPara(grande, dono.getId()));
+
+        QuadroPlanejamentoDetalhesResponse detalhes = service.detalhes(grande, dono.getId());
+        assertEquals(3, detalhes.getColunasEmAndamento().size());
+        assertEquals(1, detalhes.getColunasConcluidas().size());
+        ColunaPlanejamentoDetalheResponse coluna = detalhes.getColunasEmAndamento().get(0);
+        assertEquals("INICIADA", coluna.status());
+        assertEquals(6, coluna.tarefas().size());
+        TarefaPlanejamentoDetalheResponse tarefa = coluna.tarefas().get(0);
+        assertEquals(List.of(responsavel.getId()), tarefa.responsaveisIds());
+        assertEquals(String.valueOf(responsavel.getId()), tarefa.responsaveis());
+    }
+
+    private long consultasPara(Long quadroId, Long usuarioId) {
+        Statistics estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estatisticas.clear();
+        service.detalhes(quadroId, usuarioId);
+        return estatisticas.getPrepareStatementCount();
+    }
+
+    private Long quadroComTarefas(Usuario dono, Contato responsavel, int colunas, int tarefasPorColuna) {
+        QuadroPlanejamento quadro = new QuadroPlanejamento();
+        quadro.setTitulo("Quadro " + colunas);
+        quadro.setUsuario(usuarioRepository.getReferenceById(dono.getId()));
+        quadro = quadroRepository.save(quadro);
+
+        for (int c = 1; c <= colunas; c++) {
+            ColunaPlanejamento coluna = new ColunaPlanejamento();
+            coluna.setTitulo("Coluna " + c);
+            coluna.setOrdem(c);
+            coluna.setEstado(c == colunas && colunas > 1 ? EstadoPlanejamento.CONCLUIDO : EstadoPlanejamento.EM_ANDAMENTO);
+            coluna.setQuadro(quadro);
+            coluna = colunaRepository.save(coluna);
+
+            List<TarefaPlanejamento> tarefas = new ArrayList<>();
+            for (int t = 1; t <= tarefasPorColuna; t++) {
+                TarefaPlanejamento tarefa = new TarefaPlanejamento();
+                tarefa.setTitulo("Tarefa " + c + "." + t);
+                tarefa.setColuna(coluna);
+                tarefa.setResponsaveis(new LinkedHashSet<>(List.of(responsavel)));
+                tarefas.add(tarefa);
+            }
+            tarefaRepository.saveAll(tarefas);
+        }
+        return quadro.getId();
+    }
+
+    private Usuario usuario(String email) {
+        Usuario usuario = new Usuario();
+        usuario.setNomeUsuario(email);
+        usuario.setEmail(email);
+        return usuarioRepository.save(usuario);
+    }
+
+    private Contato contato(Usuario owner, Usuario usuario) {
+        Contato contato = new Contato(usuario.getNomeUsuario(), usuario.getEmail());
+        contato.setOwnerId(owner.getId());
+        contato.setIdContato(usuario.getId());
+        contato.setPendente(false);
+        return contato;
+    }
+}
@@ -1,9 +1,9 @@
 package com.unihub.backend.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.unihub.backend.dto.notificacoes.NotificacaoPendente;
 import com.unihub.backend.dto.planejamento.QuadroPlanejamentoRequest;
 import com.unihub.backend.model.Contato;
-import com.unihub.backend.model.Notificacao;
 import com.unihub.backend.model.NotificacaoConfiguracao;
 import com.unihub.backend.model.QuadroPlanejamento;
 import com.unihub.backend.model.Usuario;
@@ -12,25 +12,29 @@ import com.unihub.backend.repository.ContatoRepository;
 import com.unihub.backend.repository.DisciplinaRepository;
 import com.unihub.backend.repository.GrupoRepository;
 import com.unihub.backend.repository.NotificacaoConfiguracaoRepository;
-import com.unihub.backend.repository.NotificacaoRepository;
 import com.unihub.backend.repository.QuadroPlanejamentoRepository;
 import com.unihub.backend.repository.TarefaComentarioRepository;
 import com.unihub.backend.repository.TarefaNotificacaoRepository;
 import com.unihub.backend.repository.TarefaPlanejamentoRepository;
 import com.unihub.backend.repository.UsuarioRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
@@ -57,7 +61,7 @@ class QuadroPlanejamentoServiceTest {
     @Mock
     private TarefaNotificacaoRepository tarefaNotificacaoRepository;
     @Mock
-    private NotificacaoRepository notificacaoRepository;
+    private NotificationDispatcher notificationDispatcher;
     @Mock
     private NotificacaoConfiguracaoRepository notificacaoConfiguracaoRepository;
     @Mock
@@ -66,6 +70,14 @@ class QuadroPlanejamentoServiceTest {
     @InjectMocks
     private QuadroPlanejamentoService quadroPlanejamentoService;
 
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(quadroPlanejamentoService, "consultas",
+                new ConsultasDaRequisicao(usuarioRepository, contatoRepository, new SimpleMeterRegistry()));
+        ReflectionTestUtils.setField(quadroPlanejamentoService, "preferenciasNotificacao",
+                new PreferenciasNotificacaoCache(notificacaoConfiguracaoRepository, new SimpleMeterRegistry(), 100, 30));
+    }
+
     @Test
     void criarQuadroComContatoDisparaNotificacaoParaNovoParticipante() throws Exception {
         Long ownerId = 1L;
@@ -93,13 +105,8 @@ class QuadroPlanejamentoServiceTest {
 
         when(notificacaoConfiguracaoRepository.findByUsuarioId(participanteId))
                 .thenReturn(Optional.of(criarConfiguracao(true)));
-        when(notificacaoRepository.findByUsuarioIdAndTipoAndCategoriaAndReferenciaId(eq(participanteId),
-                eq("APP_NOTIFICACAO"), eq("QUADRO_PLANEJAMENTO"), any(Long.class)))
-                .thenReturn(Optional.empty());
         when(objectMapper.writeValueAsString(any()))
                 .thenReturn("{\"action\":\"OPEN_QUADRO\",\"quadroId\":55}");
-        when(notificacaoRepository.save(any(Notificacao.class)))
-                .thenAnswer(invocation -> invocation.getArgument(0));
         when(quadroPlanejamentoRepository.save(any(QuadroPlanejamento.class)))
                 .thenAnswer(invocation -> {
                     QuadroPlanejamento quadro = invocation.getArgument(0);
@@ -109,18 +116,21 @@ class QuadroPlanejamentoServiceTest {
 
         quadroPlanejamentoService.criar(request, ownerId);
 
-        ArgumentCaptor<Notificacao> captor = ArgumentCaptor.forClass(Notificacao.class);
-        verify(notificacaoRepository).save(captor.capture());
-        Notificacao notificacaoSalva = captor.getValue();
-
-        assertEquals(participanteId, notificacaoSalva.getUsuario().getId());
-        assertEquals(55L, notificacaoSalva.getReferenciaId());
-        assertEquals("APP_NOTIFICACAO", notificacaoSalva.getTipo());
-        assertEquals("QUADRO_PLANEJAMENTO", notificacaoSalva.getCategoria());
-        assertEquals("Quadro compartilhado", notificacaoSalva.getTitulo());
-        assertEquals("Você foi adicionado ao quadro \"Quadro Teste\".", notificacaoSalva.getMensagem());
-        assertEquals("{\"action\":\"OPEN_QUADRO\",\"quadroId\":55}", notificacaoSalva.getMetadataJson());
-        assertNotNull(notificacaoSalva.getCriadaEm());
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<NotificacaoPendente>> captor = ArgumentCaptor.forClass(Collection.class);
+        verify(notificationDispatcher).enviar(captor.capture());
+        List<NotificacaoPendente> enviadas = List.copyOf(captor.getValue());
+        assertEquals(1, enviadas.size());
+        NotificacaoPendente notificacao = enviadas.get(0);
+
+        assertEquals(participanteId, notificacao.usuarioId());
+        assertEquals(55L, notificacao.referenciaId());
+        assertEquals("APP_NOTIFICACAO", notificacao.tipo());
+        assertEquals("QUADRO_PLANEJAMENTO", notificacao.categoria());
+        assertEquals("Quadro compartilhado", notificacao.titulo());
+        assertEquals("Você foi adicionado ao quadro \"Quadro Teste\".", notificacao.mensagem());
+        assertEquals("{\"action\":\"OPEN_QUADRO\",\"quadroId\":55}", notificacao.metadataJson());
+        assertEquals(NotificacaoPendente.Pendencia.SE_NOVA, notificacao.pendencia());
     }
 
     @Test
@@ -151,7 +161,7 @@ class QuadroPlanejamentoServiceTest {
 
         quadroPlanejamentoService.atualizar(quadroId, request, ownerId);
 
-        verifyNoInteractions(notificacaoRepository);
+        verify(notificationDispatcher, never()).enviar(anyCollection());
         verifyNoInteractions(notificacaoConfiguracaoRepository);
     }
 
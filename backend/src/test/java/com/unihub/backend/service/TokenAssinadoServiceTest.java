@@ -0,0 +1,129 @@
+package com.unihub.backend.service;
+
+import com.unihub.backend.model.TokenRevogado;
+import com.unihub.backend.repository.TokenRevogadoRepository;
+import com.unihub.backend.service.TokenRevogacaoCanalPostgres.Revogacao;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TokenAssinadoServiceTest {
+
+    private TokenAssinadoService service;
+    private TokenRevogadoRepository repository;
+    private TokenRevogacaoCanalPostgres canal;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(TokenRevogadoRepository.class);
+        canal = mock(TokenRevogacaoCanalPostgres.class);
+        service = new TokenAssinadoService(repository, canal);
+        ReflectionTestUtils.setField(service, "habilitado", true);
+        ReflectionTestUtils.setField(service, "segredoConfigurado", "c2VncmVkby1kZS10ZXN0ZXMtY29tLXRyaW50YS1lLWRvaXMtYnl0ZXM");
+        service.inicializar();
+    }
+
+    @Test
+    void tokenEmitidoEhValidadoSemConsultaAoBanco() {
+        String token = service.emitir(42L, Duration.ofDays(7));
+
+        assertTrue(service.pareceTokenAssinado(token));
+        TokenAssinadoService.TokenValidado validado = service.validar(token);
+        assertNotNull(validado);
+        assertEquals(42L, validado.usuarioId());
+    }
+
+    @Test
+    void tokenAdulteradoEhRejeitado() {
+        String token = service.emitir(42L, Duration.ofDays(7));
+        String adulterado = token.replaceFirst("^v1\\.42\\.", "v1.43.");
+
+        assertNull(service.validar(adulterado));
+    }
+
+    @Test
+    void tokenExpiradoEhRejeitado() {
+        String token = service.emitir(42L, Duration.ofSeconds(-1));
+
+        assertNull(service.validar(token));
+    }
+
+    @Test
+    void revogacaoIndividualEPorUsuarioInvalidamTokens() {
+        String logout = service.emitir(1L, Duration.ofDays(7));
+        String outro = service.emitir(2L, Duration.ofDays(7));
+
+        service.revogar(logout);
+        service.revogarTodosDoUsuario(2L);
+
+        assertNull(service.validar(logout));
+        assertNull(service.validar(outro));
+    }
+
+    @Test
+    void revogacoesNaoSaoDespejadasPorTamanho() {
+        String logout = service.emitir(1L, Duration.ofDays(7));
+        String doExcluido = service.emitir(2L, Duration.ofDays(7));
+        service.revogar(logout);
+        service.revogarTodosDoUsuario(2L);
+
+        // Bem acima do antigo limite de 10000 entradas por cache.
+        for (long i = 0; i < 12_000; i++) {
+            service.revogar(service.emitir(100L + i, Duration.ofDays(7)));
+            service.revogarTodosDoUsuario(100_000L + i);
+        }
+
+        assertNull(service.validar(logout));
+        assertNull(service.validar(doExcluido));
+    }
+
+    @Test
+    void tokenDoMesmoSegundoDaRevogacaoDoUsuarioTambemCai() {
+        String token = service.emitir(3L, Duration.ofDays(7));
+
+        service.revogarTodosDoUsuario(3L);
+
+        assertNull(service.validar(token));
+        ArgumentCaptor<TokenRevogado> salvo = ArgumentCaptor.forClass(TokenRevogado.class);
+        verify(repository).save(salvo.capture());
+        assertEquals(salvo.getValue().getRevogadoEm().truncatedTo(ChronoUnit.SECONDS), salvo.getValue().getRevogadoEm());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void revogacoesDeOutrasInstanciasChegamPeloCanalEPeloBanco() {
+        String logout = service.emitir(1L, Duration.ofDays(7));
+        String outro = service.emitir(2L, Duration.ofDays(7));
+        String jti = service.validar(logout).jti();
+        when(canal.disponivel()).thenReturn(true);
+        when(repository.findByExpiraEmAfter(any())).thenReturn(List.of(
+                new TokenRevogado(jti, null, Instant.now(), Instant.now().plus(Duration.ofDays(7)))));
+
+        service.iniciarRevogacoesCompartilhadas();
+        ArgumentCaptor<Consumer<Revogacao>> receptor = ArgumentCaptor.forClass(Consumer.class);
+        ArgumentCaptor<Runnable> aoConectar = ArgumentCaptor.forClass(Runnable.class);
+        verify(canal).escutar(receptor.capture(), aoConectar.capture());
+        aoConectar.getValue().run();
+        receptor.getValue().accept(TokenRevogacaoCanalPostgres.ler(
+                TokenRevogacaoCanalPostgres.payload(new Revogacao(null, 2L, Instant.now()))));
+
+        assertNull(service.validar(logout));
+        assertNull(service.validar(outro));
+    }
+}